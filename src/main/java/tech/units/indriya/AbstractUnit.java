@@ -34,6 +34,7 @@ import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 
 import javax.measure.Dimension;
 import javax.measure.IncommensurableException;
@@ -52,6 +53,7 @@ import tech.units.indriya.function.AddConverter;
 import tech.units.indriya.function.Calculus;
 import tech.units.indriya.function.MultiplyConverter;
 import tech.units.indriya.function.RationalNumber;
+import tech.units.indriya.internal.format.FormatCache;
 import tech.units.indriya.internal.function.Calculator;
 import tech.units.indriya.spi.DimensionalModel;
 import tech.units.indriya.unit.AlternateUnit;
@@ -306,7 +308,10 @@ public abstract class AbstractUnit<Q extends Quantity<Q>>
 	}
 
 	protected void setSymbol(String s) {
+		if (Objects.equals(this.symbol, s))
+			return;
 		this.symbol = s;
+		FormatCache.invalidateAll();
 	}
 
 	@Override
@@ -0,0 +1,132 @@
+/*
+ * Units of Measurement Reference Implementation
+ * Copyright (c) 2005-2022, Jean-Marie Dautelle, Werner Keil, Otavio Santana.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions
+ *    and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of JSR-385, Indriya nor the names of their contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package tech.units.indriya;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import javax.measure.Dimension;
+import javax.measure.Unit;
+
+import tech.units.indriya.internal.format.FormatCache;
+
+/**
+ * Hash indexes over the units of a {@link AbstractSystemOfUnits}, by string representation, name and symbol (exact
+ * and case-insensitive), and by dimension.
+ * <p>
+ * An index is a snapshot of the units and their string representations at the time it was built. It is replaced,
+ * whenever the number of units changes, or a label, alias or symbol changes (see {@link FormatCache#generation()}).
+ * Changes, which neither alter the number of units nor any label, are not detected, so a lookup missing the index
+ * must fall back to the units themselves.
+ * </p>
+ *
+ * @version 1.0
+ * @since 2.1.4
+ */
+final class UnitIndex {
+	private final int size;
+	private final long generation;
+	private final Map<String, Unit<?>> byString = new HashMap<>();
+	private final Map<String, Unit<?>> byName = new HashMap<>();
+	private final Map<String, Unit<?>> byNameIgnoreCase = new HashMap<>();
+	private final Map<String, Unit<?>> bySymbol = new HashMap<>();
+	private final Map<String, Unit<?>> bySymbolIgnoreCase = new HashMap<>();
+	private final Map<Dimension, Set<Unit<?>>> byDimension = new HashMap<>();
+
+	private UnitIndex(Collection<Unit<?>> units, long generation) {
+		this.size = units.size();
+		this.generation = generation;
+		for (Unit<?> unit : units) {
+			byString.putIfAbsent(unit.toString(), unit);
+			final String name = unit.getName();
+			if (name != null) {
+				byName.putIfAbsent(name, unit);
+				byNameIgnoreCase.putIfAbsent(fold(name), unit);
+			}
+			final String symbol = unit.getSymbol();
+			if (symbol != null) {
+				bySymbol.putIfAbsent(symbol, unit);
+				bySymbolIgnoreCase.putIfAbsent(fold(symbol), unit);
+			}
+			final Dimension dimension = unit.getDimension();
+			if (dimension != null) {
+				byDimension.computeIfAbsent(dimension, d -> new HashSet<>()).add(unit);
+			}
+		}
+		byDimension.replaceAll((d, set) -> Collections.unmodifiableSet(set));
+	}
+
+	/**
+	 * Returns an index of the given units, reusing the given index if it is still current.
+	 */
+	static UnitIndex of(Collection<Unit<?>> units, UnitIndex index) {
+		final long generation = FormatCache.generation();
+		return index != null && index.size == units.size() && index.generation == generation ? index
+				: new UnitIndex(units, generation);
+	}
+
+	Unit<?> getUnit(String string) {
+		return byString.get(string);
+	}
+
+	Unit<?> getUnitByName(String name, boolean ignoreCase) {
+		return get(byName, byNameIgnoreCase, name, ignoreCase);
+	}
+
+	Unit<?> getUnitBySymbol(String symbol, boolean ignoreCase) {
+		return get(bySymbol, bySymbolIgnoreCase, symbol, ignoreCase);
+	}
+
+	Set<Unit<?>> getUnits(Dimension dimension) {
+		return byDimension.getOrDefault(dimension, Collections.emptySet());
+	}
+
+	private static Unit<?> get(Map<String, Unit<?>> exact, Map<String, Unit<?>> folded, String string,
+			boolean ignoreCase) {
+		final Unit<?> unit = exact.get(string);
+		return unit != null || !ignoreCase ? unit : folded.get(fold(string));
+	}
+
+	/**
+	 * Folds the case of the given string, such that {@code a.equalsIgnoreCase(b)} if and only if
+	 * {@code fold(a).equals(fold(b))}.
+	 */
+	private static String fold(String string) {
+		final char[] chars = string.toCharArray();
+		for (int i = 0; i < chars.length; i++) {
+			chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+		}
+		return new String(chars);
+	}
+}
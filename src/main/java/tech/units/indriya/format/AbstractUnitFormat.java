@@ -31,12 +31,14 @@ package tech.units.indriya.format;
 
 import java.io.IOException;
 import java.text.ParsePosition;
+import java.util.function.BiFunction;
 
 import javax.measure.MeasurementException;
 import javax.measure.Unit;
 import javax.measure.format.UnitFormat;
 
 import tech.units.indriya.AbstractUnit;
+import tech.units.indriya.internal.format.FormatCache;
 
 /**
  * <p>
@@ -59,6 +61,26 @@ import tech.units.indriya.AbstractUnit;
  */
 public abstract class AbstractUnitFormat implements UnitFormat {
 
+  private static final int PARSE_CACHE_SIZE = 1024;
+
+  /**
+   * The result of a parse, with the number of characters it consumed.
+   */
+  private static final class Parsed {
+    private final Unit<?> unit;
+    private final int length;
+
+    private Parsed(Unit<?> unit, int length) {
+      this.unit = unit;
+      this.length = length;
+    }
+  }
+
+  /**
+   * Holds the parsed units, keyed by the character sequence from the parse position.
+   */
+  private final transient FormatCache<String, Parsed> parsed = new FormatCache<>(PARSE_CACHE_SIZE);
+
   /**
    * Returns the {@link SymbolMap} for this unit format.
    *
@@ -134,6 +156,53 @@ public abstract class AbstractUnitFormat implements UnitFormat {
    */
   protected abstract Unit<?> parse(CharSequence csq, int index) throws IllegalArgumentException;
 
+  /**
+   * Parses the specified <code>CharSequence</code> from the specified position using the given parser, unless the same input was parsed by this
+   * format before. Results are cached until any label or alias changes, failures are not cached.
+   *
+   * @param csq
+   *          the <code>CharSequence</code> to parse.
+   * @param cursor
+   *          the cursor holding the current parsing index, or <code>null</code> to parse from the start.
+   * @param parser
+   *          parses the given character sequence from the given cursor.
+   * @return the unit parsed from the specified character sub-sequence.
+   * @since 2.1.4
+   */
+  protected final Unit<?> parseCached(CharSequence csq, ParsePosition cursor, BiFunction<CharSequence, ParsePosition, Unit<?>> parser) {
+    final int start = cursor != null ? cursor.getIndex() : 0;
+    final ParsePosition pos = cursor != null ? cursor : new ParsePosition(0);
+    if (start > csq.length()) {
+      return parser.apply(csq, pos);
+    }
+    final Parsed result = parsed.get(csq.subSequence(start, csq.length()).toString(), k -> {
+      final Unit<?> unit = parser.apply(csq, pos);
+      return new Parsed(unit, pos.getIndex() - start);
+    });
+    pos.setIndex(start + result.length);
+    return result.unit;
+  }
+
+  /**
+   * Returns the number of parses of this format served from its cache.
+   *
+   * @return the number of cache hits.
+   * @since 2.1.4
+   */
+  public long getParseCacheHitCount() {
+    return parsed.getHitCount();
+  }
+
+  /**
+   * Returns the number of parses of this format, which were not served from its cache.
+   *
+   * @return the number of cache misses.
+   * @since 2.1.4
+   */
+  public long getParseCacheMissCount() {
+    return parsed.getMissCount();
+  }
+
   /**
    * Convenience method equivalent to {@link #format(AbstractUnit, Appendable)} except it does not raise an IOException.
    *
@@ -31,15 +31,18 @@ package tech.units.indriya.format;
 
 import static org.apiguardian.api.API.Status.INTERNAL;
 
+import java.io.IOException;
 import java.text.NumberFormat;
 import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
+import javax.measure.MeasurementException;
 import javax.measure.Quantity;
 import javax.measure.Unit;
 import javax.measure.format.MeasurementParseException;
+import javax.measure.format.QuantityFormat;
 import javax.measure.format.UnitFormat;
 
 import org.apiguardian.api.API;
@@ -58,29 +61,37 @@ import tech.units.indriya.quantity.Quantities;
 @API(status=INTERNAL)
 abstract class CommonFormatter {
     private static final String ERR_PRIMARY_UNIT_NOT_FOUND = "The primary unit <%s> is not part of the compound units <%s>"; //$NON-NLS-1$
+    private static final String REGEX_META_CHARACTERS = ".$|()[]{}^?*+\\"; //$NON-NLS-1$
     
     @SuppressWarnings({ "unchecked", "rawtypes" })
     static MixedQuantity<?> parseMixed(final String str, final NumberFormat numberFormat, final UnitFormat unitFormat, final String delimiter,
             final String mixDelimiter, final int position) throws IllegalArgumentException, MeasurementParseException {
-        final String section = str.substring(position);
-        final String[] sectionParts = section.split(mixDelimiter);
         final List<Quantity> quants = new ArrayList<>();
         final RationalNumberFormat rationalNumberFormat = RationalNumberFormat.wrap(numberFormat);  
+        if (isLiteral(delimiter) && isLiteral(mixDelimiter) && position <= str.length()) {
+            // single pass over the sections and their parts, instead of splitting them
+            final Parts sections = new Parts(str, mixDelimiter, position, str.length());
+            while (sections.next()) {
+                final Parts parts = new Parts(str, delimiter, sections.start, sections.end);
+                if (!parts.next()) {
+                    throw new IllegalArgumentException("No Unit found");
+                }
+                final String numberPart = parts.part();
+                if (!parts.next()) {
+                    throw new IllegalArgumentException("No Unit found");
+                }
+                addQuantity(quants, rationalNumberFormat, numberPart, unitFormat, parts.part());
+            }
+            return MixedQuantity.of(quants.toArray(new Quantity[quants.size()]));
+        }
+        final String section = str.substring(position);
+        final String[] sectionParts = section.split(mixDelimiter);
         for (String compStr : sectionParts) {
             final String[] parts = compStr.split(delimiter);
             if (parts.length < 2) {
                 throw new IllegalArgumentException("No Unit found");
             } else {
-                Number num = null;
-                try {
-                    num = rationalNumberFormat.parse(parts[0]);
-                } catch (ParseException pe) {
-                    throw new MeasurementParseException(pe);
-                }
-                Unit unit = unitFormat.parse(parts[1]);
-                if (num != null && unit != null) {
-                    quants.add(Quantities.getQuantity(num, unit));
-                }
+                addQuantity(quants, rationalNumberFormat, parts[0], unitFormat, parts[1]);
             }
         }
         final Quantity[] qArray = new Quantity[quants.size()];
@@ -97,24 +108,32 @@ abstract class CommonFormatter {
     @SuppressWarnings({ "unchecked", "rawtypes" })
     static MixedQuantity<?> parseMixed(final String str, final NumberFormat numberFormat, final UnitFormat unitFormat, final String delimiter, final int position) throws IllegalArgumentException, MeasurementParseException {
         Objects.requireNonNull(str);
-        final String section = str.substring(position);
         final List<Quantity<?>> quants = new ArrayList<>();
         final RationalNumberFormat rationalNumberFormat = RationalNumberFormat.wrap(numberFormat);
+        if (isLiteral(delimiter) && position <= str.length()) {
+            // single pass over alternating number and unit parts, instead of splitting them
+            final Parts parts = new Parts(str, delimiter, position, str.length());
+            boolean paired = false;
+            while (parts.next()) {
+                final String numberPart = parts.part();
+                if (!parts.next()) {
+                    break; // a trailing number without unit is ignored
+                }
+                paired = true;
+                addQuantity(quants, rationalNumberFormat, numberPart, unitFormat, parts.part());
+            }
+            if (!paired) {
+                throw new IllegalArgumentException("No Unit found");
+            }
+            return MixedQuantity.of(quants.toArray(new Quantity[quants.size()]));
+        }
+        final String section = str.substring(position);
         final String[] parts = section.split(delimiter);
         if (parts.length < 2) {
             throw new IllegalArgumentException("No Unit found");
         } else {
             for (int i=0; i < parts.length-1; i++) {
-                Number num = null;
-                try {
-                    num = rationalNumberFormat.parse(parts[i]);
-                } catch (ParseException pe) {
-                    throw new MeasurementParseException(pe);
-                }
-                Unit unit = unitFormat.parse(parts[i+1]);
-                if (num != null && unit != null) {
-                    quants.add(Quantities.getQuantity(num, unit));
-                }
+                addQuantity(quants, rationalNumberFormat, parts[i], unitFormat, parts[i+1]);
                 i++; // get to next number
             }
         }
@@ -174,8 +193,147 @@ abstract class CommonFormatter {
         return parseMixedAsPrimary(str, numberFormat, unitFormat, primaryUnit, delimiter, 0);
     }
     
+    /**
+     * Returns the second part of {@code str.substring(position).split(delimiter)}, or {@code null} if there is none.
+     * A delimiter without regular expression meta characters is searched in place, instead of splitting the whole
+     * section.
+     */
+    static String secondPart(final String str, final int position, final String delimiter) {
+        if (isLiteral(delimiter) && position <= str.length()) {
+            final int first = str.indexOf(delimiter, position);
+            if (first < 0) {
+                return null;
+            }
+            final int start = first + delimiter.length();
+            int end = str.indexOf(delimiter, start);
+            if (end < 0) {
+                end = str.length();
+            }
+            if (end > start) {
+                return str.substring(start, end);
+            }
+            // an empty part is dropped by split(), if only empty parts follow
+        }
+        final String[] parts = str.substring(position).split(delimiter);
+        return parts.length < 2 ? null : parts[1];
+    }
+
+    /**
+     * Appends the given quantities, separated by the given mixed radix delimiter, to the given buffer.
+     */
+    static StringBuffer formatMixed(final QuantityFormat format, final List<? extends Quantity<?>> quantities, final String mixDelimiter,
+            final StringBuffer dest) {
+        try {
+            for (int i = 0; i < quantities.size(); i++) {
+                if (i > 0) {
+                    dest.append(mixDelimiter);
+                }
+                format.format(quantities.get(i), dest);
+            }
+        } catch (IOException ex) {
+            throw new MeasurementException(ex); // Should not happen.
+        }
+        return dest;
+    }
+
     // Private helpers
     
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static void addQuantity(final List quants, final RationalNumberFormat rationalNumberFormat, final String numberPart,
+            final UnitFormat unitFormat, final String unitPart) throws MeasurementParseException {
+        Number num = null;
+        try {
+            num = rationalNumberFormat.parse(numberPart);
+        } catch (ParseException pe) {
+            throw new MeasurementParseException(pe);
+        }
+        Unit unit = unitFormat.parse(unitPart);
+        if (num != null && unit != null) {
+            quants.add(Quantities.getQuantity(num, unit));
+        }
+    }
+    
+    /**
+     * Iterates the parts of {@code str.substring(from, to).split(delimiter)} for a delimiter without regular expression
+     * meta characters, without creating the parts up front. Like {@code split()}, trailing empty parts are dropped.
+     */
+    private static final class Parts {
+        private final String str;
+        private final String delimiter;
+        /** The end of the last part. */
+        private final int limit;
+        /** The start of the next part, beyond {@link #limit} if there is none. */
+        private int position;
+        private int start;
+        private int end;
+
+        private Parts(final String str, final String delimiter, final int from, final int to) {
+            this.str = str;
+            this.delimiter = delimiter;
+            int lastEnd = -1;
+            boolean matched = false;
+            for (int p = from;;) {
+                final int d = indexOf(p, to);
+                final int e = d < 0 ? to : d;
+                if (e > p) {
+                    lastEnd = e;
+                }
+                if (d < 0) {
+                    break;
+                }
+                matched = true;
+                p = d + delimiter.length();
+            }
+            if (!matched) {
+                // without a match split() returns the whole input, even if it is empty
+                limit = to;
+                position = from;
+            } else if (lastEnd < 0) {
+                // all parts are empty and dropped
+                limit = from;
+                position = from + 1;
+            } else {
+                limit = lastEnd;
+                position = from;
+            }
+        }
+
+        private boolean next() {
+            if (position > limit) {
+                return false;
+            }
+            final int d = indexOf(position, limit);
+            start = position;
+            end = d < 0 ? limit : d;
+            position = d < 0 ? limit + 1 : d + delimiter.length();
+            return true;
+        }
+
+        private String part() {
+            return str.substring(start, end);
+        }
+
+        /**
+         * Returns the index of the next delimiter, which ends before the given bound, or -1.
+         */
+        private int indexOf(final int from, final int bound) {
+            final int d = str.indexOf(delimiter, from);
+            return d >= 0 && d + delimiter.length() <= bound ? d : -1;
+        }
+    }
+    
+    private static boolean isLiteral(final String delimiter) {
+        if (delimiter.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < delimiter.length(); i++) {
+            if (REGEX_META_CHARACTERS.indexOf(delimiter.charAt(i)) >= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
     private static final <Q extends Quantity<Q>> Unit<Q> getLeadingUnit(final MixedQuantity<Q> comp) {
         Objects.requireNonNull(comp);
         Unit<Q> unit = null;
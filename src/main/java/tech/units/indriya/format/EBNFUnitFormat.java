@@ -34,11 +34,9 @@ import javax.measure.Unit;
 import javax.measure.format.MeasurementParseException;
 
 import tech.units.indriya.AbstractUnit;
-import tech.units.indriya.internal.format.UnitFormatParser;
 import tech.units.indriya.unit.AnnotatedUnit;
 
 import java.io.IOException;
-import java.io.StringReader;
 import java.text.ParsePosition;
 import java.util.Locale;
 import java.util.ResourceBundle;
@@ -246,31 +244,16 @@ public class EBNFUnitFormat extends AbstractUnitFormat {
 
   @Override
   public Unit<? extends Quantity<?>> parse(CharSequence csq, ParsePosition cursor) throws MeasurementParseException {
+    return parseCached(csq, cursor, this::parseUncached);
+  }
+
+  private Unit<?> parseUncached(CharSequence csq, ParsePosition cursor) throws MeasurementParseException {
     // Parsing reads the whole character sequence from the parse position.
-    int start = cursor != null ? cursor.getIndex() : 0;
-    int end = csq.length();
-    if (end <= start) {
-      return AbstractUnit.ONE;
-    }
-    String source = csq.subSequence(start, end).toString().trim();
-    if (source.length() == 0) {
-      return AbstractUnit.ONE;
-    }
     try {
-      UnitFormatParser parser = new UnitFormatParser(symbolMap, new StringReader(source));
-      Unit<?> result = parser.parseUnit();
-      if (cursor != null)
-        cursor.setIndex(end);
-      return result;
+      return UnitExpressionParser.parse(symbolMap, csq, cursor);
     } catch (TokenException e) {
-      if (e.currentToken != null) {
-        cursor.setErrorIndex(start + e.currentToken.endColumn);
-      } else {
-        cursor.setErrorIndex(start);
-      }
       throw new MeasurementParseException(e);
     } catch (TokenMgrError e) {
-      cursor.setErrorIndex(start);
       throw new IllegalArgumentException(e.getMessage());
     }
   }
@@ -32,12 +32,14 @@ package tech.units.indriya.format;
 import static tech.units.indriya.format.ConverterFormatter.formatConverterLocal;
 import static tech.units.indriya.format.FormatConstants.*;
 
+import javax.measure.MeasurementError;
 import javax.measure.Quantity;
 import javax.measure.Unit;
 import javax.measure.UnitConverter;
 import javax.measure.format.MeasurementParseException;
 import tech.units.indriya.AbstractUnit;
-import tech.units.indriya.internal.format.UnitFormatParser;
+import tech.units.indriya.internal.format.FormatCache;
+import tech.units.indriya.internal.format.UnitKey;
 import tech.units.indriya.unit.AlternateUnit;
 import tech.units.indriya.unit.AnnotatedUnit;
 import tech.units.indriya.unit.BaseUnit;
@@ -50,11 +52,12 @@ import static tech.units.indriya.unit.Units.KILOGRAM;
 import static tech.units.indriya.unit.Units.LITRE;
 
 import java.io.IOException;
-import java.io.StringReader;
 import java.text.ParsePosition;
 import java.util.Locale;
 import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * <p>
@@ -164,11 +167,14 @@ public class LocalUnitFormat extends AbstractUnitFormat {
   //////////////////////////////////////////////////////
   // Class variables                                  //
   //////////////////////////////////////////////////////
+  private static final int FORMAT_CACHE_SIZE = 1024;
+
+  private static final String BUNDLE_NAME = LocalUnitFormat.class.getPackage().getName() + ".messages";
+
   /**
    * DefaultQuantityFactory locale instance. If the default locale is changed after the class is initialized, this instance will no longer be used.
    */
-  private static final LocalUnitFormat DEFAULT_INSTANCE = new LocalUnitFormat(SymbolMap.of(ResourceBundle.getBundle(LocalUnitFormat.class
-      .getPackage().getName() + ".messages")));
+  private static final LocalUnitFormat DEFAULT_INSTANCE = new LocalUnitFormat(SymbolMap.of(ResourceBundle.getBundle(BUNDLE_NAME)));
 
   // /////////////////
   // Class methods //
@@ -180,13 +186,36 @@ public class LocalUnitFormat extends AbstractUnitFormat {
     return DEFAULT_INSTANCE;
   }
 
+  private static final int MAX_REQUESTED_LOCALES = 256;
+
+  /**
+   * Holds the instances for each locale of the resource bundles actually found, created on first use.
+   */
+  private static final ConcurrentMap<Locale, LocalUnitFormat> LOCAL_INSTANCES = new ConcurrentHashMap<>();
+
   /**
-   * Returns an instance for the given locale.
+   * Holds the instances for the requested locales, most of which share a resource bundle. Cleared once it holds
+   * {@value #MAX_REQUESTED_LOCALES} locales, as those may be arbitrary, e.g. when sent by clients.
+   */
+  private static final ConcurrentMap<Locale, LocalUnitFormat> REQUESTED_INSTANCES = new ConcurrentHashMap<>();
+
+  /**
+   * Returns the instance for the given locale. The instance and its symbol map are created once per resource bundle,
+   * and shared by all locales resolving to that bundle.
    * 
    * @param locale the locale to use
    */
   public static LocalUnitFormat getInstance(Locale locale) {
-    return new LocalUnitFormat(SymbolMap.of(ResourceBundle.getBundle(LocalUnitFormat.class.getPackage().getName() + ".messages", locale)));
+    LocalUnitFormat instance = REQUESTED_INSTANCES.get(locale);
+    if (instance == null) {
+      final ResourceBundle bundle = ResourceBundle.getBundle(BUNDLE_NAME, locale);
+      instance = LOCAL_INSTANCES.computeIfAbsent(bundle.getLocale(), l -> new LocalUnitFormat(SymbolMap.of(bundle)));
+      if (REQUESTED_INSTANCES.size() >= MAX_REQUESTED_LOCALES) {
+        REQUESTED_INSTANCES.clear();
+      }
+      REQUESTED_INSTANCES.put(locale, instance);
+    }
+    return instance;
   }
 
   /** Returns an instance for the given symbol map. */
@@ -202,6 +231,11 @@ public class LocalUnitFormat extends AbstractUnitFormat {
    */
   private final transient SymbolMap symbolMap;
 
+  /**
+   * Holds the formatted units.
+   */
+  private final transient FormatCache<UnitKey, String> formatted = new FormatCache<>(FORMAT_CACHE_SIZE);
+
   // ////////////////
   // Constructors //
   // ////////////////
@@ -242,8 +276,17 @@ public class LocalUnitFormat extends AbstractUnitFormat {
       // intrinsic toString()
       // method)
     }
-    formatInternal(unit, appendable);
-    return appendable;
+    return appendable.append(formatted.get(UnitKey.of(unit), k -> formatUncached(unit)));
+  }
+
+  private String formatUncached(Unit<?> unit) {
+    try {
+      final StringBuilder buffer = new StringBuilder();
+      formatInternal(unit, buffer);
+      return buffer.toString();
+    } catch (IOException e) {
+      throw new MeasurementError(e); // Should never happen.
+    }
   }
 
   public boolean isLocaleSensitive() {
@@ -255,32 +298,18 @@ public class LocalUnitFormat extends AbstractUnitFormat {
   }
 
   public Unit<?> parse(CharSequence csq, ParsePosition cursor) throws MeasurementParseException {
+    return parseCached(csq, cursor, this::parseUncached);
+  }
+
+  private Unit<?> parseUncached(CharSequence csq, ParsePosition cursor) throws MeasurementParseException {
     // Parsing reads the whole character sequence from the parse position.
-    int start = cursor.getIndex();
-    int end = csq.length();
-    if (end <= start) {
-      return AbstractUnit.ONE;
-    }
-    String source = csq.subSequence(start, end).toString().trim();
-    if (source.length() == 0) {
-      return AbstractUnit.ONE;
-    }
     try {
-      UnitFormatParser parser = new UnitFormatParser(symbolMap, new StringReader(source));
-      Unit<?> result = parser.parseUnit();
-      cursor.setIndex(end);
-      return result;
+      return UnitExpressionParser.parse(symbolMap, csq, cursor);
     } catch (TokenException e) {
-      if (e.currentToken != null) {
-        cursor.setErrorIndex(start + e.currentToken.endColumn);
-      } else {
-        cursor.setErrorIndex(start);
-      }
       throw new IllegalArgumentException(e); // TODO should we throw
       // ParserException here,
       // too?
     } catch (TokenMgrError e) {
-      cursor.setErrorIndex(start);
       throw new MeasurementParseException(e);
     }
   }
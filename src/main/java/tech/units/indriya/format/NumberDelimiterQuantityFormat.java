@@ -82,6 +82,10 @@ public class NumberDelimiterQuantityFormat extends AbstractQuantityFormat {
     private static final long serialVersionUID = 3546952599885869402L;
 
     private transient NumberFormat numberFormat;
+    /**
+     * Holds the per-thread copies of the number format, {@link NumberFormat} is not thread-safe.
+     */
+    private transient ThreadLocal<NumberFormat> localNumberFormat;
     private transient UnitFormat unitFormat;
     private transient Unit primaryUnit;
     private String delimiter;
@@ -177,7 +181,9 @@ public class NumberDelimiterQuantityFormat extends AbstractQuantityFormat {
 
         public NumberDelimiterQuantityFormat build() {
             NumberDelimiterQuantityFormat quantityFormat = new NumberDelimiterQuantityFormat();
-            quantityFormat.numberFormat = this.numberFormat;
+            final NumberFormat numberFormat = this.numberFormat;
+            quantityFormat.numberFormat = numberFormat;
+            quantityFormat.localNumberFormat = ThreadLocal.withInitial(() -> (NumberFormat) numberFormat.clone());
             quantityFormat.unitFormat = this.unitFormat;
             quantityFormat.primaryUnit = this.primaryUnit;
             quantityFormat.delimiter = this.delimiter;
@@ -279,10 +285,18 @@ public class NumberDelimiterQuantityFormat extends AbstractQuantityFormat {
             if (quantity != null && quantity.getValue() != null) {
                 fract = getFractionDigitsCount(quantity.getValue().doubleValue());
             }
+            final NumberFormat format = localNumberFormat.get();
             if (fract > 1) {
-                numberFormat.setMaximumFractionDigits(fract + 1);
+                format.setMaximumFractionDigits(fract + 1);
+                try {
+                    dest.append(format.format(quantity.getValue()));
+                } finally {
+                    format.setMaximumFractionDigits(numberFormat.getMaximumFractionDigits());
+                    format.setMinimumFractionDigits(numberFormat.getMinimumFractionDigits());
+                }
+            } else {
+                dest.append(format.format(quantity.getValue()));
             }
-            dest.append(numberFormat.format(quantity.getValue()));
             if (quantity.getUnit().equals(AbstractUnit.ONE))
                 return dest;
             dest.append(delimiter);
@@ -296,25 +310,25 @@ public class NumberDelimiterQuantityFormat extends AbstractQuantityFormat {
         final int index = cursor.getIndex();
         if (mixDelimiter != null && !mixDelimiter.equals(delimiter)) {
             if (primaryUnit != null) {
-                return parseMixedAsPrimary(str, numberFormat, unitFormat, primaryUnit, delimiter, mixDelimiter, index);
+                return parseMixedAsPrimary(str, localNumberFormat.get(), unitFormat, primaryUnit, delimiter, mixDelimiter, index);
             } else {
-                return parseMixedAsLeading(str, numberFormat, unitFormat, delimiter, mixDelimiter, index);
+                return parseMixedAsLeading(str, localNumberFormat.get(), unitFormat, delimiter, mixDelimiter, index);
             }
         } else if (mixDelimiter != null && mixDelimiter.equals(delimiter)) {
             if (primaryUnit != null) {
-                return parseMixedAsPrimary(str, numberFormat, unitFormat, primaryUnit, delimiter, index);
+                return parseMixedAsPrimary(str, localNumberFormat.get(), unitFormat, primaryUnit, delimiter, index);
             } else {
-                return parseMixedAsLeading(str, numberFormat, unitFormat, delimiter, index);
+                return parseMixedAsLeading(str, localNumberFormat.get(), unitFormat, delimiter, index);
             }
         }
-        final Number number = numberFormat.parse(str, cursor);
+        final Number number = localNumberFormat.get().parse(str, cursor);
         if (number == null)
             throw new IllegalArgumentException("Number cannot be parsed");
-        final String[] parts = str.substring(index).split(delimiter);
-        if (parts.length < 2) {
+        final String unitPart = CommonFormatter.secondPart(str, index, delimiter);
+        if (unitPart == null) {
             throw new IllegalArgumentException("No Unit found");
         }
-        final Unit unit = unitFormat.parse(parts[1]);
+        final Unit unit = unitFormat.parse(unitPart);
         return Quantities.getQuantity(number, unit);
     }
 
@@ -340,34 +354,26 @@ public class NumberDelimiterQuantityFormat extends AbstractQuantityFormat {
 
     @Override
     protected StringBuffer formatMixed(MixedQuantity<?> comp, StringBuffer dest) {
-        final StringBuffer sb = new StringBuffer();
-        int i = 0;
-        for (Quantity<?> q : comp.getQuantities()) {
-            sb.append(format(q));
-            if (i < comp.getQuantities().size() - 1 ) {
-                sb.append((mixDelimiter != null ? mixDelimiter : DEFAULT_DELIMITER)); // we need null for parsing but not
-            }
-            i++;
-        }
-        return sb;
+        // we need null for parsing but not formatting
+        return CommonFormatter.formatMixed(this, comp.getQuantities(), mixDelimiter != null ? mixDelimiter : DEFAULT_DELIMITER, dest);
     }
 
     public MixedQuantity<?> parseMixed(CharSequence csq, ParsePosition cursor) throws IllegalArgumentException, MeasurementParseException {
         final String str = csq.toString();
         final int index = cursor.getIndex();
         if (mixDelimiter != null && !mixDelimiter.equals(delimiter)) {
-                return CommonFormatter.parseMixed(str, numberFormat, unitFormat, delimiter, mixDelimiter, index);
+                return CommonFormatter.parseMixed(str, localNumberFormat.get(), unitFormat, delimiter, mixDelimiter, index);
         } else if (mixDelimiter != null && mixDelimiter.equals(delimiter)) {
-                return CommonFormatter.parseMixed(str, numberFormat, unitFormat, delimiter, index);
+                return CommonFormatter.parseMixed(str, localNumberFormat.get(), unitFormat, delimiter, index);
         }
-        final Number number = numberFormat.parse(str, cursor);
+        final Number number = localNumberFormat.get().parse(str, cursor);
         if (number == null)
             throw new IllegalArgumentException("Number cannot be parsed");
-        final String[] parts = str.substring(index).split(delimiter);
-        if (parts.length < 2) {
+        final String unitPart = CommonFormatter.secondPart(str, index, delimiter);
+        if (unitPart == null) {
             throw new IllegalArgumentException("No Unit found");
         }
-        final Unit unit = unitFormat.parse(parts[1]);
+        final Unit unit = unitFormat.parse(unitPart);
         return MixedQuantity.of(Quantities.getQuantity(number, unit));
     }
 
@@ -382,16 +388,8 @@ public class NumberDelimiterQuantityFormat extends AbstractQuantityFormat {
     @Override
     @Deprecated
     protected StringBuffer formatCompound(CompoundQuantity<?> comp, StringBuffer dest) {
-        final StringBuffer sb = new StringBuffer();
-        int i = 0;
-        for (Quantity<?> q : comp.getQuantities()) {
-            sb.append(format(q));
-            if (i < comp.getQuantities().size() - 1 ) {
-                sb.append((mixDelimiter != null ? mixDelimiter : DEFAULT_DELIMITER)); // we need null for parsing but not
-            }
-            i++;
-        }
-        return sb;
+        // we need null for parsing but not formatting
+        return CommonFormatter.formatMixed(this, comp.getQuantities(), mixDelimiter != null ? mixDelimiter : DEFAULT_DELIMITER, dest);
     }
     
     @Deprecated
@@ -399,18 +397,18 @@ public class NumberDelimiterQuantityFormat extends AbstractQuantityFormat {
         final String str = csq.toString();
         final int index = cursor.getIndex();
         if (mixDelimiter != null && !mixDelimiter.equals(delimiter)) {
-                return CommonFormatterOld.parseCompound(str, numberFormat, unitFormat, delimiter, mixDelimiter, index);
+                return CommonFormatterOld.parseCompound(str, localNumberFormat.get(), unitFormat, delimiter, mixDelimiter, index);
         } else if (mixDelimiter != null && mixDelimiter.equals(delimiter)) {
-                return CommonFormatterOld.parseCompound(str, numberFormat, unitFormat, delimiter, index);
+                return CommonFormatterOld.parseCompound(str, localNumberFormat.get(), unitFormat, delimiter, index);
         }
-        final Number number = numberFormat.parse(str, cursor);
+        final Number number = localNumberFormat.get().parse(str, cursor);
         if (number == null)
             throw new IllegalArgumentException("Number cannot be parsed");
-        final String[] parts = str.substring(index).split(delimiter);
-        if (parts.length < 2) {
+        final String unitPart = CommonFormatter.secondPart(str, index, delimiter);
+        if (unitPart == null) {
             throw new IllegalArgumentException("No Unit found");
         }
-        final Unit unit = unitFormat.parse(parts[1]);
+        final Unit unit = unitFormat.parse(unitPart);
         return CompoundQuantity.of(Quantities.getQuantity(number, unit));
     }
 
@@ -427,6 +425,9 @@ public class NumberDelimiterQuantityFormat extends AbstractQuantityFormat {
     // Private helper methods
 
     private static int getFractionDigitsCount(double d) {
+        if (Double.isNaN(d) || Math.abs(d) >= 0x1p52) { // no fraction digits, and the loop below would not terminate
+            return 0;
+        }
         if (d >= 1) { // we only need the fraction digits
             d = d - (long) d;
         }
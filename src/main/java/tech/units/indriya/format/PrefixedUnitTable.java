@@ -0,0 +1,179 @@
+/*
+ * Units of Measurement Reference Implementation
+ * Copyright (c) 2005-2022, Jean-Marie Dautelle, Werner Keil, Otavio Santana.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions
+ *    and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of JSR-385, Indriya nor the names of their contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package tech.units.indriya.format;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.measure.Prefix;
+import javax.measure.Unit;
+import javax.measure.UnitConverter;
+
+import tech.units.indriya.function.MultiplyConverter;
+import tech.units.indriya.unit.TransformedUnit;
+
+/**
+ * Resolves prefixed units like {@code kW}, {@code µs} or {@code GiB} from the symbol of their unprefixed unit and a
+ * table of prefix symbols, instead of labelling every combination of unit and prefix up front.
+ * <p>
+ * Prefixed units are created when they are first parsed and interned afterwards. Labelled units are formatted with the
+ * first symbol registered for their prefix, aliased units are only parsed.
+ * </p>
+ *
+ * @version 1.0
+ * @since 2.1.4
+ */
+final class PrefixedUnitTable {
+
+    /**
+     * A table of prefix symbols.
+     */
+    static final class Prefixes {
+        private final Map<String, Prefix> bySymbol = new HashMap<>();
+        private final Map<UnitConverter, String> symbolByConverter = new HashMap<>();
+
+        /**
+         * Parses and formats the given prefix with the given symbol, unless a symbol to format the prefix was registered
+         * before.
+         */
+        Prefixes with(Prefix prefix, String symbol) {
+            bySymbol.put(symbol, prefix);
+            symbolByConverter.putIfAbsent(MultiplyConverter.ofPrefix(prefix), symbol);
+            return this;
+        }
+
+        /**
+         * Parses the given prefix with the given symbol.
+         */
+        Prefixes alias(Prefix prefix, String symbol) {
+            bySymbol.put(symbol, prefix);
+            return this;
+        }
+
+        private Prefix prefixFor(String symbol) {
+            return bySymbol.get(symbol);
+        }
+
+        private String symbolFor(UnitConverter converter) {
+            return symbolByConverter.get(converter);
+        }
+    }
+
+    private static final class Entry {
+        private final Unit<?> unit;
+        private final String symbol;
+        private final Prefixes prefixes;
+
+        private Entry(Unit<?> unit, String symbol, Prefixes prefixes) {
+            this.unit = unit;
+            this.symbol = symbol;
+            this.prefixes = prefixes;
+        }
+    }
+
+    /**
+     * The longest prefix symbol, "micro".
+     */
+    private static final int MAX_PREFIX_LENGTH = 5;
+
+    /**
+     * Holds the prefixable units by symbol.
+     */
+    private final Map<String, Entry> bySymbol = new HashMap<>();
+
+    /**
+     * Holds the labelled prefixable units.
+     */
+    private final Map<Unit<?>, Entry> byUnit = new HashMap<>();
+
+    /**
+     * Holds the prefixed units resolved so far.
+     */
+    private final Map<String, Unit<?>> resolved = new ConcurrentHashMap<>();
+
+    /**
+     * Parses and formats the prefixed forms of the given unit with the given symbol.
+     */
+    void label(Unit<?> unit, String symbol, Prefixes prefixes) {
+        final Entry entry = new Entry(unit, symbol, prefixes);
+        bySymbol.put(symbol, entry);
+        byUnit.put(unit, entry);
+        resolved.clear();
+    }
+
+    /**
+     * Parses the prefixed forms of the given unit with the given symbol.
+     */
+    void alias(Unit<?> unit, String symbol, Prefixes prefixes) {
+        bySymbol.put(symbol, new Entry(unit, symbol, prefixes));
+        resolved.clear();
+    }
+
+    /**
+     * Returns the prefixed unit for the given name, or {@code null} if the name is not a prefix symbol followed by the
+     * symbol of a prefixable unit.
+     */
+    Unit<?> unitFor(String name) {
+        final Unit<?> unit = resolved.get(name);
+        if (unit != null) {
+            return unit;
+        }
+        // Tries the longest prefix first, such that "dam" is deca-metre.
+        for (int i = Math.min(MAX_PREFIX_LENGTH, name.length() - 1); i > 0; i--) {
+            final Entry entry = bySymbol.get(name.substring(i));
+            if (entry != null) {
+                final Prefix prefix = entry.prefixes.prefixFor(name.substring(0, i));
+                if (prefix != null) {
+                    final Unit<?> prefixed = entry.unit.prefix(prefix);
+                    final Unit<?> previous = resolved.putIfAbsent(name, prefixed);
+                    return previous != null ? previous : prefixed;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the name of the given unit, if it is a labelled prefixable unit with a prefix, or {@code null}.
+     */
+    String nameFor(Unit<?> unit) {
+        if (!(unit instanceof TransformedUnit)) {
+            return null;
+        }
+        final TransformedUnit<?> transformed = (TransformedUnit<?>) unit;
+        final Entry entry = byUnit.get(transformed.getParentUnit());
+        if (entry == null) {
+            return null;
+        }
+        final String prefix = entry.prefixes.symbolFor(transformed.getConverter());
+        return prefix != null ? prefix + entry.symbol : null;
+    }
+}
@@ -0,0 +1,669 @@
+/*
+ * Units of Measurement Reference Implementation
+ * Copyright (c) 2005-2022, Jean-Marie Dautelle, Werner Keil, Otavio Santana.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions
+ *    and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of JSR-385, Indriya nor the names of their contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package tech.units.indriya.format;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.measure.Quantity;
+import javax.measure.Quantity.Scale;
+import javax.measure.Unit;
+
+import tech.units.indriya.ComparableQuantity;
+import tech.units.indriya.function.RationalNumber;
+import tech.units.indriya.quantity.Quantities;
+
+/**
+ * A compact binary encoding of quantities, e.g. for message buses.
+ * <p>
+ * An encoded quantity consists of
+ * </p>
+ * <ol>
+ * <li>a header byte, holding the type of the number in its lower 3 bits and the scale in bit 3 (set for
+ * {@code RELATIVE}),</li>
+ * <li>the unit reference as unsigned varint: {@code n + 1} for the unit at index {@code n} of the dictionary, or
+ * {@code 0} followed by the varint length and the UTF-8 bytes of the unit as formatted by {@link SimpleUnitFormat},
+ * and</li>
+ * <li>the value: {@code Integer} and {@code Long} as zig-zag varint, {@code Float} and {@code Double} as raw IEEE 754
+ * bits, {@code BigInteger} as varint length and two's-complement bytes, {@code BigDecimal} as zig-zag varint scale and
+ * unscaled {@code BigInteger}, and {@link RationalNumber} as dividend and divisor {@code BigInteger}.</li>
+ * </ol>
+ * <p>
+ * The dictionary is a list of units shared by encoder and decoder, the most frequent units first, such that their
+ * references fit into a single byte. {@code Byte}, {@code Short} and {@code AtomicInteger} values are decoded as
+ * {@code Integer}, {@code AtomicLong} values as {@code Long}. Multi-byte values are big-endian, regardless of the
+ * order of a {@link ByteBuffer}.
+ * </p>
+ * <p>
+ * Instances of this class are immutable and thread-safe.
+ * </p>
+ *
+ * @version 1.0
+ * @since 2.1.4
+ */
+public final class QuantityCodec {
+
+	private static final int TYPE_INTEGER = 0;
+	private static final int TYPE_LONG = 1;
+	private static final int TYPE_FLOAT = 2;
+	private static final int TYPE_DOUBLE = 3;
+	private static final int TYPE_BIG_INTEGER = 4;
+	private static final int TYPE_BIG_DECIMAL = 5;
+	private static final int TYPE_RATIONAL = 6;
+	private static final int TYPE_MASK = 0x07;
+	private static final int RELATIVE_BIT = 0x08;
+
+	private static final int MAX_CACHED_UNITS = 1024;
+
+	private static final int MAX_CHUNK_SIZE = 8192;
+
+	private static final QuantityCodec DEFAULT = new QuantityCodec(Collections.emptyList());
+
+	private final Unit<?>[] dictionary;
+
+	private final Map<Unit<?>, Integer> references;
+
+	private final Map<Unit<?>, byte[]> formatted = new ConcurrentHashMap<>();
+
+	private final Map<String, Unit<?>> parsed = new ConcurrentHashMap<>();
+
+	private QuantityCodec(List<? extends Unit<?>> dictionary) {
+		this.dictionary = dictionary.toArray(new Unit<?>[0]);
+		final Map<Unit<?>, Integer> references = new HashMap<>();
+		for (int i = 0; i < this.dictionary.length; i++) {
+			if (references.putIfAbsent(Objects.requireNonNull(this.dictionary[i]), i + 1) != null) {
+				throw new IllegalArgumentException("Duplicate unit in dictionary: " + this.dictionary[i]);
+			}
+		}
+		this.references = references;
+	}
+
+	/**
+	 * Returns a codec without dictionary, which encodes every unit by its formatted string.
+	 *
+	 * @return the default codec
+	 */
+	public static QuantityCodec getInstance() {
+		return DEFAULT;
+	}
+
+	/**
+	 * Returns a codec with the given dictionary. Encoder and decoder must use the same dictionary, new units may only be
+	 * appended to it.
+	 *
+	 * @param dictionary
+	 *            the units of the dictionary, in order of their references.
+	 * @return a codec with the given dictionary
+	 * @throws IllegalArgumentException
+	 *             if the dictionary contains a unit more than once
+	 */
+	public static QuantityCodec of(List<? extends Unit<?>> dictionary) {
+		return new QuantityCodec(dictionary);
+	}
+
+	/**
+	 * Returns a codec with the given dictionary. Encoder and decoder must use the same dictionary, new units may only be
+	 * appended to it.
+	 *
+	 * @param dictionary
+	 *            the units of the dictionary, in order of their references.
+	 * @return a codec with the given dictionary
+	 * @throws IllegalArgumentException
+	 *             if the dictionary contains a unit more than once
+	 */
+	public static QuantityCodec of(Unit<?>... dictionary) {
+		return new QuantityCodec(Arrays.asList(dictionary));
+	}
+
+	/**
+	 * @return the units of the dictionary, in order of their references.
+	 */
+	public List<Unit<?>> getDictionary() {
+		return Collections.unmodifiableList(new ArrayList<>(Arrays.asList(dictionary)));
+	}
+
+	/**
+	 * Encodes the given quantity into the given buffer.
+	 *
+	 * @param quantity
+	 *            the quantity.
+	 * @param buffer
+	 *            the buffer.
+	 * @throws java.nio.BufferOverflowException
+	 *             if the buffer has not enough remaining space
+	 * @throws IllegalArgumentException
+	 *             if the value of the quantity is not of a supported number type
+	 */
+	public void encode(Quantity<?> quantity, ByteBuffer buffer) {
+		try {
+			encode(quantity, new BufferSink(buffer));
+		} catch (IOException e) {
+			throw new AssertionError(e); // buffers do not throw I/O exceptions
+		}
+	}
+
+	/**
+	 * Writes the given quantity to the given output.
+	 *
+	 * @param quantity
+	 *            the quantity.
+	 * @param out
+	 *            the output.
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 * @throws IllegalArgumentException
+	 *             if the value of the quantity is not of a supported number type
+	 */
+	public void write(Quantity<?> quantity, DataOutput out) throws IOException {
+		encode(quantity, new DataSink(out));
+	}
+
+	/**
+	 * Encodes the given quantity into a new byte array.
+	 *
+	 * @param quantity
+	 *            the quantity.
+	 * @return the encoded quantity
+	 * @throws IllegalArgumentException
+	 *             if the value of the quantity is not of a supported number type
+	 */
+	public byte[] toByteArray(Quantity<?> quantity) {
+		final ByteArraySink sink = new ByteArraySink();
+		try {
+			encode(quantity, sink);
+		} catch (IOException e) {
+			throw new AssertionError(e); // byte arrays do not throw I/O exceptions
+		}
+		return Arrays.copyOf(sink.bytes, sink.size);
+	}
+
+	/**
+	 * Decodes a quantity from the given buffer.
+	 *
+	 * @param buffer
+	 *            the buffer.
+	 * @return the decoded quantity
+	 * @throws java.nio.BufferUnderflowException
+	 *             if the buffer ends within the quantity
+	 * @throws IllegalArgumentException
+	 *             if the buffer does not hold a valid quantity, or refers to a unit not within the dictionary
+	 * @throws javax.measure.format.MeasurementParseException
+	 *             if a unit string of the buffer cannot be parsed
+	 */
+	public ComparableQuantity<?> decode(ByteBuffer buffer) {
+		try {
+			return decode(new BufferSource(buffer));
+		} catch (IOException e) {
+			throw new AssertionError(e); // buffers do not throw I/O exceptions
+		}
+	}
+
+	/**
+	 * Decodes a quantity from the given array.
+	 *
+	 * @param bytes
+	 *            the encoded quantity.
+	 * @return the decoded quantity
+	 * @throws java.nio.BufferUnderflowException
+	 *             if the array ends within the quantity
+	 * @throws IllegalArgumentException
+	 *             if the array does not hold a valid quantity, or refers to a unit not within the dictionary
+	 * @throws javax.measure.format.MeasurementParseException
+	 *             if a unit string of the array cannot be parsed
+	 */
+	public ComparableQuantity<?> decode(byte[] bytes) {
+		return decode(ByteBuffer.wrap(bytes));
+	}
+
+	/**
+	 * Reads a quantity from the given input.
+	 *
+	 * @param in
+	 *            the input.
+	 * @return the decoded quantity
+	 * @throws IOException
+	 *             if an I/O error occurs, e.g. {@link java.io.EOFException} if the input ends within the quantity
+	 * @throws IllegalArgumentException
+	 *             if the input does not hold a valid quantity, or refers to a unit not within the dictionary
+	 * @throws javax.measure.format.MeasurementParseException
+	 *             if a unit string of the input cannot be parsed
+	 */
+	public ComparableQuantity<?> read(DataInput in) throws IOException {
+		return decode(new DataSource(in));
+	}
+
+	// -- ENCODING
+
+	private void encode(Quantity<?> quantity, Sink sink) throws IOException {
+		final Number value = quantity.getValue();
+		final int type = typeOf(value);
+		sink.put(type | (Scale.RELATIVE == quantity.getScale() ? RELATIVE_BIT : 0));
+		final Integer reference = references.get(quantity.getUnit());
+		if (reference != null) {
+			putVarint(sink, reference);
+		} else {
+			final byte[] symbol = getSymbol(quantity.getUnit());
+			sink.put(0);
+			putVarint(sink, symbol.length);
+			sink.put(symbol);
+		}
+		switch (type) {
+		case TYPE_INTEGER:
+		case TYPE_LONG:
+			putVarint(sink, zigZag(value.longValue()));
+			break;
+		case TYPE_FLOAT:
+			sink.putInt(Float.floatToRawIntBits(value.floatValue()));
+			break;
+		case TYPE_DOUBLE:
+			sink.putLong(Double.doubleToRawLongBits(value.doubleValue()));
+			break;
+		case TYPE_BIG_INTEGER:
+			putBigInteger(sink, (BigInteger) value);
+			break;
+		case TYPE_BIG_DECIMAL:
+			final BigDecimal decimal = (BigDecimal) value;
+			putVarint(sink, zigZag(decimal.scale()));
+			putBigInteger(sink, decimal.unscaledValue());
+			break;
+		default:
+			final RationalNumber rational = (RationalNumber) value;
+			putBigInteger(sink, rational.getDividend());
+			putBigInteger(sink, rational.getDivisor());
+		}
+	}
+
+	private static int typeOf(Number value) {
+		if (value instanceof Integer || value instanceof Short || value instanceof Byte || value instanceof AtomicInteger) {
+			return TYPE_INTEGER;
+		}
+		if (value instanceof Long || value instanceof AtomicLong) {
+			return TYPE_LONG;
+		}
+		if (value instanceof Double) {
+			return TYPE_DOUBLE;
+		}
+		if (value instanceof Float) {
+			return TYPE_FLOAT;
+		}
+		if (value instanceof BigInteger) {
+			return TYPE_BIG_INTEGER;
+		}
+		if (value instanceof BigDecimal) {
+			return TYPE_BIG_DECIMAL;
+		}
+		if (value instanceof RationalNumber) {
+			return TYPE_RATIONAL;
+		}
+		throw new IllegalArgumentException("Unsupported number type: " + value.getClass().getName());
+	}
+
+	private static long zigZag(long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+
+	private static void putVarint(Sink sink, long value) throws IOException {
+		while ((value & ~0x7FL) != 0) {
+			sink.put((int) (value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		sink.put((int) value);
+	}
+
+	private byte[] getSymbol(Unit<?> unit) {
+		byte[] symbol = formatted.get(unit);
+		if (symbol == null) {
+			symbol = SimpleUnitFormat.getInstance().format(unit).getBytes(UTF_8);
+			if (formatted.size() < MAX_CACHED_UNITS) { // bounds the memory held for arbitrary units
+				formatted.put(unit, symbol);
+			}
+		}
+		return symbol;
+	}
+
+	private static void putBigInteger(Sink sink, BigInteger value) throws IOException {
+		final byte[] bytes = value.toByteArray();
+		putVarint(sink, bytes.length);
+		sink.put(bytes);
+	}
+
+	// -- DECODING
+
+	private ComparableQuantity<?> decode(Source source) throws IOException {
+		final int header = source.get();
+		final Scale scale = (header & RELATIVE_BIT) != 0 ? Scale.RELATIVE : Scale.ABSOLUTE;
+		if ((header & ~(TYPE_MASK | RELATIVE_BIT)) != 0) {
+			throw new IllegalArgumentException("Invalid header: " + header);
+		}
+		final Unit<?> unit = getUnit(source);
+		final Number value;
+		switch (header & TYPE_MASK) {
+		case TYPE_INTEGER:
+			value = toInt(unZigZag(getVarint(source)));
+			break;
+		case TYPE_LONG:
+			value = unZigZag(getVarint(source));
+			break;
+		case TYPE_FLOAT:
+			value = Float.intBitsToFloat(source.getInt());
+			break;
+		case TYPE_DOUBLE:
+			value = Double.longBitsToDouble(source.getLong());
+			break;
+		case TYPE_BIG_INTEGER:
+			value = getBigInteger(source);
+			break;
+		case TYPE_BIG_DECIMAL:
+			final int decimalScale = toInt(unZigZag(getVarint(source)));
+			value = new BigDecimal(getBigInteger(source), decimalScale);
+			break;
+		case TYPE_RATIONAL:
+			final BigInteger dividend = getBigInteger(source);
+			value = RationalNumber.of(dividend, getBigInteger(source));
+			break;
+		default:
+			throw new IllegalArgumentException("Invalid number type: " + (header & TYPE_MASK));
+		}
+		return quantity(value, unit, scale);
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static ComparableQuantity<?> quantity(Number value, Unit<?> unit, Scale scale) {
+		return Quantities.getQuantity(value, (Unit) unit, scale);
+	}
+
+	private Unit<?> getUnit(Source source) throws IOException {
+		final long reference = getVarint(source);
+		if (reference != 0) {
+			if (reference > dictionary.length) {
+				throw new IllegalArgumentException("Unit reference not within the dictionary: " + reference);
+			}
+			return dictionary[(int) reference - 1];
+		}
+		final byte[] symbol = source.getBytes(length(getVarint(source)));
+		final String string = new String(symbol, UTF_8);
+		Unit<?> unit = parsed.get(string);
+		if (unit == null) {
+			unit = SimpleUnitFormat.getInstance().parse(string);
+			if (parsed.size() < MAX_CACHED_UNITS) { // bounds the memory held for arbitrary input
+				parsed.put(string, unit);
+			}
+		}
+		return unit;
+	}
+
+	private static int toInt(long value) {
+		if ((int) value != value) {
+			throw new IllegalArgumentException("Integer out of range: " + value);
+		}
+		return (int) value;
+	}
+
+	private static long unZigZag(long value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	private static long getVarint(Source source) throws IOException {
+		long value = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			final int b = source.get();
+			value |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IllegalArgumentException("Invalid varint");
+	}
+
+	private static BigInteger getBigInteger(Source source) throws IOException {
+		final int length = length(getVarint(source));
+		if (length == 0) {
+			throw new IllegalArgumentException("Invalid integer length: 0");
+		}
+		return new BigInteger(source.getBytes(length));
+	}
+
+	private static int length(long length) {
+		if (length < 0 || length > Integer.MAX_VALUE - 8) {
+			throw new IllegalArgumentException("Invalid length: " + length);
+		}
+		return (int) length;
+	}
+
+	// -- SINKS AND SOURCES
+
+	private interface Sink {
+		void put(int b) throws IOException;
+
+		void put(byte[] bytes) throws IOException;
+
+		void putInt(int value) throws IOException;
+
+		void putLong(long value) throws IOException;
+	}
+
+	private interface Source {
+		int get() throws IOException;
+
+		/**
+		 * Reads the given number of bytes, without allocating much more than the input actually holds.
+		 */
+		byte[] getBytes(int length) throws IOException;
+
+		int getInt() throws IOException;
+
+		long getLong() throws IOException;
+	}
+
+	private static final class BufferSink implements Sink {
+		private final ByteBuffer buffer;
+
+		private BufferSink(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public void put(int b) {
+			buffer.put((byte) b);
+		}
+
+		@Override
+		public void put(byte[] bytes) {
+			buffer.put(bytes);
+		}
+
+		@Override
+		public void putInt(int value) {
+			buffer.putInt(buffer.order() == ByteOrder.BIG_ENDIAN ? value : Integer.reverseBytes(value));
+		}
+
+		@Override
+		public void putLong(long value) {
+			buffer.putLong(buffer.order() == ByteOrder.BIG_ENDIAN ? value : Long.reverseBytes(value));
+		}
+	}
+
+	private static final class ByteArraySink implements Sink {
+		private byte[] bytes = new byte[32];
+		private int size;
+
+		private void ensureCapacity(int capacity) {
+			if (capacity > bytes.length) {
+				bytes = Arrays.copyOf(bytes, Math.max(capacity, bytes.length * 2));
+			}
+		}
+
+		@Override
+		public void put(int b) {
+			ensureCapacity(size + 1);
+			bytes[size++] = (byte) b;
+		}
+
+		@Override
+		public void put(byte[] b) {
+			ensureCapacity(size + b.length);
+			System.arraycopy(b, 0, bytes, size, b.length);
+			size += b.length;
+		}
+
+		@Override
+		public void putInt(int value) {
+			put(value >>> 24);
+			put(value >>> 16);
+			put(value >>> 8);
+			put(value);
+		}
+
+		@Override
+		public void putLong(long value) {
+			putInt((int) (value >>> 32));
+			putInt((int) value);
+		}
+	}
+
+	private static final class DataSink implements Sink {
+		private final DataOutput out;
+
+		private DataSink(DataOutput out) {
+			this.out = out;
+		}
+
+		@Override
+		public void put(int b) throws IOException {
+			out.write(b);
+		}
+
+		@Override
+		public void put(byte[] bytes) throws IOException {
+			out.write(bytes);
+		}
+
+		@Override
+		public void putInt(int value) throws IOException {
+			out.writeInt(value);
+		}
+
+		@Override
+		public void putLong(long value) throws IOException {
+			out.writeLong(value);
+		}
+	}
+
+	private static final class BufferSource implements Source {
+		private final ByteBuffer buffer;
+
+		private BufferSource(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int get() {
+			return buffer.get() & 0xFF;
+		}
+
+		@Override
+		public byte[] getBytes(int length) {
+			if (length > buffer.remaining()) {
+				throw new BufferUnderflowException();
+			}
+			final byte[] bytes = new byte[length];
+			buffer.get(bytes);
+			return bytes;
+		}
+
+		@Override
+		public int getInt() {
+			final int value = buffer.getInt();
+			return buffer.order() == ByteOrder.BIG_ENDIAN ? value : Integer.reverseBytes(value);
+		}
+
+		@Override
+		public long getLong() {
+			final long value = buffer.getLong();
+			return buffer.order() == ByteOrder.BIG_ENDIAN ? value : Long.reverseBytes(value);
+		}
+	}
+
+	private static final class DataSource implements Source {
+		private final DataInput in;
+
+		private DataSource(DataInput in) {
+			this.in = in;
+		}
+
+		@Override
+		public int get() throws IOException {
+			return in.readUnsignedByte();
+		}
+
+		@Override
+		public byte[] getBytes(int length) throws IOException {
+			// reads in bounded chunks, so a corrupt length fails with EOFException before allocating it all
+			byte[] bytes = new byte[Math.min(length, MAX_CHUNK_SIZE)];
+			int size = 0;
+			while (size < length) {
+				if (size == bytes.length) {
+					bytes = Arrays.copyOf(bytes, (int) Math.min(length, 2L * size));
+				}
+				in.readFully(bytes, size, bytes.length - size);
+				size = bytes.length;
+			}
+			return bytes;
+		}
+
+		@Override
+		public int getInt() throws IOException {
+			return in.readInt();
+		}
+
+		@Override
+		public long getLong() throws IOException {
+			return in.readLong();
+		}
+	}
+}
@@ -0,0 +1,462 @@
+/*
+ * Units of Measurement Reference Implementation
+ * Copyright (c) 2005-2022, Jean-Marie Dautelle, Werner Keil, Otavio Santana.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions
+ *    and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of JSR-385, Indriya nor the names of their contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package tech.units.indriya.format;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import javax.measure.Quantity;
+import javax.measure.Unit;
+import javax.measure.format.MeasurementParseException;
+import javax.measure.format.QuantityFormat;
+
+import tech.units.indriya.quantity.QuantityVector;
+
+/**
+ * Reads quantities from line-oriented text, one quantity per line, e.g. {@code 12.5 m}.
+ * <p>
+ * Lines are separated by {@code \n} or {@code \r\n}, blank lines are skipped. The lines are read into a reusable
+ * character buffer and passed to the {@link QuantityFormat} in place, such that no {@code String} is created per line
+ * by this class. {@link #parallelStream(int)} reads chunks of lines sequentially and parses the chunks in parallel,
+ * this requires a thread-safe {@link QuantityFormat} like {@link SimpleQuantityFormat} or
+ * {@link NumberDelimiterQuantityFormat}.
+ * </p>
+ * <p>
+ * Instances of this class are not thread-safe.
+ * </p>
+ *
+ * @version 1.0
+ * @since 2.1.4
+ */
+public final class QuantityReader implements Closeable {
+
+	private static final int BUFFER_SIZE = 8192;
+
+	private final Reader reader;
+
+	private final QuantityFormat format;
+
+	private char[] buffer = new char[BUFFER_SIZE];
+
+	/** Start of the unread characters. */
+	private int position;
+
+	/** End of the characters read into the buffer. */
+	private int limit;
+
+	/** Start of the line separator search, unread characters before it contain none. */
+	private int scan;
+
+	private boolean endOfInput;
+
+	private final Line line = new Line();
+
+	private long lineNumber;
+
+	private QuantityReader(Reader reader, QuantityFormat format) {
+		this.reader = Objects.requireNonNull(reader);
+		this.format = Objects.requireNonNull(format);
+	}
+
+	/**
+	 * Returns a reader parsing the lines of the given reader with {@link SimpleQuantityFormat}.
+	 *
+	 * @param reader
+	 *            the source of the lines.
+	 * @return the quantity reader
+	 */
+	public static QuantityReader of(Reader reader) {
+		return of(reader, SimpleQuantityFormat.getInstance());
+	}
+
+	/**
+	 * Returns a reader parsing the lines of the given reader with the given format.
+	 *
+	 * @param reader
+	 *            the source of the lines.
+	 * @param format
+	 *            the format of each line.
+	 * @return the quantity reader
+	 */
+	public static QuantityReader of(Reader reader, QuantityFormat format) {
+		return new QuantityReader(reader, format);
+	}
+
+	/**
+	 * Returns a reader parsing the lines of the given channel, decoded with the given charset, with the given format.
+	 *
+	 * @param channel
+	 *            the source of the lines.
+	 * @param charset
+	 *            the charset of the channel.
+	 * @param format
+	 *            the format of each line.
+	 * @return the quantity reader
+	 */
+	public static QuantityReader of(ReadableByteChannel channel, Charset charset, QuantityFormat format) {
+		return of(Channels.newReader(channel, charset.newDecoder(), -1), format);
+	}
+
+	/**
+	 * Reads the next quantity.
+	 *
+	 * @return the next quantity, or {@code null} at the end of the input
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 * @throws MeasurementParseException
+	 *             if the line cannot be parsed, the message starts with the line number
+	 */
+	public Quantity<?> read() throws IOException {
+		if (!nextLine()) {
+			return null;
+		}
+		return parse(format, line, lineNumber);
+	}
+
+	/**
+	 * @return the number of the line read last, starting at 1
+	 */
+	public long getLineNumber() {
+		return lineNumber;
+	}
+
+	/**
+	 * Returns an iterator over the remaining quantities. I/O errors are thrown as {@link UncheckedIOException}.
+	 *
+	 * @return an iterator over the remaining quantities
+	 */
+	public Iterator<Quantity<?>> iterator() {
+		return new Iterator<Quantity<?>>() {
+			private Quantity<?> next;
+
+			@Override
+			public boolean hasNext() {
+				if (next == null) {
+					try {
+						next = read();
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				}
+				return next != null;
+			}
+
+			@Override
+			public Quantity<?> next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				final Quantity<?> quantity = next;
+				next = null;
+				return quantity;
+			}
+		};
+	}
+
+	/**
+	 * Returns a sequential stream of the remaining quantities. Closing the stream closes this reader. I/O errors are
+	 * thrown as {@link UncheckedIOException}.
+	 *
+	 * @return a stream of the remaining quantities
+	 */
+	public Stream<Quantity<?>> stream() {
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED | Spliterator.NONNULL), false)
+				.onClose(this::closeUnchecked);
+	}
+
+	/**
+	 * Returns a parallel stream of the remaining quantities, in order. The lines are read sequentially in chunks of the
+	 * given number of lines, which are parsed in parallel. Closing the stream closes this reader. I/O errors are
+	 * thrown as {@link UncheckedIOException}.
+	 *
+	 * @param chunkSize
+	 *            the number of lines per chunk.
+	 * @return a parallel stream of the remaining quantities
+	 * @throws IllegalArgumentException
+	 *             if the chunk size is not positive
+	 */
+	public Stream<Quantity<?>> parallelStream(int chunkSize) {
+		if (chunkSize <= 0) {
+			throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+		}
+		return StreamSupport.stream(new ChunkSpliterator(chunkSize), true).flatMap(Chunk::parse).onClose(this::closeUnchecked);
+	}
+
+	/**
+	 * Reads the remaining quantities into a vector of the given unit.
+	 *
+	 * @param <Q>
+	 *            the quantity type.
+	 * @param unit
+	 *            the unit of the vector.
+	 * @return the vector of the remaining quantities
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 * @throws javax.measure.UnconvertibleException
+	 *             if a quantity cannot be converted into the given unit
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public <Q extends Quantity<Q>> QuantityVector<Q> readVector(Unit<Q> unit) throws IOException {
+		try {
+			return QuantityVector.of(() -> (Iterator) iterator(), unit);
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+
+	private void closeUnchecked() {
+		try {
+			close();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Advances {@link #line} to the next line, which is not blank.
+	 */
+	private boolean nextLine() throws IOException {
+		do {
+			if (!nextLineOrBlank()) {
+				return false;
+			}
+			lineNumber++;
+		} while (line.isBlank());
+		return true;
+	}
+
+	private boolean nextLineOrBlank() throws IOException {
+		for (;;) {
+			for (int i = scan; i < limit; i++) {
+				if (buffer[i] == '\n') {
+					line.set(buffer, position, i > position && buffer[i - 1] == '\r' ? i - 1 : i);
+					position = scan = i + 1;
+					return true;
+				}
+			}
+			scan = limit;
+			if (endOfInput) {
+				if (position == limit) {
+					return false;
+				}
+				line.set(buffer, position, limit);
+				position = scan = limit;
+				return true;
+			}
+			if (position > 0) {
+				System.arraycopy(buffer, position, buffer, 0, limit - position);
+				limit -= position;
+				scan -= position;
+				position = 0;
+			}
+			if (limit == buffer.length) {
+				buffer = Arrays.copyOf(buffer, buffer.length * 2);
+			}
+			final int read = reader.read(buffer, limit, buffer.length - limit);
+			if (read < 0) {
+				endOfInput = true;
+			} else {
+				limit += read;
+			}
+		}
+	}
+
+	private static Quantity<?> parse(QuantityFormat format, Line line, long lineNumber) {
+		try {
+			return format.parse(line);
+		} catch (MeasurementParseException | IllegalArgumentException e) {
+			final int errorIndex = e instanceof MeasurementParseException ? ((MeasurementParseException) e).getPosition() : 0;
+			final MeasurementParseException exception = new MeasurementParseException("Line " + lineNumber + ": " + e.getMessage(),
+					line.toString(), errorIndex);
+			exception.initCause(e);
+			throw exception;
+		}
+	}
+
+	/**
+	 * A line of a character buffer, reused for all lines.
+	 */
+	private static final class Line implements CharSequence {
+		private char[] chars;
+		private int start;
+		private int end;
+
+		private void set(char[] chars, int start, int end) {
+			this.chars = chars;
+			this.start = start;
+			this.end = end;
+		}
+
+		private boolean isBlank() {
+			for (int i = start; i < end; i++) {
+				if (chars[i] > ' ') {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public int length() {
+			return end - start;
+		}
+
+		@Override
+		public char charAt(int index) {
+			if (index < 0 || index >= end - start) {
+				throw new StringIndexOutOfBoundsException(index);
+			}
+			return chars[start + index];
+		}
+
+		@Override
+		public CharSequence subSequence(int from, int to) {
+			if (from < 0 || from > to || to > end - start) {
+				throw new StringIndexOutOfBoundsException("begin " + from + ", end " + to + ", length " + (end - start));
+			}
+			return new String(chars, start + from, to - from);
+		}
+
+		@Override
+		public String toString() {
+			return new String(chars, start, end - start);
+		}
+	}
+
+	/**
+	 * A copy of consecutive lines, to be parsed independently of the reader.
+	 */
+	private final class Chunk {
+		private char[] chars = new char[BUFFER_SIZE];
+		private int length;
+		private int[] ends;
+		private long[] lineNumbers;
+		private int size;
+
+		private Chunk(int capacity) {
+			ends = new int[capacity];
+			lineNumbers = new long[capacity];
+		}
+
+		private void add(Line line, long lineNumber) {
+			final int lineLength = line.length();
+			if (length + lineLength > chars.length) {
+				chars = Arrays.copyOf(chars, Math.max(chars.length * 2, length + lineLength));
+			}
+			System.arraycopy(line.chars, line.start, chars, length, lineLength);
+			length += lineLength;
+			ends[size] = length;
+			lineNumbers[size++] = lineNumber;
+		}
+
+		private Stream<Quantity<?>> parse() {
+			final List<Quantity<?>> quantities = new ArrayList<>(size);
+			final Line line = new Line();
+			for (int i = 0; i < size; i++) {
+				line.set(chars, i == 0 ? 0 : ends[i - 1], ends[i]);
+				quantities.add(QuantityReader.parse(format, line, lineNumbers[i]));
+			}
+			return quantities.stream();
+		}
+	}
+
+	/**
+	 * Reads one chunk per element, and splits off one chunk at a time.
+	 */
+	private final class ChunkSpliterator implements Spliterator<Chunk> {
+		private final int chunkSize;
+
+		private ChunkSpliterator(int chunkSize) {
+			this.chunkSize = chunkSize;
+		}
+
+		private Chunk nextChunk() {
+			Chunk chunk = null;
+			try {
+				while ((chunk == null || chunk.size < chunkSize) && nextLine()) {
+					if (chunk == null) {
+						chunk = new Chunk(chunkSize);
+					}
+					chunk.add(line, lineNumber);
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			return chunk;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super Chunk> action) {
+			final Chunk chunk = nextChunk();
+			if (chunk == null) {
+				return false;
+			}
+			action.accept(chunk);
+			return true;
+		}
+
+		@Override
+		public Spliterator<Chunk> trySplit() {
+			final Chunk chunk = nextChunk();
+			return chunk == null ? null : Stream.of(chunk).spliterator();
+		}
+
+		@Override
+		public long estimateSize() {
+			return Long.MAX_VALUE;
+		}
+
+		@Override
+		public int characteristics() {
+			return ORDERED | NONNULL;
+		}
+	}
+}
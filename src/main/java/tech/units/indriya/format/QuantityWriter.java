@@ -0,0 +1,201 @@
+/*
+ * Units of Measurement Reference Implementation
+ * Copyright (c) 2005-2022, Jean-Marie Dautelle, Werner Keil, Otavio Santana.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions
+ *    and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of JSR-385, Indriya nor the names of their contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package tech.units.indriya.format;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import javax.measure.Quantity;
+import javax.measure.Unit;
+import javax.measure.format.UnitFormat;
+
+import tech.units.indriya.AbstractUnit;
+import tech.units.indriya.internal.format.UnitKey;
+import tech.units.indriya.quantity.QuantityVector;
+
+/**
+ * Writes quantities as line-oriented text, one quantity per line, in the format of {@link SimpleQuantityFormat}, e.g.
+ * {@code 12.5 m}. The lines can be read back by {@link QuantityReader}.
+ * <p>
+ * The string of each unit is formatted once and cached. {@link Integer} and {@link Long} values are written without
+ * creating a {@code String}.
+ * </p>
+ * <p>
+ * Instances of this class are not thread-safe.
+ * </p>
+ *
+ * @version 1.0
+ * @since 2.1.4
+ */
+public final class QuantityWriter implements Closeable, Flushable {
+
+	private final Writer writer;
+
+	private final UnitFormat unitFormat;
+
+	private final String delimiter;
+
+	private final Map<UnitKey, String> unitStrings = new HashMap<>();
+
+	/** Holds the digits of integral values, the longest is {@link Long#MIN_VALUE}. */
+	private final char[] digits = new char[20];
+
+	private QuantityWriter(Writer writer, UnitFormat unitFormat, String delimiter) {
+		Objects.requireNonNull(writer);
+		this.writer = writer instanceof BufferedWriter ? writer : new BufferedWriter(writer);
+		this.unitFormat = Objects.requireNonNull(unitFormat);
+		this.delimiter = Objects.requireNonNull(delimiter);
+	}
+
+	/**
+	 * Returns a writer formatting units with {@link SimpleUnitFormat}, separated from the value by a space.
+	 *
+	 * @param writer
+	 *            the destination of the lines, buffered unless it is a {@link BufferedWriter}.
+	 * @return the quantity writer
+	 */
+	public static QuantityWriter of(Writer writer) {
+		return of(writer, SimpleUnitFormat.getInstance(), " ");
+	}
+
+	/**
+	 * Returns a writer formatting units with the given format, separated from the value by the given delimiter.
+	 *
+	 * @param writer
+	 *            the destination of the lines, buffered unless it is a {@link BufferedWriter}.
+	 * @param unitFormat
+	 *            the format of the units.
+	 * @param delimiter
+	 *            the delimiter between value and unit.
+	 * @return the quantity writer
+	 */
+	public static QuantityWriter of(Writer writer, UnitFormat unitFormat, String delimiter) {
+		return new QuantityWriter(writer, unitFormat, delimiter);
+	}
+
+	/**
+	 * Writes the given quantity as a line.
+	 *
+	 * @param quantity
+	 *            the quantity to write.
+	 * @return this writer
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	public QuantityWriter write(Quantity<?> quantity) throws IOException {
+		writeValue(quantity.getValue());
+		writeUnit(quantity.getUnit());
+		return this;
+	}
+
+	/**
+	 * Writes the given quantities, one per line.
+	 *
+	 * @param quantities
+	 *            the quantities to write.
+	 * @return this writer
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	public QuantityWriter writeAll(Iterable<? extends Quantity<?>> quantities) throws IOException {
+		for (Quantity<?> quantity : quantities) {
+			write(quantity);
+		}
+		return this;
+	}
+
+	/**
+	 * Writes the quantities of the given vector, one per line.
+	 *
+	 * @param vector
+	 *            the quantities to write.
+	 * @return this writer
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	public QuantityWriter writeAll(QuantityVector<?> vector) throws IOException {
+		final Unit<?> unit = vector.getUnit();
+		for (int i = 0; i < vector.size(); i++) {
+			writer.write(Double.toString(vector.getValue(i)));
+			writeUnit(unit);
+		}
+		return this;
+	}
+
+	@Override
+	public void flush() throws IOException {
+		writer.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		writer.close();
+	}
+
+	private void writeValue(Number value) throws IOException {
+		if (value instanceof Integer || value instanceof Long) {
+			long remaining = value.longValue();
+			int start = digits.length;
+			final boolean negative = remaining < 0;
+			do {
+				// Stays in the range of the digits, such that Long.MIN_VALUE is not negated.
+				digits[--start] = (char) ('0' + Math.abs(remaining % 10));
+				remaining /= 10;
+			} while (remaining != 0);
+			if (negative) {
+				digits[--start] = '-';
+			}
+			writer.write(digits, start, digits.length - start);
+		} else {
+			writer.write(value.toString());
+		}
+	}
+
+	/**
+	 * Writes the delimiter and unit, or nothing for {@link AbstractUnit#ONE} like {@link SimpleQuantityFormat}, followed
+	 * by a line separator.
+	 */
+	private void writeUnit(Unit<?> unit) throws IOException {
+		final UnitKey key = UnitKey.of(unit);
+		String unitString = unitStrings.get(key);
+		if (unitString == null) {
+			unitString = unit.equals(AbstractUnit.ONE) ? "" : delimiter + unitFormat.format(unit);
+			unitStrings.put(key, unitString);
+		}
+		writer.write(unitString);
+		writer.write('\n');
+	}
+}
@@ -198,13 +198,12 @@ public class SimpleQuantityFormat extends AbstractQuantityFormat {
 	@Override
 	public Quantity<?> parse(CharSequence csq, ParsePosition cursor) throws MeasurementParseException {
 	    
-	    final NumberFormat numberFormat = NumberFormat.getInstance();
 	    final SimpleUnitFormat simpleUnitFormat = SimpleUnitFormat.getInstance();
 	    
         if (mixDelimiter != null && !mixDelimiter.equals(delimiter)) {
-            return parseMixedAsLeading(csq.toString(), numberFormat, simpleUnitFormat, delimiter, mixDelimiter, cursor.getIndex());
+            return parseMixedAsLeading(csq.toString(), NumberFormat.getInstance(), simpleUnitFormat, delimiter, mixDelimiter, cursor.getIndex());
         } else if (mixDelimiter != null && mixDelimiter.equals(delimiter)) {
-            return parseMixedAsLeading(csq.toString(), numberFormat, simpleUnitFormat, delimiter, cursor.getIndex());
+            return parseMixedAsLeading(csq.toString(), NumberFormat.getInstance(), simpleUnitFormat, delimiter, cursor.getIndex());
         }
         
         final RationalNumberScanner scanner = new RationalNumberScanner(csq, cursor, null /*TODO should'nt this be numberFormat as well*/);
@@ -259,29 +258,13 @@ public class SimpleQuantityFormat extends AbstractQuantityFormat {
 	
     @Override
     protected StringBuffer formatMixed(MixedQuantity<?> mixed, StringBuffer dest) {
-        final StringBuffer sb = new StringBuffer();
-        int i = 0;
-        for (Quantity<?> q : mixed.getQuantities()) {
-            sb.append(format(q));
-            if (i < mixed.getQuantities().size() - 1 ) {
-                sb.append((mixDelimiter != null ? mixDelimiter : DEFAULT_DELIMITER)); // we need null for parsing but not
-            }
-            i++;
-        }
-        return sb;
+        // we need null for parsing but not formatting
+        return CommonFormatter.formatMixed(this, mixed.getQuantities(), mixDelimiter != null ? mixDelimiter : DEFAULT_DELIMITER, dest);
     }
 	
     @Override
     protected StringBuffer formatCompound(CompoundQuantity<?> comp, StringBuffer dest) {
-        final StringBuffer sb = new StringBuffer();
-        int i = 0;
-        for (Quantity<?> q : comp.getQuantities()) {
-            sb.append(format(q));
-            if (i < comp.getQuantities().size() - 1 ) {
-                sb.append((mixDelimiter != null ? mixDelimiter : DEFAULT_DELIMITER)); // we need null for parsing but not
-            }
-            i++;
-        }
-        return sb;
+        // we need null for parsing but not formatting
+        return CommonFormatter.formatMixed(this, comp.getQuantities(), mixDelimiter != null ? mixDelimiter : DEFAULT_DELIMITER, dest);
     }
 }
\ No newline at end of file
@@ -32,6 +32,7 @@ package tech.units.indriya.format;
 import java.io.IOException;
 import java.text.FieldPosition;
 import java.text.ParsePosition;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -50,9 +51,12 @@ import javax.measure.format.UnitFormat;
 import static javax.measure.MetricPrefix.MICRO;
 
 import tech.units.indriya.AbstractUnit;
+import tech.units.indriya.format.PrefixedUnitTable.Prefixes;
 import tech.units.indriya.function.AddConverter;
 import tech.units.indriya.function.MultiplyConverter;
 import tech.units.indriya.function.RationalNumber;
+import tech.units.indriya.internal.format.FormatCache;
+import tech.units.indriya.internal.format.UnitKey;
 import tech.units.indriya.unit.AlternateUnit;
 import tech.units.indriya.unit.AnnotatedUnit;
 import tech.units.indriya.unit.BaseUnit;
@@ -101,6 +105,8 @@ public abstract class SimpleUnitFormat extends AbstractUnitFormat {
     }
     
     private static final String MU = "\u03bc";
+
+    private static final int FORMAT_CACHE_SIZE = 1024;
     
     /**
      * Holds the standard unit format.
@@ -313,6 +319,38 @@ public abstract class SimpleUnitFormat extends AbstractUnitFormat {
         }
     }
 
+    /**
+     * An immutable snapshot of the labels and aliases of a format. Changes create a new snapshot, such that lookups need
+     * no locking.
+     */
+    private static final class Registry {
+        private static final Registry EMPTY = new Registry(Collections.emptyMap(), Collections.emptyMap());
+
+        private final Map<String, Unit<?>> nameToUnit;
+        private final Map<Unit<?>, String> unitToName;
+
+        private Registry(Map<String, Unit<?>> nameToUnit, Map<Unit<?>, String> unitToName) {
+            this.nameToUnit = nameToUnit;
+            this.unitToName = unitToName;
+        }
+
+        private Registry label(Unit<?> unit, String label) {
+            final Map<Unit<?>, String> unitToName = new HashMap<>(this.unitToName);
+            unitToName.put(unit, label);
+            return new Registry(withName(label, unit), unitToName);
+        }
+
+        private Registry alias(Unit<?> unit, String alias) {
+            return new Registry(withName(alias, unit), unitToName);
+        }
+
+        private Map<String, Unit<?>> withName(String name, Unit<?> unit) {
+            final Map<String, Unit<?>> nameToUnit = new HashMap<>(this.nameToUnit);
+            nameToUnit.put(name, unit);
+            return nameToUnit;
+        }
+    }
+
     /**
      * This class represents the default (Unicode) format.
      * @deprecated internal class, that will be made private soon, please extend either SimpleUnitFormat or AbstractUnitFormat
@@ -350,10 +388,36 @@ public abstract class SimpleUnitFormat extends AbstractUnitFormat {
                 .collect(Collectors.toList())
                 .toArray(new UnitConverter[] {});
         
+        /**
+         * The metric prefixes, parsed with their symbols and formatted with the given symbol for {@code MICRO}. Binary
+         * prefixes are parsed as well.
+         */
+        static Prefixes metricPrefixes(String micro) {
+            final Prefixes prefixes = new Prefixes().with(MICRO, micro);
+            for (MetricPrefix prefix : MetricPrefix.values()) {
+                if (prefix != MICRO) {
+                    prefixes.with(prefix, prefix.getSymbol());
+                }
+            }
+            for (BinaryPrefix prefix : BinaryPrefix.values()) {
+                prefixes.alias(prefix, prefix.getSymbol());
+            }
+            return prefixes;
+        }
+
+        private static final Prefixes METRIC_PREFIXES = metricPrefixes(MICRO.getSymbol());
+
+        private static final Prefixes METRIC_PREFIXES_MU = metricPrefixes(MU).alias(MICRO, MICRO.getSymbol());
+
         /**
          * Holds the unique symbols collection (base units or alternate units).
          */
         private final Map<String, Unit<?>> symbolToUnit = new HashMap<>();
+
+        /**
+         * Holds the units, whose prefixed forms are resolved on demand.
+         */
+        final PrefixedUnitTable prefixedUnits = new PrefixedUnitTable();
         
         private static enum Token { EOF, IDENTIFIER, OPEN_PAREN, CLOSE_PAREN, EXPONENT, MULTIPLY, DIVIDE, 
             PLUS, INTEGER, FLOAT };
@@ -373,47 +437,24 @@ public abstract class SimpleUnitFormat extends AbstractUnitFormat {
                 Unit<?> si = METRIC_UNITS[i];
                 String symbol = (si instanceof BaseUnit) ? ((BaseUnit<?>) si).getSymbol() : ((AlternateUnit<?>) si).getSymbol();
                 label(si, symbol);
-                for (int j = 0; j < METRIC_PREFIX_SYMBOLS.length; j++) {
-                    Unit<?> u = si.prefix(MetricPrefix.values()[j]);
-                    label(u, METRIC_PREFIX_SYMBOLS[j] + symbol);
-                    if ( "µ".equals(METRIC_PREFIX_SYMBOLS[j]) ) {
-                        label(u, MU + symbol);
-                    }
-                } // TODO what about BINARY_PREFIX here?
+                prefixedUnits.label(si, symbol, METRIC_PREFIXES_MU);
             }
 
             // -- GRAM/KILOGRAM
 
             label(Units.GRAM, "g");
-            for(MetricPrefix prefix : MetricPrefix.values()) {
-                switch (prefix) {
-                case KILO:
-                    label(Units.KILOGRAM, "kg");
-                    break;
-                case MICRO:
-                    label(Units.GRAM.prefix(prefix), prefix.getSymbol()+"g");
-                    break;
-                default:
-                    label(Units.GRAM.prefix(prefix), prefix.getSymbol()+"g");
-                    break;
-                }
-            }
-
-            label(MICRO(Units.GRAM), MetricPrefix.MICRO.getSymbol() + "g");
+            label(Units.KILOGRAM, "kg");
+            prefixedUnits.label(Units.GRAM, "g", METRIC_PREFIXES);
 
             // Alias and ASCIIFormat for Ohm
             alias(Units.OHM, "Ohm");
-            for (int i = 0; i < METRIC_PREFIX_SYMBOLS.length; i++) {
-                alias(Units.OHM.prefix(MetricPrefix.values()[i]), METRIC_PREFIX_SYMBOLS[i] + "Ohm");
-            }
+            prefixedUnits.alias(Units.OHM, "Ohm", METRIC_PREFIXES);
 
             // Special case for DEGREE_CELSIUS.
             label(Units.CELSIUS, "℃");
             alias(Units.CELSIUS, "°C");
-            for (int i = 0; i < METRIC_PREFIX_SYMBOLS.length; i++) {
-                label(Units.CELSIUS.prefix(MetricPrefix.values()[i]), METRIC_PREFIX_SYMBOLS[i] + "℃");
-                alias(Units.CELSIUS.prefix(MetricPrefix.values()[i]), METRIC_PREFIX_SYMBOLS[i] + "°C");
-            }
+            prefixedUnits.label(Units.CELSIUS, "℃", METRIC_PREFIXES);
+            prefixedUnits.alias(Units.CELSIUS, "°C", METRIC_PREFIXES);
 
             label(Units.PERCENT, "%");
             label(Units.METRE, "m");
@@ -434,9 +475,7 @@ public abstract class SimpleUnitFormat extends AbstractUnitFormat {
             // -- LITRE
 
             label(Units.LITRE, "l");
-            for(Prefix prefix : MetricPrefix.values()) {
-                label(Units.LITRE.prefix(prefix), prefix.getSymbol()+"l");
-            }   
+            prefixedUnits.label(Units.LITRE, "l", METRIC_PREFIXES);
             label(Units.NEWTON, "N");
             label(Units.RADIAN, "rad");
 
@@ -450,14 +489,14 @@ public abstract class SimpleUnitFormat extends AbstractUnitFormat {
         
 
         /**
-         * Holds the name to unit mapping.
+         * Holds the name to unit and unit to name mappings, replaced on every change.
          */
-        protected final Map<String, Unit<?>> nameToUnit = new HashMap<>();
+        private volatile Registry registry = Registry.EMPTY;
 
         /**
-         * Holds the unit to name mapping.
+         * Holds the formatted units.
          */
-        protected final Map<Unit<?>, String> unitToName = new HashMap<>();
+        private final FormatCache<UnitKey, String> formatted = new FormatCache<>(FORMAT_CACHE_SIZE);
 
         @Override
         public String toString() {
@@ -469,9 +508,9 @@ public abstract class SimpleUnitFormat extends AbstractUnitFormat {
             if (!isValidIdentifier(label))
                 throw new IllegalArgumentException("Label: " + label + " is not a valid identifier.");
             synchronized (this) {
-                nameToUnit.put(label, unit);
-                unitToName.put(unit, label);
+                registry = registry.label(unit, label);
             }
+            FormatCache.invalidateAll();
         }
 
         @Override
@@ -479,8 +518,9 @@ public abstract class SimpleUnitFormat extends AbstractUnitFormat {
             if (!isValidIdentifier(alias))
                 throw new IllegalArgumentException("Alias: " + alias + " is not a valid identifier.");
             synchronized (this) {
-                nameToUnit.put(alias, unit);
+                registry = registry.alias(unit, alias);
             }
+            FormatCache.invalidateAll();
         }
 
         @Override
@@ -496,10 +536,23 @@ public abstract class SimpleUnitFormat extends AbstractUnitFormat {
                             && (ch != '[') && (ch != ']') && (ch != '\u00b9') && (ch != '\u00b2') && (ch != '\u00b3') && (ch != '^') && (ch != '+') && (ch != '-'));
         }
 
+        // Returns the label for the specified unit or null.
+        final String labelFor(Unit<?> unit) {
+            return registry.unitToName.get(unit);
+        }
+
+        // Returns the unit labelled or aliased with the specified name or null.
+        final Unit<?> unitLabelled(String name) {
+            return registry.nameToUnit.get(name);
+        }
+
         // Returns the name for the specified unit or null if product unit.
         protected String nameFor(Unit<?> unit) {
             // Searches label database.
-            String label = unitToName.get(unit);
+            String label = labelFor(unit);
+            if (label != null)
+                return label;
+            label = prefixedUnits.nameFor(unit);
             if (label != null)
                 return label;
             if (unit instanceof BaseUnit)
@@ -588,12 +641,15 @@ public abstract class SimpleUnitFormat extends AbstractUnitFormat {
 
         // Returns the unit for the specified name.
         protected Unit<?> unitFor(String name) {
-            Unit<?> unit = nameToUnit.get(name);
+            Unit<?> unit = unitLabelled(name);
             if (unit != null) {
                 return unit;
             } else {
                 unit = symbolToUnit.get(name);
             }
+            if (unit == null) {
+                unit = prefixedUnits.unitFor(name);
+            }
             return unit;
         }
 
@@ -851,6 +907,22 @@ public abstract class SimpleUnitFormat extends AbstractUnitFormat {
 
         @Override
         public Appendable format(Unit<?> unit, Appendable appendable) throws IOException {
+            if (unit.getSymbol() != null) {
+                // equal units may carry different symbols, which are looked up directly anyway
+                return formatUncached(unit, appendable);
+            }
+            return appendable.append(formatted.get(UnitKey.of(unit), k -> formatUncached(unit)));
+        }
+
+        private String formatUncached(Unit<?> unit) {
+            try {
+                return formatUncached(unit, new StringBuilder()).toString();
+            } catch (IOException e) {
+                throw new MeasurementError(e); // Should never happen.
+            }
+        }
+
+        Appendable formatUncached(Unit<?> unit, Appendable appendable) throws IOException {
             String name = nameFor(unit);
             if (name != null) {
                 return appendable.append(name);
@@ -952,7 +1024,7 @@ public abstract class SimpleUnitFormat extends AbstractUnitFormat {
 
         @Override
         public Unit<?> parse(CharSequence csq, ParsePosition cursor) throws IllegalArgumentException {
-            return parseObject(csq.toString(), cursor);
+            return parseCached(csq, cursor, (s, pos) -> parseObject(s.toString(), pos));
         }
     }
 
@@ -961,6 +1033,10 @@ public abstract class SimpleUnitFormat extends AbstractUnitFormat {
      */
     protected final static class ASCIIFormat extends DefaultFormat {
         
+        private static final Prefixes ASCII_PREFIXES = metricPrefixes("micro");
+
+        private static final Prefixes ASCII_MICRO = new Prefixes().with(MICRO, "micro");
+
         private ASCIIFormat() {
             super(); 
         }
@@ -973,42 +1049,23 @@ public abstract class SimpleUnitFormat extends AbstractUnitFormat {
                 String symbol = (si instanceof BaseUnit) ? ((BaseUnit<?>) si).getSymbol() : ((AlternateUnit<?>) si).getSymbol();
                 if (isAllASCII(symbol))
                     label(si, symbol);
-                for (int j = 0; j < METRIC_PREFIX_SYMBOLS.length; j++) {
-                    Unit<?> u = si.prefix(MetricPrefix.values()[j]);
-                    if ( "µ".equals(METRIC_PREFIX_SYMBOLS[j]) ) {
-                        label(u, "micro" + asciiSymbol(symbol));
-                    }
-                } // TODO what about BINARY_PREFIX here?
+                // only 'µ' needs an ASCII form, the other prefixes are resolved by DEFAULT
+                prefixedUnits.label(si, asciiSymbol(symbol), ASCII_MICRO);
             }
 
             // -- GRAM/KILOGRAM
 
             label(Units.GRAM, "g");
-            for(MetricPrefix prefix : MetricPrefix.values()) {
-                switch (prefix) {
-                case KILO:
-                    label(Units.KILOGRAM, "kg");
-                    break;
-                case MICRO:
-                    label(MICRO(Units.GRAM), "microg"); // instead of 'µg' -> 'microg'
-                    break;
-                default:
-                    label(Units.GRAM.prefix(prefix), prefix.getSymbol()+"g");
-                    break;
-                }
-            }
+            label(Units.KILOGRAM, "kg");
+            prefixedUnits.label(Units.GRAM, "g", ASCII_PREFIXES); // 'µg' -> 'microg'
 
             // Alias and ASCIIFormat for Ohm
             label(Units.OHM, "Ohm");
-            for (int i = 0; i < METRIC_PREFIX_SYMBOLS.length; i++) {
-                label(Units.OHM.prefix(MetricPrefix.values()[i]), asciiPrefix(METRIC_PREFIX_SYMBOLS[i]) + "Ohm");
-            }
+            prefixedUnits.label(Units.OHM, "Ohm", ASCII_PREFIXES);
 
             // Special case for DEGREE_CELSIUS.
             label(Units.CELSIUS, "Celsius");
-            for (int i = 0; i < METRIC_PREFIX_SYMBOLS.length; i++) {
-                label(Units.CELSIUS.prefix(MetricPrefix.values()[i]), asciiPrefix(METRIC_PREFIX_SYMBOLS[i]) + "Celsius");
-            }
+            prefixedUnits.label(Units.CELSIUS, "Celsius", ASCII_PREFIXES);
             alias(Units.CELSIUS, "Cel");
 
             label(Units.METRE, "m");
@@ -1020,13 +1077,7 @@ public abstract class SimpleUnitFormat extends AbstractUnitFormat {
             // -- LITRE
 
             label(Units.LITRE, "l");
-            for(Prefix prefix : MetricPrefix.values()) {
-                if(prefix==MICRO) {
-                    label(MICRO(Units.LITRE), "microL"); // instead of 'µL' -> 'microL'
-                } else {
-                    label(Units.LITRE.prefix(prefix), prefix.getSymbol()+"L");
-                }
-            }   
+            prefixedUnits.label(Units.LITRE, "L", ASCII_PREFIXES); // 'µL' -> 'microL'
             label(Units.NEWTON, "N");
             label(Units.RADIAN, "rad");
 
@@ -1039,7 +1090,9 @@ public abstract class SimpleUnitFormat extends AbstractUnitFormat {
         @Override
         protected String nameFor(Unit<?> unit) {
             // First search if specific ASCII name should be used.
-            String name = unitToName.get(unit);
+            String name = labelFor(unit);
+            if (name == null)
+                name = prefixedUnits.nameFor(unit);
             if (name != null)
                 return name;
             // Else returns default name.
@@ -1049,7 +1102,9 @@ public abstract class SimpleUnitFormat extends AbstractUnitFormat {
         @Override
         protected Unit<?> unitFor(String name) {
             // First search if specific ASCII name.
-            Unit<?> unit = nameToUnit.get(name);
+            Unit<?> unit = unitLabelled(name);
+            if (unit == null)
+                unit = prefixedUnits.unitFor(name);
             if (unit != null)
                 return unit;
             // Else returns default mapping.
@@ -1062,7 +1117,7 @@ public abstract class SimpleUnitFormat extends AbstractUnitFormat {
         }
 
         @Override
-        public Appendable format(Unit<?> unit, Appendable appendable) throws IOException {
+        Appendable formatUncached(Unit<?> unit, Appendable appendable) throws IOException {
             String name = nameFor(unit);
             if (name != null)
                 return appendable.append(name);
@@ -1104,10 +1159,6 @@ public abstract class SimpleUnitFormat extends AbstractUnitFormat {
         }
     }
 
-    private static String asciiPrefix(String prefix) {
-        return "µ".equals(prefix) ? "micro" : prefix;
-    }
-
     private static String asciiSymbol(String s) {
         return "Ω".equals(s) ? "Ohm" : s;
     }
@@ -36,9 +36,9 @@ import javax.measure.UnitConverter;
 import tech.units.indriya.AbstractUnit;
 import tech.units.indriya.function.AbstractConverter;
 import tech.units.indriya.function.MultiplyConverter;
+import tech.units.indriya.internal.format.FormatCache;
 
 import java.lang.reflect.Field;
-import java.util.Collections;
 import java.util.Comparator;
 import java.util.Enumeration;
 import java.util.HashMap;
@@ -65,6 +65,11 @@ import java.util.stream.Collectors;
  * whereas labels map in both directions. A given unit may have any number of aliases, but may have only one label.
  * </p>
  *
+ * <p>
+ * The mappings are held in immutable snapshots, such that lookups need no locks. Each call of a <code>label</code> or <code>alias</code> method
+ * publishes a new snapshot.
+ * </p>
+ *
  * @author <a href="mailto:eric-r@northwestern.edu">Eric Russell</a>
  * @author <a href="mailto:werner@units.tech">Werner Keil</a>
  * @version 2.1, November 21, 2020
@@ -73,22 +78,10 @@ import java.util.stream.Collectors;
 public final class SymbolMap {
   private static final Logger logger = Logger.getLogger(SymbolMap.class.getName());
 
-  private final Map<String, Unit<?>> symbolToUnit;
-  private final Map<Unit<?>, String> unitToSymbol;
-  private final Map<String, Object> symbolToPrefix;
-  private final Map<Object, String> prefixToSymbol;
-  private final Map<UnitConverter, Prefix> converterToPrefix;
-
   /**
-   * Creates an empty mapping.
+   * Holds the current mappings, replaced as a whole whenever a mapping changes.
    */
-  private SymbolMap() {
-    symbolToUnit = new TreeMap<>();
-    unitToSymbol = new HashMap<>();
-    symbolToPrefix = new TreeMap<>();
-    prefixToSymbol = new HashMap<>();
-    converterToPrefix = new HashMap<>();
-  }
+  private volatile Mappings mappings;
 
   /**
    * Creates a symbol map from the specified resource bundle,
@@ -97,7 +90,11 @@ public final class SymbolMap {
    *          the resource bundle.
    */
   private SymbolMap(ResourceBundle rb) {
-    this();
+    final Map<String, Unit<?>> symbolToUnit = new TreeMap<>();
+    final Map<Unit<?>, String> unitToSymbol = new HashMap<>();
+    final Map<String, Object> symbolToPrefix = new TreeMap<>();
+    final Map<Object, String> prefixToSymbol = new HashMap<>();
+    final Map<UnitConverter, Prefix> converterToPrefix = new HashMap<>();
     for (Enumeration<String> i = rb.getKeys(); i.hasMoreElements();) {
       String fqn = i.nextElement();
       String symbol = rb.getString(fqn);
@@ -117,13 +114,14 @@ public final class SymbolMap {
         Field field = c.getField(fieldName);
         Object value = field.get(null);
         if (value instanceof Unit<?>) {
-          if (isAlias) {
-            alias((Unit) value, symbol);
-          } else {
-            label((AbstractUnit<?>) value, symbol);
+          symbolToUnit.put(symbol, (Unit<?>) value);
+          if (!isAlias) {
+            unitToSymbol.put((AbstractUnit<?>) value, symbol);
           }
         } else if (value instanceof Prefix) {
-          label((Prefix) value, symbol);
+          symbolToPrefix.put(symbol, value);
+          prefixToSymbol.put(value, symbol);
+          converterToPrefix.put(MultiplyConverter.ofPrefix((Prefix) value), (Prefix) value);
         } else {
           throw new ClassCastException("unable to cast " + value + " to Unit or Prefix");
         }
@@ -131,6 +129,7 @@ public final class SymbolMap {
         logger.log(Level.SEVERE, "Error", error);
       }
     }
+    mappings = new Mappings(symbolToUnit, unitToSymbol, symbolToPrefix, prefixToSymbol, converterToPrefix);
   }
 
   /**
@@ -153,9 +152,14 @@ public final class SymbolMap {
    * @param symbol
    *          the new symbol for the unit.
    */
-  public void label(Unit<?> unit, String symbol) {
+  public synchronized void label(Unit<?> unit, String symbol) {
+    final Mappings current = mappings;
+    final Map<String, Unit<?>> symbolToUnit = new TreeMap<>(current.symbolToUnit);
+    final Map<Unit<?>, String> unitToSymbol = new HashMap<>(current.unitToSymbol);
     symbolToUnit.put(symbol, unit);
     unitToSymbol.put(unit, symbol);
+    mappings = new Mappings(symbolToUnit, unitToSymbol, current.symbolToPrefix, current.prefixToSymbol, current.converterToPrefix);
+    FormatCache.invalidateAll();
   }
 
   /**
@@ -168,8 +172,12 @@ public final class SymbolMap {
    * @param symbol
    *          the new symbol for the unit.
    */
-  public void alias(Unit<?> unit, String symbol) {
+  public synchronized void alias(Unit<?> unit, String symbol) {
+    final Mappings current = mappings;
+    final Map<String, Unit<?>> symbolToUnit = new TreeMap<>(current.symbolToUnit);
     symbolToUnit.put(symbol, unit);
+    mappings = new Mappings(symbolToUnit, current.unitToSymbol, current.symbolToPrefix, current.prefixToSymbol, current.converterToPrefix);
+    FormatCache.invalidateAll();
   }
 
   /**
@@ -178,10 +186,16 @@ public final class SymbolMap {
    * </code>
    * 
    */
-  public void label(Prefix prefix, String symbol) {
+  public synchronized void label(Prefix prefix, String symbol) {
+    final Mappings current = mappings;
+    final Map<String, Object> symbolToPrefix = new TreeMap<>(current.symbolToPrefix);
+    final Map<Object, String> prefixToSymbol = new HashMap<>(current.prefixToSymbol);
+    final Map<UnitConverter, Prefix> converterToPrefix = new HashMap<>(current.converterToPrefix);
     symbolToPrefix.put(symbol, prefix);
     prefixToSymbol.put(prefix, symbol);
     converterToPrefix.put(MultiplyConverter.ofPrefix(prefix), prefix);
+    mappings = new Mappings(current.symbolToUnit, current.unitToSymbol, symbolToPrefix, prefixToSymbol, converterToPrefix);
+    FormatCache.invalidateAll();
   }
 
   /**
@@ -192,7 +206,7 @@ public final class SymbolMap {
    * @return the corresponding unit or <code>null</code> if none.
    */
   public Unit<?> getUnit(String symbol) {
-    return symbolToUnit.get(symbol);
+    return mappings.symbolToUnit.get(symbol);
   }
 
   /**
@@ -203,7 +217,7 @@ public final class SymbolMap {
    * @return the corresponding symbol or <code>null</code> if none.
    */
   public String getSymbol(Unit<?> unit) {
-    return unitToSymbol.get(unit);
+    return mappings.unitToSymbol.get(unit);
   }
 
   /**
@@ -214,18 +228,138 @@ public final class SymbolMap {
    * @return the corresponding prefix or <code>null</code> if none.
    */
   public Prefix getPrefix(String symbol) {
-	final List<String> list = symbolToPrefix.keySet().stream().collect(Collectors.toList());
-	final Comparator<String> comparator = Comparator.comparing(String::length);
-	Collections.sort(list, comparator.reversed());
+    return getPrefix(symbol, 0, symbol.length());
+  }
+
+  /**
+   * Returns the unit for the symbol within the specified character sequence, without creating a string for it.
+   *
+   * @param csq
+   *          the character sequence.
+   * @param start
+   *          the index of the first character of the symbol.
+   * @param end
+   *          the index after the last character of the symbol.
+   * @return the corresponding unit or <code>null</code> if none.
+   */
+  Unit<?> getUnit(CharSequence csq, int start, int end) {
+    return mappings.symbolTable.getUnit(csq, start, end);
+  }
+
+  /**
+   * Returns the prefix with the longest symbol the specified character sequence starts with, without creating a string for it.
+   *
+   * @param csq
+   *          the character sequence.
+   * @param start
+   *          the index of the first character.
+   * @param end
+   *          the index after the last character.
+   * @return the corresponding prefix or <code>null</code> if none.
+   */
+  Prefix getPrefix(CharSequence csq, int start, int end) {
+    return mappings.symbolTable.getPrefix(csq, start, end);
+  }
+
+  /**
+   * A snapshot of the mappings and the symbol lookup tables built from them. The maps are never modified once the snapshot is created, a change
+   * copies the affected maps into a new snapshot.
+   */
+  private static final class Mappings {
+    private final Map<String, Unit<?>> symbolToUnit;
+    private final Map<Unit<?>, String> unitToSymbol;
+    private final Map<String, Object> symbolToPrefix;
+    private final Map<Object, String> prefixToSymbol;
+    private final Map<UnitConverter, Prefix> converterToPrefix;
+    private final SymbolTable symbolTable;
+
+    /**
+     * The given maps must not be modified afterwards.
+     */
+    private Mappings(Map<String, Unit<?>> symbolToUnit, Map<Unit<?>, String> unitToSymbol, Map<String, Object> symbolToPrefix,
+        Map<Object, String> prefixToSymbol, Map<UnitConverter, Prefix> converterToPrefix) {
+      this.symbolToUnit = symbolToUnit;
+      this.unitToSymbol = unitToSymbol;
+      this.symbolToPrefix = symbolToPrefix;
+      this.prefixToSymbol = prefixToSymbol;
+      this.converterToPrefix = converterToPrefix;
+      this.symbolTable = new SymbolTable(symbolToUnit, symbolToPrefix);
+    }
+  }
+
+  /**
+   * Open addressing hash table of the unit symbols, which is probed with the hash code of a character range, and the prefix symbols ordered by
+   * decreasing length.
+   */
+  private static final class SymbolTable {
+    private final String[] symbols;
+    private final Unit<?>[] units;
+    private final int mask;
+    private final String[] prefixSymbols;
+    private final Prefix[] prefixes;
 
-	for (String key : list) {
-	    if (symbol.startsWith(key)) {
-		return (Prefix) symbolToPrefix.get(key);
-	    }
-	}
-	return null;
+    private SymbolTable(Map<String, Unit<?>> symbolToUnit, Map<String, Object> symbolToPrefix) {
+      int capacity = 16;
+      while (capacity < symbolToUnit.size() * 2) {
+        capacity <<= 1;
+      }
+      symbols = new String[capacity];
+      units = new Unit<?>[capacity];
+      mask = capacity - 1;
+      for (Map.Entry<String, Unit<?>> entry : symbolToUnit.entrySet()) {
+        int i = entry.getKey().hashCode() & mask;
+        while (symbols[i] != null) {
+          i = (i + 1) & mask;
+        }
+        symbols[i] = entry.getKey();
+        units[i] = entry.getValue();
+      }
+      // stable sort, prefixes of the same length keep the order of the map
+      final List<String> list = symbolToPrefix.keySet().stream().collect(Collectors.toList());
+      list.sort(Comparator.comparing(String::length).reversed());
+      prefixSymbols = list.toArray(new String[0]);
+      prefixes = new Prefix[prefixSymbols.length];
+      for (int i = 0; i < prefixes.length; i++) {
+        prefixes[i] = (Prefix) symbolToPrefix.get(prefixSymbols[i]);
+      }
     }
 
+    private Unit<?> getUnit(CharSequence csq, int start, int end) {
+      int hash = 0;
+      for (int i = start; i < end; i++) {
+        hash = 31 * hash + csq.charAt(i);
+      }
+      for (int i = hash & mask; symbols[i] != null; i = (i + 1) & mask) {
+        if (matches(symbols[i], csq, start, end)) {
+          return units[i];
+        }
+      }
+      return null;
+    }
+
+    private Prefix getPrefix(CharSequence csq, int start, int end) {
+      for (int i = 0; i < prefixSymbols.length; i++) {
+        final String symbol = prefixSymbols[i];
+        if (symbol.length() <= end - start && matches(symbol, csq, start, start + symbol.length())) {
+          return prefixes[i];
+        }
+      }
+      return null;
+    }
+
+    private static boolean matches(String symbol, CharSequence csq, int start, int end) {
+      if (symbol.length() != end - start) {
+        return false;
+      }
+      for (int i = 0; i < symbol.length(); i++) {
+        if (symbol.charAt(i) != csq.charAt(start + i)) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
   /**
    * Returns the prefix for the specified converter.
    *
@@ -234,7 +368,7 @@ public final class SymbolMap {
    * @return the corresponding prefix or <code>null</code> if none.
    */
   public Prefix getPrefix(UnitConverter converter) {
-    return converterToPrefix.get(converter);
+    return mappings.converterToPrefix.get(converter);
   }
 
   /**
@@ -245,19 +379,20 @@ public final class SymbolMap {
    * @return the corresponding symbol or <code>null</code> if none.
    */
   public String getSymbol(Prefix prefix) {
-    return prefixToSymbol.get(prefix);
+    return mappings.prefixToSymbol.get(prefix);
   }
 
 @Override
   public String toString() {
+    final Mappings mappings = this.mappings;
     StringBuilder sb = new StringBuilder();
     sb.append("tech.units.indriya.format.SymbolMap: [");
-    sb.append("symbolToUnit: ").append(symbolToUnit).append(',');
-    sb.append("unitToSymbol: ").append(unitToSymbol).append(',');
-    sb.append("symbolToPrefix: ").append(symbolToPrefix).append(',');
-    sb.append("prefixToSymbol: ").append(prefixToSymbol).append(',');
-    sb.append("converterToPrefix: ").append(converterToPrefix).append(',');
-    sb.append("converterToPrefix: ").append(converterToPrefix);
+    sb.append("symbolToUnit: ").append(mappings.symbolToUnit).append(',');
+    sb.append("unitToSymbol: ").append(mappings.unitToSymbol).append(',');
+    sb.append("symbolToPrefix: ").append(mappings.symbolToPrefix).append(',');
+    sb.append("prefixToSymbol: ").append(mappings.prefixToSymbol).append(',');
+    sb.append("converterToPrefix: ").append(mappings.converterToPrefix).append(',');
+    sb.append("converterToPrefix: ").append(mappings.converterToPrefix);
     sb.append(" ]");
     return sb.toString();
   }
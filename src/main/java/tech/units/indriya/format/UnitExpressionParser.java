@@ -0,0 +1,543 @@
+/*
+ * Units of Measurement Reference Implementation
+ * Copyright (c) 2005-2022, Jean-Marie Dautelle, Werner Keil, Otavio Santana.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions
+ *    and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of JSR-385, Indriya nor the names of their contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package tech.units.indriya.format;
+
+import java.text.ParsePosition;
+
+import javax.measure.Prefix;
+import javax.measure.Unit;
+
+import tech.units.indriya.AbstractUnit;
+import tech.units.indriya.function.LogConverter;
+import tech.units.indriya.function.MultiplyConverter;
+
+/**
+ * Recursive descent parser of the unit expressions of {@link EBNFUnitFormat} and {@link LocalUnitFormat}.
+ * <p>
+ * The parser reads the character sequence in place, tokens are kept as offsets and symbols are resolved by the {@link SymbolMap} without creating
+ * strings. Only floating point literals and error messages allocate. The grammar is the one documented in {@link EBNFUnitFormat}:
+ * </p>
+ *
+ * <pre>
+ * MixExpr      := AddExpr ( ":" )*
+ * AddExpr      := ( Number Sign )? MulExpr ( Sign Number )?
+ * MulExpr      := ExponentExpr ( ( "*" | "·" | "/" ) ExponentExpr )*
+ * ExponentExpr := ( Integer | "e" ) "^" AtomicExpr
+ *               | AtomicExpr Exponent?
+ *               | ( "log" Integer? | "ln" ) "(" AddExpr ")"
+ * AtomicExpr   := Number | UnitIdentifier | "(" AddExpr ")"
+ * Exponent     := "^" ( Sign? Integer | "(" Sign? Integer ( "/" Sign? Integer )? ")" ) | SuperscriptInteger
+ * </pre>
+ *
+ * @version 1.0
+ * @since 2.1.4
+ */
+final class UnitExpressionParser {
+
+  private static final int EOF = 0;
+  private static final int PLUS = 1;
+  private static final int MINUS = 2;
+  private static final int ASTERISK = 3;
+  private static final int MIDDLE_DOT = 4;
+  private static final int SOLIDUS = 5;
+  private static final int CARET = 6;
+  private static final int COLON = 7;
+  private static final int OPEN_PAREN = 8;
+  private static final int CLOSE_PAREN = 9;
+  private static final int INTEGER = 10;
+  private static final int SUPERSCRIPT_INTEGER = 11;
+  private static final int FLOATING_POINT = 12;
+  private static final int LOG = 13;
+  private static final int NAT_LOG = 14;
+  private static final int E = 15;
+  private static final int UNIT_IDENTIFIER = 16;
+
+  private final SymbolMap symbols;
+  private final CharSequence csq;
+  private final int start;
+  private final int end;
+  private final ParsePosition cursor;
+
+  /** The kind of the current token. */
+  private int kind;
+  /** The index of the first character of the current token. */
+  private int tokenStart;
+  /** The index after the last character of the current token. */
+  private int tokenEnd;
+  /** The index after the last character of the token scanned last. */
+  private int scanEnd;
+
+  private UnitExpressionParser(SymbolMap symbols, CharSequence csq, int start, int end, ParsePosition cursor) {
+    this.symbols = symbols;
+    this.csq = csq;
+    this.start = start;
+    this.end = end;
+    this.cursor = cursor;
+    this.tokenEnd = start;
+  }
+
+  /**
+   * Parses the character sequence from the cursor position to its end, ignoring leading and trailing whitespace. If there is no unit to parse,
+   * {@link AbstractUnit#ONE} is returned and the cursor is left unchanged.
+   *
+   * @param symbols
+   *          the symbols to resolve unit identifiers with.
+   * @param csq
+   *          the character sequence to parse.
+   * @param cursor
+   *          the cursor holding the current parsing index, set to the end of the sequence on success, or holding the error index on failure.
+   * @return the parsed unit.
+   * @throws TokenException
+   *           if the expression is not well-formed or contains unknown unit identifiers.
+   * @throws TokenMgrError
+   *           if the expression contains a character which does not start any token.
+   */
+  static Unit<?> parse(SymbolMap symbols, CharSequence csq, ParsePosition cursor) throws TokenException {
+    int from = cursor.getIndex();
+    int to = csq.length();
+    while (from < to && csq.charAt(from) <= ' ') {
+      from++;
+    }
+    while (to > from && csq.charAt(to - 1) <= ' ') {
+      to--;
+    }
+    if (from >= to) {
+      return AbstractUnit.ONE;
+    }
+    final Unit<?> result = new UnitExpressionParser(symbols, csq, from, to, cursor).parseUnit();
+    cursor.setIndex(csq.length());
+    return result;
+  }
+
+  //
+  // Parser productions
+  //
+
+  private Unit<?> parseUnit() throws TokenException {
+    next();
+    final Unit<?> result = mixExpr();
+    consume(EOF);
+    return result;
+  }
+
+  private Unit<?> mixExpr() throws TokenException {
+    final Unit<?> result = addExpr();
+    while (kind == COLON) {
+      next();
+    }
+    return result;
+  }
+
+  private Unit<?> addExpr() throws TokenException {
+    boolean hasOffset1 = false;
+    boolean negative1 = false;
+    double offset1 = 0;
+    if ((kind == INTEGER || kind == FLOATING_POINT) && isSign(peek())) {
+      offset1 = numberExpr();
+      negative1 = kind == MINUS;
+      next();
+      hasOffset1 = true;
+    }
+    Unit<?> result = mulExpr();
+    boolean hasOffset2 = false;
+    double offset2 = 0;
+    if (isSign(kind)) {
+      final boolean negative2 = kind == MINUS;
+      next();
+      offset2 = negative2 ? -numberExpr() : numberExpr();
+      hasOffset2 = true;
+    }
+    if (hasOffset1) {
+      if (negative1) {
+        result = result.multiply(-1);
+      }
+      result = result.shift(offset1);
+    }
+    if (hasOffset2) {
+      result = result.shift(offset2);
+    }
+    return result;
+  }
+
+  private Unit<?> mulExpr() throws TokenException {
+    Unit<?> result = exponentExpr();
+    for (;;) {
+      if (kind == ASTERISK || kind == MIDDLE_DOT) {
+        next();
+        result = result.multiply(exponentExpr());
+      } else if (kind == SOLIDUS) {
+        next();
+        result = result.divide(exponentExpr());
+      } else {
+        return result;
+      }
+    }
+  }
+
+  private Unit<?> exponentExpr() throws TokenException {
+    if ((kind == INTEGER || kind == E) && peek() == CARET) {
+      final boolean isInteger = kind == INTEGER;
+      final int baseStart = tokenStart;
+      final int baseEnd = tokenEnd;
+      next();
+      next();
+      final Unit<?> result = atomicExpr();
+      final double base = isInteger ? parseInt(baseStart, baseEnd) : Math.E;
+      return result.transform(new LogConverter(base).inverse());
+    }
+    switch (kind) {
+      case OPEN_PAREN:
+      case INTEGER:
+      case FLOATING_POINT:
+      case UNIT_IDENTIFIER:
+        Unit<?> result = atomicExpr();
+        if (kind == CARET || kind == SUPERSCRIPT_INTEGER) {
+          result = exp(result);
+        }
+        return result;
+      case LOG:
+      case NAT_LOG:
+        double base = 10;
+        if (kind == NAT_LOG) {
+          base = Math.E;
+          next();
+        } else {
+          next();
+          if (kind == INTEGER) {
+            base = parseInt(tokenStart, tokenEnd);
+            next();
+          }
+        }
+        consume(OPEN_PAREN);
+        final Unit<?> argument = addExpr();
+        consume(CLOSE_PAREN);
+        return argument.transform(new LogConverter(base));
+      default:
+        throw unexpected();
+    }
+  }
+
+  private Unit<?> atomicExpr() throws TokenException {
+    switch (kind) {
+      case INTEGER:
+      case FLOATING_POINT:
+        return AbstractUnit.ONE.multiply(numberExpr());
+      case UNIT_IDENTIFIER:
+        final Unit<?> unit = resolve(tokenStart, tokenEnd);
+        next();
+        return unit;
+      case OPEN_PAREN:
+        next();
+        final Unit<?> result = addExpr();
+        consume(CLOSE_PAREN);
+        return result;
+      default:
+        throw unexpected();
+    }
+  }
+
+  private double numberExpr() throws TokenException {
+    final double result;
+    if (kind == INTEGER) {
+      result = parseLong(tokenStart, tokenEnd);
+    } else if (kind == FLOATING_POINT) {
+      result = Double.parseDouble(csq.subSequence(tokenStart, tokenEnd).toString());
+    } else {
+      throw unexpected();
+    }
+    next();
+    return result;
+  }
+
+  private Unit<?> exp(Unit<?> unit) throws TokenException {
+    int pow;
+    int root = 1;
+    if (kind == SUPERSCRIPT_INTEGER) {
+      pow = 0;
+      for (int i = tokenStart; i < tokenEnd; i++) {
+        pow = pow * 10 + superscriptValue(csq.charAt(i));
+      }
+      next();
+    } else {
+      consume(CARET);
+      if (kind == OPEN_PAREN) {
+        next();
+        pow = signedInt();
+        if (kind == SOLIDUS) {
+          next();
+          root = signedInt();
+        }
+        consume(CLOSE_PAREN);
+      } else {
+        pow = signedInt();
+      }
+    }
+    Unit<?> result = unit;
+    if (pow != 1) {
+      result = result.pow(pow);
+    }
+    if (root != 1) {
+      result = result.root(root);
+    }
+    return result;
+  }
+
+  private int signedInt() throws TokenException {
+    boolean negative = false;
+    if (isSign(kind)) {
+      negative = kind == MINUS;
+      next();
+    }
+    if (kind != INTEGER) {
+      throw unexpected();
+    }
+    final int value = parseInt(tokenStart, tokenEnd);
+    next();
+    return negative ? -value : value;
+  }
+
+  /**
+   * Resolves a unit identifier, which is either a symbol of the symbol map, or a prefix symbol followed by a unit symbol.
+   */
+  private Unit<?> resolve(int from, int to) throws TokenException {
+    final Unit<?> unit = symbols.getUnit(csq, from, to);
+    if (unit != null) {
+      return unit;
+    }
+    final Prefix prefix = symbols.getPrefix(csq, from, to);
+    if (prefix != null) {
+      final int unitStart = from + symbols.getSymbol(prefix).length();
+      final Unit<?> prefixed = unitStart <= to ? symbols.getUnit(csq, unitStart, to) : null;
+      if (prefixed != null) {
+        return prefixed.transform(MultiplyConverter.ofPrefix(prefix));
+      }
+    }
+    cursor.setErrorIndex(from);
+    throw new TokenException("Unknown unit \"" + csq.subSequence(from, to) + "\" at index " + from);
+  }
+
+  //
+  // Tokens
+  //
+
+  private static boolean isSign(int kind) {
+    return kind == PLUS || kind == MINUS;
+  }
+
+  private void next() {
+    tokenStart = tokenEnd;
+    kind = scan(tokenStart);
+    tokenEnd = scanEnd;
+  }
+
+  /**
+   * Returns the kind of the token following the current one.
+   */
+  private int peek() {
+    return scan(tokenEnd);
+  }
+
+  private void consume(int expected) throws TokenException {
+    if (kind != expected) {
+      throw unexpected();
+    }
+    next();
+  }
+
+  private TokenException unexpected() {
+    cursor.setErrorIndex(tokenStart);
+    if (kind == EOF) {
+      return new TokenException("Unexpected end of unit expression at index " + tokenStart);
+    }
+    return new TokenException("Encountered \"" + csq.subSequence(tokenStart, tokenEnd) + "\" at index " + tokenStart);
+  }
+
+  /**
+   * Scans the token starting at the given index, sets {@link #scanEnd} and returns the kind of the token. Tokens are matched like the JavaCC
+   * grammar this parser replaces: the longest match wins, "e", "log" and "ln" are keywords only unless followed by further identifier characters.
+   */
+  private int scan(int at) {
+    if (at >= end) {
+      scanEnd = end;
+      return EOF;
+    }
+    final char c = csq.charAt(at);
+    scanEnd = at + 1;
+    switch (c) {
+      case '+':
+        return PLUS;
+      case '-':
+        return MINUS;
+      case '*':
+        return ASTERISK;
+      case '\u00b7':
+        return MIDDLE_DOT;
+      case '/':
+        return SOLIDUS;
+      case '^':
+        return CARET;
+      case ':':
+        return COLON;
+      case '(':
+        return OPEN_PAREN;
+      case ')':
+        return CLOSE_PAREN;
+      default:
+    }
+    if (isDigit(c) || c == '.') {
+      return scanNumber(at);
+    }
+    if (superscriptValue(c) >= 0) {
+      int i = at + 1;
+      while (i < end && superscriptValue(csq.charAt(i)) >= 0) {
+        i++;
+      }
+      scanEnd = i;
+      return SUPERSCRIPT_INTEGER;
+    }
+    if (isInitial(c)) {
+      int i = at + 1;
+      while (i < end && (isInitial(csq.charAt(i)) || isDigit(csq.charAt(i)))) {
+        i++;
+      }
+      scanEnd = i;
+      if (i - at == 1 && c == 'e') {
+        return E;
+      }
+      if (i - at == 3 && c == 'l' && csq.charAt(at + 1) == 'o' && csq.charAt(at + 2) == 'g') {
+        return LOG;
+      }
+      if (i - at == 2 && c == 'l' && csq.charAt(at + 1) == 'n') {
+        return NAT_LOG;
+      }
+      return UNIT_IDENTIFIER;
+    }
+    throw lexicalError(at);
+  }
+
+  /**
+   * Scans an integer <code>[0-9]+</code> or a floating point number <code>[0-9]* ("." [0-9]+)? ([eE] [+-]? [0-9]+)?</code> with a fraction or
+   * an exponent.
+   */
+  private int scanNumber(int at) {
+    int i = at;
+    while (i < end && isDigit(csq.charAt(i))) {
+      i++;
+    }
+    final boolean hasInteger = i > at;
+    boolean isFloat = false;
+    if (i + 1 < end && csq.charAt(i) == '.' && isDigit(csq.charAt(i + 1))) {
+      i += 2;
+      while (i < end && isDigit(csq.charAt(i))) {
+        i++;
+      }
+      isFloat = true;
+    }
+    if ((hasInteger || isFloat) && i < end && (csq.charAt(i) == 'e' || csq.charAt(i) == 'E')) {
+      int j = i + 1;
+      if (j < end && (csq.charAt(j) == '+' || csq.charAt(j) == '-')) {
+        j++;
+      }
+      if (j < end && isDigit(csq.charAt(j))) {
+        while (j < end && isDigit(csq.charAt(j))) {
+          j++;
+        }
+        i = j;
+        isFloat = true;
+      }
+    }
+    if (!isFloat && !hasInteger) {
+      throw lexicalError(at);
+    }
+    scanEnd = i;
+    return isFloat ? FLOATING_POINT : INTEGER;
+  }
+
+  private TokenMgrError lexicalError(int at) {
+    cursor.setErrorIndex(at);
+    return new TokenMgrError(false, 1, at - start + 1, "", csq.charAt(at), TokenMgrError.LEXICAL_ERROR);
+  }
+
+  private static boolean isDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+
+  /**
+   * Returns the value of a superscript digit, or -1 for any other character.
+   */
+  private static int superscriptValue(char c) {
+    switch (c) {
+      case '\u2070':
+        return 0;
+      case '\u00b9':
+        return 1;
+      case '\u00b2':
+        return 2;
+      case '\u00b3':
+        return 3;
+      default:
+        return c >= '\u2074' && c <= '\u2079' ? c - '\u2070' : -1;
+    }
+  }
+
+  /**
+   * Returns whether the given character may start a unit identifier. Digits may follow the first character.
+   */
+  private static boolean isInitial(char c) {
+    if (c < 128) {
+      return (c >= '!' && c <= '\'') || c == ',' || (c >= ';' && c != '^');
+    }
+    return c != '\u00b7' && superscriptValue(c) < 0;
+  }
+
+  private int parseInt(int from, int to) {
+    final long value = parseLong(from, to);
+    if (value > Integer.MAX_VALUE) {
+      throw numberFormatError(from, to);
+    }
+    return (int) value;
+  }
+
+  private long parseLong(int from, int to) {
+    long value = 0;
+    for (int i = from; i < to; i++) {
+      final int digit = csq.charAt(i) - '0';
+      if (value > (Long.MAX_VALUE - digit) / 10) {
+        throw numberFormatError(from, to);
+      }
+      value = value * 10 + digit;
+    }
+    return value;
+  }
+
+  private NumberFormatException numberFormatError(int from, int to) {
+    return new NumberFormatException("For input string: \"" + csq.subSequence(from, to) + "\"");
+  }
+}
@@ -236,22 +236,36 @@ public final class MixedRadix<Q extends Quantity<Q>> {
 		return extractValuesInto(quantity, target);
 	}
 
+	/**
+	 * Extracts the values of the given quantity into the given buffer, which can be reused for many quantities.
+	 * @param quantity - the quantity to extract the values from
+	 * @param target - receives the numbers corresponding to the radices in most significant first order, 
+	 *      if it is shorter than the count of radices, only the most significant numbers are extracted
+	 * @return the {@code target} buffer
+	 */
 	public Number[] extractValuesInto(Quantity<Q> quantity, Number[] target) {
 		Objects.requireNonNull(quantity);
 		Objects.requireNonNull(target);
 
-		visitQuantity(quantity, target.length, (index, unit, value) -> {
-			target[index] = value;
-		});
+		final int partsToExtractCount = Math.min(target.length, getUnitCount());
 
-		return target;
-	}
+		// corner case (partsToExtractCount == 0)
 
-	// -- THE VISITOR
+		if (partsToExtractCount == 0) {
+			return target;
+		}
 
-	@FunctionalInterface
-	private static interface Visitor<Q extends Quantity<Q>> {
-		void accept(int index, Unit<Q> unit, Number value);
+		final Number value_inTrailingUnits = quantity.to(getTrailingUnit()).getValue();
+
+		if (target.length == getUnitCount()) {
+			mixedRadixSupport.extractRadixNumbers(value_inTrailingUnits, target);
+		} else {
+			final Number[] extractedValues = new Number[getUnitCount()];
+			mixedRadixSupport.extractRadixNumbers(value_inTrailingUnits, extractedValues);
+			System.arraycopy(extractedValues, 0, target, 0, partsToExtractCount);
+		}
+
+		return target;
 	}
 
 	// -- IMPLEMENTATION DETAILS
@@ -272,28 +286,6 @@ public final class MixedRadix<Q extends Quantity<Q>> {
         }
     }
 	
-	void visitQuantity(Quantity<Q> quantity, int maxPartsToVisit, Visitor<Q> partVisitor) {
-		final int partsToVisitCount = Math.min(maxPartsToVisit, getUnitCount());
-
-		// corner case (partsToVisitCount == 0)
-
-		if (partsToVisitCount == 0) {
-			return;
-		}
-
-		// for partsToVisitCount >= 1
-
-		final Number value_inTrailingUnits = quantity.to(getTrailingUnit()).getValue();
-		final List<Number> extractedValues = new ArrayList<>(getUnitCount());
-
-		mixedRadixSupport.visitRadixNumbers(value_inTrailingUnits, extractedValues::add);
-
-		for (int i = 0; i < partsToVisitCount; ++i) {
-			int invertedIndex = getUnitCount() - 1 - i;
-			partVisitor.accept(i, mixedRadixUnits.get(i), extractedValues.get(invertedIndex));
-		}
-	}
-
 	/**
 	 * 
 	 * @param primaryUnitIndex - if negative, the index is relative to the number of
@@ -0,0 +1,192 @@
+/*
+ * Units of Measurement Reference Implementation
+ * Copyright (c) 2005-2022, Jean-Marie Dautelle, Werner Keil, Otavio Santana.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions
+ *    and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of JSR-385, Indriya nor the names of their contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package tech.units.indriya.function;
+
+import static javax.measure.Quantity.Scale.ABSOLUTE;
+import static javax.measure.Quantity.Scale.RELATIVE;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.function.DoubleUnaryOperator;
+
+import javax.measure.Quantity;
+import javax.measure.Quantity.Scale;
+import javax.measure.Unit;
+
+import tech.units.indriya.ComparableQuantity;
+import tech.units.indriya.internal.function.ToUnitConverter;
+import tech.units.indriya.quantity.Quantities;
+
+/**
+ * One or more variables that together maintain an initially zero sum of quantities, stated in a fixed unit.
+ * <p>
+ * This is the quantity counterpart of {@link DoubleAdder}, which it uses for its striped cells: when updates
+ * ({@link #add(Quantity)}) are contended across threads, the set of cells may grow dynamically to reduce
+ * contention. Hence under high contention, expected throughput of this class is significantly higher than
+ * that of an {@code AtomicReference<Quantity>} updated by {@link Quantity#add(Quantity)}, at the expense of
+ * higher space consumption.
+ * </p>
+ * <p>
+ * Quantities in any compatible unit are accepted, the converter for each source unit and scale is looked up only once.
+ * Values are accumulated as {@code double}s in the unit of this adder, a {@link ComparableQuantity} is only
+ * created on {@link #sum()}. As for {@link DoubleAdder}, the order of accumulation within or across threads
+ * is not guaranteed, so results may vary in the last bits of precision.
+ * </p>
+ * <p>
+ * This class is thread safe.
+ * </p>
+ *
+ * @param <Q> the quantity type
+ * @version 1.0
+ * @since 2.1.4
+ * @see DoubleAdder
+ */
+public final class QuantityAdder<Q extends Quantity<Q>> {
+
+  private final Unit<Q> unit;
+
+  private final DoubleAdder adder = new DoubleAdder();
+
+  private final ConcurrentMap<Unit<?>, DoubleUnaryOperator> converters = new ConcurrentHashMap<>();
+
+  private final ConcurrentMap<Unit<?>, DoubleUnaryOperator> relativeConverters = new ConcurrentHashMap<>();
+
+  /**
+   * Creates a new adder with initial sum of zero, accumulating in the given unit.
+   *
+   * @param unit
+   *          the unit of the sum, not null.
+   */
+  public QuantityAdder(Unit<Q> unit) {
+    this.unit = Objects.requireNonNull(unit);
+  }
+
+  /**
+   * Returns the unit values are accumulated in.
+   *
+   * @return the unit of this adder.
+   */
+  public Unit<Q> getUnit() {
+    return unit;
+  }
+
+  /**
+   * Adds the given quantity.
+   *
+   * @param quantity
+   *          the quantity to add, not null.
+   */
+  public void add(Quantity<Q> quantity) {
+    Objects.requireNonNull(quantity);
+    if (RELATIVE == quantity.getScale()) {
+      final DoubleUnaryOperator converter = converterFrom(relativeConverters, quantity.getUnit(), RELATIVE);
+      adder.add(converter.applyAsDouble(quantity.getValue().doubleValue()));
+    } else {
+      add(quantity.getValue().doubleValue(), quantity.getUnit());
+    }
+  }
+
+  /**
+   * Adds the given value, stated in the given unit. This avoids creating a {@link Quantity} per update.
+   *
+   * @param value
+   *          the value to add.
+   * @param valueUnit
+   *          the unit of the value, not null.
+   */
+  public void add(double value, Unit<Q> valueUnit) {
+    if (unit.equals(valueUnit)) {
+      adder.add(value);
+    } else {
+      adder.add(converterFrom(converters, valueUnit, ABSOLUTE).applyAsDouble(value));
+    }
+  }
+
+  /**
+   * Returns the current sum. The returned value is <em>NOT</em> an atomic snapshot; invocation in the absence
+   * of concurrent updates returns an accurate result, but concurrent updates that occur while the sum is being
+   * calculated might not be incorporated.
+   *
+   * @return the sum, stated in the unit of this adder.
+   */
+  public ComparableQuantity<Q> sum() {
+    return Quantities.getQuantity(adder.sum(), unit);
+  }
+
+  /**
+   * Returns the current sum, converted to the given unit.
+   *
+   * @param anotherUnit
+   *          the unit of the result, not null.
+   * @return the sum, stated in the given unit.
+   * @see #sum()
+   */
+  public ComparableQuantity<Q> sum(Unit<Q> anotherUnit) {
+    return sum().to(anotherUnit);
+  }
+
+  /**
+   * Resets the sum to zero. This method may be a useful alternative to creating a new adder, but is only
+   * effective if there are no concurrent updates.
+   */
+  public void reset() {
+    adder.reset();
+  }
+
+  /**
+   * Equivalent in effect to {@link #sum()} followed by {@link #reset()}.
+   *
+   * @return the sum, stated in the unit of this adder.
+   */
+  public ComparableQuantity<Q> sumThenReset() {
+    return Quantities.getQuantity(adder.sumThenReset(), unit);
+  }
+
+  /**
+   * Returns the String representation of the {@link #sum()}.
+   *
+   * @return the String representation of the sum
+   */
+  @Override
+  public String toString() {
+    return sum().toString();
+  }
+
+  private DoubleUnaryOperator converterFrom(ConcurrentMap<Unit<?>, DoubleUnaryOperator> cache, Unit<Q> valueUnit,
+      Scale scale) {
+    final DoubleUnaryOperator converter = cache.get(valueUnit);
+    if (converter != null) {
+      return converter;
+    }
+    return cache.computeIfAbsent(valueUnit, u -> ToUnitConverter.doubleConverter(valueUnit, scale, unit));
+  }
+}
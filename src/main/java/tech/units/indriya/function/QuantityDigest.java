@@ -0,0 +1,405 @@
+/*
+ * Units of Measurement Reference Implementation
+ * Copyright (c) 2005-2022, Jean-Marie Dautelle, Werner Keil, Otavio Santana.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions
+ *    and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of JSR-385, Indriya nor the names of their contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package tech.units.indriya.function;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+import javax.measure.Quantity;
+import javax.measure.Unit;
+
+import tech.units.indriya.ComparableQuantity;
+import tech.units.indriya.internal.function.ToUnitConverter;
+import tech.units.indriya.quantity.Quantities;
+
+/**
+ * A mergeable quantile sketch of quantities, following the merging variant of Ted Dunning's
+ * <a href="https://github.com/tdunning/t-digest">t-digest</a>.
+ * <p>
+ * Every input quantity is converted once into the unit of this digest and buffered as a primitive {@code double}.
+ * Whenever the buffer is full, it is merged into a bounded set of weighted centroids, whose size is controlled by
+ * the <em>compression</em> parameter. Centroids near the tails are kept small, so extreme quantiles such as p99 or
+ * p999 are estimated with high accuracy. Memory does not depend on the number of inputs.
+ * </p>
+ * <p>
+ * This implementation is <b>not</b> thread safe. However, it is safe to use with parallel streams, since
+ * {@link #combine(QuantityDigest)} merges partial digests.
+ * </p>
+ *
+ * @param <Q> the quantity type
+ * @version 1.0
+ * @since 2.1.4
+ * @see QuantityStreams#quantityDigest(Unit, double)
+ */
+public final class QuantityDigest<Q extends Quantity<Q>> implements Consumer<Quantity<Q>> {
+
+  private final Unit<Q> unit;
+
+  private final double compression;
+
+  private final ToUnitConverter<Q> converter;
+
+  // merged centroids, sorted by mean
+  private double[] means;
+  private double[] weights;
+  private int centroidCount;
+
+  // not yet merged values (or centroids, when combining)
+  private double[] bufferedMeans;
+  private double[] bufferedWeights;
+  private int bufferCount;
+
+  private double totalWeight;
+
+  private double min = Double.POSITIVE_INFINITY;
+
+  private double max = Double.NEGATIVE_INFINITY;
+
+  /**
+   * Creates a new, empty digest.
+   *
+   * @param unit
+   *          the unit values are normalized into, not null.
+   * @param compression
+   *          the compression factor, at least {@code 10}, typically {@code 100}; larger values give more accurate
+   *          quantiles at the expense of more memory.
+   * @throws IllegalArgumentException
+   *           if compression is out of range
+   */
+  public QuantityDigest(Unit<Q> unit, double compression) {
+    checkArguments(unit, compression);
+    this.unit = unit;
+    this.compression = compression;
+    this.converter = new ToUnitConverter<>(unit);
+    final int capacity = (int) Math.ceil(compression) * 2 + 10;
+    this.means = new double[capacity];
+    this.weights = new double[capacity];
+    this.bufferedMeans = new double[capacity * 5];
+    this.bufferedWeights = new double[capacity * 5];
+  }
+
+  /**
+   * Records the given quantity.
+   *
+   * @param quantity
+   *          the quantity to record, not null.
+   */
+  @Override
+  public void accept(Quantity<Q> quantity) {
+    Objects.requireNonNull(quantity);
+    accept(converter.convert(quantity).doubleValue());
+  }
+
+  /**
+   * Records the given value, stated in the unit of this digest.
+   *
+   * @param value
+   *          the value to record.
+   * @throws IllegalArgumentException
+   *           if value is not finite
+   */
+  public void accept(double value) {
+    if (!Double.isFinite(value)) {
+      throw new IllegalArgumentException("value must be finite: " + value);
+    }
+    buffer(value, 1);
+    min = Math.min(min, value);
+    max = Math.max(max, value);
+  }
+
+  /**
+   * Combines the state of another digest into this one. The other digest is left unchanged.
+   *
+   * @param other
+   *          another digest with the same unit and compression, not null.
+   * @return this digest
+   * @throws IllegalArgumentException
+   *           if the digests are not compatible
+   */
+  public QuantityDigest<Q> combine(QuantityDigest<Q> other) {
+    Objects.requireNonNull(other);
+    if (!unit.equals(other.unit) || compression != other.compression) {
+      throw new IllegalArgumentException("incompatible digest " + other);
+    }
+    // the centroids and buffered values of the other digest are read, but not merged
+    for (int i = 0; i < other.centroidCount; i++) {
+      buffer(other.means[i], other.weights[i]);
+    }
+    for (int i = 0; i < other.bufferCount; i++) {
+      buffer(other.bufferedMeans[i], other.bufferedWeights[i]);
+    }
+    min = Math.min(min, other.min);
+    max = Math.max(max, other.max);
+    return this;
+  }
+
+  /**
+   * @return the unit of this digest
+   */
+  public Unit<Q> getUnit() {
+    return unit;
+  }
+
+  /**
+   * @return the number of recorded quantities
+   */
+  public long getCount() {
+    return Math.round(totalWeight);
+  }
+
+  /**
+   * @return the minimal recorded quantity (exact)
+   * @throws NoSuchElementException
+   *           if this digest is empty
+   */
+  public ComparableQuantity<Q> getMin() {
+    requireNonEmpty();
+    return Quantities.getQuantity(min, unit);
+  }
+
+  /**
+   * @return the maximal recorded quantity (exact)
+   * @throws NoSuchElementException
+   *           if this digest is empty
+   */
+  public ComparableQuantity<Q> getMax() {
+    requireNonEmpty();
+    return Quantities.getQuantity(max, unit);
+  }
+
+  /**
+   * Returns the estimated quantile, e.g. {@code getQuantile(0.99)} for the 99th percentile.
+   *
+   * @param quantile
+   *          the quantile, within {@code [0, 1]}.
+   * @return the estimated quantity at the given quantile.
+   * @throws IllegalArgumentException
+   *           if quantile is out of range
+   * @throws NoSuchElementException
+   *           if this digest is empty
+   */
+  public ComparableQuantity<Q> getQuantile(double quantile) {
+    return Quantities.getQuantity(getQuantileValue(quantile), unit);
+  }
+
+  /**
+   * Returns the estimated quantile, stated in the unit of this digest.
+   *
+   * @param quantile
+   *          the quantile, within {@code [0, 1]}.
+   * @return the estimated value at the given quantile.
+   * @throws IllegalArgumentException
+   *           if quantile is out of range
+   * @throws NoSuchElementException
+   *           if this digest is empty
+   */
+  public double getQuantileValue(double quantile) {
+    if (!(quantile >= 0 && quantile <= 1)) {
+      throw new IllegalArgumentException("quantile must be within [0, 1]: " + quantile);
+    }
+    requireNonEmpty();
+    merge();
+    if (quantile == 0) {
+      return min;
+    }
+    if (quantile == 1) {
+      return max;
+    }
+    if (centroidCount == 1) {
+      return min + (max - min) * quantile;
+    }
+    final double index = quantile * totalWeight;
+    // left tail, between min and the first centroid
+    if (index < weights[0] / 2) {
+      return min + (means[0] - min) * index / (weights[0] / 2);
+    }
+    double weightSoFar = weights[0] / 2;
+    for (int i = 0; i < centroidCount - 1; i++) {
+      final double dw = (weights[i] + weights[i + 1]) / 2;
+      if (weightSoFar + dw > index) {
+        final double fraction = (index - weightSoFar) / dw;
+        return means[i] + fraction * (means[i + 1] - means[i]);
+      }
+      weightSoFar += dw;
+    }
+    // right tail, between the last centroid and max
+    final int last = centroidCount - 1;
+    final double fraction = Math.min(1, (index - weightSoFar) / (weights[last] / 2));
+    return means[last] + (max - means[last]) * fraction;
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder sb = new StringBuilder();
+    sb.append("[unit: ").append(unit).append(",");
+    sb.append("compression:").append(compression).append(",");
+    sb.append("count:").append(getCount()).append("]");
+    return sb.toString();
+  }
+
+  // -- HELPER
+
+  static void checkArguments(Unit<?> unit, double compression) {
+    if (!(compression >= 10)) {
+      throw new IllegalArgumentException("compression must be at least 10: " + compression);
+    }
+    Objects.requireNonNull(unit);
+  }
+
+  private void requireNonEmpty() {
+    if (totalWeight == 0) {
+      throw new NoSuchElementException("digest is empty");
+    }
+  }
+
+  private void buffer(double mean, double weight) {
+    if (bufferCount == bufferedMeans.length) {
+      merge();
+    }
+    bufferedMeans[bufferCount] = mean;
+    bufferedWeights[bufferCount] = weight;
+    bufferCount++;
+    totalWeight += weight;
+  }
+
+  /**
+   * Merges buffered values into the centroids, using the scale function
+   * {@code k(q) = compression / (2 * PI) * asin(2q - 1)} to bound centroid sizes.
+   */
+  private void merge() {
+    if (bufferCount == 0) {
+      return;
+    }
+    final int n = centroidCount + bufferCount;
+    final double[] allMeans = new double[n];
+    final double[] allWeights = new double[n];
+    System.arraycopy(means, 0, allMeans, 0, centroidCount);
+    System.arraycopy(weights, 0, allWeights, 0, centroidCount);
+    System.arraycopy(bufferedMeans, 0, allMeans, centroidCount, bufferCount);
+    System.arraycopy(bufferedWeights, 0, allWeights, centroidCount, bufferCount);
+    sort(allMeans, allWeights, n);
+    bufferCount = 0;
+
+    int count = 0;
+    double mean = allMeans[0];
+    double weight = allWeights[0];
+    double weightSoFar = 0;
+    double weightLimit = totalWeight * quantileOf(scaleOf(0) + 1);
+    for (int i = 1; i < n; i++) {
+      final double proposed = weight + allWeights[i];
+      if (weightSoFar + proposed <= weightLimit) {
+        weight = proposed;
+        mean += (allMeans[i] - mean) * allWeights[i] / weight;
+      } else {
+        count = emit(count, mean, weight);
+        weightSoFar += weight;
+        weightLimit = totalWeight * quantileOf(scaleOf(weightSoFar / totalWeight) + 1);
+        mean = allMeans[i];
+        weight = allWeights[i];
+      }
+    }
+    centroidCount = emit(count, mean, weight);
+  }
+
+  private int emit(int index, double mean, double weight) {
+    if (index == means.length) {
+      means = Arrays.copyOf(means, index * 2);
+      weights = Arrays.copyOf(weights, index * 2);
+    }
+    means[index] = mean;
+    weights[index] = weight;
+    return index + 1;
+  }
+
+  private double scaleOf(double quantile) {
+    return compression / (2 * Math.PI) * Math.asin(2 * quantile - 1);
+  }
+
+  private double quantileOf(double scale) {
+    if (scale >= compression / 4) {
+      return 1;
+    }
+    return (Math.sin(scale * 2 * Math.PI / compression) + 1) / 2;
+  }
+
+  // sorts both arrays by mean, insertion sort for short and nearly sorted runs, heap sort otherwise
+  private static void sort(double[] keys, double[] values, int n) {
+    if (n <= 32) {
+      for (int i = 1; i < n; i++) {
+        final double key = keys[i];
+        final double value = values[i];
+        int j = i - 1;
+        while (j >= 0 && keys[j] > key) {
+          keys[j + 1] = keys[j];
+          values[j + 1] = values[j];
+          j--;
+        }
+        keys[j + 1] = key;
+        values[j + 1] = value;
+      }
+      return;
+    }
+    for (int i = n / 2 - 1; i >= 0; i--) {
+      siftDown(keys, values, i, n);
+    }
+    for (int end = n - 1; end > 0; end--) {
+      swap(keys, values, 0, end);
+      siftDown(keys, values, 0, end);
+    }
+  }
+
+  private static void siftDown(double[] keys, double[] values, int root, int n) {
+    while (true) {
+      int child = 2 * root + 1;
+      if (child >= n) {
+        return;
+      }
+      if (child + 1 < n && keys[child + 1] > keys[child]) {
+        child++;
+      }
+      if (keys[root] >= keys[child]) {
+        return;
+      }
+      swap(keys, values, root, child);
+      root = child;
+    }
+  }
+
+  private static void swap(double[] keys, double[] values, int i, int j) {
+    final double key = keys[i];
+    keys[i] = keys[j];
+    keys[j] = key;
+    final double value = values[i];
+    values[i] = values[j];
+    values[j] = value;
+  }
+}
@@ -0,0 +1,344 @@
+/*
+ * Units of Measurement Reference Implementation
+ * Copyright (c) 2005-2022, Jean-Marie Dautelle, Werner Keil, Otavio Santana.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions
+ *    and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of JSR-385, Indriya nor the names of their contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package tech.units.indriya.function;
+
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+import javax.measure.Quantity;
+import javax.measure.Unit;
+
+import tech.units.indriya.ComparableQuantity;
+import tech.units.indriya.internal.function.ToUnitConverter;
+import tech.units.indriya.quantity.Quantities;
+
+/**
+ * A mergeable histogram of quantities with logarithmically sized buckets, in the spirit of
+ * <a href="http://hdrhistogram.org/">HdrHistogram</a> and
+ * <a href="https://arxiv.org/abs/1908.10693">DDSketch</a>.
+ * <p>
+ * Every input quantity is converted once into the unit of this histogram and counted in the bucket covering its
+ * value. Bucket boundaries grow geometrically, so any quantile returned by {@link #getQuantile(double)} is
+ * within the configured <em>relative accuracy</em> of the exact quantile, regardless of the range of values.
+ * Memory is proportional to the logarithm of that range, not to the number of inputs.
+ * </p>
+ * <p>
+ * This implementation is <b>not</b> thread safe. However, it is safe to use with parallel streams, since
+ * {@link #combine(QuantityHistogram)} merges partial histograms exactly.
+ * </p>
+ *
+ * @param <Q> the quantity type
+ * @version 1.0
+ * @since 2.1.4
+ * @see QuantityStreams#quantityHistogram(Unit, double)
+ */
+public final class QuantityHistogram<Q extends Quantity<Q>> implements Consumer<Quantity<Q>> {
+
+  private final Unit<Q> unit;
+
+  private final double relativeAccuracy;
+
+  private final double gamma;
+
+  private final double logGamma;
+
+  private final ToUnitConverter<Q> converter;
+
+  private final Buckets positive = new Buckets();
+
+  private final Buckets negative = new Buckets();
+
+  private long zeroCount;
+
+  private long count;
+
+  private double min = Double.POSITIVE_INFINITY;
+
+  private double max = Double.NEGATIVE_INFINITY;
+
+  /**
+   * Creates a new, empty histogram.
+   *
+   * @param unit
+   *          the unit values are normalized into, not null.
+   * @param relativeAccuracy
+   *          the relative accuracy of quantiles, within {@code (0, 1)}, e.g. {@code 0.01} for 1%.
+   * @throws IllegalArgumentException
+   *           if relativeAccuracy is out of range
+   */
+  public QuantityHistogram(Unit<Q> unit, double relativeAccuracy) {
+    checkArguments(unit, relativeAccuracy);
+    this.unit = unit;
+    this.relativeAccuracy = relativeAccuracy;
+    this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+    this.logGamma = Math.log(gamma);
+    this.converter = new ToUnitConverter<>(unit);
+  }
+
+  /**
+   * Records the given quantity.
+   *
+   * @param quantity
+   *          the quantity to record, not null.
+   */
+  @Override
+  public void accept(Quantity<Q> quantity) {
+    Objects.requireNonNull(quantity);
+    accept(converter.convert(quantity).doubleValue());
+  }
+
+  /**
+   * Records the given value, stated in the unit of this histogram.
+   *
+   * @param value
+   *          the value to record.
+   * @throws IllegalArgumentException
+   *           if value is not finite
+   */
+  public void accept(double value) {
+    if (!Double.isFinite(value)) {
+      throw new IllegalArgumentException("value must be finite: " + value);
+    }
+    if (value >= Double.MIN_NORMAL) {
+      positive.increment(indexOf(value), 1);
+    } else if (value <= -Double.MIN_NORMAL) {
+      negative.increment(indexOf(-value), 1);
+    } else {
+      zeroCount++;
+    }
+    count++;
+    min = Math.min(min, value);
+    max = Math.max(max, value);
+  }
+
+  /**
+   * Combines the state of another histogram into this one.
+   *
+   * @param other
+   *          another histogram with the same unit and relative accuracy, not null.
+   * @return this histogram
+   * @throws IllegalArgumentException
+   *           if the histograms are not compatible
+   */
+  public QuantityHistogram<Q> combine(QuantityHistogram<Q> other) {
+    Objects.requireNonNull(other);
+    if (!unit.equals(other.unit) || relativeAccuracy != other.relativeAccuracy) {
+      throw new IllegalArgumentException("incompatible histogram " + other);
+    }
+    positive.addAll(other.positive);
+    negative.addAll(other.negative);
+    zeroCount += other.zeroCount;
+    count += other.count;
+    min = Math.min(min, other.min);
+    max = Math.max(max, other.max);
+    return this;
+  }
+
+  /**
+   * @return the unit of this histogram
+   */
+  public Unit<Q> getUnit() {
+    return unit;
+  }
+
+  /**
+   * @return the number of recorded quantities
+   */
+  public long getCount() {
+    return count;
+  }
+
+  /**
+   * @return the minimal recorded quantity (exact)
+   * @throws NoSuchElementException
+   *           if this histogram is empty
+   */
+  public ComparableQuantity<Q> getMin() {
+    requireNonEmpty();
+    return Quantities.getQuantity(min, unit);
+  }
+
+  /**
+   * @return the maximal recorded quantity (exact)
+   * @throws NoSuchElementException
+   *           if this histogram is empty
+   */
+  public ComparableQuantity<Q> getMax() {
+    requireNonEmpty();
+    return Quantities.getQuantity(max, unit);
+  }
+
+  /**
+   * Returns the approximate quantile, e.g. {@code getQuantile(0.99)} for the 99th percentile.
+   *
+   * @param quantile
+   *          the quantile, within {@code [0, 1]}.
+   * @return the quantity at the given quantile, within the relative accuracy of this histogram.
+   * @throws IllegalArgumentException
+   *           if quantile is out of range
+   * @throws NoSuchElementException
+   *           if this histogram is empty
+   */
+  public ComparableQuantity<Q> getQuantile(double quantile) {
+    return Quantities.getQuantity(getQuantileValue(quantile), unit);
+  }
+
+  /**
+   * Returns the approximate quantile, stated in the unit of this histogram.
+   *
+   * @param quantile
+   *          the quantile, within {@code [0, 1]}.
+   * @return the value at the given quantile, within the relative accuracy of this histogram.
+   * @throws IllegalArgumentException
+   *           if quantile is out of range
+   * @throws NoSuchElementException
+   *           if this histogram is empty
+   */
+  public double getQuantileValue(double quantile) {
+    if (!(quantile >= 0 && quantile <= 1)) {
+      throw new IllegalArgumentException("quantile must be within [0, 1]: " + quantile);
+    }
+    requireNonEmpty();
+    if (quantile == 0) {
+      return min;
+    }
+    if (quantile == 1) {
+      return max;
+    }
+    final long rank = (long) (quantile * (count - 1));
+    final double value;
+    if (rank < negative.total) {
+      value = -valueOf(negative.indexAtReverseRank(rank));
+    } else if (rank < negative.total + zeroCount) {
+      value = 0;
+    } else {
+      value = valueOf(positive.indexAtRank(rank - negative.total - zeroCount));
+    }
+    return Math.max(min, Math.min(max, value));
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder sb = new StringBuilder();
+    sb.append("[unit: ").append(unit).append(",");
+    sb.append("relativeAccuracy:").append(relativeAccuracy).append(",");
+    sb.append("count:").append(count).append("]");
+    return sb.toString();
+  }
+
+  // -- HELPER
+
+  static void checkArguments(Unit<?> unit, double relativeAccuracy) {
+    if (!(relativeAccuracy > 0 && relativeAccuracy < 1)) {
+      throw new IllegalArgumentException("relativeAccuracy must be within (0, 1): " + relativeAccuracy);
+    }
+    Objects.requireNonNull(unit);
+  }
+
+  private void requireNonEmpty() {
+    if (count == 0) {
+      throw new NoSuchElementException("histogram is empty");
+    }
+  }
+
+  private int indexOf(double magnitude) {
+    return (int) Math.ceil(Math.log(magnitude) / logGamma);
+  }
+
+  // the value within bucket (gamma^(index-1), gamma^index] having minimal relative error
+  private double valueOf(int index) {
+    return 2 * Math.exp(index * logGamma) / (1 + gamma);
+  }
+
+  /**
+   * Growable array of counters for a contiguous range of bucket indices.
+   */
+  private static final class Buckets {
+    private long[] counts = new long[0];
+    private int offset;
+    private long total;
+
+    private void increment(int index, long delta) {
+      ensureCapacity(index);
+      counts[index - offset] += delta;
+      total += delta;
+    }
+
+    private void addAll(Buckets other) {
+      for (int i = 0; i < other.counts.length; i++) {
+        if (other.counts[i] != 0) {
+          increment(i + other.offset, other.counts[i]);
+        }
+      }
+    }
+
+    private int indexAtRank(long rank) {
+      long seen = 0;
+      for (int i = 0; i < counts.length; i++) {
+        seen += counts[i];
+        if (seen > rank) {
+          return i + offset;
+        }
+      }
+      return counts.length - 1 + offset;
+    }
+
+    private int indexAtReverseRank(long rank) {
+      long seen = 0;
+      for (int i = counts.length - 1; i >= 0; i--) {
+        seen += counts[i];
+        if (seen > rank) {
+          return i + offset;
+        }
+      }
+      return offset;
+    }
+
+    private void ensureCapacity(int index) {
+      if (counts.length == 0) {
+        counts = new long[16];
+        offset = index - 8;
+        return;
+      }
+      if (index >= offset && index < offset + counts.length) {
+        return;
+      }
+      final int newMin = Math.min(offset, index);
+      final int newMax = Math.max(offset + counts.length - 1, index);
+      final int length = Math.max(newMax - newMin + 1, counts.length * 2);
+      final int newOffset = index < offset ? newMax - length + 1 : newMin;
+      final long[] grown = new long[length];
+      System.arraycopy(counts, 0, grown, offset - newOffset, counts.length);
+      counts = grown;
+      offset = newOffset;
+    }
+  }
+}
@@ -0,0 +1,498 @@
+/*
+ * Units of Measurement Reference Implementation
+ * Copyright (c) 2005-2022, Jean-Marie Dautelle, Werner Keil, Otavio Santana.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions
+ *    and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of JSR-385, Indriya nor the names of their contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package tech.units.indriya.function;
+
+import static javax.measure.Quantity.Scale.ABSOLUTE;
+import static javax.measure.Quantity.Scale.RELATIVE;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.DoubleUnaryOperator;
+import java.util.stream.DoubleStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import javax.measure.Quantity;
+import javax.measure.Unit;
+
+import tech.units.indriya.ComparableQuantity;
+import tech.units.indriya.internal.function.NumberAccumulator;
+import tech.units.indriya.internal.function.ToUnitConverter;
+import tech.units.indriya.internal.function.VectorAccess;
+import tech.units.indriya.quantity.Quantities;
+import tech.units.indriya.quantity.QuantityVector;
+
+/**
+ * Parallel bulk processing of quantities held in a {@link QuantityVector} or a random access {@link List}.
+ * <p>
+ * The kernels of this class ({@code convert}, {@code sum}, {@code min}, {@code max} and {@code countInRange})
+ * are {@link RecursiveTask}s, which split their input into ranges of a few thousand elements. Each range looks up
+ * the {@link javax.measure.UnitConverter} only once, rather than once per element, and accumulates primitive
+ * {@code double}s instead of intermediate {@link Quantity} objects. A kernel runs in the {@link ForkJoinPool} of
+ * the calling thread, or in the {@link ForkJoinPool#commonPool() common pool} if invoked from any other thread,
+ * so {@code pool.submit(() -> QuantityKernels.sum(vector)).get()} runs it in a dedicated {@code pool}.
+ * </p>
+ * <p>
+ * The {@link Spliterator}s returned by {@link #spliterator(QuantityVector)} and
+ * {@link #valueSpliterator(QuantityVector)} are {@code SIZED} and {@code SUBSIZED}, and split at multiples of
+ * eight elements, which is the number of {@code double}s per cache line on common hardware.
+ * </p>
+ *
+ * @version 1.0
+ * @since 2.1.4
+ * @see QuantityStreams
+ */
+public final class QuantityKernels {
+
+  private QuantityKernels() {
+  }
+
+  /**
+   * The number of elements below which a kernel does not split its input any further.
+   */
+  static final int LEAF_SIZE = 4096;
+
+  /**
+   * The alignment of split points, in elements.
+   */
+  private static final int ALIGNMENT = 8;
+
+  /**
+   * Returns a spliterator over the elements of the given vector, materialized as quantities.
+   *
+   * @see QuantityVector#spliterator()
+   * @param vector the vector.
+   * @return an {@code ORDERED}, {@code SIZED}, {@code SUBSIZED}, {@code IMMUTABLE} and {@code NONNULL} spliterator.
+   */
+  public static <Q extends Quantity<Q>> Spliterator<ComparableQuantity<Q>> spliterator(QuantityVector<Q> vector) {
+    return vector.spliterator();
+  }
+
+  /**
+   * Returns a spliterator over the primitive values of the given vector, stated in the unit of the vector.
+   *
+   * @see QuantityVector#valueSpliterator()
+   * @param vector the vector.
+   * @return an {@code ORDERED}, {@code SIZED}, {@code SUBSIZED}, {@code IMMUTABLE} and {@code NONNULL} spliterator.
+   */
+  public static Spliterator.OfDouble valueSpliterator(QuantityVector<?> vector) {
+    return vector.valueSpliterator();
+  }
+
+  /**
+   * Returns a sequential or parallel stream over the elements of the given vector.
+   *
+   * @param vector   the vector.
+   * @param parallel whether the stream is parallel.
+   * @return a stream of the elements of the vector.
+   */
+  public static <Q extends Quantity<Q>> Stream<ComparableQuantity<Q>> stream(QuantityVector<Q> vector,
+      boolean parallel) {
+    return StreamSupport.stream(spliterator(vector), parallel);
+  }
+
+  /**
+   * Returns a sequential or parallel stream over the primitive values of the given vector, which does not box
+   * values or create quantities.
+   *
+   * @param vector   the vector.
+   * @param parallel whether the stream is parallel.
+   * @return a stream of the values of the vector, stated in its unit.
+   */
+  public static DoubleStream values(QuantityVector<?> vector, boolean parallel) {
+    return StreamSupport.doubleStream(valueSpliterator(vector), parallel);
+  }
+
+  /**
+   * Converts the given vector into the given unit, in parallel.
+   *
+   * @param vector the vector.
+   * @param unit   the unit of the result.
+   * @return the converted vector.
+   * @see QuantityVector#to(Unit)
+   */
+  public static <Q extends Quantity<Q>> QuantityVector<Q> convert(QuantityVector<Q> vector, Unit<Q> unit) {
+    Objects.requireNonNull(unit);
+    if (vector.getUnit().equals(unit)) {
+      return vector;
+    }
+    final double[] result = new double[vector.size()];
+    new RangeTask<>(0, vector.size(), new Kernel<Void>() {
+      @Override
+      public Void leaf(int from, int to) {
+        final DoubleUnaryOperator converter = ToUnitConverter.doubleConverter(vector.getUnit(), vector.getScale(),
+            unit);
+        for (int i = from; i < to; i++) {
+          result[i] = converter.applyAsDouble(vector.getValue(i));
+        }
+        return null;
+      }
+
+      @Override
+      public Void combine(Void left, Void right) {
+        return null;
+      }
+    }).invoke();
+    return VectorAccess.get().wrap(result, unit, vector.getScale());
+  }
+
+  /**
+   * Converts the given quantities into a vector of the given unit, in parallel. The vector has {@code RELATIVE}
+   * scale, if all quantities have {@code RELATIVE} scale, {@code ABSOLUTE} otherwise.
+   *
+   * @param quantities the quantities, preferably a {@link RandomAccess} list.
+   * @param unit       the unit of the result.
+   * @return the vector of converted values.
+   * @see QuantityVector#of(Iterable, Unit)
+   */
+  public static <Q extends Quantity<Q>> QuantityVector<Q> convert(List<? extends Quantity<Q>> quantities,
+      Unit<Q> unit) {
+    Objects.requireNonNull(unit);
+    final List<? extends Quantity<Q>> list = randomAccess(quantities);
+    final double[] result = new double[list.size()];
+    final boolean allRelative = new RangeTask<>(0, list.size(), new Kernel<Boolean>() {
+      @Override
+      public Boolean leaf(int from, int to) {
+        final ToUnitConverter<Q> converter = new ToUnitConverter<>(unit);
+        boolean relative = true;
+        for (int i = from; i < to; i++) {
+          final Quantity<Q> quantity = list.get(i);
+          result[i] = converter.convert(quantity).doubleValue();
+          relative &= RELATIVE == quantity.getScale();
+        }
+        return relative;
+      }
+
+      @Override
+      public Boolean combine(Boolean left, Boolean right) {
+        return left && right;
+      }
+    }).invoke();
+    return VectorAccess.get().wrap(result, unit, allRelative && result.length > 0 ? RELATIVE : ABSOLUTE);
+  }
+
+  /**
+   * Returns the sum of all elements of the given vector, computed in parallel using compensated summation.
+   *
+   * @param vector the vector.
+   * @return the sum, stated in the unit of the vector.
+   * @see QuantityVector#sum()
+   */
+  public static <Q extends Quantity<Q>> ComparableQuantity<Q> sum(QuantityVector<Q> vector) {
+    final NumberAccumulator sum = new RangeTask<>(0, vector.size(), new Kernel<NumberAccumulator>() {
+      @Override
+      public NumberAccumulator leaf(int from, int to) {
+        final NumberAccumulator accumulator = new NumberAccumulator();
+        for (int i = from; i < to; i++) {
+          accumulator.accept(vector.getValue(i));
+        }
+        return accumulator;
+      }
+
+      @Override
+      public NumberAccumulator combine(NumberAccumulator left, NumberAccumulator right) {
+        return left.combine(right);
+      }
+    }).invoke();
+    return Quantities.getQuantity(sum.getSum(), vector.getUnit(), vector.getScale());
+  }
+
+  /**
+   * Returns the sum of the given quantities, computed in parallel. Exact number types are summed up exactly. The sum
+   * has {@code RELATIVE} scale, if all quantities have {@code RELATIVE} scale, {@code ABSOLUTE} otherwise.
+   *
+   * @param quantities the quantities, preferably a {@link RandomAccess} list.
+   * @param unit       the unit of the result.
+   * @return the sum, stated in the given unit.
+   * @see Quantities#sum(Iterable, Unit)
+   */
+  public static <Q extends Quantity<Q>> ComparableQuantity<Q> sum(List<? extends Quantity<Q>> quantities,
+      Unit<Q> unit) {
+    Objects.requireNonNull(unit);
+    final List<? extends Quantity<Q>> list = randomAccess(quantities);
+    final Scaled<NumberAccumulator> sum = new RangeTask<>(0, list.size(), new Kernel<Scaled<NumberAccumulator>>() {
+      @Override
+      public Scaled<NumberAccumulator> leaf(int from, int to) {
+        final ToUnitConverter<Q> converter = new ToUnitConverter<>(unit);
+        final NumberAccumulator accumulator = new NumberAccumulator();
+        boolean relative = true;
+        for (int i = from; i < to; i++) {
+          final Quantity<Q> quantity = list.get(i);
+          accumulator.accept(converter.convert(quantity));
+          relative &= RELATIVE == quantity.getScale();
+        }
+        return new Scaled<>(accumulator, relative);
+      }
+
+      @Override
+      public Scaled<NumberAccumulator> combine(Scaled<NumberAccumulator> left, Scaled<NumberAccumulator> right) {
+        return new Scaled<>(left.value.combine(right.value), left.relative && right.relative);
+      }
+    }).invoke();
+    return Quantities.getQuantity(sum.value.getSum(), unit, sum.relative && !list.isEmpty() ? RELATIVE : ABSOLUTE);
+  }
+
+  /**
+   * @param vector the vector.
+   * @return the smallest element of the given vector, computed in parallel.
+   * @throws NoSuchElementException if the vector is empty
+   */
+  public static <Q extends Quantity<Q>> ComparableQuantity<Q> min(QuantityVector<Q> vector) {
+    return Quantities.getQuantity(extremum(vector, false), vector.getUnit(), vector.getScale());
+  }
+
+  /**
+   * @param vector the vector.
+   * @return the largest element of the given vector, computed in parallel.
+   * @throws NoSuchElementException if the vector is empty
+   */
+  public static <Q extends Quantity<Q>> ComparableQuantity<Q> max(QuantityVector<Q> vector) {
+    return Quantities.getQuantity(extremum(vector, true), vector.getUnit(), vector.getScale());
+  }
+
+  /**
+   * Returns the smallest of the given quantities, computed in parallel on {@code double} values. The result keeps the
+   * scale of that quantity.
+   *
+   * @param quantities the quantities, preferably a {@link RandomAccess} list.
+   * @param unit       the unit of the result.
+   * @return the smallest quantity, stated in the given unit.
+   * @throws NoSuchElementException if there are no quantities
+   */
+  public static <Q extends Quantity<Q>> ComparableQuantity<Q> min(List<? extends Quantity<Q>> quantities,
+      Unit<Q> unit) {
+    final Scaled<Double> extremum = extremum(quantities, unit, false);
+    return Quantities.getQuantity(extremum.value, unit, extremum.relative ? RELATIVE : ABSOLUTE);
+  }
+
+  /**
+   * Returns the largest of the given quantities, computed in parallel on {@code double} values. The result keeps the
+   * scale of that quantity.
+   *
+   * @param quantities the quantities, preferably a {@link RandomAccess} list.
+   * @param unit       the unit of the result.
+   * @return the largest quantity, stated in the given unit.
+   * @throws NoSuchElementException if there are no quantities
+   */
+  public static <Q extends Quantity<Q>> ComparableQuantity<Q> max(List<? extends Quantity<Q>> quantities,
+      Unit<Q> unit) {
+    final Scaled<Double> extremum = extremum(quantities, unit, true);
+    return Quantities.getQuantity(extremum.value, unit, extremum.relative ? RELATIVE : ABSOLUTE);
+  }
+
+  /**
+   * Counts the elements of the given vector within the closed range {@code [lower, upper]}, in parallel.
+   *
+   * @param vector the vector.
+   * @param lower  the lower bound, inclusive.
+   * @param upper  the upper bound, inclusive.
+   * @return the number of elements within the range.
+   */
+  public static <Q extends Quantity<Q>> long countInRange(QuantityVector<Q> vector, Quantity<Q> lower,
+      Quantity<Q> upper) {
+    final double min = lower.to(vector.getUnit()).getValue().doubleValue();
+    final double max = upper.to(vector.getUnit()).getValue().doubleValue();
+    return new RangeTask<>(0, vector.size(), new Kernel<Long>() {
+      @Override
+      public Long leaf(int from, int to) {
+        long count = 0;
+        for (int i = from; i < to; i++) {
+          final double value = vector.getValue(i);
+          if (value >= min && value <= max) {
+            count++;
+          }
+        }
+        return count;
+      }
+
+      @Override
+      public Long combine(Long left, Long right) {
+        return left + right;
+      }
+    }).invoke();
+  }
+
+  /**
+   * Counts the given quantities within the closed range {@code [lower, upper]}, in parallel.
+   *
+   * @param quantities the quantities, preferably a {@link RandomAccess} list.
+   * @param lower      the lower bound, inclusive.
+   * @param upper      the upper bound, inclusive.
+   * @return the number of quantities within the range.
+   */
+  public static <Q extends Quantity<Q>> long countInRange(List<? extends Quantity<Q>> quantities,
+      Quantity<Q> lower, Quantity<Q> upper) {
+    final Unit<Q> unit = lower.getUnit();
+    final double min = lower.getValue().doubleValue();
+    final double max = upper.to(unit).getValue().doubleValue();
+    final List<? extends Quantity<Q>> list = randomAccess(quantities);
+    return new RangeTask<>(0, list.size(), new Kernel<Long>() {
+      @Override
+      public Long leaf(int from, int to) {
+        final ToUnitConverter<Q> converter = new ToUnitConverter<>(unit);
+        long count = 0;
+        for (int i = from; i < to; i++) {
+          final double value = converter.convert(list.get(i)).doubleValue();
+          if (value >= min && value <= max) {
+            count++;
+          }
+        }
+        return count;
+      }
+
+      @Override
+      public Long combine(Long left, Long right) {
+        return left + right;
+      }
+    }).invoke();
+  }
+
+  // -- HELPER
+
+  private static <T> List<T> randomAccess(List<T> list) {
+    Objects.requireNonNull(list);
+    return list instanceof RandomAccess ? list : new ArrayList<>(list);
+  }
+
+  private static double extremum(QuantityVector<?> vector, boolean max) {
+    if (vector.size() == 0) {
+      throw new NoSuchElementException("vector is empty");
+    }
+    return new RangeTask<>(0, vector.size(), new Kernel<Double>() {
+      @Override
+      public Double leaf(int from, int to) {
+        double result = vector.getValue(from);
+        for (int i = from + 1; i < to; i++) {
+          result = max ? Math.max(result, vector.getValue(i)) : Math.min(result, vector.getValue(i));
+        }
+        return result;
+      }
+
+      @Override
+      public Double combine(Double left, Double right) {
+        return max ? Math.max(left, right) : Math.min(left, right);
+      }
+    }).invoke();
+  }
+
+  private static <Q extends Quantity<Q>> Scaled<Double> extremum(List<? extends Quantity<Q>> quantities,
+      Unit<Q> unit, boolean max) {
+    Objects.requireNonNull(unit);
+    final List<? extends Quantity<Q>> list = randomAccess(quantities);
+    if (list.isEmpty()) {
+      throw new NoSuchElementException("no quantities");
+    }
+    final int sign = max ? 1 : -1;
+    return new RangeTask<>(0, list.size(), new Kernel<Scaled<Double>>() {
+      @Override
+      public Scaled<Double> leaf(int from, int to) {
+        final ToUnitConverter<Q> converter = new ToUnitConverter<>(unit);
+        int best = from;
+        double result = converter.convert(list.get(from)).doubleValue();
+        for (int i = from + 1; i < to; i++) {
+          final double value = converter.convert(list.get(i)).doubleValue();
+          if (Integer.signum(Double.compare(value, result)) == sign) {
+            best = i;
+            result = value;
+          }
+        }
+        return new Scaled<>(result, RELATIVE == list.get(best).getScale());
+      }
+
+      @Override
+      public Scaled<Double> combine(Scaled<Double> left, Scaled<Double> right) {
+        return Integer.signum(Double.compare(right.value, left.value)) == sign ? right : left;
+      }
+    }).invoke();
+  }
+
+  /**
+   * @return the split point of the range {@code [from, to)}, aligned to {@link #ALIGNMENT}, or {@code from} if
+   *         the range is too small to be split
+   */
+  private static int split(int from, int to) {
+    final int mid = (from + (to - from) / 2) & -ALIGNMENT;
+    return mid > from ? mid : from;
+  }
+
+  /**
+   * A partial result, along with whether the quantities it stems from determine a {@code RELATIVE} scale.
+   */
+  private static final class Scaled<T> {
+    private final T value;
+    private final boolean relative;
+
+    private Scaled(T value, boolean relative) {
+      this.value = value;
+      this.relative = relative;
+    }
+  }
+
+  /**
+   * A computation over a range of indices, which can be combined with the result of an adjacent range.
+   */
+  private interface Kernel<R> {
+    R leaf(int from, int to);
+
+    R combine(R left, R right);
+  }
+
+  private static final class RangeTask<R> extends RecursiveTask<R> {
+    private static final long serialVersionUID = 1L;
+
+    private final int from;
+    private final int to;
+    private final Kernel<R> kernel;
+
+    private RangeTask(int from, int to, Kernel<R> kernel) {
+      this.from = from;
+      this.to = to;
+      this.kernel = kernel;
+    }
+
+    @Override
+    protected R compute() {
+      final int mid = to - from > LEAF_SIZE ? split(from, to) : from;
+      if (mid == from) {
+        return kernel.leaf(from, to);
+      }
+      final RangeTask<R> left = new RangeTask<>(from, mid, kernel);
+      left.fork();
+      final R right = new RangeTask<>(mid, to, kernel).compute();
+      return kernel.combine(left.join(), right);
+    }
+  }
+}
@@ -29,19 +29,45 @@
  */
 package tech.units.indriya.function;
 
+import static java.util.stream.Collector.Characteristics.UNORDERED;
+import static javax.measure.Quantity.Scale.ABSOLUTE;
+import static javax.measure.Quantity.Scale.RELATIVE;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collector;
+import java.util.stream.Collectors;
 
+import javax.measure.Dimension;
 import javax.measure.MeasurementError;
 import javax.measure.Quantity;
+import javax.measure.Quantity.Scale;
 import javax.measure.Unit;
 
+import tech.units.indriya.ComparableQuantity;
+import tech.units.indriya.internal.function.NumberAccumulator;
+import tech.units.indriya.internal.function.ToUnitConverter;
+import tech.units.indriya.quantity.Quantities;
+import tech.units.indriya.spi.NumberSystem;
+
 /**
  * Utility methods for operating on quantities using streams.
+ * <p>
+ * All {@link Collector}s provided here have associative combiners, hence are safe to use with parallel streams.
+ * Those that reduce to a single quantity convert each element into the target unit exactly once and look up
+ * the required converter only once per distinct source unit (and per stream partition).
+ * </p>
  * 
  * @author Otavio
  * @author Werner
- * @version 1.1
+ * @version 1.2
  * @since 2.0
  *
  */
@@ -58,7 +84,270 @@ public final class QuantityStreams {
    */
   public static <Q extends Quantity<Q>> Collector<Quantity<Q>, QuantitySummaryStatistics<Q>, QuantitySummaryStatistics<Q>> summarizeQuantity(
 			Unit<Q> unit) {
+		Objects.requireNonNull(unit);
 		Supplier<QuantitySummaryStatistics<Q>> supplier = () -> new QuantitySummaryStatistics<>(unit);
-		return Collector.of(supplier, QuantitySummaryStatistics<Q>::accept, QuantitySummaryStatistics<Q>::combine);
+		return Collector.of(supplier, QuantitySummaryStatistics<Q>::accept, QuantitySummaryStatistics<Q>::combine, UNORDERED);
 	}
+
+  /**
+   * Returns a {@code Collector} that produces the sum of the input quantities, stated in the given unit. 
+   * If no elements are present, the result is zero. The result has {@code RELATIVE} scale, if all quantities have
+   * {@code RELATIVE} scale, {@code ABSOLUTE} otherwise.
+   * 
+   * @param unit the unit of the result, not null
+   * @return a {@code Collector} that produces the sum of the quantities
+   * @see Quantities#sum(Iterable, Unit)
+   * @since 2.1.4
+   */
+  public static <Q extends Quantity<Q>> Collector<Quantity<Q>, ?, ComparableQuantity<Q>> summingQuantity(
+      Unit<Q> unit) {
+    Objects.requireNonNull(unit);
+    return Collector.of(() -> new Summation<>(unit), Summation<Q>::accept, Summation<Q>::combine,
+        summation -> Quantities.getQuantity(summation.accumulator.getSum(), unit, summation.scale()), UNORDERED);
+  }
+
+  /**
+   * Returns a {@code Collector} that produces the arithmetic mean of the input quantities, stated in the given unit. 
+   * If no elements are present, the result is an empty {@code Optional}. The result has {@code RELATIVE} scale, if
+   * all quantities have {@code RELATIVE} scale, {@code ABSOLUTE} otherwise.
+   * 
+   * @param unit the unit of the result, not null
+   * @return a {@code Collector} that produces the average of the quantities
+   * @see Quantities#mean(Iterable, Unit)
+   * @since 2.1.4
+   */
+  public static <Q extends Quantity<Q>> Collector<Quantity<Q>, ?, Optional<ComparableQuantity<Q>>> averagingQuantity(
+      Unit<Q> unit) {
+    Objects.requireNonNull(unit);
+    return Collector.of(() -> new Summation<>(unit), Summation<Q>::accept, Summation<Q>::combine,
+        summation -> summation.accumulator.getCount() == 0 
+            ? Optional.empty()
+            : Optional.of(Quantities.getQuantity(summation.accumulator.getMean(), unit, summation.scale())), 
+        UNORDERED);
+  }
+
+  /**
+   * Returns a {@code Collector} that produces the minimal input quantity, stated in the given unit. 
+   * If no elements are present, the result is an empty {@code Optional}.
+   * 
+   * @param unit the unit of the result, not null
+   * @return a {@code Collector} that produces the minimal quantity
+   * @since 2.1.4
+   */
+  public static <Q extends Quantity<Q>> Collector<Quantity<Q>, ?, Optional<ComparableQuantity<Q>>> minQuantity(
+      Unit<Q> unit) {
+    return extremum(unit, -1);
+  }
+
+  /**
+   * Returns a {@code Collector} that produces the maximal input quantity, stated in the given unit. 
+   * If no elements are present, the result is an empty {@code Optional}.
+   * 
+   * @param unit the unit of the result, not null
+   * @return a {@code Collector} that produces the maximal quantity
+   * @since 2.1.4
+   */
+  public static <Q extends Quantity<Q>> Collector<Quantity<Q>, ?, Optional<ComparableQuantity<Q>>> maxQuantity(
+      Unit<Q> unit) {
+    return extremum(unit, 1);
+  }
+
+  /**
+   * Returns a {@code Collector} that converts each input quantity into the given unit, before passing it on to 
+   * the {@code downstream} collector. E.g. <code>converting(METRE, Collectors.toList())</code>.
+   * 
+   * @param unit the target unit, not null
+   * @param downstream the collector accepting the converted quantities, not null
+   * @return a {@code Collector} that converts quantities to the given unit
+   * @since 2.1.4
+   */
+  public static <Q extends Quantity<Q>, A, R> Collector<Quantity<Q>, ?, R> converting(Unit<Q> unit,
+      Collector<? super ComparableQuantity<Q>, A, R> downstream) {
+    Objects.requireNonNull(unit);
+    Objects.requireNonNull(downstream);
+    final BiConsumer<A, ? super ComparableQuantity<Q>> downstreamAccumulator = downstream.accumulator();
+    final BinaryOperator<A> downstreamCombiner = downstream.combiner();
+    final Function<A, R> downstreamFinisher = downstream.finisher();
+    final Collector.Characteristics[] characteristics = downstream.characteristics().stream()
+        .filter(c -> c != Collector.Characteristics.IDENTITY_FINISH && c != Collector.Characteristics.CONCURRENT)
+        .toArray(Collector.Characteristics[]::new);
+    return Collector.<Quantity<Q>, Conversion<Q, A>, R>of(
+        () -> new Conversion<>(unit, downstream.supplier().get()),
+        (conversion, quantity) -> downstreamAccumulator.accept(conversion.container, 
+            Quantities.getQuantity(conversion.converter.convert(quantity), unit, quantity.getScale())),
+        (left, right) -> {
+          left.container = downstreamCombiner.apply(left.container, right.container);
+          return left;
+        },
+        conversion -> downstreamFinisher.apply(conversion.container), 
+        characteristics);
+  }
+
+  /**
+   * Returns a {@code Collector} that groups the input quantities by their {@link Unit}.
+   * 
+   * @return a {@code Collector} grouping quantities by unit
+   * @since 2.1.4
+   */
+  public static <Q extends Quantity<Q>> Collector<Quantity<Q>, ?, Map<Unit<Q>, List<Quantity<Q>>>> groupingByUnit() {
+    return Collectors.groupingBy(Quantity::getUnit);
+  }
+
+  /**
+   * Returns a {@code Collector} that groups the input quantities by their {@link Unit}, reducing each group 
+   * with the {@code downstream} collector.
+   * 
+   * @param downstream the collector reducing each group, not null
+   * @return a {@code Collector} grouping quantities by unit
+   * @since 2.1.4
+   */
+  public static <Q extends Quantity<Q>, A, R> Collector<Quantity<Q>, ?, Map<Unit<Q>, R>> groupingByUnit(
+      Collector<? super Quantity<Q>, A, R> downstream) {
+    return Collectors.groupingBy(Quantity::getUnit, downstream);
+  }
+
+  /**
+   * Returns a {@code CONCURRENT} and {@code UNORDERED} {@code Collector} that groups the input quantities 
+   * by their {@link Unit} into a {@link ConcurrentMap}, reducing each group with the {@code downstream} collector.
+   * 
+   * @param downstream the collector reducing each group, not null
+   * @return a concurrent {@code Collector} grouping quantities by unit
+   * @since 2.1.4
+   */
+  public static <Q extends Quantity<Q>, A, R> Collector<Quantity<Q>, ?, ConcurrentMap<Unit<Q>, R>> groupingByUnitConcurrent(
+      Collector<? super Quantity<Q>, A, R> downstream) {
+    return Collectors.groupingByConcurrent(Quantity::getUnit, downstream);
+  }
+
+  /**
+   * Returns a {@code Collector} that groups the input quantities by the {@link Dimension} of their unit.
+   * 
+   * @return a {@code Collector} grouping quantities by dimension
+   * @since 2.1.4
+   */
+  public static Collector<Quantity<?>, ?, Map<Dimension, List<Quantity<?>>>> groupingByDimension() {
+    return Collectors.groupingBy(quantity -> quantity.getUnit().getDimension());
+  }
+
+  /**
+   * Returns a {@code CONCURRENT} and {@code UNORDERED} {@code Collector} that groups the input quantities 
+   * by the {@link Dimension} of their unit into a {@link ConcurrentMap}, reducing each group with the 
+   * {@code downstream} collector.
+   * 
+   * @param downstream the collector reducing each group, not null
+   * @return a concurrent {@code Collector} grouping quantities by dimension
+   * @since 2.1.4
+   */
+  public static <A, R> Collector<Quantity<?>, ?, ConcurrentMap<Dimension, R>> groupingByDimensionConcurrent(
+      Collector<? super Quantity<?>, A, R> downstream) {
+    return Collectors.groupingByConcurrent(quantity -> quantity.getUnit().getDimension(), downstream);
+  }
+
+  /**
+   * Returns a {@code Collector} that records the input quantities into a {@link QuantityHistogram}.
+   * 
+   * @param unit the unit values are normalized into, not null
+   * @param relativeAccuracy the relative accuracy of quantiles, within {@code (0, 1)}
+   * @return a {@code Collector} producing a histogram of the quantities
+   * @since 2.1.4
+   */
+  public static <Q extends Quantity<Q>> Collector<Quantity<Q>, QuantityHistogram<Q>, QuantityHistogram<Q>> quantityHistogram(
+      Unit<Q> unit, double relativeAccuracy) {
+    QuantityHistogram.checkArguments(unit, relativeAccuracy);
+    return Collector.of(() -> new QuantityHistogram<>(unit, relativeAccuracy), QuantityHistogram<Q>::accept,
+        QuantityHistogram<Q>::combine, UNORDERED);
+  }
+
+  /**
+   * Returns a {@code Collector} that records the input quantities into a {@link QuantityDigest}.
+   * 
+   * @param unit the unit values are normalized into, not null
+   * @param compression the compression factor, at least {@code 10}, typically {@code 100}
+   * @return a {@code Collector} producing a quantile digest of the quantities
+   * @since 2.1.4
+   */
+  public static <Q extends Quantity<Q>> Collector<Quantity<Q>, QuantityDigest<Q>, QuantityDigest<Q>> quantityDigest(
+      Unit<Q> unit, double compression) {
+    QuantityDigest.checkArguments(unit, compression);
+    return Collector.of(() -> new QuantityDigest<>(unit, compression), QuantityDigest<Q>::accept,
+        QuantityDigest<Q>::combine, UNORDERED);
+  }
+
+  // -- HELPER
+
+  private static <Q extends Quantity<Q>> Collector<Quantity<Q>, ?, Optional<ComparableQuantity<Q>>> extremum(
+      Unit<Q> unit, int sign) {
+    Objects.requireNonNull(unit);
+    return Collector.of(() -> new Extremum<>(unit, sign), Extremum<Q>::accept, Extremum<Q>::combine,
+        extremum -> extremum.value == null 
+            ? Optional.empty() 
+            : Optional.of(Quantities.getQuantity(extremum.value, unit, extremum.scale)), 
+        UNORDERED);
+  }
+
+  private static final class Summation<Q extends Quantity<Q>> {
+    private final ToUnitConverter<Q> converter;
+    private final NumberAccumulator accumulator = new NumberAccumulator();
+    private boolean allRelative = true;
+
+    private Summation(Unit<Q> unit) {
+      this.converter = new ToUnitConverter<>(unit);
+    }
+
+    private void accept(Quantity<Q> quantity) {
+      accumulator.accept(converter.convert(Objects.requireNonNull(quantity)));
+      allRelative &= RELATIVE == quantity.getScale();
+    }
+
+    private Summation<Q> combine(Summation<Q> other) {
+      accumulator.combine(other.accumulator);
+      allRelative &= other.allRelative;
+      return this;
+    }
+
+    private Scale scale() {
+      return allRelative && accumulator.getCount() > 0 ? RELATIVE : ABSOLUTE;
+    }
+  }
+
+  private static final class Extremum<Q extends Quantity<Q>> {
+    private final ToUnitConverter<Q> converter;
+    private final NumberSystem ns = Calculus.currentNumberSystem();
+    private final int sign;
+    private Number value;
+    private Scale scale = ABSOLUTE;
+
+    private Extremum(Unit<Q> unit, int sign) {
+      this.converter = new ToUnitConverter<>(unit);
+      this.sign = sign;
+    }
+
+    private void accept(Quantity<Q> quantity) {
+      accept(converter.convert(Objects.requireNonNull(quantity)), quantity.getScale());
+    }
+
+    private void accept(Number candidate, Scale candidateScale) {
+      if (value == null || Integer.signum(ns.compare(candidate, value)) == sign) {
+        value = candidate;
+        scale = candidateScale;
+      }
+    }
+
+    private Extremum<Q> combine(Extremum<Q> other) {
+      if (other.value != null) {
+        accept(other.value, other.scale);
+      }
+      return this;
+    }
+  }
+
+  private static final class Conversion<Q extends Quantity<Q>, A> {
+    private final ToUnitConverter<Q> converter;
+    private A container;
+
+    private Conversion(Unit<Q> unit, A container) {
+      this.converter = new ToUnitConverter<>(unit);
+      this.container = container;
+    }
+  }
 }
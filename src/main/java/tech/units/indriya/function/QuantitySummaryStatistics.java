@@ -29,40 +29,56 @@
  */
 package tech.units.indriya.function;
 
-import static tech.uom.lib.common.function.QuantityFunctions.*;
-
 import java.util.Objects;
-import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
 
 import javax.measure.Quantity;
 import javax.measure.Unit;
+import javax.measure.UnitConverter;
 
+import tech.units.indriya.internal.function.NumberAccumulator;
+import tech.units.indriya.internal.function.ToUnitConverter;
 import tech.units.indriya.quantity.Quantities;
+import tech.units.indriya.spi.NumberSystem;
 
 /**
+ * A state object for collecting statistics such as count, min, max, sum, average and variance of quantities.
+ * <p>
+ * Each input quantity is converted to the target unit exactly once, its converter being looked up once per
+ * distinct source unit. The summary is kept as plain numbers, so accepting a quantity costs O(1) and the
+ * average is only computed when requested. The variance is tracked on {@code double} values using
+ * <a href="https://en.wikipedia.org/wiki/Algorithms_for_calculating_variance#Welford's_online_algorithm">Welford's</a>
+ * algorithm.
+ * </p>
+ * <p>
+ * This implementation is <b>not</b> thread safe. However, it is safe to use with parallel streams, since
+ * {@link #combine(QuantitySummaryStatistics)} correctly merges partial results, even if those were collected
+ * in different units.
+ * </p>
+ * 
  * @author Otavio
  * @author Werner
- * @version 1.2
+ * @version 2.0
  * @since 1.0
  * @param <Q>
  */
-public class QuantitySummaryStatistics<Q extends Quantity<Q>> {
+public class QuantitySummaryStatistics<Q extends Quantity<Q>> implements Consumer<Quantity<Q>> {
 
-  private final Quantity<Q> empty;
+  private final Unit<Q> unit;
 
-  private long count;
+  private final NumberSystem ns = Calculus.currentNumberSystem();
 
-  private Quantity<Q> min;
+  private final ToUnitConverter<Q> converter;
 
-  private Quantity<Q> max;
+  private final NumberAccumulator sum;
 
-  private Quantity<Q> sum;
+  private Number min;
 
-  private Quantity<Q> average;
+  private Number max;
 
-  private final BinaryOperator<Quantity<Q>> minFunctions = min();
+  private double mean;
 
-  private final BinaryOperator<Quantity<Q>> maxFunctions = max();
+  private double m2;
 
   /**
    * Creates a new instance, targeting the given {@link javax.measure.Unit}.
@@ -71,8 +87,9 @@ public class QuantitySummaryStatistics<Q extends Quantity<Q>> {
    *          the target unit, not null.
    */
   QuantitySummaryStatistics(Unit<Q> unit) {
-    empty = Quantities.getQuantity(0, unit);
-    setQuantity(empty);
+    this.unit = Objects.requireNonNull(unit);
+    this.converter = new ToUnitConverter<>(unit);
+    this.sum = new NumberAccumulator(ns);
   }
 
   /**
@@ -81,55 +98,69 @@ public class QuantitySummaryStatistics<Q extends Quantity<Q>> {
    * @param quantity
    *          the input quantity value to be added, not null.
    */
+  @Override
   public void accept(Quantity<Q> quantity) {
-
     Objects.requireNonNull(quantity);
-
-    if (isEmpty()) {
-      setQuantity(quantity.to(empty.getUnit()));
-      count++;
-    } else {
-      doSummary(quantity.to(empty.getUnit()));
-    }
+    doSummary(converter.convert(quantity));
   }
 
   /**
    * Combines the state of another {@code QuantitySummaryStatistics} into this one.
+   * If the other summary targets a different unit, its state is converted into this summary's unit first.
    * 
    * @param quantitySummary
    *          another {@code QuantitySummaryStatistics}, not null.
+   * @return this summary
    */
   public QuantitySummaryStatistics<Q> combine(QuantitySummaryStatistics<Q> quantitySummary) {
     Objects.requireNonNull(quantitySummary);
-
-    if (!equals(quantitySummary)) {
+    if (quantitySummary.isEmpty()) {
       return this;
     }
-
-    min = minFunctions.apply(min, quantitySummary.min.to(empty.getUnit()));
-    max = maxFunctions.apply(max, quantitySummary.max.to(empty.getUnit()));
-    sum = sum.add(quantitySummary.sum);
-    count += quantitySummary.count;
-    average = sum.divide(count);
+    final QuantitySummaryStatistics<Q> other = unit.equals(quantitySummary.unit) 
+        ? quantitySummary 
+        : quantitySummary.to(unit);
+    if (isEmpty()) {
+      min = other.min;
+      max = other.max;
+      mean = other.mean;
+      m2 = other.m2;
+    } else {
+      min = ns.compare(other.min, min) < 0 ? other.min : min;
+      max = ns.compare(other.max, max) > 0 ? other.max : max;
+      final double n1 = sum.getCount();
+      final double n2 = other.sum.getCount();
+      final double n = n1 + n2;
+      final double delta = other.mean - mean;
+      mean += delta * n2 / n;
+      m2 += other.m2 + delta * delta * n1 * n2 / n;
+    }
+    sum.combine(other.sum);
     return this;
   }
 
-  private void doSummary(Quantity<Q> moneraty) {
-    min = minFunctions.apply(min, moneraty);
-    max = maxFunctions.apply(max, moneraty);
-    sum = sum.add(moneraty);
-    average = sum.divide(++count);
+  private void doSummary(Number value) {
+    if (isEmpty()) {
+      min = value;
+      max = value;
+    } else if (ns.compare(value, min) < 0) {
+      min = value;
+    } else if (ns.compare(value, max) > 0) {
+      max = value;
+    }
+    sum.accept(value);
+    final double x = value.doubleValue();
+    final double delta = x - mean;
+    mean += delta / sum.getCount();
+    m2 += delta * (x - mean);
   }
 
   private boolean isEmpty() {
-    return count == 0;
+    return sum.getCount() == 0;
   }
 
-  private void setQuantity(Quantity<Q> quantity) {
-    min = quantity;
-    max = quantity;
-    sum = quantity;
-    average = quantity;
+  private Quantity<Q> quantityOf(Number value) {
+    return Quantities.getQuantity(isEmpty() ? 0 : value, unit);
   }
 
   /**
@@ -138,7 +169,7 @@ public class QuantitySummaryStatistics<Q extends Quantity<Q>> {
    * @return the number of summarized items, >= 0.
    */
   public long getCount() {
-    return count;
+    return sum.getCount();
   }
 
   /**
@@ -147,7 +178,7 @@ public class QuantitySummaryStatistics<Q extends Quantity<Q>> {
    * @return the minimal quantity
    */
   public Quantity<Q> getMin() {
-    return min;
+    return quantityOf(min);
   }
 
   /**
@@ -158,7 +189,7 @@ public class QuantitySummaryStatistics<Q extends Quantity<Q>> {
    * @return the minimal quantity converted to this unit
    */
   public Quantity<Q> getMin(Unit<Q> unit) {
-    return min.to(unit);
+    return getMin().to(unit);
   }
 
   /**
@@ -167,7 +198,7 @@ public class QuantitySummaryStatistics<Q extends Quantity<Q>> {
    * @return the maximal quantity
    */
   public Quantity<Q> getMax() {
-    return max;
+    return quantityOf(max);
   }
 
   /**
@@ -178,7 +209,7 @@ public class QuantitySummaryStatistics<Q extends Quantity<Q>> {
    * @return the maximal quantity converted to this unit
    */
   public Quantity<Q> getMax(Unit<Q> unit) {
-    return max.to(unit);
+    return getMax().to(unit);
   }
 
   /**
@@ -187,7 +218,7 @@ public class QuantitySummaryStatistics<Q extends Quantity<Q>> {
    * @return the total amount
    */
   public Quantity<Q> getSum() {
-    return sum;
+    return Quantities.getQuantity(sum.getSum(), unit);
   }
 
   /**
@@ -198,7 +229,7 @@ public class QuantitySummaryStatistics<Q extends Quantity<Q>> {
    * @return the total amount converted to this unit
    */
   public Quantity<Q> getSum(Unit<Q> unit) {
-    return sum.to(unit);
+    return getSum().to(unit);
   }
 
   /**
@@ -207,7 +238,7 @@ public class QuantitySummaryStatistics<Q extends Quantity<Q>> {
    * @return the quantity average quantity
    */
   public Quantity<Q> getAverage() {
-    return average;
+    return quantityOf(isEmpty() ? null : sum.getMean());
   }
 
   /**
@@ -218,7 +249,27 @@ public class QuantitySummaryStatistics<Q extends Quantity<Q>> {
    * @return the average quantity converted to this unit
    */
   public Quantity<Q> getAverage(Unit<Q> unit) {
-    return average.to(unit);
+    return getAverage().to(unit);
+  }
+
+  /**
+   * Get the population variance of all amounts added, stated in the square of this summary's unit.
+   * 
+   * @return the variance quantity
+   * @since 2.1.4
+   */
+  public Quantity<?> getVariance() {
+    return Quantities.getQuantity(isEmpty() ? 0d : m2 / getCount(), unit.pow(2));
+  }
+
+  /**
+   * Get the population standard deviation of all amounts added.
+   * 
+   * @return the standard deviation quantity
+   * @since 2.1.4
+   */
+  public Quantity<Q> getStandardDeviation() {
+    return Quantities.getQuantity(isEmpty() ? 0d : Math.sqrt(m2 / getCount()), unit);
   }
 
   /**
@@ -229,12 +280,25 @@ public class QuantitySummaryStatistics<Q extends Quantity<Q>> {
    * @return the summary converted to this unit
    */
   public QuantitySummaryStatistics<Q> to(Unit<Q> unit) {
-    QuantitySummaryStatistics<Q> summary = new QuantitySummaryStatistics<>(unit);
-    summary.average = average.to(unit);
-    summary.count = count;
-    summary.max = max.to(unit);
-    summary.min = min.to(unit);
-    summary.sum = sum.to(unit);
+    final QuantitySummaryStatistics<Q> summary = new QuantitySummaryStatistics<>(unit);
+    if (isEmpty()) {
+      return summary;
+    }
+    final UnitConverter toUnit = this.unit.getConverterTo(unit);
+    final long count = getCount();
+    // the mean, hence the sum, is preserved by affine conversions: sum' = count * f(sum / count)
+    final Number convertedSum = ns.multiply(toUnit.convert(sum.getMean()), count);
+    final double scale = toUnit.convert(1d) - toUnit.convert(0d);
+    summary.min = toUnit.convert(min);
+    summary.max = toUnit.convert(max);
+    if (ns.compare(summary.min, summary.max) > 0) { // order reversing conversion
+      final Number swap = summary.min;
+      summary.min = summary.max;
+      summary.max = swap;
+    }
+    summary.mean = toUnit.convert(mean);
+    summary.m2 = m2 * scale * scale;
+    summary.sum.combine(convertedSum, count);
     return summary;
   }
 
@@ -246,25 +310,25 @@ public class QuantitySummaryStatistics<Q extends Quantity<Q>> {
     if (QuantitySummaryStatistics.class.isInstance(obj)) {
       @SuppressWarnings("rawtypes")
       QuantitySummaryStatistics other = QuantitySummaryStatistics.class.cast(obj);
-      return Objects.equals(empty.getUnit(), other.empty.getUnit());
+      return Objects.equals(unit, other.unit);
     }
     return false;
   }
 
   @Override
   public int hashCode() {
-    return empty.getUnit().hashCode();
+    return unit.hashCode();
   }
 
   @Override
   public String toString() {
     final StringBuilder sb = new StringBuilder();
-    sb.append("[unit: ").append(empty.getUnit()).append(",");
-    sb.append("count:").append(count).append(",");
-    sb.append("min:").append(min).append(",");
-    sb.append("max:").append(max).append(",");
-    sb.append("sum:").append(sum).append(",");
-    sb.append("average:").append(average).append("]");
+    sb.append("[unit: ").append(unit).append(",");
+    sb.append("count:").append(getCount()).append(",");
+    sb.append("min:").append(getMin()).append(",");
+    sb.append("max:").append(getMax()).append(",");
+    sb.append("sum:").append(getSum()).append(",");
+    sb.append("average:").append(getAverage()).append("]");
     return sb.toString();
   }
 }
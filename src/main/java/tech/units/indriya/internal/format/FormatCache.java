@@ -0,0 +1,160 @@
+/*
+ * Units of Measurement Reference Implementation
+ * Copyright (c) 2005-2022, Jean-Marie Dautelle, Werner Keil, Otavio Santana.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions
+ *    and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of JSR-385, Indriya nor the names of their contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package tech.units.indriya.internal.format;
+
+import static org.apiguardian.api.API.Status.INTERNAL;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import org.apiguardian.api.API;
+
+/**
+ * A bounded, concurrent cache of formatting or parsing results.
+ * <p>
+ * All caches are invalidated together by {@link #invalidateAll()}, which is called whenever a label, alias or symbol
+ * changes, e.g. by {@link tech.units.indriya.format.SimpleUnitFormat#label(javax.measure.Unit, String)}. Each entry
+ * records the generation it was computed in, such that a result computed concurrently with a change is never
+ * returned afterwards. Once a cache is full, it is cleared.
+ * </p>
+ *
+ * @param <K>
+ *          the type of the keys
+ * @param <V>
+ *          the type of the cached values
+ * @version 1.0
+ * @since 2.1.4
+ */
+@API(status=INTERNAL)
+public final class FormatCache<K, V> {
+
+    private static final AtomicLong GENERATION = new AtomicLong();
+
+    private static final class Entry<V> {
+        private final long generation;
+        private final V value;
+
+        private Entry(long generation, V value) {
+            this.generation = generation;
+            this.value = value;
+        }
+    }
+
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param maxSize
+     *          the maximum number of entries.
+     */
+    public FormatCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+        }
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Invalidates the entries of all caches.
+     */
+    public static void invalidateAll() {
+        GENERATION.incrementAndGet();
+    }
+
+    /**
+     * Returns the current generation, which changes whenever {@link #invalidateAll()} is called. Results derived from
+     * labels, aliases or symbols outside of a {@code FormatCache} are still current, as long as the generation is.
+     *
+     * @return the current generation.
+     */
+    public static long generation() {
+        return GENERATION.get();
+    }
+
+    /**
+     * Returns the cached value for the given key, or computes and caches it.
+     *
+     * @param key
+     *          the key.
+     * @param loader
+     *          computes the value for a key, not {@code null}. Exceptions are passed on, and nothing is cached.
+     * @return the value for the given key
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        final long generation = GENERATION.get();
+        final Entry<V> entry = entries.get(key);
+        if (entry != null && entry.generation == generation) {
+            hits.increment();
+            return entry.value;
+        }
+        misses.increment();
+        final V value = Objects.requireNonNull(loader.apply(key));
+        if (entries.size() >= maxSize) {
+            entries.clear();
+        }
+        entries.put(key, new Entry<>(generation, value));
+        return value;
+    }
+
+    /**
+     * @return the number of lookups served from this cache.
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of lookups, which had to compute their value.
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the number of entries of this cache, including invalidated ones not evicted yet.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Removes all entries and resets the statistics.
+     */
+    public void clear() {
+        entries.clear();
+        hits.reset();
+        misses.reset();
+    }
+}
@@ -43,6 +43,8 @@ import javax.measure.format.MeasurementParseException;
 import org.apiguardian.api.API;
 
 import tech.units.indriya.format.SimpleQuantityFormat;
+import tech.units.indriya.function.Calculus;
+import tech.units.indriya.function.DefaultNumberSystem;
 import tech.units.indriya.function.RationalNumber;
 import tech.units.indriya.internal.function.Calculator;
 
@@ -99,6 +101,13 @@ public class RationalNumberScanner {
 
     public Number getNumber() {
         
+        if(numberFormat==null && Calculus.currentNumberSystem().getClass() == DefaultNumberSystem.class) {
+            final Number number = scanNumber();
+            if(number!=null) {
+                return number;
+            }
+        }
+        
         Stack<String> numberLiterals = new Stack<>();
                 
         do {
@@ -145,4 +154,168 @@ public class RationalNumberScanner {
         
     }
     
+    // -- IN PLACE SCANNING
+    
+    /*
+     * Digits and scale of the last literal read by scanLiteral.
+     */
+    private long unscaled;
+    private int scale;
+    
+    /**
+     * Reads a decimal or rational number literal directly from the character sequence, without creating intermediate
+     * strings. Yields the same numbers as {@link #getNumber()} with the {@link DefaultNumberSystem}, but returns
+     * {@code null} and leaves the cursor alone for anything else than plain ASCII literals that fit into a {@code long}.
+     * The general code path then handles those, including the error reporting.
+     */
+    private Number scanNumber() {
+        final int start = scanForStart(cursor.getIndex());
+        final int end = scanForLiteralEnd(start);
+        if(end<0) {
+            return null;
+        }
+        if(end<csq.length() && csq.charAt(end)==RationalNumber.DIVISION_CHARACTER) {
+            final int divisorStart = scanForStart(end+1);
+            final int divisorEnd = scanForLiteralEnd(divisorStart);
+            if(divisorEnd<0 
+                    || (divisorEnd<csq.length() && csq.charAt(divisorEnd)==RationalNumber.DIVISION_CHARACTER)
+                    || !scanLiteral(start, end, false)) {
+                return null;
+            }
+            final long dividend = unscaled;
+            if(!scanLiteral(divisorStart, divisorEnd, false)) {
+                return null;
+            }
+            cursor.setIndex(divisorEnd + 1);
+            return RationalNumber.of(BigInteger.valueOf(dividend), BigInteger.valueOf(unscaled));
+        }
+        if(!scanLiteral(start, end, true)) {
+            return null;
+        }
+        final Number number = narrow(unscaled, scale);
+        if(number!=null) {
+            cursor.setIndex(end + 1);
+        }
+        return number;
+    }
+    
+    // same as scanForEnd, without side effects, -1 if there is no literal
+    private int scanForLiteralEnd(int start) {
+        if(start>=csq.length() || csq.charAt(start)==RationalNumber.DIVISION_CHARACTER) {
+            return -1;
+        }
+        int pos = start + 1;
+        while (pos < csq.length()) {
+            char c = csq.charAt(pos);
+            if(c == RationalNumber.DIVISION_CHARACTER || Character.isWhitespace(c)) {
+                break;
+            }
+            pos++;
+        }
+        return pos;
+    }
+    
+    // reads [+-]digits[.digits][(e|E)[+-]digits] as accepted by BigDecimal, or [+-]digits as accepted by BigInteger
+    private boolean scanLiteral(int start, int end, boolean decimal) {
+        int pos = start;
+        boolean negative = false;
+        char c = csq.charAt(pos);
+        if(c == '-' || c == '+') {
+            negative = c == '-';
+            pos++;
+        }
+        long value = 0;
+        int fractionDigits = 0;
+        int exponent = 0;
+        boolean digits = false;
+        boolean point = false;
+        for(; pos<end; pos++) {
+            c = csq.charAt(pos);
+            if(c >= '0' && c <= '9') {
+                if(value > (Long.MAX_VALUE - 9) / 10) {
+                    return false;
+                }
+                value = value * 10 + (c - '0');
+                digits = true;
+                if(point) {
+                    fractionDigits++;
+                }
+            } else if(c == '.' && decimal && !point) {
+                point = true;
+            } else if((c == 'e' || c == 'E') && decimal && digits) {
+                break;
+            } else {
+                return false;
+            }
+        }
+        if(!digits) {
+            return false;
+        }
+        if(pos<end) {
+            // exponent
+            pos++;
+            boolean negativeExponent = false;
+            if(pos<end && (csq.charAt(pos) == '-' || csq.charAt(pos) == '+')) {
+                negativeExponent = csq.charAt(pos) == '-';
+                pos++;
+            }
+            if(pos==end) {
+                return false;
+            }
+            for(; pos<end; pos++) {
+                c = csq.charAt(pos);
+                if(c < '0' || c > '9' || exponent > 99_999) {
+                    return false;
+                }
+                exponent = exponent * 10 + (c - '0');
+            }
+            if(negativeExponent) {
+                exponent = -exponent;
+            }
+        }
+        unscaled = negative ? -value : value;
+        scale = fractionDigits - exponent;
+        return true;
+    }
+    
+    // narrows the decimal unscaled*10^-scale like DefaultNumberSystem narrows a BigDecimal, null if it does not fit into a long
+    private static Number narrow(long unscaled, int scale) {
+        long integer = unscaled;
+        if(unscaled == 0) {
+            integer = 0;
+        } else if(scale > 0) {
+            if(scale > 18 || unscaled % LONG_POWERS_OF_TEN[scale] != 0) {
+                return BigDecimal.valueOf(unscaled, scale);
+            }
+            integer = unscaled / LONG_POWERS_OF_TEN[scale];
+        } else if(scale < 0) {
+            if(scale < -18) {
+                return null;
+            }
+            try {
+                integer = Math.multiplyExact(unscaled, LONG_POWERS_OF_TEN[-scale]);
+            } catch (ArithmeticException e) {
+                return null;
+            }
+        }
+        // bit length as of BigInteger.bitLength()
+        final int bitLength = 64 - Long.numberOfLeadingZeros(integer < 0 ? ~integer : integer);
+        if(bitLength<31) {
+            return (int) integer;
+        }
+        if(bitLength<63) {
+            return integer;
+        }
+        return null;
+    }
+    
+    private static final long[] LONG_POWERS_OF_TEN = new long[19];
+    
+    static {
+        LONG_POWERS_OF_TEN[0] = 1;
+        for(int i = 1; i < LONG_POWERS_OF_TEN.length; i++) {
+            LONG_POWERS_OF_TEN[i] = LONG_POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+    
 }
@@ -0,0 +1,112 @@
+/*
+ * Units of Measurement Reference Implementation
+ * Copyright (c) 2005-2022, Jean-Marie Dautelle, Werner Keil, Otavio Santana.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions
+ *    and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of JSR-385, Indriya nor the names of their contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package tech.units.indriya.internal.format;
+
+import static org.apiguardian.api.API.Status.INTERNAL;
+
+import java.util.Objects;
+
+import javax.measure.Unit;
+
+import org.apiguardian.api.API;
+
+import tech.units.indriya.unit.AnnotatedUnit;
+import tech.units.indriya.unit.ProductUnit;
+import tech.units.indriya.unit.TransformedUnit;
+
+/**
+ * A key for caching the string representation of a unit.
+ * <p>
+ * {@link ProductUnit#equals(Object)} ignores the order of the elements, so {@code m·s} equals {@code s·m}, although
+ * both are formatted differently. Two keys are only equal, if their units are equal, carry the same symbols and list
+ * the elements of all (nested) product units in the same order.
+ * </p>
+ */
+@API(status=INTERNAL)
+public final class UnitKey {
+
+    private final Unit<?> unit;
+
+    private UnitKey(Unit<?> unit) {
+        this.unit = unit;
+    }
+
+    /**
+     * @param unit
+     *          the unit, not {@code null}.
+     * @return the key for the given unit.
+     */
+    public static UnitKey of(Unit<?> unit) {
+        return new UnitKey(Objects.requireNonNull(unit));
+    }
+
+    @Override
+    public int hashCode() {
+        return unit.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        return obj instanceof UnitKey && sameForm(unit, ((UnitKey) obj).unit);
+    }
+
+    private static boolean sameForm(Unit<?> a, Unit<?> b) {
+        if (a == b) {
+            return true;
+        }
+        if (!a.equals(b) || !Objects.equals(a.getSymbol(), b.getSymbol())) {
+            return false;
+        }
+        if (a instanceof ProductUnit) {
+            final ProductUnit<?> pa = (ProductUnit<?>) a;
+            final ProductUnit<?> pb = (ProductUnit<?>) b;
+            if (pa.getUnitCount() != pb.getUnitCount()) {
+                return false;
+            }
+            for (int i = 0; i < pa.getUnitCount(); i++) {
+                if (pa.getUnitPow(i) != pb.getUnitPow(i) || pa.getUnitRoot(i) != pb.getUnitRoot(i)
+                        || !sameForm(pa.getUnit(i), pb.getUnit(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (a instanceof TransformedUnit) {
+            return sameForm(((TransformedUnit<?>) a).getParentUnit(), ((TransformedUnit<?>) b).getParentUnit());
+        }
+        if (a instanceof AnnotatedUnit) {
+            return sameForm(((AnnotatedUnit<?>) a).getActualUnit(), ((AnnotatedUnit<?>) b).getActualUnit());
+        }
+        return true;
+    }
+}
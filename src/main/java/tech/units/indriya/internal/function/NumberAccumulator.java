@@ -0,0 +1,179 @@
+/*
+ * Units of Measurement Reference Implementation
+ * Copyright (c) 2005-2022, Jean-Marie Dautelle, Werner Keil, Otavio Santana.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions
+ *    and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of JSR-385, Indriya nor the names of their contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package tech.units.indriya.internal.function;
+
+import static org.apiguardian.api.API.Status.INTERNAL;
+
+import java.util.Objects;
+
+import org.apiguardian.api.API;
+
+import tech.units.indriya.function.Calculus;
+import tech.units.indriya.spi.NumberSystem;
+
+/**
+ * Mutable accumulator for the sum of a sequence of {@link Number}s.
+ * <p>
+ * Exact number types (integers, {@link java.math.BigDecimal}, {@link tech.units.indriya.function.RationalNumber}, ...)
+ * are summed up using the {@link NumberSystem}, hence without loss of precision.
+ * Inexact number types ({@link Double}, {@link Float}) are summed up on primitive doubles using
+ * <a href="https://en.wikipedia.org/wiki/Kahan_summation_algorithm#Further_enhancements">Neumaier's</a>
+ * compensated summation, which avoids both boxing and most of the rounding error a naive summation would introduce.
+ * <p>
+ * This implementation is *not* thread-safe, hence threads should not share instances of this.
+ * Partial results of different threads can be merged using {@link #combine(NumberAccumulator)}.
+ *
+ * @since 2.1.4
+ */
+@API(status=INTERNAL)
+public final class NumberAccumulator {
+
+    private final NumberSystem ns;
+
+    private long count;
+    private Number exactSum;
+    private boolean inexact;
+    private double inexactSum;
+    private double compensation;
+
+    /**
+     * Returns a new {@code NumberAccumulator} initialized with the given {@link NumberSystem}.
+     * @param ns the {@link NumberSystem}
+     */
+    public NumberAccumulator(NumberSystem ns) {
+        this.ns = Objects.requireNonNull(ns);
+        this.exactSum = 0;
+    }
+
+    /**
+     * Returns a new {@code NumberAccumulator} initialized with the default {@link NumberSystem},
+     * as set at {@link Calculus#currentNumberSystem()}
+     */
+    public NumberAccumulator() {
+        this(Calculus.currentNumberSystem());
+    }
+
+    /**
+     * Adds {@code number} to this accumulator.
+     * @param number
+     * @return self
+     */
+    public NumberAccumulator accept(Number number) {
+        return combine(number, 1);
+    }
+
+    /**
+     * Adds the primitive {@code value} to the inexact part of this accumulator.
+     * @param value
+     * @return self
+     */
+    public NumberAccumulator accept(double value) {
+        addInexact(value);
+        count++;
+        return this;
+    }
+
+    /**
+     * Merges a partial sum of {@code partialCount} values into this accumulator.
+     * @param partialSum
+     * @param partialCount
+     * @return self
+     */
+    public NumberAccumulator combine(Number partialSum, long partialCount) {
+        Objects.requireNonNull(partialSum);
+        if (partialSum instanceof Double || partialSum instanceof Float) {
+            addInexact(partialSum.doubleValue());
+        } else {
+            exactSum = ns.add(exactSum, partialSum);
+        }
+        count += partialCount;
+        return this;
+    }
+
+    /**
+     * Merges the state of {@code other} into this accumulator.
+     * @param other
+     * @return self
+     */
+    public NumberAccumulator combine(NumberAccumulator other) {
+        Objects.requireNonNull(other);
+        exactSum = ns.add(exactSum, other.exactSum);
+        if (other.inexact) {
+            addInexact(other.inexactSum);
+            addInexact(other.compensation);
+        }
+        count += other.count;
+        return this;
+    }
+
+    /**
+     * @return the number of values accumulated
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return the sum of all values accumulated, {@code 0} if none
+     */
+    public Number getSum() {
+        if (!inexact) {
+            return ns.narrow(exactSum);
+        }
+        final double compensated = inexactSum + compensation;
+        return ns.isZero(exactSum)
+                ? ns.narrow(compensated)
+                : ns.add(exactSum, compensated);
+    }
+
+    /**
+     * @return the arithmetic mean of all values accumulated
+     * @throws ArithmeticException if no values were accumulated
+     */
+    public Number getMean() {
+        if (count == 0) {
+            throw new ArithmeticException("mean of no values");
+        }
+        return ns.divide(getSum(), count);
+    }
+
+    // -- HELPER
+
+    private void addInexact(double value) {
+        final double t = inexactSum + value;
+        if (Math.abs(inexactSum) >= Math.abs(value)) {
+            compensation += (inexactSum - t) + value;
+        } else {
+            compensation += (value - t) + inexactSum;
+        }
+        inexactSum = t;
+        inexact = true;
+    }
+}
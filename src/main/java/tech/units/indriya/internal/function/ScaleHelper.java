@@ -189,7 +189,7 @@ public final class ScaleHelper {
         return ToSystemUnitConverter.forQuantity(quantity, systemUnit);
     }
 
-    private static Optional<Number> linearFactorOf(UnitConverter converter) {
+    public static Optional<Number> linearFactorOf(UnitConverter converter) {
         return (converter instanceof AbstractConverter)
                 ? ((AbstractConverter)converter).linearFactor()
                 : Optional.empty();
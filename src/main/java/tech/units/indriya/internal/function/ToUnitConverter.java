@@ -0,0 +1,163 @@
+/*
+ * Units of Measurement Reference Implementation
+ * Copyright (c) 2005-2022, Jean-Marie Dautelle, Werner Keil, Otavio Santana.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions
+ *    and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of JSR-385, Indriya nor the names of their contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package tech.units.indriya.internal.function;
+
+import static javax.measure.Quantity.Scale.RELATIVE;
+import static org.apiguardian.api.API.Status.INTERNAL;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.DoubleUnaryOperator;
+
+import javax.measure.Quantity;
+import javax.measure.Quantity.Scale;
+import javax.measure.Unit;
+import javax.measure.UnitConverter;
+
+import org.apiguardian.api.API;
+/**
+ * Converts the values of quantities, stated in arbitrary (compatible) units, into a fixed target unit.
+ * <p>
+ * The {@link UnitConverter} for each source unit is looked up only once and memoized, so converting
+ * a sequence of quantities costs a single {@link UnitConverter#convert(Number)} per element.
+ * Quantities of {@code RELATIVE} scale are converted by the linear factor of their converter only,
+ * consistent with {@link ScaleHelper#convertTo(Quantity, Unit)}.
+ * <p>
+ * This implementation is *not* thread-safe, hence threads should not share instances of this.
+ *
+ * @param <Q> the quantity type
+ * @since 2.1.4
+ */
+@API(status=INTERNAL)
+public final class ToUnitConverter<Q extends Quantity<Q>> {
+
+    private final Unit<Q> targetUnit;
+    private final Map<Unit<?>, Entry> cache = new HashMap<>();
+
+    // last used entry, avoids hashing for the common case of uniform source units
+    private Unit<?> lastUnit;
+    private Entry lastEntry;
+
+    public ToUnitConverter(Unit<Q> targetUnit) {
+        this.targetUnit = Objects.requireNonNull(targetUnit);
+    }
+
+    /**
+     * @return the unit all values are converted to
+     */
+    public Unit<Q> getTargetUnit() {
+        return targetUnit;
+    }
+
+    /**
+     * @param quantity
+     * @return the value of {@code quantity} stated in the target unit
+     */
+    public Number convert(Quantity<Q> quantity) {
+        final Entry entry = entryFor(quantity.getUnit());
+        return RELATIVE == quantity.getScale()
+                ? entry.convertRelative(quantity)
+                : entry.converter.convert(quantity.getValue());
+    }
+
+    /**
+     * @param unit the source unit
+     * @return the memoized converter from {@code unit} to the target unit
+     */
+    public UnitConverter converterFrom(Unit<Q> unit) {
+        return entryFor(unit).converter;
+    }
+
+    /**
+     * Looks up the converter between the given units once, honoring the given scale: {@code RELATIVE}
+     * values are converted by the linear factor of the converter only, e.g. Δ2°C -> Δ2K.
+     * @param from the source unit
+     * @param scale the scale of the values to convert
+     * @param to the target unit
+     * @return a primitive converter from {@code from} to {@code to}
+     * @throws UnsupportedOperationException if {@code scale} is {@code RELATIVE} and the conversion is not linear
+     */
+    public static <Q extends Quantity<Q>> DoubleUnaryOperator doubleConverter(Unit<Q> from, Scale scale, Unit<Q> to) {
+        final UnitConverter converter = from.getConverterTo(to);
+        if (converter.isIdentity()) {
+            return DoubleUnaryOperator.identity();
+        }
+        if (RELATIVE == scale) {
+            final double factor = ScaleHelper.linearFactorOf(converter)
+                    .orElseThrow(() -> new UnsupportedOperationException(
+                            String.format("Conversion of values in %s to Unit %s is not supported for relative scale.", from, to)))
+                    .doubleValue();
+            return value -> value * factor;
+        }
+        return converter::convert;
+    }
+
+    // -- HELPER
+
+    private Entry entryFor(Unit<Q> unit) {
+        if (unit == lastUnit) {
+            return lastEntry;
+        }
+        Entry entry = cache.get(unit);
+        if (entry == null) {
+            entry = new Entry(unit.getConverterTo(targetUnit));
+            cache.put(unit, entry);
+        }
+        lastUnit = unit;
+        lastEntry = entry;
+        return entry;
+    }
+
+    private final class Entry {
+        private final UnitConverter converter;
+        private Number linearFactor;
+
+        private Entry(UnitConverter converter) {
+            this.converter = converter;
+        }
+
+        private Number convertRelative(Quantity<Q> quantity) {
+            if (converter.isIdentity()) {
+                return quantity.getValue();
+            }
+            if (linearFactor == null) {
+                linearFactor = ScaleHelper.linearFactorOf(converter).orElse(null);
+                if (linearFactor == null) {
+                    throw new UnsupportedOperationException(
+                            String.format(
+                                    "Conversion of Quantity %s to Unit %s is not supported for relative scale.",
+                                    quantity, targetUnit));
+                }
+            }
+            return Calculator.of(linearFactor).multiply(quantity.getValue()).peek();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Units of Measurement Reference Implementation
+ * Copyright (c) 2005-2022, Jean-Marie Dautelle, Werner Keil, Otavio Santana.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions
+ *    and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of JSR-385, Indriya nor the names of their contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package tech.units.indriya.internal.function;
+
+import static org.apiguardian.api.API.Status.INTERNAL;
+
+import javax.measure.Quantity;
+import javax.measure.Quantity.Scale;
+import javax.measure.Unit;
+
+import org.apiguardian.api.API;
+
+import tech.units.indriya.quantity.QuantityVector;
+
+/**
+ * Hands freshly built arrays over to a {@link QuantityVector} without copying them, for producers in other packages
+ * of this module. {@link QuantityVector} registers the only instance when it is initialized; the package of this
+ * class is not exported, so the public API of {@link QuantityVector} stays free of any way to share its array.
+ *
+ * @since 2.1.4
+ */
+@API(status=INTERNAL)
+public abstract class VectorAccess {
+
+  private static volatile VectorAccess instance;
+
+  protected VectorAccess() {
+  }
+
+  /**
+   * Registers the instance of {@link QuantityVector}.
+   *
+   * @param access the instance.
+   * @throws IllegalStateException if an instance was registered already
+   */
+  public static synchronized void register(VectorAccess access) {
+    if (instance != null) {
+      throw new IllegalStateException("already registered");
+    }
+    instance = access;
+  }
+
+  /**
+   * @return the registered instance, initializing {@link QuantityVector} if necessary.
+   */
+  public static VectorAccess get() {
+    if (instance == null) {
+      try {
+        Class.forName(QuantityVector.class.getName(), true, QuantityVector.class.getClassLoader());
+      } catch (ClassNotFoundException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+    return instance;
+  }
+
+  /**
+   * Returns a vector holding the given values without copying them. The caller must not modify the array afterwards.
+   *
+   * @param values the values, owned by the returned vector.
+   * @param unit   the unit of all values.
+   * @param scale  the scale of all values.
+   * @return the corresponding vector.
+   */
+  public abstract <Q extends Quantity<Q>> QuantityVector<Q> wrap(double[] values, Unit<Q> unit, Scale scale);
+}
@@ -31,10 +31,13 @@ package tech.units.indriya.internal.function.radix;
 
 import static org.apiguardian.api.API.Status.INTERNAL;
 
+import java.math.BigInteger;
 import java.util.function.Consumer;
 
 import org.apiguardian.api.API;
 
+import tech.units.indriya.function.Calculus;
+import tech.units.indriya.function.DefaultNumberSystem;
 import tech.units.indriya.function.MixedRadix;
 import tech.units.indriya.internal.function.Calculator;
 
@@ -48,6 +51,11 @@ import tech.units.indriya.internal.function.Calculator;
 public class MixedRadixSupport {
 
     private final Radix[] radices;
+    
+    /**
+     * The radices as {@code long}, or 0 for radices which are not positive integers.
+     */
+    private final long[] longRadices;
 
     /**
      * 
@@ -55,6 +63,10 @@ public class MixedRadixSupport {
      */
     public MixedRadixSupport(Radix[] radices) {
         this.radices = radices;
+        this.longRadices = new long[radices.length];
+        for(int i=0;i<radices.length;++i) {
+            longRadices[i] = radices[i].longValue();
+        }
     }
     
     /**
@@ -64,25 +76,58 @@ public class MixedRadixSupport {
      */
     public void visitRadixNumbers(Number trailingRadixValue, Consumer<Number> numberVisitor) {
         
+        final Number[] numbers = new Number[radices.length + 1];
+        
+        extractRadixNumbers(trailingRadixValue, numbers);
+        
+        for(int i=numbers.length-1;i>=0;--i) {
+            numberVisitor.accept(numbers[i]);
+        }
+        
+    }
+    
+    /**
+     * Extracts the numbers into the given buffer. Integer values are divided by integer radices with {@code long} 
+     * arithmetic, other values by the {@link Radix}.
+     * 
+     * @param trailingRadixValue
+     * @param target - receives the extracted numbers in most significant first order, must have one element more 
+     *      than there are radices
+     */
+    public void extractRadixNumbers(Number trailingRadixValue, Number[] target) {
+        
+        final boolean longArithmetic = Calculus.currentNumberSystem().getClass() == DefaultNumberSystem.class;
+        
         Number total = trailingRadixValue;
         
         for(int i=0;i<radices.length;++i) {
             
-            Radix radix = radices[invertIndex(i)];
+            final int index = invertIndex(i);
             
-            boolean fractionalRemainder = i==0;
+            final long radix = longRadices[index];
+            
+            if(longArithmetic && radix > 0 && isLong(total)) {
+                
+                final long value = total.longValue();
+                
+                target[index + 1] = narrow(value % radix);
+                
+                total = narrow(value / radix);
+                
+                continue;
+            }
             
-            Number[] divideAndRemainder = radix.divideAndRemainder(total, !fractionalRemainder); 
+            boolean fractionalRemainder = i==0;
             
-            Number remainder = divideAndRemainder[1];
+            Number[] divideAndRemainder = radices[index].divideAndRemainder(total, !fractionalRemainder); 
             
-            numberVisitor.accept(remainder);
+            target[index + 1] = divideAndRemainder[1];
 
             total = divideAndRemainder[0];
             
         }
         
-        numberVisitor.accept(total);
+        target[0] = total;
         
     }
 
@@ -94,15 +139,29 @@ public class MixedRadixSupport {
      */
     public Number sumMostSignificant(Number[] values) {
 
+        final boolean longArithmetic = Calculus.currentNumberSystem().getClass() == DefaultNumberSystem.class;
+        
         int maxAllowedValueIndex = values.length - 1; 
         
         Number sum = values[0];
         
         for(int i=0;i<radices.length;++i) {
             
+            final boolean hasValue = i < maxAllowedValueIndex;
+            
+            if(longArithmetic && longRadices[i] > 0 && isLong(sum) && (!hasValue || isLong(values[i+1]))) {
+                try {
+                    final long product = Math.multiplyExact(sum.longValue(), longRadices[i]);
+                    sum = narrow(hasValue ? Math.addExact(product, values[i+1].longValue()) : product);
+                    continue;
+                } catch (ArithmeticException e) {
+                    // overflow, fall through to the radix
+                }
+            }
+            
             sum = radices[i].multiply(sum);
             
-            if(i >= maxAllowedValueIndex) {
+            if(!hasValue) {
                 continue; 
             }
             
@@ -119,5 +178,22 @@ public class MixedRadixSupport {
     private int invertIndex(int index) {
         return radices.length - index - 1;
     }
+    
+    private static boolean isLong(Number number) {
+        return number instanceof Integer || number instanceof Long;
+    }
+    
+    /**
+     * Narrows like {@link DefaultNumberSystem#narrow(Number)} does for integers.
+     */
+    private static Number narrow(long value) {
+        if(value >= -(1L << 30) && value < (1L << 30)) {
+            return (int) value;
+        }
+        if(value >= -(1L << 62) && value < (1L << 62)) {
+            return value;
+        }
+        return BigInteger.valueOf(value);
+    }
 
 }
@@ -64,6 +64,15 @@ public interface Radix {
      */
     Number[] divideAndRemainder(Number number, boolean roundRemainderTowardsZero);
     
+    /**
+     * Returns this radix as {@code long}, if it is a positive integer, such that integer values can be divided
+     * without widening them.
+     * @return the radix, or 0 if it is not a positive integer within the range of {@code long}
+     */
+    default long longValue() {
+        return 0;
+    }
+    
     // -- FACTORIES
     
     public static Radix ofNumberFactor(Number number) {
@@ -96,6 +105,14 @@ public interface Radix {
             return ns().narrow(result);
         }
 
+        @Override
+        public long longValue() {
+            if ((radix instanceof Integer || radix instanceof Long) && radix.longValue() > 0) {
+                return radix.longValue();
+            }
+            return 0;
+        }
+
         @Override
         public Number[] divideAndRemainder(Number number, boolean roundRemainderTowardsZero) {
             
@@ -30,9 +30,11 @@
 package tech.units.indriya.quantity;
 
 import static javax.measure.Quantity.Scale.ABSOLUTE;
+import static javax.measure.Quantity.Scale.RELATIVE;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 
 import javax.measure.Quantity;
@@ -41,12 +43,16 @@ import javax.measure.Unit;
 
 import tech.units.indriya.ComparableQuantity;
 import tech.units.indriya.format.SimpleQuantityFormat;
+import tech.units.indriya.function.Calculus;
 import tech.units.indriya.function.MixedRadix;
+import tech.units.indriya.internal.function.NumberAccumulator;
+import tech.units.indriya.internal.function.ToUnitConverter;
+import tech.units.indriya.spi.NumberSystem;
 
 /**
  * Facade to access {@link Quantity} instances.
  * 
- * @version 2.3, February 14, 2021
+ * @version 2.4, October 19, 2026
  * @author Werner Keil
  * @author Otavio Santana
  * @since 1.0
@@ -252,4 +258,118 @@ public final class Quantities {
 			final Unit<Q>[] units) {
 		return getCompoundQuantity(values, units, ABSOLUTE);
 	}
+
+	/**
+	 * Returns the sum of the given quantities, stated in the specified unit.
+	 * <p>
+	 * The converter from each distinct source unit to {@code unit} is looked up only once.
+	 * Exact values (integers, {@link BigDecimal}, {@link tech.units.indriya.function.RationalNumber RationalNumber})
+	 * are summed up exactly using the current {@link NumberSystem}, inexact ({@code double}) values using
+	 * compensated summation. The result has {@code RELATIVE} scale, if all quantities have {@code RELATIVE}
+	 * scale, {@code ABSOLUTE} otherwise.
+	 * </p>
+	 *
+	 * @param quantities the quantities to sum up.
+	 * @param unit       the unit of the result.
+	 * @return the sum of all quantities, or zero if {@code quantities} is empty.
+	 * @throws NullPointerException if quantities, any of its elements or unit were null
+	 * @since 2.1.4
+	 */
+	public static <Q extends Quantity<Q>> ComparableQuantity<Q> sum(Iterable<? extends Quantity<Q>> quantities,
+			Unit<Q> unit) {
+		final Summation<Q> summation = new Summation<>(quantities, unit);
+		return getQuantity(summation.accumulator.getSum(), unit, summation.scale);
+	}
+
+	/**
+	 * Returns the arithmetic mean of the given quantities, stated in the specified unit.
+	 * <p>
+	 * The sum is computed as described at {@link #sum(Iterable, Unit)}.
+	 * </p>
+	 *
+	 * @param quantities the quantities to average.
+	 * @param unit       the unit of the result.
+	 * @return the arithmetic mean of all quantities.
+	 * @throws NullPointerException   if quantities, any of its elements or unit were null
+	 * @throws NoSuchElementException if {@code quantities} is empty
+	 * @since 2.1.4
+	 */
+	public static <Q extends Quantity<Q>> ComparableQuantity<Q> mean(Iterable<? extends Quantity<Q>> quantities,
+			Unit<Q> unit) {
+		final Summation<Q> summation = new Summation<>(quantities, unit);
+		if (summation.accumulator.getCount() == 0) {
+			throw new NoSuchElementException("no quantities to average");
+		}
+		return getQuantity(summation.accumulator.getMean(), unit, summation.scale);
+	}
+
+	/**
+	 * Returns the smallest of the given quantities, stated in the specified unit.
+	 *
+	 * @param quantities the quantities to compare.
+	 * @param unit       the unit of the result.
+	 * @return the minimum of all quantities.
+	 * @throws NullPointerException   if quantities, any of its elements or unit were null
+	 * @throws NoSuchElementException if {@code quantities} is empty
+	 * @since 2.1.4
+	 */
+	public static <Q extends Quantity<Q>> ComparableQuantity<Q> min(Iterable<? extends Quantity<Q>> quantities,
+			Unit<Q> unit) {
+		return extremum(quantities, unit, -1);
+	}
+
+	/**
+	 * Returns the largest of the given quantities, stated in the specified unit.
+	 *
+	 * @param quantities the quantities to compare.
+	 * @param unit       the unit of the result.
+	 * @return the maximum of all quantities.
+	 * @throws NullPointerException   if quantities, any of its elements or unit were null
+	 * @throws NoSuchElementException if {@code quantities} is empty
+	 * @since 2.1.4
+	 */
+	public static <Q extends Quantity<Q>> ComparableQuantity<Q> max(Iterable<? extends Quantity<Q>> quantities,
+			Unit<Q> unit) {
+		return extremum(quantities, unit, 1);
+	}
+
+	// -- HELPER
+
+	private static <Q extends Quantity<Q>> ComparableQuantity<Q> extremum(
+			Iterable<? extends Quantity<Q>> quantities, Unit<Q> unit, int sign) {
+		Objects.requireNonNull(quantities);
+		final ToUnitConverter<Q> converter = new ToUnitConverter<>(Objects.requireNonNull(unit));
+		final NumberSystem ns = Calculus.currentNumberSystem();
+		Number best = null;
+		Scale bestScale = ABSOLUTE;
+		for (Quantity<Q> quantity : quantities) {
+			final Number value = converter.convert(Objects.requireNonNull(quantity));
+			if (best == null || Integer.signum(ns.compare(value, best)) == sign) {
+				best = value;
+				bestScale = quantity.getScale();
+			}
+		}
+		if (best == null) {
+			throw new NoSuchElementException("no quantities to compare");
+		}
+		return getQuantity(best, unit, bestScale);
+	}
+
+	private static final class Summation<Q extends Quantity<Q>> {
+		private final NumberAccumulator accumulator = new NumberAccumulator();
+		private Scale scale = ABSOLUTE;
+
+		private Summation(Iterable<? extends Quantity<Q>> quantities, Unit<Q> unit) {
+			Objects.requireNonNull(quantities);
+			final ToUnitConverter<Q> converter = new ToUnitConverter<>(Objects.requireNonNull(unit));
+			boolean allRelative = true;
+			for (Quantity<Q> quantity : quantities) {
+				accumulator.accept(converter.convert(Objects.requireNonNull(quantity)));
+				allRelative &= RELATIVE == quantity.getScale();
+			}
+			if (allRelative && accumulator.getCount() > 0) {
+				scale = RELATIVE;
+			}
+		}
+	}
 }
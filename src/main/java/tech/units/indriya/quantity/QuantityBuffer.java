@@ -0,0 +1,519 @@
+/*
+ * Units of Measurement Reference Implementation
+ * Copyright (c) 2005-2022, Jean-Marie Dautelle, Werner Keil, Otavio Santana.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions
+ *    and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of JSR-385, Indriya nor the names of their contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package tech.units.indriya.quantity;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static javax.measure.Quantity.Scale.ABSOLUTE;
+import static javax.measure.Quantity.Scale.RELATIVE;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.DoubleUnaryOperator;
+
+import javax.measure.Quantity;
+import javax.measure.Quantity.Scale;
+import javax.measure.Unit;
+
+import tech.units.indriya.ComparableQuantity;
+import tech.units.indriya.format.SimpleUnitFormat;
+import tech.units.indriya.internal.function.NumberAccumulator;
+import tech.units.indriya.internal.function.ToUnitConverter;
+
+/**
+ * A fixed-size sequence of quantities sharing a single {@link Unit} and {@link Scale}, whose values are held
+ * <em>off-heap</em> in direct or memory-mapped {@link DoubleBuffer}s.
+ * <p>
+ * This is the off-heap counterpart of {@link QuantityVector}, for series too large to be held on the heap.
+ * Elements are addressed by {@code long} index; internally the values are split into chunks of at most
+ * 2<sup>27</sup> values (1 GiB), since a single {@link ByteBuffer} cannot exceed 2 GiB.
+ * </p>
+ * <p>
+ * A buffer may be stored in a file, which can be mapped into memory by {@link #map(Path, MapMode)}. The file
+ * starts with a header of {@value #HEADER_SIZE} bytes holding the scale and the unit, formatted by
+ * {@link SimpleUnitFormat}, followed by the values as little-endian IEEE 754 doubles. Conversion by
+ * {@link #convertInPlace(Unit)} and all reductions work directly on the mapped memory, without copying the
+ * values onto the heap.
+ * </p>
+ * <p>
+ * This implementation is <b>not</b> thread safe.
+ * </p>
+ *
+ * @param <Q> the quantity type
+ * @version 1.0
+ * @since 2.1.4
+ */
+public final class QuantityBuffer<Q extends Quantity<Q>> {
+
+  /**
+   * The size of the file header in bytes.
+   */
+  public static final int HEADER_SIZE = 256;
+
+  private static final int MAGIC = 0x51564543; // "QVEC"
+
+  private static final byte VERSION = 1;
+
+  private static final int UNIT_OFFSET = 8;
+
+  private static final int DEFAULT_CHUNK_SHIFT = 27;
+
+  private final ByteBuffer header;
+
+  private final ByteBuffer[] bytes;
+
+  private final DoubleBuffer[] chunks;
+
+  private final int chunkShift;
+
+  private final long size;
+
+  private Unit<Q> unit;
+
+  private final Scale scale;
+
+  private QuantityBuffer(ByteBuffer header, ByteBuffer[] bytes, int chunkShift, long size, Unit<Q> unit,
+      Scale scale) {
+    this.header = header;
+    this.bytes = bytes;
+    this.chunks = new DoubleBuffer[bytes.length];
+    for (int i = 0; i < bytes.length; i++) {
+      chunks[i] = bytes[i].asDoubleBuffer();
+    }
+    this.chunkShift = chunkShift;
+    this.size = size;
+    this.unit = unit;
+    this.scale = scale;
+  }
+
+  /**
+   * Allocates a buffer of the given size in direct memory, initialized with zeros.
+   *
+   * @param size  the number of values.
+   * @param unit  the unit of all values.
+   * @param scale the scale of all values.
+   * @return the new buffer.
+   * @throws IllegalArgumentException if size is negative
+   */
+  public static <Q extends Quantity<Q>> QuantityBuffer<Q> allocateDirect(long size, Unit<Q> unit, Scale scale) {
+    return allocateDirect(size, unit, scale, DEFAULT_CHUNK_SHIFT);
+  }
+
+  /**
+   * Allocates a buffer of the given size in direct memory, initialized with zeros, of {@code ABSOLUTE} scale.
+   *
+   * @param size the number of values.
+   * @param unit the unit of all values.
+   * @return the new buffer.
+   * @throws IllegalArgumentException if size is negative
+   */
+  public static <Q extends Quantity<Q>> QuantityBuffer<Q> allocateDirect(long size, Unit<Q> unit) {
+    return allocateDirect(size, unit, ABSOLUTE);
+  }
+
+  static <Q extends Quantity<Q>> QuantityBuffer<Q> allocateDirect(long size, Unit<Q> unit, Scale scale,
+      int chunkShift) {
+    requireValid(size, unit, scale);
+    final ByteBuffer[] bytes = new ByteBuffer[chunkCount(size, chunkShift)];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = ByteBuffer.allocateDirect(Math.toIntExact(chunkLength(size, i, chunkShift) * Double.BYTES))
+          .order(ByteOrder.nativeOrder());
+    }
+    return new QuantityBuffer<>(null, bytes, chunkShift, size, unit, scale);
+  }
+
+  /**
+   * Returns a buffer in direct memory holding a copy of the given vector.
+   *
+   * @param vector the vector to copy.
+   * @return the new buffer.
+   */
+  public static <Q extends Quantity<Q>> QuantityBuffer<Q> of(QuantityVector<Q> vector) {
+    final QuantityBuffer<Q> buffer = allocateDirect(vector.size(), vector.getUnit(), vector.getScale());
+    for (int i = 0; i < vector.size(); i++) {
+      buffer.setValue(i, vector.getValue(i));
+    }
+    return buffer;
+  }
+
+  /**
+   * Creates (or overwrites) the given file, holding a buffer of the given size initialized with zeros, and maps
+   * it into memory for reading and writing. Changes are written back to the file eventually, or on
+   * {@link #force()}.
+   *
+   * @param file  the file to create.
+   * @param size  the number of values.
+   * @param unit  the unit of all values.
+   * @param scale the scale of all values.
+   * @return the mapped buffer.
+   * @throws IOException              if an I/O error occurs
+   * @throws IllegalArgumentException if size is negative or the formatted unit does not fit into the header
+   */
+  public static <Q extends Quantity<Q>> QuantityBuffer<Q> create(Path file, long size, Unit<Q> unit, Scale scale)
+      throws IOException {
+    return create(file, size, unit, scale, DEFAULT_CHUNK_SHIFT);
+  }
+
+  static <Q extends Quantity<Q>> QuantityBuffer<Q> create(Path file, long size, Unit<Q> unit, Scale scale,
+      int chunkShift) throws IOException {
+    requireValid(size, unit, scale);
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      final ByteBuffer header = channel.map(MapMode.READ_WRITE, 0, HEADER_SIZE);
+      writeHeader(header, unit, scale);
+      return new QuantityBuffer<>(header, mapChunks(channel, MapMode.READ_WRITE, size, chunkShift), chunkShift,
+          size, unit, scale);
+    }
+  }
+
+  /**
+   * Maps a file previously created by {@link #create(Path, long, Unit, Scale)} into memory. The unit of the
+   * returned buffer is parsed from the file header, use {@link #asType(Class)} to parameterize it.
+   *
+   * @param file the file to map.
+   * @param mode the mode of the mapping, {@link MapMode#READ_ONLY} for a read-only buffer.
+   * @return the mapped buffer.
+   * @throws IOException if an I/O error occurs or the file is not a quantity buffer
+   */
+  public static QuantityBuffer<?> map(Path file, MapMode mode) throws IOException {
+    return map(file, mode, DEFAULT_CHUNK_SHIFT);
+  }
+
+  @SuppressWarnings({ "rawtypes", "unchecked" })
+  static QuantityBuffer<?> map(Path file, MapMode mode, int chunkShift) throws IOException {
+    final boolean readOnly = mode == MapMode.READ_ONLY;
+    try (FileChannel channel = readOnly ? FileChannel.open(file, StandardOpenOption.READ)
+        : FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      final long length = channel.size() - HEADER_SIZE;
+      if (length < 0 || length % Double.BYTES != 0) {
+        throw new IOException("Not a quantity buffer: " + file);
+      }
+      final ByteBuffer header = channel.map(mode, 0, HEADER_SIZE);
+      if (header.getInt(0) != MAGIC || header.get(4) != VERSION) {
+        throw new IOException("Not a quantity buffer: " + file);
+      }
+      final Scale scale = header.get(5) == 0 ? ABSOLUTE : RELATIVE;
+      final int symbolLength = header.getShort(6);
+      if (symbolLength < 0 || symbolLength > HEADER_SIZE - UNIT_OFFSET) {
+        throw new IOException("Invalid unit length " + symbolLength + " in quantity buffer: " + file);
+      }
+      final byte[] symbol = new byte[symbolLength];
+      ((ByteBuffer) header.duplicate().position(UNIT_OFFSET)).get(symbol);
+      final Unit<?> unit = SimpleUnitFormat.getInstance().parse(new String(symbol, UTF_8));
+      final long size = length / Double.BYTES;
+      return new QuantityBuffer(header, mapChunks(channel, mode, size, chunkShift), chunkShift, size, unit, scale);
+    }
+  }
+
+  /**
+   * @return the number of values of this buffer.
+   */
+  public long size() {
+    return size;
+  }
+
+  /**
+   * @return the unit of all values of this buffer.
+   */
+  public Unit<Q> getUnit() {
+    return unit;
+  }
+
+  /**
+   * @return the scale of all values of this buffer.
+   */
+  public Scale getScale() {
+    return scale;
+  }
+
+  /**
+   * @return {@code true} if this buffer cannot be modified.
+   */
+  public boolean isReadOnly() {
+    return size > 0 ? chunks[0].isReadOnly() : header != null && header.isReadOnly();
+  }
+
+  /**
+   * Returns the value at the given index, stated in the unit of this buffer.
+   *
+   * @param index the index of the value.
+   * @return the value.
+   * @throws IndexOutOfBoundsException if the index is out of range
+   */
+  public double getValue(long index) {
+    checkIndex(index);
+    return chunks[(int) (index >>> chunkShift)].get((int) (index & chunkMask()));
+  }
+
+  /**
+   * Sets the value at the given index, stated in the unit of this buffer.
+   *
+   * @param index the index of the value.
+   * @param value the new value.
+   * @throws IndexOutOfBoundsException if the index is out of range
+   * @throws ReadOnlyBufferException   if this buffer is read-only
+   */
+  public void setValue(long index, double value) {
+    checkIndex(index);
+    chunks[(int) (index >>> chunkShift)].put((int) (index & chunkMask()), value);
+  }
+
+  /**
+   * Returns the element at the given index, materialized as a quantity.
+   *
+   * @param index the index of the element.
+   * @return the element as quantity.
+   * @throws IndexOutOfBoundsException if the index is out of range
+   */
+  public ComparableQuantity<Q> get(long index) {
+    return Quantities.getQuantity(getValue(index), unit, scale);
+  }
+
+  /**
+   * Converts all values of this buffer into the given unit, in place. The converter is looked up only once. For
+   * a mapped buffer, the unit in the file header is updated as well.
+   *
+   * @param anotherUnit the new unit of this buffer.
+   * @return this buffer.
+   * @throws ReadOnlyBufferException       if this buffer is read-only
+   * @throws UnsupportedOperationException if this buffer has {@code RELATIVE} scale and the conversion is not
+   *                                       linear
+   */
+  public QuantityBuffer<Q> convertInPlace(Unit<Q> anotherUnit) {
+    Objects.requireNonNull(anotherUnit);
+    if (isReadOnly()) {
+      throw new ReadOnlyBufferException();
+    }
+    if (unit.equals(anotherUnit)) {
+      return this;
+    }
+    final DoubleUnaryOperator operator = ToUnitConverter.doubleConverter(unit, scale, anotherUnit);
+    if (header != null) {
+      writeHeader(header, anotherUnit, scale);
+    }
+    for (DoubleBuffer chunk : chunks) {
+      for (int i = 0, n = chunk.capacity(); i < n; i++) {
+        chunk.put(i, operator.applyAsDouble(chunk.get(i)));
+      }
+    }
+    unit = anotherUnit;
+    return this;
+  }
+
+  /**
+   * Casts this buffer to a parameterized buffer of specified nature or throw a {@code ClassCastException} if the
+   * dimension of the specified quantity and this buffer's unit dimension do not match.
+   *
+   * @param type the quantity class identifying the nature of the buffer.
+   * @return this buffer parameterized with the specified type.
+   * @throws ClassCastException if the dimension of this unit is different from the specified quantity dimension.
+   * @see Unit#asType(Class)
+   */
+  @SuppressWarnings("unchecked")
+  public <T extends Quantity<T>> QuantityBuffer<T> asType(Class<T> type) throws ClassCastException {
+    unit.asType(type); // ClassCastException if dimension mismatches.
+    return (QuantityBuffer<T>) this;
+  }
+
+  /**
+   * Returns the sum of all values, using compensated summation.
+   *
+   * @return the sum of all values, stated in the unit of this buffer.
+   */
+  public ComparableQuantity<Q> sum() {
+    return Quantities.getQuantity(accumulate().getSum(), unit, scale);
+  }
+
+  /**
+   * Returns the arithmetic mean of all values, using compensated summation.
+   *
+   * @return the mean of all values, stated in the unit of this buffer.
+   * @throws NoSuchElementException if this buffer is empty
+   */
+  public ComparableQuantity<Q> mean() {
+    requireNonEmpty();
+    return Quantities.getQuantity(accumulate().getSum().doubleValue() / size, unit, scale);
+  }
+
+  /**
+   * @return the smallest value, stated in the unit of this buffer.
+   * @throws NoSuchElementException if this buffer is empty
+   */
+  public ComparableQuantity<Q> min() {
+    requireNonEmpty();
+    double min = Double.POSITIVE_INFINITY;
+    for (DoubleBuffer chunk : chunks) {
+      for (int i = 0, n = chunk.capacity(); i < n; i++) {
+        min = Math.min(min, chunk.get(i));
+      }
+    }
+    return Quantities.getQuantity(min, unit, scale);
+  }
+
+  /**
+   * @return the largest value, stated in the unit of this buffer.
+   * @throws NoSuchElementException if this buffer is empty
+   */
+  public ComparableQuantity<Q> max() {
+    requireNonEmpty();
+    double max = Double.NEGATIVE_INFINITY;
+    for (DoubleBuffer chunk : chunks) {
+      for (int i = 0, n = chunk.capacity(); i < n; i++) {
+        max = Math.max(max, chunk.get(i));
+      }
+    }
+    return Quantities.getQuantity(max, unit, scale);
+  }
+
+  /**
+   * Returns a copy of this buffer on the heap.
+   *
+   * @return the values of this buffer as vector.
+   * @throws IllegalStateException if this buffer is too large for a {@link QuantityVector}
+   */
+  public QuantityVector<Q> toVector() {
+    if (size > Integer.MAX_VALUE - 8) {
+      throw new IllegalStateException("buffer too large for a vector: " + size);
+    }
+    final double[] values = new double[(int) size];
+    int offset = 0;
+    for (DoubleBuffer chunk : chunks) {
+      final DoubleBuffer source = chunk.duplicate();
+      source.rewind();
+      final int length = source.remaining();
+      source.get(values, offset, length);
+      offset += length;
+    }
+    return QuantityVector.wrap(values, unit, scale);
+  }
+
+  /**
+   * Forces any changes made to a mapped buffer to be written to the storage device. Has no effect on buffers
+   * which are not mapped.
+   *
+   * @see MappedByteBuffer#force()
+   */
+  public void force() {
+    if (header instanceof MappedByteBuffer) {
+      ((MappedByteBuffer) header).force();
+    }
+    for (ByteBuffer chunk : bytes) {
+      if (chunk instanceof MappedByteBuffer) {
+        ((MappedByteBuffer) chunk).force();
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "QuantityBuffer[size=" + size + ", unit=" + unit + ", scale=" + scale + "]";
+  }
+
+  // -- HELPER
+
+  private long chunkMask() {
+    return (1L << chunkShift) - 1;
+  }
+
+  private void checkIndex(long index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+  }
+
+  private void requireNonEmpty() {
+    if (size == 0) {
+      throw new NoSuchElementException("buffer is empty");
+    }
+  }
+
+  private NumberAccumulator accumulate() {
+    final NumberAccumulator accumulator = new NumberAccumulator();
+    for (DoubleBuffer chunk : chunks) {
+      for (int i = 0, n = chunk.capacity(); i < n; i++) {
+        accumulator.accept(chunk.get(i));
+      }
+    }
+    return accumulator;
+  }
+
+  private static void requireValid(long size, Unit<?> unit, Scale scale) {
+    Objects.requireNonNull(unit);
+    Objects.requireNonNull(scale);
+    if (size < 0) {
+      throw new IllegalArgumentException("size must not be negative: " + size);
+    }
+  }
+
+  private static int chunkCount(long size, int chunkShift) {
+    return Math.toIntExact((size + (1L << chunkShift) - 1) >>> chunkShift);
+  }
+
+  private static long chunkLength(long size, int chunk, int chunkShift) {
+    return Math.min(1L << chunkShift, size - ((long) chunk << chunkShift));
+  }
+
+  private static ByteBuffer[] mapChunks(FileChannel channel, MapMode mode, long size, int chunkShift)
+      throws IOException {
+    final ByteBuffer[] bytes = new ByteBuffer[chunkCount(size, chunkShift)];
+    for (int i = 0; i < bytes.length; i++) {
+      final long position = HEADER_SIZE + ((long) i << chunkShift) * Double.BYTES;
+      bytes[i] = channel.map(mode, position, chunkLength(size, i, chunkShift) * Double.BYTES)
+          .order(ByteOrder.LITTLE_ENDIAN);
+    }
+    return bytes;
+  }
+
+  private static void writeHeader(ByteBuffer header, Unit<?> unit, Scale scale) {
+    final byte[] symbol = SimpleUnitFormat.getInstance().format(unit).getBytes(UTF_8);
+    if (symbol.length > HEADER_SIZE - UNIT_OFFSET) {
+      throw new IllegalArgumentException("Unit " + unit + " does not fit into the header");
+    }
+    header.putInt(0, MAGIC);
+    header.put(4, VERSION);
+    header.put(5, (byte) (scale == ABSOLUTE ? 0 : 1));
+    header.putShort(6, (short) symbol.length);
+    final ByteBuffer target = header.duplicate();
+    target.position(UNIT_OFFSET);
+    target.put(symbol);
+    while (target.hasRemaining()) {
+      target.put((byte) 0);
+    }
+  }
+}
@@ -0,0 +1,538 @@
+/*
+ * Units of Measurement Reference Implementation
+ * Copyright (c) 2005-2022, Jean-Marie Dautelle, Werner Keil, Otavio Santana.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions
+ *    and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of JSR-385, Indriya nor the names of their contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package tech.units.indriya.quantity;
+
+import static javax.measure.Quantity.Scale.ABSOLUTE;
+import static javax.measure.Quantity.Scale.RELATIVE;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.function.DoubleUnaryOperator;
+
+import javax.measure.Quantity;
+import javax.measure.Quantity.Scale;
+import javax.measure.Unit;
+import javax.measure.UnitConverter;
+
+import tech.units.indriya.ComparableQuantity;
+import tech.units.indriya.internal.function.NumberAccumulator;
+import tech.units.indriya.internal.function.ToUnitConverter;
+import tech.units.indriya.internal.function.VectorAccess;
+
+/**
+ * An immutable, fixed-size sequence of quantities sharing a single {@link Unit} and {@link Scale}, whose values
+ * are held in a primitive {@code double[]}.
+ * <p>
+ * Compared to a {@code List<Quantity<Q>>}, this representation avoids one quantity object, one boxed
+ * {@link Number} and one unit reference per element. Bulk operations look up their {@link UnitConverter} once
+ * per vector instead of once per element, and honor the scale semantics of the corresponding {@link Quantity}
+ * operations. Individual elements are materialized as {@link ComparableQuantity} only when requested, e.g. by
+ * {@link #get(int)}, {@link #asList()} or {@link #iterator()}.
+ * </p>
+ * <p>
+ * Values are stored as {@code double}, so integer values beyond 2<sup>53</sup> and exact decimal or rational
+ * values are subject to rounding.
+ * </p>
+ *
+ * @param <Q> the quantity type
+ * @version 1.0
+ * @since 2.1.4
+ */
+public final class QuantityVector<Q extends Quantity<Q>> implements Iterable<ComparableQuantity<Q>> {
+
+  static {
+    VectorAccess.register(new VectorAccess() {
+      @Override
+      public <T extends Quantity<T>> QuantityVector<T> wrap(double[] values, Unit<T> unit, Scale scale) {
+        return QuantityVector.wrap(values, unit, scale);
+      }
+    });
+  }
+
+  private final double[] values;
+
+  private final Unit<Q> unit;
+
+  private final Scale scale;
+
+  private QuantityVector(double[] values, Unit<Q> unit, Scale scale) {
+    this.values = values;
+    this.unit = unit;
+    this.scale = scale;
+  }
+
+  /**
+   * Returns a vector holding a copy of the given values, stated in the given unit and scale.
+   *
+   * @param values the values.
+   * @param unit   the unit of all values.
+   * @param scale  the scale of all values.
+   * @return the corresponding vector.
+   * @throws NullPointerException if values, unit or scale were null
+   */
+  public static <Q extends Quantity<Q>> QuantityVector<Q> of(double[] values, Unit<Q> unit, Scale scale) {
+    return wrap(Arrays.copyOf(values, values.length), unit, scale);
+  }
+
+  /**
+   * Returns a vector holding a copy of the given values, stated in the given unit and {@code ABSOLUTE} scale.
+   *
+   * @param values the values.
+   * @param unit   the unit of all values.
+   * @return the corresponding vector.
+   * @throws NullPointerException if values or unit were null
+   */
+  public static <Q extends Quantity<Q>> QuantityVector<Q> of(double[] values, Unit<Q> unit) {
+    return of(values, unit, ABSOLUTE);
+  }
+
+  /**
+   * Returns a vector holding the given quantities, converted into the given unit. The converter from each
+   * distinct source unit is looked up only once. The vector has {@code RELATIVE} scale, if all quantities have
+   * {@code RELATIVE} scale, {@code ABSOLUTE} otherwise.
+   *
+   * @param quantities the quantities.
+   * @param unit       the unit of the vector.
+   * @return the corresponding vector.
+   * @throws NullPointerException if quantities, any of its elements or unit were null
+   */
+  public static <Q extends Quantity<Q>> QuantityVector<Q> of(Iterable<? extends Quantity<Q>> quantities, Unit<Q> unit) {
+    Objects.requireNonNull(quantities);
+    final ToUnitConverter<Q> converter = new ToUnitConverter<>(Objects.requireNonNull(unit));
+    double[] values = new double[16];
+    int size = 0;
+    boolean allRelative = true;
+    for (Quantity<Q> quantity : quantities) {
+      if (size == values.length) {
+        values = Arrays.copyOf(values, size * 2);
+      }
+      values[size++] = converter.convert(Objects.requireNonNull(quantity)).doubleValue();
+      allRelative &= RELATIVE == quantity.getScale();
+    }
+    return wrap(Arrays.copyOf(values, size), unit, allRelative && size > 0 ? RELATIVE : ABSOLUTE);
+  }
+
+  /**
+   * Returns a vector holding the given values without copying them. The caller must not modify the array afterwards.
+   *
+   * @see VectorAccess
+   */
+  static <Q extends Quantity<Q>> QuantityVector<Q> wrap(double[] values, Unit<Q> unit, Scale scale) {
+    Objects.requireNonNull(values);
+    Objects.requireNonNull(unit);
+    Objects.requireNonNull(scale);
+    return new QuantityVector<>(values, unit, scale);
+  }
+
+  /**
+   * @return the number of elements of this vector.
+   */
+  public int size() {
+    return values.length;
+  }
+
+  /**
+   * @return the unit of all elements of this vector.
+   */
+  public Unit<Q> getUnit() {
+    return unit;
+  }
+
+  /**
+   * @return the scale of all elements of this vector.
+   */
+  public Scale getScale() {
+    return scale;
+  }
+
+  /**
+   * Returns the value of the element at the given index, stated in the unit of this vector.
+   *
+   * @param index the index of the element.
+   * @return the value of the element.
+   * @throws IndexOutOfBoundsException if the index is out of range
+   */
+  public double getValue(int index) {
+    return values[index];
+  }
+
+  /**
+   * @return a copy of the values of this vector, stated in the unit of this vector.
+   */
+  public double[] toArray() {
+    return Arrays.copyOf(values, values.length);
+  }
+
+  /**
+   * Returns a copy of the elements between {@code fromIndex}, inclusive, and {@code toIndex}, exclusive.
+   *
+   * @param fromIndex the index of the first element.
+   * @param toIndex   the index after the last element.
+   * @return the range of this vector, of the same unit and scale.
+   * @throws IndexOutOfBoundsException if the range is out of bounds
+   * @throws IllegalArgumentException  if {@code fromIndex > toIndex}
+   */
+  public QuantityVector<Q> subVector(int fromIndex, int toIndex) {
+    if (fromIndex < 0 || toIndex > values.length) {
+      throw new IndexOutOfBoundsException(String.format("[%d, %d) of %d", fromIndex, toIndex, values.length));
+    }
+    return wrap(Arrays.copyOfRange(values, fromIndex, toIndex), unit, scale);
+  }
+
+  /**
+   * Returns the element at the given index, materialized as a quantity.
+   *
+   * @param index the index of the element.
+   * @return the element as quantity.
+   * @throws IndexOutOfBoundsException if the index is out of range
+   */
+  public ComparableQuantity<Q> get(int index) {
+    return Quantities.getQuantity(values[index], unit, scale);
+  }
+
+  /**
+   * Returns an unmodifiable, random access list view of this vector, materializing its elements on access.
+   *
+   * @return a list view of this vector.
+   */
+  public List<ComparableQuantity<Q>> asList() {
+    return new ListView();
+  }
+
+  @Override
+  public Iterator<ComparableQuantity<Q>> iterator() {
+    return asList().iterator();
+  }
+
+  /**
+   * Returns a spliterator over the elements of this vector, which splits at multiples of eight elements.
+   *
+   * @return an {@code ORDERED}, {@code SIZED}, {@code SUBSIZED}, {@code IMMUTABLE} and {@code NONNULL} spliterator.
+   */
+  @Override
+  public Spliterator<ComparableQuantity<Q>> spliterator() {
+    return new VectorSpliterator.OfQuantity<>(this, 0, size());
+  }
+
+  /**
+   * Returns a spliterator over the primitive values of this vector, stated in its unit, which splits at multiples
+   * of eight elements.
+   *
+   * @return an {@code ORDERED}, {@code SIZED}, {@code SUBSIZED}, {@code IMMUTABLE} and {@code NONNULL} spliterator.
+   */
+  public Spliterator.OfDouble valueSpliterator() {
+    return new VectorSpliterator.OfValue(this, 0, size());
+  }
+
+  /**
+   * Returns this vector converted into the given unit, looking up the converter only once.
+   *
+   * @param anotherUnit the unit of the result.
+   * @return this vector, if already stated in the given unit, or the converted vector.
+   * @throws UnsupportedOperationException if this vector has {@code RELATIVE} scale and the conversion is not linear
+   */
+  public QuantityVector<Q> to(Unit<Q> anotherUnit) {
+    if (unit.equals(anotherUnit)) {
+      return this;
+    }
+    return wrap(convert(values, unit, scale, anotherUnit), anotherUnit, scale);
+  }
+
+  /**
+   * Returns the element-wise sum of this vector and the given vector, converting the latter only once.
+   *
+   * @param that the vector to add, of the same size.
+   * @return the element-wise sum, stated in the unit of this vector.
+   * @throws IllegalArgumentException if the sizes of the vectors differ
+   * @see Quantity#add(Quantity)
+   */
+  public QuantityVector<Q> add(QuantityVector<Q> that) {
+    return addition(that, 1);
+  }
+
+  /**
+   * Returns the element-wise difference of this vector and the given vector, converting the latter only once.
+   *
+   * @param that the vector to subtract, of the same size.
+   * @return the element-wise difference, stated in the unit of this vector.
+   * @throws IllegalArgumentException if the sizes of the vectors differ
+   * @see Quantity#subtract(Quantity)
+   */
+  public QuantityVector<Q> subtract(QuantityVector<Q> that) {
+    return addition(that, -1);
+  }
+
+  /**
+   * Returns this vector with each element multiplied by the given factor.
+   *
+   * @param factor the factor.
+   * @return the scaled vector.
+   * @see Quantity#multiply(Number)
+   */
+  public QuantityVector<Q> multiply(double factor) {
+    return scalarMultiplication(factor);
+  }
+
+  /**
+   * Returns this vector with each element divided by the given divisor.
+   *
+   * @param divisor the divisor.
+   * @return the scaled vector.
+   * @see Quantity#divide(Number)
+   */
+  public QuantityVector<Q> divide(double divisor) {
+    return scalarMultiplication(1 / divisor);
+  }
+
+  /**
+   * Returns the element-wise product of this vector and the given vector, stated in the product of both units.
+   *
+   * @param that the vector to multiply with, of the same size.
+   * @return the element-wise product.
+   * @throws IllegalArgumentException if the sizes of the vectors differ
+   * @see Quantity#multiply(Quantity)
+   */
+  public QuantityVector<?> multiply(QuantityVector<?> that) {
+    return multiplication(this, that, false);
+  }
+
+  /**
+   * Returns the element-wise quotient of this vector and the given vector, stated in the quotient of both units.
+   *
+   * @param that the vector to divide by, of the same size.
+   * @return the element-wise quotient.
+   * @throws IllegalArgumentException if the sizes of the vectors differ
+   * @see Quantity#divide(Quantity)
+   */
+  public QuantityVector<?> divide(QuantityVector<?> that) {
+    return multiplication(this, that, true);
+  }
+
+  /**
+   * Casts this vector to a parameterized vector of specified nature or throw a {@code ClassCastException} if the
+   * dimension of the specified quantity and this vector's unit dimension do not match.
+   *
+   * @param type the quantity class identifying the nature of the vector.
+   * @return this vector parameterized with the specified type.
+   * @throws ClassCastException if the dimension of this unit is different from the specified quantity dimension.
+   * @see Unit#asType(Class)
+   */
+  @SuppressWarnings("unchecked")
+  public <T extends Quantity<T>> QuantityVector<T> asType(Class<T> type) throws ClassCastException {
+    unit.asType(type); // ClassCastException if dimension mismatches.
+    return (QuantityVector<T>) this;
+  }
+
+  /**
+   * Returns the sum of all elements, using compensated summation.
+   *
+   * @return the sum of all elements, stated in the unit of this vector.
+   */
+  public ComparableQuantity<Q> sum() {
+    return Quantities.getQuantity(accumulate().getSum(), unit, scale);
+  }
+
+  /**
+   * Returns the arithmetic mean of all elements, using compensated summation.
+   *
+   * @return the mean of all elements, stated in the unit of this vector.
+   * @throws NoSuchElementException if this vector is empty
+   */
+  public ComparableQuantity<Q> mean() {
+    requireNonEmpty();
+    return Quantities.getQuantity(accumulate().getSum().doubleValue() / values.length, unit, scale);
+  }
+
+  /**
+   * @return the smallest element, stated in the unit of this vector.
+   * @throws NoSuchElementException if this vector is empty
+   */
+  public ComparableQuantity<Q> min() {
+    requireNonEmpty();
+    double min = values[0];
+    for (int i = 1; i < values.length; i++) {
+      min = Math.min(min, values[i]);
+    }
+    return Quantities.getQuantity(min, unit, scale);
+  }
+
+  /**
+   * @return the largest element, stated in the unit of this vector.
+   * @throws NoSuchElementException if this vector is empty
+   */
+  public ComparableQuantity<Q> max() {
+    requireNonEmpty();
+    double max = values[0];
+    for (int i = 1; i < values.length; i++) {
+      max = Math.max(max, values[i]);
+    }
+    return Quantities.getQuantity(max, unit, scale);
+  }
+
+  /**
+   * Compares this vector against the specified object for <b>strict</b> equality (same unit, same scale and same
+   * values).
+   */
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj instanceof QuantityVector<?>) {
+      final QuantityVector<?> that = (QuantityVector<?>) obj;
+      return unit.equals(that.unit) && scale == that.scale && Arrays.equals(values, that.values);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(unit, scale, Arrays.hashCode(values));
+  }
+
+  @Override
+  public String toString() {
+    return Arrays.toString(values) + " " + unit;
+  }
+
+  // -- HELPER
+
+  private void requireNonEmpty() {
+    if (values.length == 0) {
+      throw new NoSuchElementException("vector is empty");
+    }
+  }
+
+  private NumberAccumulator accumulate() {
+    final NumberAccumulator accumulator = new NumberAccumulator();
+    for (double value : values) {
+      accumulator.accept(value);
+    }
+    return accumulator;
+  }
+
+  private static void requireSameSize(QuantityVector<?> v1, QuantityVector<?> v2) {
+    if (v1.size() != v2.size()) {
+      throw new IllegalArgumentException(
+          String.format("vector sizes don't match: %s vs. %s", v1.size(), v2.size()));
+    }
+  }
+
+  // honors scale, consistent with ScaleHelper.addition
+  private QuantityVector<Q> addition(QuantityVector<Q> that, int sign) {
+    Objects.requireNonNull(that);
+    requireSameSize(this, that);
+    final boolean yieldsRelativeScale = scale == RELATIVE && that.scale == RELATIVE;
+    final Unit<Q> systemUnit = unit.getSystemUnit();
+    final boolean inThisUnit = yieldsRelativeScale || unit.getConverterTo(systemUnit).isLinear();
+    final Unit<Q> workUnit = inThisUnit ? unit : systemUnit;
+    final double[] left = inThisUnit ? values : convert(values, unit, scale, systemUnit);
+    final double[] right = that.unit.equals(workUnit) ? that.values : convert(that.values, that.unit, that.scale, workUnit);
+    final double[] result = new double[values.length];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = left[i] + sign * right[i];
+    }
+    if (inThisUnit) {
+      return wrap(result, unit, yieldsRelativeScale ? RELATIVE : ABSOLUTE);
+    }
+    return wrap(convert(result, systemUnit, ABSOLUTE, unit), unit, ABSOLUTE);
+  }
+
+  // honors scale, consistent with ScaleHelper.scalarMultiplication
+  private QuantityVector<Q> scalarMultiplication(double factor) {
+    final double[] result = new double[values.length];
+    final Unit<Q> systemUnit = unit.getSystemUnit();
+    if (scale == RELATIVE || unit.getConverterTo(systemUnit).isLinear()) {
+      for (int i = 0; i < result.length; i++) {
+        result[i] = values[i] * factor;
+      }
+      return wrap(result, unit, scale);
+    }
+    final double[] inSystemUnit = convert(values, unit, ABSOLUTE, systemUnit);
+    for (int i = 0; i < result.length; i++) {
+      result[i] = inSystemUnit[i] * factor;
+    }
+    return wrap(convert(result, systemUnit, ABSOLUTE, unit), unit, scale);
+  }
+
+  // consistent with ScaleHelper.multiplication, which works on absolute linear units
+  private static QuantityVector<?> multiplication(QuantityVector<?> v1, QuantityVector<?> v2, boolean divide) {
+    Objects.requireNonNull(v2);
+    requireSameSize(v1, v2);
+    final QuantityVector<?> abs1 = toAbsoluteLinear(v1);
+    final QuantityVector<?> abs2 = toAbsoluteLinear(v2);
+    final double[] result = new double[abs1.values.length];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = divide ? abs1.values[i] / abs2.values[i] : abs1.values[i] * abs2.values[i];
+    }
+    final Unit<?> resultUnit = divide ? abs1.unit.divide(abs2.unit) : abs1.unit.multiply(abs2.unit);
+    return wrapRaw(result, resultUnit);
+  }
+
+  @SuppressWarnings({ "rawtypes", "unchecked" })
+  private static QuantityVector<?> wrapRaw(double[] values, Unit<?> unit) {
+    return new QuantityVector(values, Objects.requireNonNull(unit), ABSOLUTE);
+  }
+
+  private static <Q extends Quantity<Q>> QuantityVector<Q> toAbsoluteLinear(QuantityVector<Q> vector) {
+    final Unit<Q> systemUnit = vector.unit.getSystemUnit();
+    if (vector.unit.getConverterTo(systemUnit).isLinear()) {
+      return vector.scale == ABSOLUTE ? vector : wrap(vector.values, vector.unit, ABSOLUTE);
+    }
+    return wrap(convert(vector.values, vector.unit, vector.scale, systemUnit), systemUnit, ABSOLUTE);
+  }
+
+  private static <Q extends Quantity<Q>> double[] convert(double[] values, Unit<Q> from, Scale scale, Unit<Q> to) {
+    final DoubleUnaryOperator operator = ToUnitConverter.doubleConverter(from, scale, to);
+    final double[] result = new double[values.length];
+    for (int i = 0; i < values.length; i++) {
+      result[i] = operator.applyAsDouble(values[i]);
+    }
+    return result;
+  }
+
+  private final class ListView extends AbstractList<ComparableQuantity<Q>> implements RandomAccess {
+    @Override
+    public ComparableQuantity<Q> get(int index) {
+      return QuantityVector.this.get(index);
+    }
+
+    @Override
+    public int size() {
+      return values.length;
+    }
+  }
+}
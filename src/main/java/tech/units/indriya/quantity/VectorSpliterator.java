@@ -0,0 +1,158 @@
+/*
+ * Units of Measurement Reference Implementation
+ * Copyright (c) 2005-2022, Jean-Marie Dautelle, Werner Keil, Otavio Santana.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions
+ *    and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of JSR-385, Indriya nor the names of their contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package tech.units.indriya.quantity;
+
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+
+import javax.measure.Quantity;
+
+import tech.units.indriya.ComparableQuantity;
+
+/**
+ * A {@code SIZED} and {@code SUBSIZED} spliterator over a range of a {@link QuantityVector}, which splits at
+ * multiples of eight elements, the number of {@code double}s per cache line on common hardware.
+ *
+ * @version 1.0
+ * @since 2.1.4
+ */
+abstract class VectorSpliterator {
+
+  /**
+   * The alignment of split points, in elements.
+   */
+  private static final int ALIGNMENT = 8;
+
+  final QuantityVector<?> vector;
+  int index;
+  final int fence;
+
+  VectorSpliterator(QuantityVector<?> vector, int index, int fence) {
+    this.vector = vector;
+    this.index = index;
+    this.fence = fence;
+  }
+
+  public long estimateSize() {
+    return fence - index;
+  }
+
+  public int characteristics() {
+    return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.IMMUTABLE
+        | Spliterator.NONNULL;
+  }
+
+  /**
+   * @return the split point of the remaining range, aligned to {@link #ALIGNMENT}, or {@code index} if the range
+   *         is too small to be split
+   */
+  int split() {
+    final int mid = (index + (fence - index) / 2) & -ALIGNMENT;
+    return mid > index ? mid : index;
+  }
+
+  static final class OfQuantity<Q extends Quantity<Q>> extends VectorSpliterator
+      implements Spliterator<ComparableQuantity<Q>> {
+
+    private final QuantityVector<Q> elements;
+
+    OfQuantity(QuantityVector<Q> vector, int index, int fence) {
+      super(vector, index, fence);
+      this.elements = vector;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super ComparableQuantity<Q>> action) {
+      Objects.requireNonNull(action);
+      if (index < fence) {
+        action.accept(elements.get(index++));
+        return true;
+      }
+      return false;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super ComparableQuantity<Q>> action) {
+      Objects.requireNonNull(action);
+      for (; index < fence; index++) {
+        action.accept(elements.get(index));
+      }
+    }
+
+    @Override
+    public Spliterator<ComparableQuantity<Q>> trySplit() {
+      final int mid = split();
+      if (mid == index) {
+        return null;
+      }
+      final Spliterator<ComparableQuantity<Q>> prefix = new OfQuantity<>(elements, index, mid);
+      index = mid;
+      return prefix;
+    }
+  }
+
+  static final class OfValue extends VectorSpliterator implements Spliterator.OfDouble {
+
+    OfValue(QuantityVector<?> vector, int index, int fence) {
+      super(vector, index, fence);
+    }
+
+    @Override
+    public boolean tryAdvance(DoubleConsumer action) {
+      Objects.requireNonNull(action);
+      if (index < fence) {
+        action.accept(vector.getValue(index++));
+        return true;
+      }
+      return false;
+    }
+
+    @Override
+    public void forEachRemaining(DoubleConsumer action) {
+      Objects.requireNonNull(action);
+      for (; index < fence; index++) {
+        action.accept(vector.getValue(index));
+      }
+    }
+
+    @Override
+    public Spliterator.OfDouble trySplit() {
+      final int mid = split();
+      if (mid == index) {
+        return null;
+      }
+      final Spliterator.OfDouble prefix = new OfValue(vector, index, mid);
+      index = mid;
+      return prefix;
+    }
+  }
+}
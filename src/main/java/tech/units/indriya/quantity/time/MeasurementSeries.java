@@ -0,0 +1,533 @@
+/*
+ * Units of Measurement Reference Implementation
+ * Copyright (c) 2005-2022, Jean-Marie Dautelle, Werner Keil, Otavio Santana.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions
+ *    and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of JSR-385, Indriya nor the names of their contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package tech.units.indriya.quantity.time;
+
+import static javax.measure.Quantity.Scale.ABSOLUTE;
+
+import java.time.Instant;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+import javax.measure.Quantity;
+import javax.measure.Quantity.Scale;
+import javax.measure.Unit;
+
+import tech.units.indriya.ComparableQuantity;
+import tech.units.indriya.internal.function.ToUnitConverter;
+import tech.units.indriya.internal.function.VectorAccess;
+import tech.units.indriya.quantity.QuantityVector;
+import tech.units.indriya.spi.Measurement;
+
+/**
+ * An immutable, time-ordered series of measurements sharing a single {@link Unit} and {@link Scale}, stored in
+ * columns: a {@code long[]} of timestamps in nanoseconds since the epoch and a {@link QuantityVector} of values.
+ * <p>
+ * A {@link TimedQuantityData} or {@link Measurement} holds a quantity, a timestamp and an {@link Instant} per
+ * data point, which amounts to roughly 100 bytes. This series needs 16 bytes per data point. Elements are
+ * materialized as {@link TimedQuantityData} or {@link Measurement} only when requested, e.g. by {@link #get(int)},
+ * {@link #asList()} or {@link #asMeasurements()}.
+ * </p>
+ * <p>
+ * Timestamps are stored with nanosecond precision, which covers instants between the years 1677 and 2262.
+ * </p>
+ *
+ * @param <Q>
+ *          the quantity type
+ * @version 1.0
+ * @since 2.1.4
+ */
+public final class MeasurementSeries<Q extends Quantity<Q>> implements Iterable<TimedQuantityData<Q>> {
+
+  private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+  private static final long NANOS_PER_MILLI = 1_000_000L;
+
+  private final long[] epochNanos;
+
+  private final QuantityVector<Q> values;
+
+  private MeasurementSeries(long[] epochNanos, QuantityVector<Q> values) {
+    this.epochNanos = epochNanos;
+    this.values = values;
+  }
+
+  /**
+   * Returns a new builder for a series in the given unit and {@code ABSOLUTE} scale.
+   *
+   * @param <Q>
+   *          the quantity type
+   * @param unit
+   *          the unit of all values.
+   * @return a new builder
+   */
+  public static <Q extends Quantity<Q>> Builder<Q> builder(Unit<Q> unit) {
+    return builder(unit, ABSOLUTE);
+  }
+
+  /**
+   * Returns a new builder for a series in the given unit and scale.
+   *
+   * @param <Q>
+   *          the quantity type
+   * @param unit
+   *          the unit of all values.
+   * @param scale
+   *          the scale of all values.
+   * @return a new builder
+   */
+  public static <Q extends Quantity<Q>> Builder<Q> builder(Unit<Q> unit, Scale scale) {
+    return new Builder<>(unit, scale);
+  }
+
+  /**
+   * Returns a series of the given timed data, converted into the given unit.
+   *
+   * @param <Q>
+   *          the quantity type
+   * @param data
+   *          the timed data, ordered by timestamp.
+   * @param unit
+   *          the unit of the series.
+   * @return the corresponding series
+   * @throws IllegalArgumentException
+   *           if the data is not ordered by timestamp
+   */
+  public static <Q extends Quantity<Q>> MeasurementSeries<Q> of(Iterable<? extends TimedData<? extends Quantity<Q>>> data,
+      Unit<Q> unit) {
+    final Builder<Q> builder = builder(unit);
+    for (TimedData<? extends Quantity<Q>> d : data) {
+      builder.add(Math.multiplyExact(d.getTimestamp(), NANOS_PER_MILLI), d.get());
+    }
+    return builder.build();
+  }
+
+  /**
+   * Returns a series of the given measurements, converted into the given unit.
+   *
+   * @param <Q>
+   *          the quantity type
+   * @param measurements
+   *          the measurements, ordered by instant.
+   * @param unit
+   *          the unit of the series.
+   * @return the corresponding series
+   * @throws IllegalArgumentException
+   *           if the measurements are not ordered by instant
+   */
+  public static <Q extends Quantity<Q>> MeasurementSeries<Q> ofMeasurements(Iterable<? extends Measurement<Q>> measurements,
+      Unit<Q> unit) {
+    final Builder<Q> builder = builder(unit);
+    for (Measurement<Q> m : measurements) {
+      builder.add(m.getInstant(), m.getQuantity());
+    }
+    return builder.build();
+  }
+
+  /**
+   * @return the number of data points of this series.
+   */
+  public int size() {
+    return epochNanos.length;
+  }
+
+  /**
+   * @return the unit of all values of this series.
+   */
+  public Unit<Q> getUnit() {
+    return values.getUnit();
+  }
+
+  /**
+   * @return the scale of all values of this series.
+   */
+  public Scale getScale() {
+    return values.getScale();
+  }
+
+  /**
+   * @return the values of this series.
+   */
+  public QuantityVector<Q> getValues() {
+    return values;
+  }
+
+  /**
+   * @param index
+   *          the index of the data point.
+   * @return the value of the data point, stated in the unit of this series.
+   */
+  public double getValue(int index) {
+    return values.getValue(index);
+  }
+
+  /**
+   * @param index
+   *          the index of the data point.
+   * @return the timestamp of the data point, in nanoseconds since the epoch.
+   */
+  public long getEpochNanos(int index) {
+    return epochNanos[index];
+  }
+
+  /**
+   * @param index
+   *          the index of the data point.
+   * @return the timestamp of the data point, in milliseconds since the epoch, as for {@link TimedData#getTimestamp()}.
+   */
+  public long getTimestamp(int index) {
+    return Math.floorDiv(epochNanos[index], NANOS_PER_MILLI);
+  }
+
+  /**
+   * @param index
+   *          the index of the data point.
+   * @return the instant of the data point.
+   */
+  public Instant getInstant(int index) {
+    return toInstant(epochNanos[index]);
+  }
+
+  /**
+   * Returns the data point at the given index, materialized as {@link TimedQuantityData}. The timestamp is
+   * truncated to milliseconds.
+   *
+   * @param index
+   *          the index of the data point.
+   * @return the data point.
+   */
+  public TimedQuantityData<Q> get(int index) {
+    return TimedQuantityData.of(values.get(index), getTimestamp(index));
+  }
+
+  /**
+   * Returns the data point at the given index, materialized as {@link Measurement}.
+   *
+   * @param index
+   *          the index of the data point.
+   * @return the data point.
+   */
+  public Measurement<Q> getMeasurement(int index) {
+    final ComparableQuantity<Q> quantity = values.get(index);
+    return Measurement.of(quantity, getInstant(index));
+  }
+
+  /**
+   * Returns the part of this series from the instant {@code from}, inclusive, to the instant {@code to},
+   * exclusive. The boundaries are found by binary search.
+   *
+   * @param from
+   *          the first instant of the slice, inclusive.
+   * @param to
+   *          the last instant of the slice, exclusive.
+   * @return the data points within the given interval.
+   */
+  public MeasurementSeries<Q> slice(Instant from, Instant to) {
+    return slice(toEpochNanos(from), toEpochNanos(to));
+  }
+
+  /**
+   * Returns the part of this series from {@code fromEpochNanos}, inclusive, to {@code toEpochNanos}, exclusive.
+   * The boundaries are found by binary search.
+   *
+   * @param fromEpochNanos
+   *          the first timestamp of the slice in nanoseconds since the epoch, inclusive.
+   * @param toEpochNanos
+   *          the last timestamp of the slice in nanoseconds since the epoch, exclusive.
+   * @return the data points within the given interval.
+   */
+  public MeasurementSeries<Q> slice(long fromEpochNanos, long toEpochNanos) {
+    final int fromIndex = indexOf(fromEpochNanos);
+    final int toIndex = Math.max(fromIndex, indexOf(toEpochNanos));
+    if (fromIndex == 0 && toIndex == epochNanos.length) {
+      return this;
+    }
+    return new MeasurementSeries<>(Arrays.copyOfRange(epochNanos, fromIndex, toIndex), values.subVector(fromIndex, toIndex));
+  }
+
+  /**
+   * Returns the index of the first data point at or after the given timestamp, or {@link #size()} if there is none.
+   *
+   * @param epochNanos
+   *          the timestamp in nanoseconds since the epoch.
+   * @return the index of the first data point not before the given timestamp.
+   */
+  public int indexOf(long epochNanos) {
+    int low = 0;
+    int high = this.epochNanos.length;
+    while (low < high) {
+      final int mid = (low + high) >>> 1;
+      if (this.epochNanos[mid] < epochNanos) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Returns this series converted into the given unit. The converter is looked up only once.
+   *
+   * @param anotherUnit
+   *          the unit of the result.
+   * @return this series, if already stated in the given unit, or the converted series.
+   * @see QuantityVector#to(Unit)
+   */
+  public MeasurementSeries<Q> to(Unit<Q> anotherUnit) {
+    final QuantityVector<Q> converted = values.to(anotherUnit);
+    return converted == values ? this : new MeasurementSeries<>(epochNanos, converted);
+  }
+
+  /**
+   * Returns an unmodifiable, random access list view of this series, materializing {@link TimedQuantityData} on
+   * access.
+   *
+   * @return a list view of this series.
+   */
+  public List<TimedQuantityData<Q>> asList() {
+    return new AbstractListView<TimedQuantityData<Q>>() {
+      @Override
+      public TimedQuantityData<Q> get(int index) {
+        return MeasurementSeries.this.get(index);
+      }
+    };
+  }
+
+  /**
+   * Returns an unmodifiable, random access list view of this series, materializing {@link Measurement}s on access.
+   *
+   * @return a list view of this series.
+   */
+  public List<Measurement<Q>> asMeasurements() {
+    return new AbstractListView<Measurement<Q>>() {
+      @Override
+      public Measurement<Q> get(int index) {
+        return getMeasurement(index);
+      }
+    };
+  }
+
+  @Override
+  public Iterator<TimedQuantityData<Q>> iterator() {
+    return asList().iterator();
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj instanceof MeasurementSeries<?>) {
+      final MeasurementSeries<?> other = (MeasurementSeries<?>) obj;
+      return Arrays.equals(epochNanos, other.epochNanos) && values.equals(other.values);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(Arrays.hashCode(epochNanos), values);
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder sb = new StringBuilder().append("size= ").append(size()).append(", unit= ").append(getUnit());
+    if (size() > 0) {
+      sb.append(", from= ").append(getInstant(0)).append(", to= ").append(getInstant(size() - 1));
+    }
+    return sb.toString();
+  }
+
+  /**
+   * @return the first instant of this series
+   * @throws NoSuchElementException
+   *           if this series is empty
+   */
+  public Instant getStart() {
+    requireNonEmpty();
+    return getInstant(0);
+  }
+
+  /**
+   * @return the last instant of this series
+   * @throws NoSuchElementException
+   *           if this series is empty
+   */
+  public Instant getEnd() {
+    requireNonEmpty();
+    return getInstant(epochNanos.length - 1);
+  }
+
+  private void requireNonEmpty() {
+    if (epochNanos.length == 0) {
+      throw new NoSuchElementException("series is empty");
+    }
+  }
+
+  static long toEpochNanos(Instant instant) {
+    return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), NANOS_PER_SECOND), instant.getNano());
+  }
+
+  static Instant toInstant(long epochNanos) {
+    return Instant.ofEpochSecond(Math.floorDiv(epochNanos, NANOS_PER_SECOND), Math.floorMod(epochNanos, NANOS_PER_SECOND));
+  }
+
+  private abstract class AbstractListView<E> extends AbstractList<E> implements RandomAccess {
+    @Override
+    public int size() {
+      return epochNanos.length;
+    }
+  }
+
+  /**
+   * Builds a {@link MeasurementSeries} by appending data points in time order.
+   * <p>
+   * Quantities in any compatible unit are accepted, the converter for each source unit is looked up only once.
+   * </p>
+   * <p>
+   * This class is <b>not</b> thread safe.
+   * </p>
+   *
+   * @param <Q>
+   *          the quantity type
+   */
+  public static final class Builder<Q extends Quantity<Q>> {
+    private final Unit<Q> unit;
+    private final Scale scale;
+    private final ToUnitConverter<Q> converter;
+    private long[] epochNanos = new long[16];
+    private double[] values = new double[16];
+    private int size;
+
+    private Builder(Unit<Q> unit, Scale scale) {
+      this.unit = Objects.requireNonNull(unit);
+      this.scale = Objects.requireNonNull(scale);
+      this.converter = new ToUnitConverter<>(unit);
+    }
+
+    /**
+     * Appends a data point.
+     *
+     * @param epochNanos
+     *          the timestamp in nanoseconds since the epoch, not before the previous one.
+     * @param value
+     *          the value, stated in the unit of the series.
+     * @return this builder
+     * @throws IllegalArgumentException
+     *           if the timestamp is before the previous one
+     */
+    public Builder<Q> add(long epochNanos, double value) {
+      if (size > 0 && epochNanos < this.epochNanos[size - 1]) {
+        throw new IllegalArgumentException("timestamps out of order: " + toInstant(epochNanos) + " is before "
+            + toInstant(this.epochNanos[size - 1]));
+      }
+      if (size == this.epochNanos.length) {
+        this.epochNanos = Arrays.copyOf(this.epochNanos, size * 2);
+        this.values = Arrays.copyOf(this.values, size * 2);
+      }
+      this.epochNanos[size] = epochNanos;
+      this.values[size] = value;
+      size++;
+      return this;
+    }
+
+    /**
+     * Appends a data point.
+     *
+     * @param epochNanos
+     *          the timestamp in nanoseconds since the epoch, not before the previous one.
+     * @param quantity
+     *          the quantity, converted into the unit of the series.
+     * @return this builder
+     * @throws IllegalArgumentException
+     *           if the timestamp is before the previous one
+     */
+    public Builder<Q> add(long epochNanos, Quantity<Q> quantity) {
+      return add(epochNanos, converter.convert(Objects.requireNonNull(quantity)).doubleValue());
+    }
+
+    /**
+     * Appends a data point.
+     *
+     * @param instant
+     *          the instant, not before the previous one.
+     * @param value
+     *          the value, stated in the unit of the series.
+     * @return this builder
+     * @throws IllegalArgumentException
+     *           if the instant is before the previous one
+     */
+    public Builder<Q> add(Instant instant, double value) {
+      return add(toEpochNanos(instant), value);
+    }
+
+    /**
+     * Appends a data point.
+     *
+     * @param instant
+     *          the instant, not before the previous one.
+     * @param quantity
+     *          the quantity, converted into the unit of the series.
+     * @return this builder
+     * @throws IllegalArgumentException
+     *           if the instant is before the previous one
+     */
+    public Builder<Q> add(Instant instant, Quantity<Q> quantity) {
+      return add(toEpochNanos(instant), quantity);
+    }
+
+    /**
+     * Appends the given timed data.
+     *
+     * @param data
+     *          the timed data, not before the previous data point.
+     * @return this builder
+     * @throws IllegalArgumentException
+     *           if the data is before the previous data point
+     */
+    public Builder<Q> add(TimedData<? extends Quantity<Q>> data) {
+      return add(Math.multiplyExact(data.getTimestamp(), NANOS_PER_MILLI), data.get());
+    }
+
+    /**
+     * @return a new series of all data points appended so far.
+     */
+    public MeasurementSeries<Q> build() {
+      // a full array is never written again, as the next add grows it first
+      return new MeasurementSeries<>(Arrays.copyOf(epochNanos, size),
+          VectorAccess.get().wrap(values.length == size ? values : Arrays.copyOf(values, size), unit, scale));
+    }
+  }
+}
@@ -0,0 +1,533 @@
+/*
+ * Units of Measurement Reference Implementation
+ * Copyright (c) 2005-2022, Jean-Marie Dautelle, Werner Keil, Otavio Santana.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions
+ *    and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of JSR-385, Indriya nor the names of their contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package tech.units.indriya.quantity.time;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static javax.measure.Quantity.Scale.RELATIVE;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.DoubleUnaryOperator;
+
+import javax.measure.Quantity;
+import javax.measure.Quantity.Scale;
+import javax.measure.UnconvertibleException;
+import javax.measure.Unit;
+
+import tech.units.indriya.format.SimpleUnitFormat;
+import tech.units.indriya.internal.function.ToUnitConverter;
+import tech.units.indriya.spi.Measurement;
+
+/**
+ * An append-only store of measurements in memory-mapped segment files within a local directory.
+ * <p>
+ * Each segment file holds
+ * </p>
+ * <ul>
+ * <li>a header with a table of the units used within the segment, each formatted once by {@link SimpleUnitFormat},</li>
+ * <li>a sparse index holding the timestamp of every {@value #INDEX_INTERVAL}th record, and</li>
+ * <li>fixed-width records of {@value #RECORD_SIZE} bytes: the timestamp in nanoseconds since the epoch, the id of the
+ * unit within the unit table, and the value as IEEE 754 double.</li>
+ * </ul>
+ * <p>
+ * Records are read directly from the mapped segments: {@link #scan(Instant, Instant, Visitor)} passes primitive
+ * values to a {@link Visitor} and does not create any objects per record. Time range scans locate their first record
+ * via the sparse index. A new segment is started once a segment is full.
+ * </p>
+ * <p>
+ * Measurements must be appended in order of their timestamps, and only quantities of {@code ABSOLUTE} scale are
+ * supported. A store must be accessed by a single thread, and a directory must not be opened by more than one store
+ * at a time.
+ * </p>
+ *
+ * @version 1.0
+ * @since 2.1.4
+ */
+public final class MeasurementStore implements Closeable {
+
+  /**
+   * Receives the records of a scan.
+   */
+  @FunctionalInterface
+  public interface Visitor {
+    /**
+     * @param epochNanos
+     *          the timestamp of the record in nanoseconds since the epoch.
+     * @param unit
+     *          the unit of the record.
+     * @param value
+     *          the value of the record.
+     */
+    void accept(long epochNanos, Unit<?> unit, double value);
+  }
+
+  /**
+   * The size of a record in bytes.
+   */
+  public static final int RECORD_SIZE = 20;
+
+  /**
+   * The number of records per entry of the sparse index.
+   */
+  public static final int INDEX_INTERVAL = 1024;
+
+  static final String SUFFIX = ".qseg";
+
+  private static final int DEFAULT_CAPACITY = 1 << 20;
+
+  private final Path directory;
+
+  private final int capacity;
+
+  private final List<Segment> segments = new ArrayList<>();
+
+  private long latest = Long.MIN_VALUE;
+
+  private MeasurementStore(Path directory, int capacity) {
+    this.directory = directory;
+    this.capacity = capacity;
+  }
+
+  /**
+   * Opens the store within the given directory, creating the directory if it does not exist.
+   *
+   * @param directory
+   *          the directory of the segment files.
+   * @return the store
+   * @throws IOException
+   *           if an I/O error occurs or a segment file is corrupt
+   */
+  public static MeasurementStore open(Path directory) throws IOException {
+    return open(directory, DEFAULT_CAPACITY);
+  }
+
+  static MeasurementStore open(Path directory, int capacity) throws IOException {
+    if (capacity <= 0 || capacity % INDEX_INTERVAL != 0) {
+      throw new IllegalArgumentException("capacity must be a positive multiple of " + INDEX_INTERVAL + ": " + capacity);
+    }
+    Files.createDirectories(directory);
+    final List<Path> files = new ArrayList<>();
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+      for (Path file : stream) {
+        files.add(file);
+      }
+    }
+    Collections.sort(files);
+    final MeasurementStore store = new MeasurementStore(directory, capacity);
+    for (Path file : files) {
+      store.segments.add(Segment.open(file));
+    }
+    for (int i = store.segments.size() - 1; i >= 0; i--) {
+      final Segment segment = store.segments.get(i);
+      if (segment.count() > 0) {
+        store.latest = segment.timestamp(segment.count() - 1);
+        break;
+      }
+    }
+    return store;
+  }
+
+  /**
+   * Appends a measurement.
+   *
+   * @param epochNanos
+   *          the timestamp in nanoseconds since the epoch, not before the latest measurement.
+   * @param quantity
+   *          the quantity of {@code ABSOLUTE} scale.
+   * @throws IOException
+   *           if an I/O error occurs
+   * @throws IllegalArgumentException
+   *           if the timestamp is before the latest measurement, or the quantity has {@code RELATIVE} scale
+   */
+  public void append(long epochNanos, Quantity<?> quantity) throws IOException {
+    if (RELATIVE == quantity.getScale()) {
+      throw new IllegalArgumentException("Quantities of relative scale are not supported: " + quantity);
+    }
+    QuantityWindow.requireOrdered(epochNanos, latest);
+    Segment segment = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+    int unitId = segment == null || segment.isFull() ? -1 : segment.unitId(quantity.getUnit());
+    if (unitId < 0) {
+      segment = Segment.create(directory.resolve(String.format("%08d%s", segments.size(), SUFFIX)), capacity);
+      segments.add(segment);
+      unitId = segment.unitId(quantity.getUnit());
+      if (unitId < 0) {
+        throw new IllegalArgumentException("Unit " + quantity.getUnit() + " does not fit into a segment header");
+      }
+    }
+    segment.append(epochNanos, unitId, quantity.getValue().doubleValue());
+    latest = epochNanos;
+  }
+
+  /**
+   * Appends a measurement.
+   *
+   * @param instant
+   *          the instant, not before the latest measurement.
+   * @param quantity
+   *          the quantity of {@code ABSOLUTE} scale.
+   * @throws IOException
+   *           if an I/O error occurs
+   * @throws IllegalArgumentException
+   *           if the instant is before the latest measurement, or the quantity has {@code RELATIVE} scale
+   */
+  public void append(Instant instant, Quantity<?> quantity) throws IOException {
+    append(MeasurementSeries.toEpochNanos(instant), quantity);
+  }
+
+  /**
+   * Appends a measurement.
+   *
+   * @param measurement
+   *          the measurement, not before the latest measurement.
+   * @throws IOException
+   *           if an I/O error occurs
+   * @throws IllegalArgumentException
+   *           if the measurement is before the latest measurement, or its quantity has {@code RELATIVE} scale
+   */
+  public void append(Measurement<?> measurement) throws IOException {
+    append(measurement.getInstant(), measurement.getQuantity());
+  }
+
+  /**
+   * Appends a measurement.
+   *
+   * @param data
+   *          the timed data, not before the latest measurement.
+   * @throws IOException
+   *           if an I/O error occurs
+   * @throws IllegalArgumentException
+   *           if the data is before the latest measurement, or its quantity has {@code RELATIVE} scale
+   */
+  public void append(TimedData<? extends Quantity<?>> data) throws IOException {
+    append(Math.multiplyExact(data.getTimestamp(), 1_000_000L), data.get());
+  }
+
+  /**
+   * @return the number of measurements of this store.
+   */
+  public long size() {
+    long size = 0;
+    for (Segment segment : segments) {
+      size += segment.count();
+    }
+    return size;
+  }
+
+  /**
+   * Passes all measurements from the instant {@code from}, inclusive, to the instant {@code to}, exclusive, to the
+   * given visitor, in order of their timestamps.
+   *
+   * @param from
+   *          the first instant, inclusive.
+   * @param to
+   *          the last instant, exclusive.
+   * @param visitor
+   *          the visitor.
+   */
+  public void scan(Instant from, Instant to, Visitor visitor) {
+    scan(MeasurementSeries.toEpochNanos(from), MeasurementSeries.toEpochNanos(to), visitor);
+  }
+
+  /**
+   * Passes all measurements from {@code fromEpochNanos}, inclusive, to {@code toEpochNanos}, exclusive, to the given
+   * visitor, in order of their timestamps.
+   *
+   * @param fromEpochNanos
+   *          the first timestamp in nanoseconds since the epoch, inclusive.
+   * @param toEpochNanos
+   *          the last timestamp in nanoseconds since the epoch, exclusive.
+   * @param visitor
+   *          the visitor.
+   */
+  public void scan(long fromEpochNanos, long toEpochNanos, Visitor visitor) {
+    Objects.requireNonNull(visitor);
+    for (Segment segment : segments) {
+      final int count = segment.count();
+      if (count == 0 || segment.timestamp(count - 1) < fromEpochNanos) {
+        continue;
+      }
+      if (segment.timestamp(0) >= toEpochNanos) {
+        break;
+      }
+      for (int i = segment.indexOf(fromEpochNanos); i < count; i++) {
+        final long t = segment.timestamp(i);
+        if (t >= toEpochNanos) {
+          return;
+        }
+        visitor.accept(t, segment.unit(i), segment.value(i));
+      }
+    }
+  }
+
+  /**
+   * Returns the measurements from the instant {@code from}, inclusive, to the instant {@code to}, exclusive, as a
+   * series in the given unit. The converter from each unit of a segment is looked up only once.
+   *
+   * @param <Q>
+   *          the quantity type
+   * @param from
+   *          the first instant, inclusive.
+   * @param to
+   *          the last instant, exclusive.
+   * @param unit
+   *          the unit of the series, compatible with the units of all measurements within the range.
+   * @return the series of measurements
+   * @throws UnconvertibleException
+   *           if a measurement within the range is not compatible with the given unit
+   */
+  public <Q extends Quantity<Q>> MeasurementSeries<Q> series(Instant from, Instant to, Unit<Q> unit) {
+    final MeasurementSeries.Builder<Q> builder = MeasurementSeries.builder(unit);
+    final Map<Unit<?>, DoubleUnaryOperator> converters = new HashMap<>();
+    scan(from, to, (t, u, v) -> {
+      DoubleUnaryOperator converter = converters.get(u);
+      if (converter == null) {
+        converter = converter(u, unit);
+        converters.put(u, converter);
+      }
+      builder.add(t, converter.applyAsDouble(v));
+    });
+    return builder.build();
+  }
+
+  @SuppressWarnings({ "unchecked", "rawtypes" })
+  private static DoubleUnaryOperator converter(Unit<?> from, Unit<?> to) {
+    return ToUnitConverter.doubleConverter((Unit) from, Scale.ABSOLUTE, (Unit) to);
+  }
+
+  /**
+   * Forces any changes to be written to the storage device.
+   */
+  public void force() {
+    for (Segment segment : segments) {
+      segment.force();
+    }
+  }
+
+  /**
+   * Forces any changes to be written to the storage device, and releases this store. The mapped segments are
+   * released by the garbage collector.
+   */
+  @Override
+  public void close() {
+    force();
+    segments.clear();
+  }
+
+  @Override
+  public String toString() {
+    return "MeasurementStore[directory=" + directory + ", segments=" + segments.size() + "]";
+  }
+
+  /**
+   * A single, memory-mapped segment file.
+   */
+  private static final class Segment {
+    private static final int MAGIC = 0x51534547; // "QSEG"
+    private static final short VERSION = 1;
+    private static final int HEADER_SIZE = 4096;
+    private static final int UNIT_COUNT = 6;
+    private static final int CAPACITY = 8;
+    private static final int COUNT = 12;
+    private static final int UNIT_TABLE_END = 16;
+    private static final int UNIT_TABLE = 32;
+
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final int recordsOffset;
+    private final List<Unit<?>> units = new ArrayList<>();
+    private final Map<Unit<?>, Integer> unitIds = new HashMap<>();
+    private Unit<?> lastUnit;
+    private int lastUnitId;
+    private int count;
+
+    private Segment(MappedByteBuffer buffer, int capacity) {
+      this.buffer = buffer;
+      this.capacity = capacity;
+      this.recordsOffset = HEADER_SIZE + capacity / INDEX_INTERVAL * Long.BYTES;
+    }
+
+    private static long fileSize(int capacity) {
+      return HEADER_SIZE + (long) capacity / INDEX_INTERVAL * Long.BYTES + (long) capacity * RECORD_SIZE;
+    }
+
+    private static Segment create(Path file, int capacity) throws IOException {
+      try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+          StandardOpenOption.WRITE)) {
+        final Segment segment = new Segment(channel.map(MapMode.READ_WRITE, 0, fileSize(capacity)), capacity);
+        segment.buffer.putInt(0, MAGIC);
+        segment.buffer.putShort(4, VERSION);
+        segment.buffer.putShort(UNIT_COUNT, (short) 0);
+        segment.buffer.putInt(CAPACITY, capacity);
+        segment.buffer.putInt(COUNT, 0);
+        segment.buffer.putInt(UNIT_TABLE_END, UNIT_TABLE);
+        return segment;
+      }
+    }
+
+    private static Segment open(Path file) throws IOException {
+      try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+        if (channel.size() < HEADER_SIZE) {
+          throw new IOException("Not a measurement segment: " + file);
+        }
+        final MappedByteBuffer header = channel.map(MapMode.READ_ONLY, 0, HEADER_SIZE);
+        final int capacity = header.getInt(CAPACITY);
+        if (header.getInt(0) != MAGIC || header.getShort(4) != VERSION || capacity <= 0
+            || channel.size() != fileSize(capacity)) {
+          throw new IOException("Not a measurement segment: " + file);
+        }
+        final int count = header.getInt(COUNT);
+        final int unitCount = header.getShort(UNIT_COUNT);
+        if (count < 0 || count > capacity || unitCount < 0) {
+          throw new IOException("Corrupt measurement segment header: " + file);
+        }
+        final Segment segment = new Segment(channel.map(MapMode.READ_WRITE, 0, fileSize(capacity)), capacity);
+        segment.count = count;
+        int position = UNIT_TABLE;
+        for (int i = 0; i < unitCount; i++) {
+          final int length = position + Short.BYTES <= HEADER_SIZE ? header.getShort(position) : -1;
+          if (length < 0 || position + Short.BYTES + length > HEADER_SIZE) {
+            throw new IOException("Corrupt unit table in measurement segment: " + file);
+          }
+          final byte[] symbol = new byte[length];
+          ((ByteBuffer) header.duplicate().position(position + Short.BYTES)).get(symbol);
+          position += Short.BYTES + symbol.length;
+          final Unit<?> unit = SimpleUnitFormat.getInstance().parse(new String(symbol, UTF_8));
+          segment.units.add(unit);
+          segment.unitIds.put(unit, i);
+        }
+        if (header.getInt(UNIT_TABLE_END) != position) {
+          throw new IOException("Corrupt unit table in measurement segment: " + file);
+        }
+        return segment;
+      }
+    }
+
+    private int count() {
+      return count;
+    }
+
+    private boolean isFull() {
+      return count == capacity;
+    }
+
+    /**
+     * @return the id of the given unit, adding it to the unit table if necessary, or -1 if the unit table is full
+     */
+    private int unitId(Unit<?> unit) {
+      if (unit == lastUnit) {
+        return lastUnitId;
+      }
+      Integer id = unitIds.get(unit);
+      if (id == null) {
+        final byte[] symbol = SimpleUnitFormat.getInstance().format(unit).getBytes(UTF_8);
+        final int position = buffer.getInt(UNIT_TABLE_END);
+        if (position + Short.BYTES + symbol.length > HEADER_SIZE || units.size() == Short.MAX_VALUE) {
+          return -1;
+        }
+        buffer.putShort(position, (short) symbol.length);
+        ((ByteBuffer) buffer.duplicate().position(position + Short.BYTES)).put(symbol);
+        buffer.putInt(UNIT_TABLE_END, position + Short.BYTES + symbol.length);
+        id = units.size();
+        units.add(unit);
+        unitIds.put(unit, id);
+        buffer.putShort(UNIT_COUNT, (short) units.size());
+      }
+      lastUnit = unit;
+      lastUnitId = id;
+      return id;
+    }
+
+    private void append(long epochNanos, int unitId, double value) {
+      final int offset = recordsOffset + count * RECORD_SIZE;
+      buffer.putLong(offset, epochNanos);
+      buffer.putInt(offset + Long.BYTES, unitId);
+      buffer.putDouble(offset + Long.BYTES + Integer.BYTES, value);
+      if (count % INDEX_INTERVAL == 0) {
+        buffer.putLong(HEADER_SIZE + count / INDEX_INTERVAL * Long.BYTES, epochNanos);
+      }
+      count++;
+      // commits the record
+      buffer.putInt(COUNT, count);
+    }
+
+    private long timestamp(int index) {
+      return buffer.getLong(recordsOffset + index * RECORD_SIZE);
+    }
+
+    private Unit<?> unit(int index) {
+      return units.get(buffer.getInt(recordsOffset + index * RECORD_SIZE + Long.BYTES));
+    }
+
+    private double value(int index) {
+      return buffer.getDouble(recordsOffset + index * RECORD_SIZE + Long.BYTES + Integer.BYTES);
+    }
+
+    /**
+     * @return the index of the first record not before the given timestamp, or {@link #count()} if there is none
+     */
+    private int indexOf(long epochNanos) {
+      // binary search of the last index entry before the given timestamp
+      int low = 0;
+      int high = (count + INDEX_INTERVAL - 1) / INDEX_INTERVAL;
+      while (low < high) {
+        final int mid = (low + high) >>> 1;
+        if (buffer.getLong(HEADER_SIZE + mid * Long.BYTES) < epochNanos) {
+          low = mid + 1;
+        } else {
+          high = mid;
+        }
+      }
+      int i = Math.max(0, low - 1) * INDEX_INTERVAL;
+      while (i < count && timestamp(i) < epochNanos) {
+        i++;
+      }
+      return i;
+    }
+
+    private void force() {
+      buffer.force();
+    }
+  }
+}
@@ -0,0 +1,477 @@
+/*
+ * Units of Measurement Reference Implementation
+ * Copyright (c) 2005-2022, Jean-Marie Dautelle, Werner Keil, Otavio Santana.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions
+ *    and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of JSR-385, Indriya nor the names of their contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package tech.units.indriya.quantity.time;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+import javax.measure.Quantity;
+import javax.measure.Unit;
+import javax.measure.quantity.Time;
+
+import tech.units.indriya.internal.function.ToUnitConverter;
+
+/**
+ * An incremental aggregation of timed quantities over time windows, keyed on {@link TimedData#getTimestamp()}.
+ * <p>
+ * Every quantity is converted once into the unit of the window, which then works on primitive values only: a running
+ * sum for the mean and, for sliding windows, monotonic deques for the minimum and maximum. Hence the cost per sample
+ * is <i>O(1)</i> amortized, regardless of the size of the window.
+ * </p>
+ * <ul>
+ * <li>{@link #sliding(Quantity, Unit)} aggregates the samples of the last period, e.g. a rolling 5-minute average.</li>
+ * <li>{@link #tumbling(Quantity, Unit, Consumer)} aggregates consecutive, non-overlapping periods aligned to the epoch.</li>
+ * <li>{@link #session(Quantity, Unit, Consumer)} aggregates bursts of samples separated by gaps of inactivity.</li>
+ * </ul>
+ * <p>
+ * Samples must be supplied in order of their timestamps. Implementations are <b>not</b> thread safe.
+ * </p>
+ *
+ * @param <Q>
+ *          the quantity type
+ * @version 1.0
+ * @since 2.1.4
+ */
+public abstract class QuantityWindow<Q extends Quantity<Q>> implements Consumer<TimedQuantityData<Q>> {
+
+  private final Unit<Q> unit;
+
+  private final ToUnitConverter<Q> converter;
+
+  final long length;
+
+  QuantityWindow(Quantity<Time> length, Unit<Q> unit) {
+    this.unit = Objects.requireNonNull(unit);
+    this.converter = new ToUnitConverter<>(unit);
+    this.length = toMillis(length);
+  }
+
+  /**
+   * Returns a sliding window, which aggregates the samples of the given period up to and including the latest
+   * sample.
+   *
+   * @param <Q>
+   *          the quantity type
+   * @param length
+   *          the length of the window, at least one millisecond.
+   * @param unit
+   *          the unit of the aggregates.
+   * @return a new sliding window
+   */
+  public static <Q extends Quantity<Q>> Sliding<Q> sliding(Quantity<Time> length, Unit<Q> unit) {
+    return new Sliding<>(length, unit);
+  }
+
+  /**
+   * Returns a tumbling window, which aggregates consecutive periods of the given length, aligned to the epoch. The
+   * aggregate of a period is passed to the given consumer, once a sample of a later period arrives or on
+   * {@link Tumbling#flush()}. Periods without samples are skipped.
+   *
+   * @param <Q>
+   *          the quantity type
+   * @param length
+   *          the length of each period, at least one millisecond.
+   * @param unit
+   *          the unit of the aggregates.
+   * @param downstream
+   *          the consumer of the aggregates.
+   * @return a new tumbling window
+   */
+  public static <Q extends Quantity<Q>> Tumbling<Q> tumbling(Quantity<Time> length, Unit<Q> unit,
+      Consumer<? super WindowAggregate<Q>> downstream) {
+    return new Tumbling<>(length, unit, downstream);
+  }
+
+  /**
+   * Returns a session window, which aggregates samples until no sample arrives for longer than the given gap. The
+   * aggregate of a session is passed to the given consumer, once a sample after the gap arrives or on
+   * {@link Session#flush()}.
+   *
+   * @param <Q>
+   *          the quantity type
+   * @param gap
+   *          the maximal gap between two samples of a session.
+   * @param unit
+   *          the unit of the aggregates.
+   * @param downstream
+   *          the consumer of the aggregates.
+   * @return a new session window
+   */
+  public static <Q extends Quantity<Q>> Session<Q> session(Quantity<Time> gap, Unit<Q> unit,
+      Consumer<? super WindowAggregate<Q>> downstream) {
+    return new Session<>(gap, unit, downstream);
+  }
+
+  /**
+   * @return the unit of the aggregates of this window.
+   */
+  public Unit<Q> getUnit() {
+    return unit;
+  }
+
+  /**
+   * Adds the given sample.
+   *
+   * @param data
+   *          the sample, not before the previous one.
+   * @throws IllegalArgumentException
+   *           if the sample is out of order
+   */
+  @Override
+  public void accept(TimedQuantityData<Q> data) {
+    accept(data.getTimestamp(), data.get());
+  }
+
+  /**
+   * Adds the given sample.
+   *
+   * @param timestamp
+   *          the timestamp in milliseconds since the epoch, not before the previous one.
+   * @param quantity
+   *          the quantity.
+   * @throws IllegalArgumentException
+   *           if the sample is out of order
+   */
+  public void accept(long timestamp, Quantity<Q> quantity) {
+    accept(timestamp, converter.convert(Objects.requireNonNull(quantity)).doubleValue());
+  }
+
+  /**
+   * Adds the given sample.
+   *
+   * @param timestamp
+   *          the timestamp in milliseconds since the epoch, not before the previous one.
+   * @param value
+   *          the value, stated in the unit of this window.
+   * @throws IllegalArgumentException
+   *           if the sample is out of order
+   */
+  public abstract void accept(long timestamp, double value);
+
+  static long toMillis(Quantity<Time> length) {
+    final long millis = length.to(TimeQuantities.MILLISECOND).getValue().longValue();
+    if (millis <= 0) {
+      throw new IllegalArgumentException("length must be at least one millisecond: " + length);
+    }
+    return millis;
+  }
+
+  static void requireOrdered(long timestamp, long previous) {
+    if (timestamp < previous) {
+      throw new IllegalArgumentException("timestamps out of order: " + timestamp + " is before " + previous);
+    }
+  }
+
+  /**
+   * A window aggregating the samples within the last period, i.e. with a timestamp {@code t} such that
+   * {@code latest - length < t <= latest}.
+   *
+   * @param <Q>
+   *          the quantity type
+   */
+  public static final class Sliding<Q extends Quantity<Q>> extends QuantityWindow<Q> {
+    private final Deque samples = new Deque();
+    private final Deque minima = new Deque();
+    private final Deque maxima = new Deque();
+    private long latest = Long.MIN_VALUE;
+    private double latestValue;
+    private double sum;
+    private double compensation;
+
+    private Sliding(Quantity<Time> length, Unit<Q> unit) {
+      super(length, unit);
+    }
+
+    @Override
+    public void accept(long timestamp, double value) {
+      requireOrdered(timestamp, latest);
+      latest = timestamp;
+      latestValue = value;
+      samples.addLast(timestamp, value);
+      add(value);
+      while (!minima.isEmpty() && minima.peekLastValue() >= value) {
+        minima.pollLast();
+      }
+      minima.addLast(timestamp, value);
+      while (!maxima.isEmpty() && maxima.peekLastValue() <= value) {
+        maxima.pollLast();
+      }
+      maxima.addLast(timestamp, value);
+      evict(timestamp - length);
+    }
+
+    /**
+     * Evicts the samples at or before the given timestamp.
+     */
+    private void evict(long timestamp) {
+      while (!samples.isEmpty() && samples.peekFirstTimestamp() <= timestamp) {
+        add(-samples.peekFirstValue());
+        samples.pollFirst();
+      }
+      if (samples.isEmpty()) {
+        sum = 0;
+        compensation = 0;
+      }
+      while (!minima.isEmpty() && minima.peekFirstTimestamp() <= timestamp) {
+        minima.pollFirst();
+      }
+      while (!maxima.isEmpty() && maxima.peekFirstTimestamp() <= timestamp) {
+        maxima.pollFirst();
+      }
+    }
+
+    // Neumaier's compensated summation
+    private void add(double value) {
+      final double t = sum + value;
+      if (Math.abs(sum) >= Math.abs(value)) {
+        compensation += (sum - t) + value;
+      } else {
+        compensation += (value - t) + sum;
+      }
+      sum = t;
+    }
+
+    /**
+     * Advances the end of this window to the given timestamp, without adding a sample. Samples at or before
+     * {@code timestamp - length} are evicted.
+     *
+     * @param timestamp
+     *          the timestamp in milliseconds since the epoch, not before the latest sample.
+     * @throws IllegalArgumentException
+     *           if the timestamp is before the latest sample
+     */
+    public void advanceTo(long timestamp) {
+      requireOrdered(timestamp, latest);
+      latest = timestamp;
+      evict(timestamp - length);
+    }
+
+    /**
+     * @return the number of samples within this window.
+     */
+    public int getCount() {
+      return samples.size();
+    }
+
+    /**
+     * @return the aggregate of the samples within this window.
+     */
+    public WindowAggregate<Q> getAggregate() {
+      final long end = latest == Long.MIN_VALUE ? 0 : latest + 1;
+      final boolean empty = samples.isEmpty();
+      return new WindowAggregate<>(getUnit(), end - length, end, samples.size(), sum + compensation,
+          empty ? Double.NaN : minima.peekFirstValue(), empty ? Double.NaN : maxima.peekFirstValue(),
+          empty ? Double.NaN : samples.peekFirstValue(), empty ? Double.NaN : latestValue);
+    }
+  }
+
+  /**
+   * A window aggregating consecutive, non-overlapping periods aligned to the epoch.
+   *
+   * @param <Q>
+   *          the quantity type
+   */
+  public static final class Tumbling<Q extends Quantity<Q>> extends QuantityWindow<Q> {
+    private final Consumer<? super WindowAggregate<Q>> downstream;
+    private final Accumulator accumulator = new Accumulator();
+    private long period = Long.MIN_VALUE;
+
+    private Tumbling(Quantity<Time> length, Unit<Q> unit, Consumer<? super WindowAggregate<Q>> downstream) {
+      super(length, unit);
+      this.downstream = Objects.requireNonNull(downstream);
+    }
+
+    @Override
+    public void accept(long timestamp, double value) {
+      final long p = Math.floorDiv(timestamp, length);
+      requireOrdered(p, period);
+      if (p != period) {
+        flush();
+        period = p;
+      }
+      accumulator.accept(value);
+    }
+
+    /**
+     * Passes the aggregate of the current period to the downstream consumer, if it has any samples.
+     */
+    public void flush() {
+      if (accumulator.count > 0) {
+        downstream.accept(accumulator.toAggregate(getUnit(), period * length, (period + 1) * length));
+        accumulator.reset();
+      }
+    }
+  }
+
+  /**
+   * A window aggregating bursts of samples separated by gaps of inactivity.
+   *
+   * @param <Q>
+   *          the quantity type
+   */
+  public static final class Session<Q extends Quantity<Q>> extends QuantityWindow<Q> {
+    private final Consumer<? super WindowAggregate<Q>> downstream;
+    private final Accumulator accumulator = new Accumulator();
+    private long first;
+    private long last = Long.MIN_VALUE;
+
+    private Session(Quantity<Time> gap, Unit<Q> unit, Consumer<? super WindowAggregate<Q>> downstream) {
+      super(gap, unit);
+      this.downstream = Objects.requireNonNull(downstream);
+    }
+
+    @Override
+    public void accept(long timestamp, double value) {
+      requireOrdered(timestamp, last);
+      if (accumulator.count > 0 && timestamp - last > length) {
+        flush();
+      }
+      if (accumulator.count == 0) {
+        first = timestamp;
+      }
+      last = timestamp;
+      accumulator.accept(value);
+    }
+
+    /**
+     * Passes the aggregate of the current session to the downstream consumer, if it has any samples.
+     */
+    public void flush() {
+      if (accumulator.count > 0) {
+        downstream.accept(accumulator.toAggregate(getUnit(), first, last + 1));
+        accumulator.reset();
+      }
+    }
+  }
+
+  /**
+   * Running count, sum, minimum and maximum of primitive values.
+   */
+  private static final class Accumulator {
+    private long count;
+    private double sum;
+    private double compensation;
+    private double min;
+    private double max;
+    private double first;
+    private double last;
+
+    private void accept(double value) {
+      if (count == 0) {
+        min = value;
+        max = value;
+        first = value;
+      } else {
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+      }
+      final double t = sum + value;
+      if (Math.abs(sum) >= Math.abs(value)) {
+        compensation += (sum - t) + value;
+      } else {
+        compensation += (value - t) + sum;
+      }
+      sum = t;
+      last = value;
+      count++;
+    }
+
+    private <Q extends Quantity<Q>> WindowAggregate<Q> toAggregate(Unit<Q> unit, long start, long end) {
+      return new WindowAggregate<>(unit, start, end, count, sum + compensation, min, max, first, last);
+    }
+
+    private void reset() {
+      count = 0;
+      sum = 0;
+      compensation = 0;
+    }
+  }
+
+  /**
+   * Growable circular buffer of timestamp and value pairs.
+   */
+  private static final class Deque {
+    private long[] timestamps = new long[16];
+    private double[] values = new double[16];
+    private int head;
+    private int size;
+
+    private boolean isEmpty() {
+      return size == 0;
+    }
+
+    private int size() {
+      return size;
+    }
+
+    private void addLast(long timestamp, double value) {
+      if (size == timestamps.length) {
+        grow();
+      }
+      final int tail = (head + size) & (timestamps.length - 1);
+      timestamps[tail] = timestamp;
+      values[tail] = value;
+      size++;
+    }
+
+    private long peekFirstTimestamp() {
+      return timestamps[head];
+    }
+
+    private double peekFirstValue() {
+      return values[head];
+    }
+
+    private double peekLastValue() {
+      return values[(head + size - 1) & (timestamps.length - 1)];
+    }
+
+    private void pollFirst() {
+      head = (head + 1) & (timestamps.length - 1);
+      size--;
+    }
+
+    private void pollLast() {
+      size--;
+    }
+
+    private void grow() {
+      final int capacity = timestamps.length * 2;
+      final long[] t = Arrays.copyOf(timestamps, capacity);
+      final double[] v = Arrays.copyOf(values, capacity);
+      // move the wrapped part [0, head) behind the old end
+      System.arraycopy(timestamps, 0, t, timestamps.length, head);
+      System.arraycopy(values, 0, v, values.length, head);
+      timestamps = t;
+      values = v;
+    }
+  }
+}
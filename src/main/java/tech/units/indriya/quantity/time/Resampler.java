@@ -0,0 +1,320 @@
+/*
+ * Units of Measurement Reference Implementation
+ * Copyright (c) 2005-2022, Jean-Marie Dautelle, Werner Keil, Otavio Santana.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions
+ *    and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of JSR-385, Indriya nor the names of their contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package tech.units.indriya.quantity.time;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import javax.measure.Quantity;
+import javax.measure.Unit;
+import javax.measure.quantity.Time;
+
+import tech.units.indriya.internal.function.ToUnitConverter;
+import tech.units.indriya.quantity.Quantities;
+
+/**
+ * Reduces time series of quantities to regular intervals.
+ * <p>
+ * {@link #resample(MeasurementSeries)} and {@link #resample(Stream)} aggregate all samples within consecutive
+ * buckets of a fixed length, aligned to the epoch, e.g. a week of per-second data into the mean of each 5-minute
+ * bucket. Buckets without samples are skipped. The result is time-stamped with the start of each bucket.
+ * {@link #interpolate(MeasurementSeries, Quantity)} and {@link #interpolate(Stream, Quantity, Unit)} instead
+ * estimate the value at each point of a regular grid by linear interpolation between adjacent samples.
+ * </p>
+ * <p>
+ * All operations work in a single pass over time-ordered input, holding no more than a constant number of samples
+ * in memory. The unit of the input is resolved once per series, not per sample.
+ * </p>
+ *
+ * @param <Q>
+ *          the quantity type
+ * @version 1.0
+ * @since 2.1.4
+ * @see QuantityWindow#tumbling(Quantity, Unit, Consumer)
+ */
+public final class Resampler<Q extends Quantity<Q>> {
+
+  /**
+   * The aggregation of the samples within a bucket.
+   */
+  public enum Aggregation {
+    /** The arithmetic mean. */
+    MEAN {
+      @Override
+      double apply(WindowAggregate<?> aggregate) {
+        return aggregate.sum() / aggregate.getCount();
+      }
+    },
+    /** The sum. */
+    SUM {
+      @Override
+      double apply(WindowAggregate<?> aggregate) {
+        return aggregate.sum();
+      }
+    },
+    /** The smallest sample. */
+    MIN {
+      @Override
+      double apply(WindowAggregate<?> aggregate) {
+        return aggregate.min();
+      }
+    },
+    /** The largest sample. */
+    MAX {
+      @Override
+      double apply(WindowAggregate<?> aggregate) {
+        return aggregate.max();
+      }
+    },
+    /** The earliest sample. */
+    FIRST {
+      @Override
+      double apply(WindowAggregate<?> aggregate) {
+        return aggregate.first();
+      }
+    },
+    /** The latest sample. */
+    LAST {
+      @Override
+      double apply(WindowAggregate<?> aggregate) {
+        return aggregate.last();
+      }
+    };
+
+    abstract double apply(WindowAggregate<?> aggregate);
+  }
+
+  private static final long NANOS_PER_MILLI = 1_000_000L;
+
+  private final Quantity<Time> bucket;
+
+  private final Unit<Q> unit;
+
+  private final Aggregation aggregation;
+
+  private Resampler(Quantity<Time> bucket, Unit<Q> unit, Aggregation aggregation) {
+    this.bucket = Objects.requireNonNull(bucket);
+    this.unit = Objects.requireNonNull(unit);
+    this.aggregation = Objects.requireNonNull(aggregation);
+  }
+
+  /**
+   * Returns a resampler.
+   *
+   * @param <Q>
+   *          the quantity type
+   * @param bucket
+   *          the length of each bucket, at least one millisecond, e.g. {@code TimeQuantities.getQuantity(5L, TimeUnit.MINUTES)}.
+   * @param unit
+   *          the unit of the result.
+   * @param aggregation
+   *          the aggregation of the samples within each bucket.
+   * @return a new resampler
+   */
+  public static <Q extends Quantity<Q>> Resampler<Q> of(Quantity<Time> bucket, Unit<Q> unit, Aggregation aggregation) {
+    QuantityWindow.toMillis(bucket); // validates the bucket length
+    return new Resampler<>(bucket, unit, aggregation);
+  }
+
+  /**
+   * Resamples the given series. Timestamps are truncated to milliseconds.
+   *
+   * @param series
+   *          the series.
+   * @return a series holding one aggregated value per non-empty bucket.
+   */
+  public MeasurementSeries<Q> resample(MeasurementSeries<Q> series) {
+    final MeasurementSeries<Q> converted = series.to(unit);
+    final MeasurementSeries.Builder<Q> builder = MeasurementSeries.builder(unit, series.getScale());
+    final QuantityWindow.Tumbling<Q> window = QuantityWindow.tumbling(bucket, unit,
+        a -> builder.add(a.getStartMillis() * NANOS_PER_MILLI, aggregation.apply(a)));
+    for (int i = 0; i < converted.size(); i++) {
+      window.accept(converted.getTimestamp(i), converted.getValue(i));
+    }
+    window.flush();
+    return builder.build();
+  }
+
+  /**
+   * Resamples the given stream lazily. The returned stream consumes the given stream as it is traversed, and closes
+   * it when closed.
+   *
+   * @param data
+   *          the time-ordered samples.
+   * @return a stream holding one aggregated sample per non-empty bucket.
+   */
+  public Stream<TimedQuantityData<Q>> resample(Stream<? extends TimedQuantityData<Q>> data) {
+    final ArrayDeque<TimedQuantityData<Q>> pending = new ArrayDeque<>();
+    final QuantityWindow.Tumbling<Q> window = QuantityWindow.tumbling(bucket, unit,
+        a -> pending.add(TimedQuantityData.of(Quantities.getQuantity(aggregation.apply(a), unit), a.getStartMillis())));
+    return pull(data, pending, window::accept, window::flush);
+  }
+
+  /**
+   * Estimates the value of the given series at every multiple of {@code step} between its first and last sample, by
+   * linear interpolation between the adjacent samples.
+   *
+   * @param <Q>
+   *          the quantity type
+   * @param series
+   *          the series.
+   * @param step
+   *          the distance of the grid points, at least one nanosecond.
+   * @return a series holding one value per grid point.
+   */
+  public static <Q extends Quantity<Q>> MeasurementSeries<Q> interpolate(MeasurementSeries<Q> series, Quantity<Time> step) {
+    final MeasurementSeries.Builder<Q> builder = MeasurementSeries.builder(series.getUnit(), series.getScale());
+    final Interpolator interpolator = new Interpolator(toNanos(step), builder::add);
+    for (int i = 0; i < series.size(); i++) {
+      interpolator.accept(series.getEpochNanos(i), series.getValue(i));
+    }
+    return builder.build();
+  }
+
+  /**
+   * Estimates the value of the given stream at every multiple of {@code step} between its first and last sample, by
+   * linear interpolation between the adjacent samples. The returned stream consumes the given stream as it is
+   * traversed, and closes it when closed.
+   *
+   * @param <Q>
+   *          the quantity type
+   * @param data
+   *          the time-ordered samples.
+   * @param step
+   *          the distance of the grid points, at least one millisecond.
+   * @param unit
+   *          the unit of the result.
+   * @return a stream holding one sample per grid point.
+   */
+  public static <Q extends Quantity<Q>> Stream<TimedQuantityData<Q>> interpolate(Stream<? extends TimedQuantityData<Q>> data,
+      Quantity<Time> step, Unit<Q> unit) {
+    final long nanos = toNanos(step);
+    if (nanos < NANOS_PER_MILLI) {
+      throw new IllegalArgumentException("step must be at least one millisecond: " + step);
+    }
+    final ToUnitConverter<Q> converter = new ToUnitConverter<>(unit);
+    final ArrayDeque<TimedQuantityData<Q>> pending = new ArrayDeque<>();
+    final Interpolator interpolator = new Interpolator(nanos,
+        (t, v) -> pending.add(TimedQuantityData.of(Quantities.getQuantity(v, unit), Math.floorDiv(t, NANOS_PER_MILLI))));
+    return pull(data, pending,
+        d -> interpolator.accept(Math.multiplyExact(d.getTimestamp(), NANOS_PER_MILLI), converter.convert(d.get()).doubleValue()),
+        () -> {
+        });
+  }
+
+  // -- HELPER
+
+  private static long toNanos(Quantity<Time> step) {
+    final long nanos = step.to(TimeQuantities.NANOSECOND).getValue().longValue();
+    if (nanos <= 0) {
+      throw new IllegalArgumentException("step must be positive: " + step);
+    }
+    return nanos;
+  }
+
+  /**
+   * Returns a lazy stream, which feeds the source into {@code sink} until {@code pending} holds a result, and runs
+   * {@code finish} once the source is exhausted.
+   */
+  private static <Q extends Quantity<Q>> Stream<TimedQuantityData<Q>> pull(Stream<? extends TimedQuantityData<Q>> source,
+      ArrayDeque<TimedQuantityData<Q>> pending, Consumer<TimedQuantityData<Q>> sink, Runnable finish) {
+    final Iterator<? extends TimedQuantityData<Q>> iterator = source.iterator();
+    final Spliterator<TimedQuantityData<Q>> spliterator = new Spliterators.AbstractSpliterator<TimedQuantityData<Q>>(
+        Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+      private boolean finished;
+
+      @Override
+      public boolean tryAdvance(Consumer<? super TimedQuantityData<Q>> action) {
+        while (pending.isEmpty() && !finished) {
+          if (iterator.hasNext()) {
+            sink.accept(iterator.next());
+          } else {
+            finish.run();
+            finished = true;
+          }
+        }
+        if (pending.isEmpty()) {
+          return false;
+        }
+        action.accept(pending.poll());
+        return true;
+      }
+    };
+    return StreamSupport.stream(spliterator, false).onClose(source::close);
+  }
+
+  private interface Sink {
+    void accept(long epochNanos, double value);
+  }
+
+  /**
+   * Linear interpolation of time-ordered samples onto the multiples of a step, in nanoseconds.
+   */
+  private static final class Interpolator {
+    private final long step;
+    private final Sink sink;
+    private boolean started;
+    private long grid;
+    private long previousTime;
+    private double previousValue;
+
+    private Interpolator(long step, Sink sink) {
+      this.step = step;
+      this.sink = sink;
+    }
+
+    private void accept(long time, double value) {
+      if (!started) {
+        grid = Math.floorDiv(time, step) * step;
+        if (grid < time) {
+          grid += step;
+        }
+        started = true;
+      } else {
+        QuantityWindow.requireOrdered(time, previousTime);
+      }
+      while (grid <= time) {
+        // grid > previousTime holds here, so time > previousTime
+        final double interpolated = grid == time ? value
+            : previousValue + (value - previousValue) * (grid - previousTime) / (time - previousTime);
+        sink.accept(grid, interpolated);
+        grid += step;
+      }
+      previousTime = time;
+      previousValue = value;
+    }
+  }
+}
@@ -0,0 +1,221 @@
+/*
+ * Units of Measurement Reference Implementation
+ * Copyright (c) 2005-2022, Jean-Marie Dautelle, Werner Keil, Otavio Santana.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions
+ *    and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of JSR-385, Indriya nor the names of their contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package tech.units.indriya.quantity.time;
+
+import java.time.Instant;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+import javax.measure.Quantity;
+import javax.measure.Unit;
+
+import tech.units.indriya.ComparableQuantity;
+import tech.units.indriya.quantity.Quantities;
+
+/**
+ * The count, sum, mean, minimum, maximum, first and last of the quantities within a time window, as computed by a
+ * {@link QuantityWindow}.
+ * <p>
+ * The window covers the instants from {@link #getStart()}, inclusive, to {@link #getEnd()}, exclusive.
+ * </p>
+ *
+ * @param <Q>
+ *          the quantity type
+ * @version 1.0
+ * @since 2.1.4
+ */
+public final class WindowAggregate<Q extends Quantity<Q>> {
+  private final Unit<Q> unit;
+  private final long start;
+  private final long end;
+  private final long count;
+  private final double sum;
+  private final double min;
+  private final double max;
+  private final double first;
+  private final double last;
+
+  WindowAggregate(Unit<Q> unit, long start, long end, long count, double sum, double min, double max, double first,
+      double last) {
+    this.unit = unit;
+    this.start = start;
+    this.end = end;
+    this.count = count;
+    this.sum = sum;
+    this.min = min;
+    this.max = max;
+    this.first = first;
+    this.last = last;
+  }
+
+  /**
+   * @return the unit of all quantities of this aggregate.
+   */
+  public Unit<Q> getUnit() {
+    return unit;
+  }
+
+  /**
+   * @return the first instant covered by the window, inclusive.
+   */
+  public Instant getStart() {
+    return Instant.ofEpochMilli(start);
+  }
+
+  /**
+   * @return the end of the window, exclusive.
+   */
+  public Instant getEnd() {
+    return Instant.ofEpochMilli(end);
+  }
+
+  /**
+   * @return the number of quantities within the window.
+   */
+  public long getCount() {
+    return count;
+  }
+
+  /**
+   * @return the sum of the quantities within the window.
+   */
+  public ComparableQuantity<Q> getSum() {
+    return Quantities.getQuantity(sum, unit);
+  }
+
+  /**
+   * @return the arithmetic mean of the quantities within the window.
+   * @throws NoSuchElementException
+   *           if the window is empty
+   */
+  public ComparableQuantity<Q> getMean() {
+    requireNonEmpty();
+    return Quantities.getQuantity(sum / count, unit);
+  }
+
+  /**
+   * @return the smallest quantity within the window.
+   * @throws NoSuchElementException
+   *           if the window is empty
+   */
+  public ComparableQuantity<Q> getMin() {
+    requireNonEmpty();
+    return Quantities.getQuantity(min, unit);
+  }
+
+  /**
+   * @return the largest quantity within the window.
+   * @throws NoSuchElementException
+   *           if the window is empty
+   */
+  public ComparableQuantity<Q> getMax() {
+    requireNonEmpty();
+    return Quantities.getQuantity(max, unit);
+  }
+
+  /**
+   * @return the earliest quantity within the window.
+   * @throws NoSuchElementException
+   *           if the window is empty
+   */
+  public ComparableQuantity<Q> getFirst() {
+    requireNonEmpty();
+    return Quantities.getQuantity(first, unit);
+  }
+
+  /**
+   * @return the latest quantity within the window.
+   * @throws NoSuchElementException
+   *           if the window is empty
+   */
+  public ComparableQuantity<Q> getLast() {
+    requireNonEmpty();
+    return Quantities.getQuantity(last, unit);
+  }
+
+  long getStartMillis() {
+    return start;
+  }
+
+  double sum() {
+    return sum;
+  }
+
+  double min() {
+    return min;
+  }
+
+  double max() {
+    return max;
+  }
+
+  double first() {
+    return first;
+  }
+
+  double last() {
+    return last;
+  }
+
+  private void requireNonEmpty() {
+    if (count == 0) {
+      throw new NoSuchElementException("window is empty");
+    }
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj instanceof WindowAggregate<?>) {
+      final WindowAggregate<?> other = (WindowAggregate<?>) obj;
+      return unit.equals(other.unit) && start == other.start && end == other.end && count == other.count
+          && Double.compare(sum, other.sum) == 0 && Double.compare(min, other.min) == 0 && Double.compare(max, other.max) == 0
+          && Double.compare(first, other.first) == 0 && Double.compare(last, other.last) == 0;
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(unit, start, end, count, sum, min, max, first, last);
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder sb = new StringBuilder().append("start= ").append(getStart()).append(", end= ").append(getEnd())
+        .append(", count= ").append(count);
+    if (count > 0) {
+      sb.append(", mean= ").append(getMean()).append(", min= ").append(getMin()).append(", max= ").append(getMax());
+    }
+    return sb.toString();
+  }
+}
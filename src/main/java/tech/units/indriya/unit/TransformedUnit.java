@@ -151,6 +151,7 @@ public final class TransformedUnit<Q extends Quantity<Q>> extends AbstractUnit<Q
    * @since 2.0
    */
   public TransformedUnit(String symbol, String name, Unit<Q> parentUnit, Unit<Q> sysUnit, UnitConverter unitConverter) {
+    super(symbol);
     if (parentUnit instanceof AbstractUnit) {
       final AbstractUnit<Q> abParent = (AbstractUnit<Q>) parentUnit;
 
@@ -161,7 +162,6 @@ public final class TransformedUnit<Q extends Quantity<Q>> extends AbstractUnit<Q
       // }
       this.parentUnit = abParent;
       this.converter = unitConverter;
-      setSymbol(symbol);
       // see https://github.com/unitsofmeasurement/uom-se/issues/54
       setName(name);
     } else {
@@ -0,0 +1,400 @@
+/*
+ * Units of Measurement Reference Implementation
+ * Copyright (c) 2005-2022, Jean-Marie Dautelle, Werner Keil, Otavio Santana.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions
+ *    and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of JSR-385, Indriya nor the names of their contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package tech.units.indriya.unit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import javax.measure.Dimension;
+import javax.measure.IncommensurableException;
+import javax.measure.UnconvertibleException;
+import javax.measure.Unit;
+import javax.measure.UnitConverter;
+import javax.measure.spi.SystemOfUnits;
+
+import tech.units.indriya.function.AddConverter;
+import tech.units.indriya.function.MultiplyConverter;
+
+/**
+ * A catalog of units, which assigns dense integer ids to its units and precomputes the converters between all units
+ * of the same dimension.
+ * <p>
+ * Once the ids of the source and target unit are known, {@link #convert(double, int, int)} looks up the conversion
+ * within a matrix, without any hashing. Conversions consisting of additions and multiplications only, e.g. from
+ * {@code °C} to {@code K}, are precomputed as a pair of double factor and offset.
+ * </p>
+ * <p>
+ * The ids of a catalog are assigned in order of registration and never change. The units of a
+ * {@link SystemOfUnits} are registered in order of their string representation. Further units can be
+ * {@link #register(Unit) registered} at runtime: registration copies the affected parts of the catalog, such that
+ * concurrent readers are never blocked and always see a consistent catalog.
+ * </p>
+ *
+ * @version 1.0
+ * @since 2.1.4
+ */
+public final class UnitCatalog {
+
+	/**
+	 * An immutable state of the catalog.
+	 */
+	private static final class Snapshot {
+		private final Unit<?>[] units;
+		private final Map<Unit<?>, Integer> ids;
+		private final int[] groupOf;
+		private final int[] memberOf;
+		private final Group[] groups;
+
+		private Snapshot(Unit<?>[] units, Map<Unit<?>, Integer> ids, int[] groupOf, int[] memberOf, Group[] groups) {
+			this.units = units;
+			this.ids = ids;
+			this.groupOf = groupOf;
+			this.memberOf = memberOf;
+			this.groups = groups;
+		}
+	}
+
+	/**
+	 * The units of a dimension and the conversions between them, indexed by their position within the group.
+	 */
+	private static final class Group {
+		private final Dimension dimension;
+		private final Unit<?>[] members;
+		private final UnitConverter[][] converters;
+		// NaN where the conversion is not affine
+		private final double[][] factors;
+		private final double[][] offsets;
+
+		private Group(Dimension dimension, Unit<?>[] members, UnitConverter[][] converters, double[][] factors,
+				double[][] offsets) {
+			this.dimension = dimension;
+			this.members = members;
+			this.converters = converters;
+			this.factors = factors;
+			this.offsets = offsets;
+		}
+
+		/**
+		 * @return a copy of this group, with the given unit appended
+		 */
+		private Group with(Unit<?> unit) {
+			final int n = members.length;
+			final Unit<?>[] newMembers = Arrays.copyOf(members, n + 1);
+			newMembers[n] = unit;
+			final UnitConverter[][] newConverters = new UnitConverter[n + 1][];
+			final double[][] newFactors = new double[n + 1][];
+			final double[][] newOffsets = new double[n + 1][];
+			for (int i = 0; i <= n; i++) {
+				newConverters[i] = i < n ? Arrays.copyOf(converters[i], n + 1) : new UnitConverter[n + 1];
+				newFactors[i] = i < n ? Arrays.copyOf(factors[i], n + 1) : new double[n + 1];
+				newOffsets[i] = i < n ? Arrays.copyOf(offsets[i], n + 1) : new double[n + 1];
+			}
+			final Group group = new Group(dimension, newMembers, newConverters, newFactors, newOffsets);
+			for (int i = 0; i <= n; i++) {
+				group.put(i, n);
+				group.put(n, i);
+			}
+			return group;
+		}
+
+		private void put(int from, int to) {
+			UnitConverter converter;
+			try {
+				converter = members[from].getConverterToAny(members[to]);
+			} catch (IncommensurableException | UnconvertibleException e) {
+				converter = null;
+			}
+			converters[from][to] = converter;
+			if (converter != null && converter.isIdentity()) {
+				factors[from][to] = 1;
+				offsets[from][to] = -0d; // x * 1 + -0 == x, also for x == -0
+			} else if (converter != null && isAffine(converter)) {
+				final double offset = converter.convert(0d);
+				factors[from][to] = converter.convert(1d) - offset;
+				offsets[from][to] = offset;
+			} else {
+				factors[from][to] = Double.NaN;
+			}
+		}
+
+		private static boolean isAffine(UnitConverter converter) {
+			for (UnitConverter step : converter.getConversionSteps()) {
+				if (!(step.isIdentity() || step instanceof AddConverter || step instanceof MultiplyConverter)) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+	private volatile Snapshot snapshot = new Snapshot(new Unit<?>[0], new HashMap<>(), new int[0], new int[0],
+			new Group[0]);
+
+	private UnitCatalog() {
+	}
+
+	/**
+	 * Returns a new catalog of the units of the given system and the given extra units.
+	 *
+	 * @param system
+	 *            the system of units.
+	 * @param extras
+	 *            further units, registered after the units of the system.
+	 * @return a new catalog
+	 */
+	public static UnitCatalog of(SystemOfUnits system, Unit<?>... extras) {
+		final List<Unit<?>> units = new ArrayList<>(system.getUnits());
+		units.sort(Comparator.comparing(Object::toString));
+		units.addAll(Arrays.asList(extras));
+		return of(units);
+	}
+
+	/**
+	 * Returns a new catalog of the given units, registered in iteration order.
+	 *
+	 * @param units
+	 *            the units.
+	 * @return a new catalog
+	 */
+	public static UnitCatalog of(Collection<? extends Unit<?>> units) {
+		final UnitCatalog catalog = new UnitCatalog();
+		catalog.registerAll(units);
+		return catalog;
+	}
+
+	/**
+	 * Registers the given unit, unless it is registered already.
+	 *
+	 * @param unit
+	 *            the unit.
+	 * @return the id of the unit
+	 */
+	public int register(Unit<?> unit) {
+		return registerAll(Arrays.asList(unit))[0];
+	}
+
+	/**
+	 * Registers the given units, unless they are registered already. The units become visible to readers at once.
+	 *
+	 * @param units
+	 *            the units.
+	 * @return the ids of the units, in iteration order
+	 */
+	public synchronized int[] registerAll(Collection<? extends Unit<?>> units) {
+		final Snapshot current = snapshot;
+		final int[] result = new int[units.size()];
+		List<Unit<?>> all = null;
+		Map<Unit<?>, Integer> ids = null;
+		int[] groupOf = current.groupOf;
+		int[] memberOf = current.memberOf;
+		Group[] groups = current.groups;
+		int i = 0;
+		for (Unit<?> unit : units) {
+			Integer id = (ids != null ? ids : current.ids).get(Objects.requireNonNull(unit));
+			if (id == null) {
+				if (ids == null) {
+					all = new ArrayList<>(Arrays.asList(current.units));
+					ids = new HashMap<>(current.ids);
+					groupOf = Arrays.copyOf(groupOf, groupOf.length + units.size());
+					memberOf = Arrays.copyOf(memberOf, memberOf.length + units.size());
+					groups = groups.clone();
+				}
+				id = all.size();
+				all.add(unit);
+				ids.put(unit, id);
+				int g = 0;
+				while (g < groups.length && !groups[g].dimension.equals(unit.getDimension())) {
+					g++;
+				}
+				if (g == groups.length) {
+					groups = Arrays.copyOf(groups, g + 1);
+					groups[g] = new Group(unit.getDimension(), new Unit<?>[0], new UnitConverter[0][],
+							new double[0][], new double[0][]);
+				}
+				groupOf[id] = g;
+				memberOf[id] = groups[g].members.length;
+				groups[g] = groups[g].with(unit);
+			}
+			result[i++] = id;
+		}
+		if (ids != null) {
+			snapshot = new Snapshot(all.toArray(new Unit<?>[0]), ids, Arrays.copyOf(groupOf, all.size()),
+					Arrays.copyOf(memberOf, all.size()), groups);
+		}
+		return result;
+	}
+
+	/**
+	 * @return the number of units of this catalog.
+	 */
+	public int size() {
+		return snapshot.units.length;
+	}
+
+	/**
+	 * Returns the id of the given unit, to be looked up once, outside of any hot loop.
+	 *
+	 * @param unit
+	 *            the unit.
+	 * @return the id of the unit, or {@code -1} if the unit is not registered
+	 */
+	public int getId(Unit<?> unit) {
+		final Integer id = snapshot.ids.get(unit);
+		return id == null ? -1 : id;
+	}
+
+	/**
+	 * @param id
+	 *            the id.
+	 * @return the unit with the given id.
+	 * @throws IndexOutOfBoundsException
+	 *             if there is no unit with the given id
+	 */
+	public Unit<?> getUnit(int id) {
+		return snapshot.units[id];
+	}
+
+	/**
+	 * @param fromId
+	 *            the id of the source unit.
+	 * @param toId
+	 *            the id of the target unit.
+	 * @return whether values can be converted between the given units.
+	 * @throws IndexOutOfBoundsException
+	 *             if there is no unit with one of the given ids
+	 */
+	public boolean isConvertible(int fromId, int toId) {
+		final Snapshot s = snapshot;
+		final int group = s.groupOf[fromId];
+		return group == s.groupOf[toId] && s.groups[group].converters[s.memberOf[fromId]][s.memberOf[toId]] != null;
+	}
+
+	/**
+	 * @param fromId
+	 *            the id of the source unit.
+	 * @param toId
+	 *            the id of the target unit.
+	 * @return the converter between the given units.
+	 * @throws IndexOutOfBoundsException
+	 *             if there is no unit with one of the given ids
+	 * @throws UnconvertibleException
+	 *             if the units are not convertible
+	 */
+	public UnitConverter getConverter(int fromId, int toId) {
+		final Snapshot s = snapshot;
+		return converter(s, s.groups[s.groupOf[fromId]], fromId, toId);
+	}
+
+	/**
+	 * Converts the given value between the given units.
+	 *
+	 * @param value
+	 *            the value.
+	 * @param fromId
+	 *            the id of the source unit.
+	 * @param toId
+	 *            the id of the target unit.
+	 * @return the converted value
+	 * @throws IndexOutOfBoundsException
+	 *             if there is no unit with one of the given ids
+	 * @throws UnconvertibleException
+	 *             if the units are not convertible
+	 */
+	public double convert(double value, int fromId, int toId) {
+		final Snapshot s = snapshot;
+		final Group group = s.groups[s.groupOf[fromId]];
+		if (s.groupOf[toId] == s.groupOf[fromId]) {
+			final int from = s.memberOf[fromId];
+			final int to = s.memberOf[toId];
+			final double factor = group.factors[from][to];
+			if (factor == factor) { // not NaN
+				return value * factor + group.offsets[from][to];
+			}
+		}
+		return converter(s, group, fromId, toId).convert(value);
+	}
+
+	/**
+	 * Converts the given values in place between the given units.
+	 *
+	 * @param values
+	 *            the values.
+	 * @param fromId
+	 *            the id of the source unit.
+	 * @param toId
+	 *            the id of the target unit.
+	 * @throws IndexOutOfBoundsException
+	 *             if there is no unit with one of the given ids
+	 * @throws UnconvertibleException
+	 *             if the units are not convertible
+	 */
+	public void convert(double[] values, int fromId, int toId) {
+		final Snapshot s = snapshot;
+		final Group group = s.groups[s.groupOf[fromId]];
+		if (s.groupOf[toId] == s.groupOf[fromId]) {
+			final int from = s.memberOf[fromId];
+			final int to = s.memberOf[toId];
+			final double factor = group.factors[from][to];
+			if (factor == factor) { // not NaN
+				final double offset = group.offsets[from][to];
+				for (int i = 0; i < values.length; i++) {
+					values[i] = values[i] * factor + offset;
+				}
+				return;
+			}
+		}
+		final UnitConverter converter = converter(s, group, fromId, toId);
+		for (int i = 0; i < values.length; i++) {
+			values[i] = converter.convert(values[i]);
+		}
+	}
+
+	private static UnitConverter converter(Snapshot s, Group group, int fromId, int toId) {
+		final UnitConverter converter = s.groupOf[toId] == s.groupOf[fromId]
+				? group.converters[s.memberOf[fromId]][s.memberOf[toId]]
+				: null;
+		if (converter == null) {
+			throw new UnconvertibleException(s.units[fromId] + " is not convertible to " + s.units[toId]);
+		}
+		return converter;
+	}
+
+	@Override
+	public String toString() {
+		final Snapshot s = snapshot;
+		return "UnitCatalog[units=" + s.units.length + ", dimensions=" + s.groups.length + "]";
+	}
+}
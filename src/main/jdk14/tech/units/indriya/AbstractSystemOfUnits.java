@@ -43,6 +43,7 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import javax.measure.Dimension;
@@ -75,6 +76,11 @@ public abstract class AbstractSystemOfUnits implements SystemOfUnits, Nameable {
 	@SuppressWarnings("rawtypes")
 	protected final Map<Class<? extends Quantity>, Unit> quantityToUnit = new HashMap<>();
 
+	/**
+	 * Holds the indexes of the units, rebuilt when units are added or relabeled.
+	 */
+	private volatile UnitIndex index;
+
 	protected static final Logger logger = System.getLogger(AbstractSystemOfUnits.class.getPackage().getName());
 
 	/**
@@ -99,8 +105,8 @@ public abstract class AbstractSystemOfUnits implements SystemOfUnits, Nameable {
 
 	@Override
 	public Set<? extends Unit<?>> getUnits(Dimension dimension) {
-		return this.getUnits().stream().filter(unit -> dimension.equals(unit.getDimension()))
-				.collect(Collectors.toSet());
+		// a copy, as callers may modify the result
+		return new HashSet<>(index().getUnits(dimension));
 	}
 
 	/*
@@ -122,7 +128,12 @@ public abstract class AbstractSystemOfUnits implements SystemOfUnits, Nameable {
 	@Override
 	public Unit<?> getUnit(String string) {
 		Objects.requireNonNull(string);
-		return this.getUnits().stream().filter((u) -> string.equals(u.toString())).findAny().orElse(null);
+		final Unit<?> unit = index().getUnit(string);
+		if (unit != null) {
+			return unit;
+		}
+		// units replaced without changing their number are not seen by the index
+		return units.stream().filter(u -> string.equals(u.toString())).findAny().orElse(null);
 	}
 
 	/**
@@ -135,7 +146,7 @@ public abstract class AbstractSystemOfUnits implements SystemOfUnits, Nameable {
 	 * <b>NOTE:</b> Use {@code ignoreCase} carefully, as it will find the
 	 * <b>FIRST</b> unit for a particular string, e.g. the symbol of {@code SECOND}
 	 * and {@code SIEMENS} would be the same without case, but the UPPERCASE letter
-	 * sorted first.
+	 * sorted first. A unit matching the exact case is always preferred.
 	 * </p>
 	 *
 	 * @param string     the string representation of a unit, not {@code null}.
@@ -149,19 +160,15 @@ public abstract class AbstractSystemOfUnits implements SystemOfUnits, Nameable {
 		Unit<?> result;
 		switch (style) {
 			case NAME -> {
-				if (ignoreCase) {
-					result = this.getUnits().stream().filter((u) -> string.equalsIgnoreCase(u.getName())).findFirst()
-							.orElse(null);
-				} else {
-					result = this.getUnits().stream().filter((u) -> string.equals(u.getName())).findFirst().orElse(null);
+				result = index().getUnitByName(string, ignoreCase);
+				if (result == null) {
+					result = find(string, Unit::getName, ignoreCase);
 				}
 			}
 			case SYMBOL -> {
-				if (ignoreCase) {
-					result = this.getUnits().stream().filter((u) -> string.equalsIgnoreCase(u.getSymbol())).findFirst()
-							.orElse(null);
-				} else {
-					result = this.getUnits().stream().filter((u) -> string.equals(u.getSymbol())).findFirst().orElse(null);
+				result = index().getUnitBySymbol(string, ignoreCase);
+				if (result == null) {
+					result = find(string, Unit::getSymbol, ignoreCase);
 				}
 			}
 			default -> result = getUnit(string);
@@ -183,6 +190,25 @@ public abstract class AbstractSystemOfUnits implements SystemOfUnits, Nameable {
 		return getUnit(string, style, false);
 	}
 
+	/**
+	 * Scans all units for the given name or symbol, as units replaced without
+	 * changing their number are not seen by the index.
+	 */
+	private Unit<?> find(String string, Function<Unit<?>, String> representation, boolean ignoreCase) {
+		return units.stream().filter(u -> ignoreCase ? string.equalsIgnoreCase(representation.apply(u))
+				: string.equals(representation.apply(u))).findFirst().orElse(null);
+	}
+
+	/**
+	 * Returns the indexes of the units, which are built on first use and rebuilt
+	 * whenever the number of units or any label, alias or symbol has changed since.
+	 */
+	private UnitIndex index() {
+		final UnitIndex current = UnitIndex.of(units, index);
+		index = current;
+		return current;
+	}
+
 	protected static class Helper {
 		static Set<Unit<?>> getUnitsOfDimension(final Set<Unit<?>> units, Dimension dimension) {
 			if (dimension != null) {
@@ -29,22 +29,40 @@
  */
 package tech.units.indriya;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.lang.ref.WeakReference;
 import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
 import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import javax.measure.Quantity;
+import javax.measure.quantity.Energy;
 import javax.measure.quantity.Length;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import tech.units.indriya.format.QuantityCodec;
+import tech.units.indriya.function.QuantityAdder;
+import tech.units.indriya.function.QuantityKernels;
 import tech.units.indriya.function.RationalNumber;
 import tech.units.indriya.quantity.Quantities;
+import tech.units.indriya.quantity.QuantityVector;
 import tech.units.indriya.unit.Units;
 
 class IndriyaPerformanceTest {
@@ -147,6 +165,120 @@ class IndriyaPerformanceTest {
 
     }
     
+    @Test
+    void testConcurrentAdd() throws Exception {
+
+        print("-- CONCURRENT ADD");
+
+        final int count = (int) 10E4;
+        final Quantity<Energy> kiloJoule = Quantities.getQuantity(1.5, Units.JOULE.multiply(1000));
+
+        for (int threads = 1; threads <= 8; threads *= 2) {
+            final AtomicReference<Quantity<Energy>> ref = new AtomicReference<>(Quantities.getQuantity(0, Units.JOULE));
+            print(threads + " threads, atomic reference " 
+                    + runConcurrently(threads, count, __ -> ref.accumulateAndGet(kiloJoule, Quantity::add)));
+
+            final QuantityAdder<Energy> adder = new QuantityAdder<>(Units.JOULE);
+            print(threads + " threads, quantity adder " 
+                    + runConcurrently(threads, count, __ -> adder.add(kiloJoule)));
+            _Blackhole.consume(adder.sum());
+        }
+    }
+
+    @Test
+    void testParallelSum() throws Exception {
+
+        print("-- PARALLEL SUM");
+
+        // about 240 leaves of the kernels, at least 15 per thread
+        final int count = (int) 1E6;
+        final List<Quantity<Length>> quantities = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            quantities.add(Quantities.getQuantity(i * 0.5, i % 2 == 0 ? Units.METRE : Units.METRE.divide(100)));
+        }
+        final QuantityVector<Length> vector = QuantityKernels.convert(quantities, Units.METRE);
+
+        for (int threads = 1; threads <= 16; threads *= 2) {
+            final ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                final _StopWatch t = new _StopWatch();
+                _Blackhole.consume(pool.submit(() -> quantities.parallelStream().reduce(Quantity::add)).get());
+                print(threads + " threads, parallel stream " + t.stop());
+
+                t.start();
+                _Blackhole.consume(pool.submit(() -> QuantityKernels.sum(quantities, Units.METRE)).get());
+                print(threads + " threads, list kernel " + t.stop());
+
+                t.start();
+                _Blackhole.consume(pool.submit(() -> QuantityKernels.sum(vector)).get());
+                print(threads + " threads, vector kernel " + t.stop());
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    @Test
+    void testCodec() throws Exception {
+
+        print("-- CODEC");
+
+        final int count = (int) 10E3;
+        final List<Quantity<?>> quantities = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            quantities.add(i % 2 == 0 ? Quantities.getQuantity(i * 0.5, Units.METRE) 
+                    : Quantities.getQuantity(RationalNumber.of(i, 7), Units.KILOGRAM));
+        }
+        final QuantityCodec codec = QuantityCodec.of(Units.METRE);
+
+        final _StopWatch t = new _StopWatch();
+        final ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(serialized)) {
+            for (Quantity<?> quantity : quantities) {
+                out.writeObject(quantity);
+            }
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serialized.toByteArray()))) {
+            for (int i = 0; i < count; i++) {
+                _Blackhole.consume(in.readObject());
+            }
+        }
+        print("java serialization " + t.stop() + ", " + serialized.size() + " bytes");
+
+        t.start();
+        final ByteBuffer buffer = ByteBuffer.allocate(count * 32);
+        for (Quantity<?> quantity : quantities) {
+            codec.encode(quantity, buffer);
+        }
+        final int size = buffer.position();
+        buffer.flip();
+        for (int i = 0; i < count; i++) {
+            _Blackhole.consume(codec.decode(buffer));
+        }
+        print("quantity codec " + t.stop() + ", " + size + " bytes");
+    }
+
+    private static _StopWatch runConcurrently(int threads, int countPerThread, Consumer<Integer> action) throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final Future<?>[] futures = new Future<?>[threads];
+            final _StopWatch t = new _StopWatch();
+            for (int i = 0; i < threads; i++) {
+                futures[i] = executor.submit(() -> {
+                    for (int j = 0; j < countPerThread; j++) {
+                        action.accept(j);
+                    }
+                });
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            return t.stop();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     // -- HELPER
     
     private static final class _Blackhole {
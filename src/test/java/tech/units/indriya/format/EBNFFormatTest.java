@@ -77,6 +77,16 @@ public class EBNFFormatTest {
         assertEquals("km", u.toString());
     }
 
+    @Test
+    public void testParseKmCached() {
+        final EBNFUnitFormat ebnf = new EBNFUnitFormat();
+        final Unit<?> km = ebnf.parse("km");
+        final long hits = ebnf.getParseCacheHitCount();
+        assertEquals(km, ebnf.parse("km"));
+        assertEquals(hits + 1, ebnf.getParseCacheHitCount());
+        assertEquals(1, ebnf.getParseCacheMissCount());
+    }
+
     @Test
     public void testParseInverseM() {
         Unit<?> u = format.parse("1/m");
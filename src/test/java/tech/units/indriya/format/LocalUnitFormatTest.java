@@ -30,6 +30,9 @@
 package tech.units.indriya.format;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static javax.measure.MetricPrefix.*;
 import static tech.units.indriya.unit.Units.*;
@@ -191,4 +194,26 @@ public class LocalUnitFormatTest {
 		String s = format.format(YEAR);
 		assertEquals("jahr", s);
 	}
+
+	@Test
+	public void testGetInstanceCachedPerLocale() {
+		assertSame(LocalUnitFormat.getInstance(Locale.GERMAN), LocalUnitFormat.getInstance(new Locale("de")));
+		assertNotSame(LocalUnitFormat.getInstance(Locale.GERMAN), LocalUnitFormat.getInstance(new Locale("sv")));
+	}
+
+	@Test
+	public void testGetInstanceSharedPerBundle() {
+		assertSame(LocalUnitFormat.getInstance(Locale.GERMAN), LocalUnitFormat.getInstance(Locale.forLanguageTag("de-AT-x-foo")));
+		assertSame(LocalUnitFormat.getInstance(Locale.GERMAN), LocalUnitFormat.getInstance(Locale.forLanguageTag("de-CH")));
+	}
+
+	@Test
+	public void testFormatProductOrderCached() {
+		final UnitFormat format = LocalUnitFormat.getInstance();
+		final String sm = format.format(SECOND.multiply(METRE));
+		final String ms = format.format(METRE.multiply(SECOND));
+		assertNotEquals(ms, sm);
+		assertEquals(sm, format.format(SECOND.multiply(METRE)));
+		assertEquals(ms, format.format(METRE.multiply(SECOND)));
+	}
 }
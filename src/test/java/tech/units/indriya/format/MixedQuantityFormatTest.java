@@ -51,6 +51,8 @@ import java.text.NumberFormat;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Random;
+import java.util.regex.Pattern;
 
 import javax.measure.Quantity;
 import javax.measure.format.QuantityFormat;
@@ -403,4 +405,47 @@ public class MixedQuantityFormatTest {
         // then
         NumberAssertions.assertNumberEquals(1.1666666666666667, lengthSingle.getValue(), 1E-9);
     }
+
+    private static Object parseMixedOrFailure(String source, String delimiter, String mixDelimiter) {
+        try {
+            return mixDelimiter != null
+                    ? CommonFormatter.parseMixed(source, NumberFormat.getInstance(Locale.ROOT), SimpleUnitFormat.getInstance(), delimiter, mixDelimiter)
+                    : CommonFormatter.parseMixed(source, NumberFormat.getInstance(Locale.ROOT), SimpleUnitFormat.getInstance(), delimiter);
+        } catch (RuntimeException e) {
+            return e.getClass();
+        }
+    }
+
+    /**
+     * Compares parsing with literal delimiters, which are searched in place, and the same delimiters quoted as regular
+     * expressions, which are split.
+     */
+    @Test
+    public void mixedParsingLiteralDelimiters() {
+        final String[] numbers = { "1", "25", "0.5", "x", "" };
+        final String[] units = { "m", "km", "ft", "in", "h", "" };
+        final String[] separators = { " ", " ", "  ", ";", "; ", "ab", "aba", "" };
+        final String[][] delimiters = { { " ", null }, { " ", ";" }, { " ", "; " }, { "ab", null }, { "ab", "aba" }, { " ", " " } };
+        final Random random = new Random(385);
+        final StringBuilder source = new StringBuilder();
+        for (int n = 0; n < 5000; n++) {
+            source.setLength(0);
+            final int length = 1 + random.nextInt(8);
+            for (int i = 0; i < length; i++) {
+                source.append(i % 2 == 0 ? numbers[random.nextInt(numbers.length)] : units[random.nextInt(units.length)]);
+                source.append(separators[random.nextInt(separators.length)]);
+            }
+            final String[] delimiter = delimiters[n % delimiters.length];
+            final String text = source.toString();
+            assertEquals(text, parseMixedOrFailure(text, Pattern.quote(delimiter[0]), delimiter[1] != null ? Pattern.quote(delimiter[1]) : null),
+                    parseMixedOrFailure(text, delimiter[0], delimiter[1]));
+        }
+    }
+
+    @Test
+    public void mixedFormattingAppends() {
+        final MixedQuantity<Length> mixed = MixedQuantity.of(Quantities.getQuantity(1, FOOT), Quantities.getQuantity(2, INCH));
+        final StringBuffer dest = new StringBuffer("length: ");
+        assertEquals("length: 1 ft 2 in", SimpleQuantityFormat.getInstance().format(mixed, dest, new java.text.FieldPosition(0)).toString());
+    }
 }
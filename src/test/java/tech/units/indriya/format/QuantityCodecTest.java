@@ -0,0 +1,196 @@
+/*
+ * Units of Measurement Reference Implementation
+ * Copyright (c) 2005-2022, Jean-Marie Dautelle, Werner Keil, Otavio Santana.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions
+ *    and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of JSR-385, Indriya nor the names of their contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package tech.units.indriya.format;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static tech.units.indriya.unit.Units.CELSIUS;
+import static tech.units.indriya.unit.Units.KILOGRAM;
+import static tech.units.indriya.unit.Units.METRE;
+import static tech.units.indriya.unit.Units.SECOND;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.measure.Quantity;
+import javax.measure.Quantity.Scale;
+
+import org.junit.jupiter.api.Test;
+
+import tech.units.indriya.function.RationalNumber;
+import tech.units.indriya.quantity.Quantities;
+import tech.units.indriya.unit.Units;
+
+/**
+ * Unit tests on the {@code QuantityCodec} class.
+ */
+public class QuantityCodecTest {
+
+  private static final QuantityCodec CODEC = QuantityCodec.of(METRE, SECOND, CELSIUS);
+
+  private static final List<Quantity<?>> QUANTITIES = Arrays.asList(
+      Quantities.getQuantity(0, METRE),
+      Quantities.getQuantity(-1, SECOND),
+      Quantities.getQuantity(Integer.MIN_VALUE, METRE),
+      Quantities.getQuantity(Long.MAX_VALUE, METRE),
+      Quantities.getQuantity(Long.MIN_VALUE, SECOND),
+      Quantities.getQuantity(1.5f, METRE),
+      Quantities.getQuantity(-273.15, CELSIUS),
+      Quantities.getQuantity(new BigInteger("-123456789012345678901234567890"), METRE),
+      Quantities.getQuantity(new BigDecimal("1234.5678E-30"), KILOGRAM),
+      Quantities.getQuantity(new BigDecimal("-1E+5"), KILOGRAM),
+      Quantities.getQuantity(RationalNumber.of(-22, 7), METRE.divide(SECOND)),
+      Quantities.getQuantity(5, CELSIUS, Scale.RELATIVE),
+      Quantities.getQuantity(3, Units.KILOMETRE_PER_HOUR),
+      Quantities.getQuantity(7, METRE.multiply(1000).divide(SECOND.pow(2))));
+
+  private static void assertRoundTrip(Quantity<?> expected, Quantity<?> actual) {
+    assertEquals(expected.getUnit(), actual.getUnit());
+    assertEquals(expected.getScale(), actual.getScale());
+    assertEquals(expected.getValue().getClass(), actual.getValue().getClass());
+    assertEquals(expected.getValue(), actual.getValue());
+  }
+
+  @Test
+  public void byteBufferRoundTripTest() {
+    for (ByteOrder order : new ByteOrder[] { ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN }) {
+      final ByteBuffer buffer = ByteBuffer.allocate(4096).order(order);
+      for (Quantity<?> quantity : QUANTITIES) {
+        CODEC.encode(quantity, buffer);
+      }
+      buffer.flip();
+      for (Quantity<?> quantity : QUANTITIES) {
+        assertRoundTrip(quantity, CODEC.decode(buffer));
+      }
+      assertEquals(0, buffer.remaining());
+    }
+  }
+
+  @Test
+  public void dataStreamRoundTripTest() throws IOException {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      for (Quantity<?> quantity : QUANTITIES) {
+        CODEC.write(quantity, out);
+      }
+    }
+    final DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+    for (Quantity<?> quantity : QUANTITIES) {
+      assertRoundTrip(quantity, CODEC.read(in));
+    }
+    assertThrows(EOFException.class, () -> CODEC.read(in));
+  }
+
+  @Test
+  public void truncatedHugeLengthTest() {
+    // a unit string and a big integer claiming almost 2 GB, followed by nothing
+    final byte[] symbol = { 0, 0, -9, -1, -1, -1, 7, 'm' };
+    final byte[] integer = { 4, 1, -9, -1, -1, -1, 7, 1 };
+    for (byte[] frame : new byte[][] { symbol, integer }) {
+      assertThrows(BufferUnderflowException.class, () -> CODEC.decode(frame));
+      assertThrows(EOFException.class, () -> CODEC.read(new DataInputStream(new ByteArrayInputStream(frame))));
+    }
+  }
+
+  @Test
+  public void encodingsAreEqualTest() throws IOException {
+    for (Quantity<?> quantity : QUANTITIES) {
+      final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      CODEC.write(quantity, new DataOutputStream(bytes));
+      final ByteBuffer buffer = ByteBuffer.allocate(256).order(ByteOrder.LITTLE_ENDIAN);
+      CODEC.encode(quantity, buffer);
+      final byte[] encoded = Arrays.copyOf(buffer.array(), buffer.position());
+      assertArrayEquals(bytes.toByteArray(), encoded);
+      assertArrayEquals(encoded, CODEC.toByteArray(quantity));
+      assertRoundTrip(quantity, CODEC.decode(encoded));
+    }
+  }
+
+  @Test
+  public void compactTest() {
+    assertArrayEquals(new byte[] { 0, 1, 84 }, CODEC.toByteArray(Quantities.getQuantity(42, METRE)));
+    assertArrayEquals(new byte[] { 0x08, 3, 3 }, CODEC.toByteArray(Quantities.getQuantity(-2, CELSIUS, Scale.RELATIVE)));
+    assertEquals(10, CODEC.toByteArray(Quantities.getQuantity(1.5, SECOND)).length);
+    // unit not within the dictionary: header, 0, length, "kg", value
+    assertArrayEquals(new byte[] { 0, 0, 2, 'k', 'g', 2 }, CODEC.toByteArray(Quantities.getQuantity(1, KILOGRAM)));
+  }
+
+  @Test
+  public void defaultInstanceTest() {
+    for (Quantity<?> quantity : QUANTITIES) {
+      assertRoundTrip(quantity, QuantityCodec.getInstance().decode(QuantityCodec.getInstance().toByteArray(quantity)));
+    }
+    // dictionary references cannot be decoded without the dictionary
+    assertThrows(IllegalArgumentException.class,
+        () -> QuantityCodec.getInstance().decode(CODEC.toByteArray(Quantities.getQuantity(1, METRE))));
+  }
+
+  @Test
+  public void dictionaryTest() {
+    assertEquals(Arrays.asList(METRE, SECOND, CELSIUS), CODEC.getDictionary());
+    assertThrows(IllegalArgumentException.class, () -> QuantityCodec.of(METRE, SECOND, METRE));
+    // appending to the dictionary keeps the references of existing units
+    final QuantityCodec extended = QuantityCodec.of(METRE, SECOND, CELSIUS, KILOGRAM);
+    final Quantity<?> quantity = Quantities.getQuantity(2, SECOND);
+    assertRoundTrip(quantity, extended.decode(CODEC.toByteArray(quantity)));
+  }
+
+  @Test
+  public void invalidInputTest() {
+    assertThrows(IllegalArgumentException.class, () -> CODEC.decode(new byte[] { 7, 1, 0 }));
+    assertThrows(IllegalArgumentException.class, () -> CODEC.decode(new byte[] { 0x10, 1, 0 }));
+    assertThrows(IllegalArgumentException.class, () -> CODEC.decode(new byte[] { 0, 4, 0 }));
+    assertThrows(IllegalArgumentException.class, () -> CODEC.decode(new byte[] { 4, 1, 0 }));
+    assertThrows(IllegalArgumentException.class,
+        () -> CODEC.decode(new byte[] { 1, 1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, 1 }));
+    // integer and decimal scale out of int range
+    assertThrows(IllegalArgumentException.class,
+        () -> CODEC.decode(new byte[] { 0, 1, -128, -128, -128, -128, -128, 64 }));
+    assertThrows(IllegalArgumentException.class,
+        () -> CODEC.decode(new byte[] { 5, 1, -128, -128, -128, -128, -128, 64, 1, 1 }));
+    assertThrows(BufferOverflowException.class,
+        () -> CODEC.encode(Quantities.getQuantity(1.5, METRE), ByteBuffer.allocate(4)));
+    assertThrows(IllegalArgumentException.class,
+        () -> CODEC.toByteArray(Quantities.getQuantity(new java.util.concurrent.atomic.DoubleAdder(), METRE)));
+  }
+}
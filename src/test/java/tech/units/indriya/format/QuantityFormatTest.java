@@ -44,8 +44,12 @@ import static tech.units.indriya.unit.Units.METRE;
 
 import java.math.BigDecimal;
 import java.text.DecimalFormat;
+import java.text.NumberFormat;
 import java.text.ParsePosition;
+import java.util.List;
 import java.util.Locale;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import javax.measure.Quantity;
 import javax.measure.Unit;
@@ -281,4 +285,26 @@ public class QuantityFormatTest {
         assertNumberEquals(2L, parsed1.getValue(), 1E-12);
         assertEquals(METRE, parsed1.getUnit());
     }
+
+    @Test
+    public void testFormatDelimConcurrent() {
+        final NumberFormat numberFormat = NumberFormat.getInstance(Locale.ROOT);
+        final QuantityFormat format1 = NumberDelimiterQuantityFormat.getInstance(numberFormat, SimpleUnitFormat.getInstance());
+        final List<Quantity<Length>> quantities = IntStream.range(0, 2000)
+                .mapToObj(i -> Quantities.getQuantity(i + (i % 16) / 64d, METRE))
+                .collect(Collectors.toList());
+        final List<String> expected = quantities.stream().map(format1::format).collect(Collectors.toList());
+        assertEquals("1,000.125 m", expected.get(1000));
+        assertEquals("7.109375 m", expected.get(7));
+        final List<String> actual = quantities.parallelStream().map(format1::format).collect(Collectors.toList());
+        assertEquals(expected, actual);
+        // the given number format is left alone
+        assertEquals(3, numberFormat.getMaximumFractionDigits());
+    }
+
+    @Test
+    public void testFormatDelimLarge() {
+        final QuantityFormat format1 = NumberDelimiterQuantityFormat.getInstance();
+        assertTrue(format1.format(Quantities.getQuantity(-1E300, METRE)).endsWith("000 m"));
+    }
 }
@@ -0,0 +1,177 @@
+/*
+ * Units of Measurement Reference Implementation
+ * Copyright (c) 2005-2022, Jean-Marie Dautelle, Werner Keil, Otavio Santana.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions
+ *    and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of JSR-385, Indriya nor the names of their contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package tech.units.indriya.format;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static tech.units.indriya.unit.Units.METRE;
+import static tech.units.indriya.unit.Units.SECOND;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.measure.MetricPrefix;
+import javax.measure.Quantity;
+import javax.measure.Unit;
+import javax.measure.format.MeasurementParseException;
+import javax.measure.quantity.Length;
+
+import org.junit.jupiter.api.Test;
+
+import tech.units.indriya.AbstractUnit;
+import tech.units.indriya.quantity.Quantities;
+import tech.units.indriya.quantity.QuantityVector;
+
+/**
+ * Unit tests on the {@code QuantityReader} and {@code QuantityWriter} classes.
+ */
+public class QuantityReaderTest {
+
+  private static String write(Iterable<? extends Quantity<?>> quantities) throws IOException {
+    final StringWriter out = new StringWriter();
+    try (QuantityWriter writer = QuantityWriter.of(out)) {
+      writer.writeAll(quantities);
+    }
+    return out.toString();
+  }
+
+  @Test
+  public void writeTest() throws IOException {
+    final List<Quantity<?>> quantities = new ArrayList<>();
+    quantities.add(Quantities.getQuantity(12, METRE));
+    quantities.add(Quantities.getQuantity(Long.MIN_VALUE, METRE));
+    quantities.add(Quantities.getQuantity(-7L, SECOND));
+    quantities.add(Quantities.getQuantity(2.5, MetricPrefix.KILO(METRE)));
+    quantities.add(Quantities.getQuantity(3, AbstractUnit.ONE));
+    assertEquals("12 m\n-9223372036854775808 m\n-7 s\n2.5 km\n3\n", write(quantities));
+  }
+
+  @Test
+  public void writeProductOrderTest() throws IOException {
+    final Unit<?> ms = METRE.multiply(SECOND);
+    final Unit<?> sm = SECOND.multiply(METRE);
+    final List<Quantity<?>> quantities = new ArrayList<>();
+    quantities.add(Quantities.getQuantity(1, ms));
+    quantities.add(Quantities.getQuantity(2, sm));
+    final SimpleUnitFormat format = SimpleUnitFormat.getInstance();
+    assertNotEquals(format.format(ms), format.format(sm));
+    assertEquals("1 " + format.format(ms) + "\n2 " + format.format(sm) + "\n", write(quantities));
+  }
+
+  @Test
+  public void roundTripTest() throws IOException {
+    final List<Quantity<?>> quantities = new ArrayList<>();
+    for (int i = -500; i < 500; i++) {
+      quantities.add(i % 2 == 0 ? Quantities.getQuantity(i, METRE) : Quantities.getQuantity(i, SECOND));
+      quantities.add(Quantities.getQuantity(i / 8.0, MetricPrefix.MILLI(METRE)));
+    }
+    final String text = write(quantities);
+    try (QuantityReader reader = QuantityReader.of(new StringReader(text))) {
+      final List<Quantity<?>> read = reader.stream().collect(Collectors.toList());
+      assertEquals(text, write(read));
+      assertEquals(quantities.size(), reader.getLineNumber());
+    }
+  }
+
+  @Test
+  public void readTest() throws IOException {
+    final QuantityReader reader = QuantityReader.of(new StringReader("1 m\r\n\n   \r\n2 s\n3 km"));
+    assertEquals(Quantities.getQuantity(1, METRE), reader.read());
+    assertEquals(Quantities.getQuantity(2, SECOND), reader.read());
+    assertEquals(4, reader.getLineNumber());
+    assertEquals(Quantities.getQuantity(3, MetricPrefix.KILO(METRE)), reader.read());
+    assertNull(reader.read());
+  }
+
+  @Test
+  public void readLongLineTest() throws IOException {
+    final StringBuilder digits = new StringBuilder();
+    for (int i = 0; i < 20000; i++) {
+      digits.append(i % 10);
+    }
+    final QuantityReader reader = QuantityReader.of(new StringReader("1" + digits + " m\n2 m\n"));
+    assertEquals("1" + digits, reader.read().getValue().toString());
+    assertEquals(Quantities.getQuantity(2, METRE), reader.read());
+  }
+
+  @Test
+  public void readChannelTest() throws IOException {
+    final byte[] bytes = "5 µm\n6 ℃\n".getBytes(StandardCharsets.UTF_8);
+    final QuantityReader reader = QuantityReader.of(Channels.newChannel(new ByteArrayInputStream(bytes)), StandardCharsets.UTF_8,
+        SimpleQuantityFormat.getInstance());
+    assertEquals(Quantities.getQuantity(5, MetricPrefix.MICRO(METRE)), reader.read());
+    assertEquals("6 ℃", reader.read().toString());
+  }
+
+  @Test
+  public void readVectorTest() throws IOException {
+    final QuantityVector<Length> vector = QuantityReader.of(new StringReader("1 m\n2 km\n")).readVector(METRE);
+    assertEquals(2, vector.size());
+    assertEquals(1.0, vector.getValue(0), 1e-12);
+    assertEquals(2000.0, vector.getValue(1), 1e-12);
+  }
+
+  @Test
+  public void parallelStreamTest() throws IOException {
+    final StringBuilder text = new StringBuilder();
+    for (int i = 0; i < 10000; i++) {
+      text.append(i).append(" m\n");
+    }
+    final List<Quantity<?>> expected = QuantityReader.of(new StringReader(text.toString())).stream().collect(Collectors.toList());
+    try (Stream<Quantity<?>> stream = QuantityReader.of(new StringReader(text.toString())).parallelStream(97)) {
+      assertEquals(expected, stream.collect(Collectors.toList()));
+    }
+    assertThrows(IllegalArgumentException.class, () -> QuantityReader.of(new StringReader("")).parallelStream(0));
+  }
+
+  @Test
+  public void parseErrorTest() throws IOException {
+    final QuantityReader reader = QuantityReader.of(new StringReader("1 m\n\n2 foo\n"));
+    reader.read();
+    final MeasurementParseException e = assertThrows(MeasurementParseException.class, reader::read);
+    assertTrue(e.getMessage().startsWith("Line 3: "), e.getMessage());
+    assertEquals("2 foo", e.getParsedString());
+
+    final MeasurementParseException parallel = assertThrows(MeasurementParseException.class,
+        () -> QuantityReader.of(new StringReader("1 m\n2 m\n3 foo\n4 m\n")).parallelStream(1).collect(Collectors.toList()));
+    assertTrue(parallel.getMessage().contains("Line 3: "), parallel.getMessage());
+  }
+}
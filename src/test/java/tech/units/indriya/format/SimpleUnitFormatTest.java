@@ -31,6 +31,7 @@ package tech.units.indriya.format;
 
 import static javax.measure.BinaryPrefix.KIBI;
 import static javax.measure.BinaryPrefix.TEBI;
+import static javax.measure.MetricPrefix.DEKA;
 import static javax.measure.MetricPrefix.GIGA;
 import static javax.measure.MetricPrefix.KILO;
 import static javax.measure.MetricPrefix.MEGA;
@@ -38,6 +39,7 @@ import static javax.measure.MetricPrefix.MICRO;
 import static javax.measure.MetricPrefix.MILLI;
 import static javax.measure.MetricPrefix.NANO;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static tech.units.indriya.format.SimpleUnitFormat.Flavor.ASCII;
 import static tech.units.indriya.unit.Units.CANDELA;
@@ -53,6 +55,10 @@ import static tech.units.indriya.unit.Units.WEEK;
 import static tech.units.indriya.unit.Units.MONTH;
 
 import java.math.BigInteger;
+import java.text.ParsePosition;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -256,6 +262,53 @@ public class SimpleUnitFormatTest {
         format.label(CANDELA, "cd"); // cleanup, UnitFormat.label() applies for the entire VM, and the order of JUnit tests is not guaranteed
     }
 
+    @Test
+    public void testParseCache() {
+        final SimpleUnitFormat simple = SimpleUnitFormat.getNewInstance();
+        final Unit<?> kmPerH = simple.parse("km/h");
+        final long hits = simple.getParseCacheHitCount();
+        assertEquals(kmPerH, simple.parse("km/h"));
+        assertEquals(hits + 1, simple.getParseCacheHitCount());
+
+        final ParsePosition pos = new ParsePosition(2);
+        assertEquals(METRE, simple.parse("1 m", pos));
+        assertEquals(3, pos.getIndex());
+        pos.setIndex(2);
+        assertEquals(METRE, simple.parse("2 m", pos));
+        assertEquals(3, pos.getIndex());
+
+        final long misses = simple.getParseCacheMissCount();
+        simple.alias(METRE, "parseCacheMetre");
+        assertEquals(METRE, simple.parse("parseCacheMetre"));
+        assertEquals(kmPerH, simple.parse("km/h"));
+        assertEquals(misses + 2, simple.getParseCacheMissCount());
+        assertThrows(MeasurementParseException.class, () -> simple.parse("1/s"));
+        assertThrows(MeasurementParseException.class, () -> simple.parse("1/s"));
+    }
+
+    @Test
+    public void testFormatProductOrderCached() {
+        final SimpleUnitFormat simple = SimpleUnitFormat.getNewInstance();
+        final String sm = simple.format(Units.SECOND.multiply(METRE));
+        final String ms = simple.format(METRE.multiply(Units.SECOND));
+        assertNotEquals(ms, sm);
+        assertEquals(sm, simple.format(Units.SECOND.multiply(METRE)));
+        assertEquals(ms, simple.format(METRE.multiply(Units.SECOND)));
+        assertEquals(ms, METRE.multiply(Units.SECOND).toString());
+        assertEquals(sm, Units.SECOND.multiply(METRE).toString());
+    }
+
+    @Test
+    public void testFormatLabelAfterCaching() {
+        assertEquals("cd/s", format.format(CANDELA.divide(Units.SECOND)));
+        assertEquals("cd/s", format.format(CANDELA.divide(Units.SECOND)));
+        format.label(CANDELA, "CD");
+        assertEquals("CD", format.format(CANDELA));
+        assertEquals("CD/s", format.format(CANDELA.divide(Units.SECOND)));
+        format.label(CANDELA, "cd"); // cleanup
+        assertEquals("cd/s", format.format(CANDELA.divide(Units.SECOND)));
+    }
+
     @Test
     @Disabled("SimpleUnitFormat cannot deal with expressions that start with 1 at this point")
     public void testParseInverseL() {
@@ -298,7 +351,20 @@ public class SimpleUnitFormatTest {
       Unit<?> u = format.parse("ng");
       assertEquals(NANO(GRAM), u);
     }
-    
+
+    @Test
+    public void testParsePrefixedOnDemand() {
+      assertEquals(KILO(Units.WATT), format.parse("kW"));
+      assertEquals(MICRO(Units.SECOND), format.parse("µs"));
+      assertEquals(DEKA(METRE), format.parse("dam"));
+      assertEquals(KIBI(Units.WATT), format.parse("KiW"));
+      assertEquals(TEBI(Units.WATT), format.parse("TiW"));
+      assertEquals("μs", format.format(MICRO(Units.SECOND)));
+      assertEquals("kOhm", SimpleUnitFormat.getInstance(ASCII).format(KILO(OHM)));
+      assertEquals(MICRO(OHM), SimpleUnitFormat.getInstance(ASCII).parse("microOhm"));
+      assertThrows(MeasurementParseException.class, () -> format.parse("kxyz"));
+    }
+
 	@Test
 	public void testPrefix() {
 		logger.log(LOG_LEVEL, format.format(GIGA(METRE_PER_SECOND))); 
@@ -357,4 +423,31 @@ public class SimpleUnitFormatTest {
 		// Only the new format got the label
 		assertEquals("kd", newFormat.format(CANDELA));
 	}	
+
+	@Test
+	public void testConcurrentLabels() throws Exception {
+		final SimpleUnitFormat newFormat = SimpleUnitFormat.getNewInstance();
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			final Future<?> writer = executor.submit(() -> {
+				for (int i = 2; i <= 500; i++) {
+					newFormat.label(METRE.multiply(i), "len" + i);
+				}
+			});
+			final Future<?> reader = executor.submit(() -> {
+				while (!writer.isDone()) {
+					assertEquals(METRE, newFormat.parse("m"));
+					assertEquals("km", newFormat.format(KILO(METRE)));
+				}
+			});
+			writer.get();
+			reader.get();
+		} finally {
+			executor.shutdown();
+		}
+		for (int i = 2; i <= 500; i++) {
+			assertEquals(METRE.multiply(i), newFormat.parse("len" + i));
+			assertEquals("len" + i, newFormat.format(METRE.multiply(i)));
+		}
+	}
 }
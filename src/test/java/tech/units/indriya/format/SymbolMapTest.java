@@ -30,6 +30,7 @@
 package tech.units.indriya.format;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 import java.util.Locale;
 import java.util.ResourceBundle;
@@ -88,4 +89,21 @@ public class SymbolMapTest {
     
     assertEquals(MetricPrefix.DEKA(Units.GRAM), u2);
   }
+
+  /**
+   * Test that mappings added after construction are visible to all lookups.
+   */
+  @Test
+  public void testLabelAfterConstruction() {
+    SymbolMap symbols = SymbolMap.of(ResourceBundle.getBundle(BUNDLE_NAME, Locale.ROOT));
+    assertNull(symbols.getUnit("furlong"));
+    Unit<?> furlong = Units.METRE.multiply(201.168);
+    symbols.label(furlong, "furlong");
+    symbols.alias(furlong, "furlongs");
+    assertEquals(furlong, symbols.getUnit("furlong"));
+    assertEquals(furlong, symbols.getUnit("furlongs"));
+    assertEquals("furlong", symbols.getSymbol(furlong));
+    assertEquals(furlong, symbols.getUnit("a furlong", 2, 9));
+    assertEquals(Units.METRE, symbols.getUnit("m"));
+  }
 }
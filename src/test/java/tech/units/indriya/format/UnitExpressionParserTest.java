@@ -0,0 +1,145 @@
+/*
+ * Units of Measurement Reference Implementation
+ * Copyright (c) 2005-2022, Jean-Marie Dautelle, Werner Keil, Otavio Santana.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions
+ *    and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of JSR-385, Indriya nor the names of their contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package tech.units.indriya.format;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static tech.units.indriya.unit.Units.METRE;
+import static tech.units.indriya.unit.Units.SECOND;
+
+import java.io.StringReader;
+import java.text.ParsePosition;
+import java.util.Locale;
+import java.util.Random;
+import java.util.ResourceBundle;
+
+import javax.measure.MetricPrefix;
+import javax.measure.Unit;
+
+import org.junit.jupiter.api.Test;
+
+import tech.units.indriya.AbstractUnit;
+import tech.units.indriya.function.LogConverter;
+import tech.units.indriya.internal.format.UnitFormatParser;
+
+/**
+ * Unit tests on the {@code UnitExpressionParser} class.
+ */
+public class UnitExpressionParserTest {
+
+  private static final SymbolMap SYMBOLS = SymbolMap.of(ResourceBundle.getBundle("tech.units.indriya.format.messages", Locale.ROOT));
+
+  /**
+   * Fragments of unit expressions. "e" and "ln" are left out, the JavaCC parser used the token kind of "e" as the base of natural logarithms.
+   */
+  private static final String[] FRAGMENTS = { "m", "s", "kg", "g", "K", "℃", "km", "µm", "cd", "mol", "N", "W", "h", "min", "Hz", "A", "Pa",
+      "kW", "GHz", "mA", "foo", "x", "log", "log10", "2", "10", "1000", "3.5", ".25", "1e3", "2.5E-2", "99999999999", "*", "·", "/", "^", "(", ")",
+      "+", "-", ":", "²", "³", "⁴", "¹⁰", " ", ".", "?", "%", "°" };
+
+  private static Unit<?> parse(String expression) {
+    return UnitExpressionParser.parse(SYMBOLS, expression, new ParsePosition(0));
+  }
+
+  private static Object parseOrFailure(String expression) {
+    try {
+      return parse(expression);
+    } catch (RuntimeException | Error e) {
+      return e.getClass();
+    }
+  }
+
+  private static Object parseWithJavaCC(String expression) {
+    final String source = expression.trim();
+    if (source.isEmpty()) {
+      return AbstractUnit.ONE;
+    }
+    try {
+      return new UnitFormatParser(SYMBOLS, new StringReader(source)).parseUnit();
+    } catch (RuntimeException | Error e) {
+      return e.getClass();
+    }
+  }
+
+  @Test
+  public void parseTest() {
+    assertEquals(METRE, parse("m"));
+    assertEquals(METRE.divide(SECOND.pow(2)), parse("m/s²"));
+    assertEquals(METRE.divide(SECOND.pow(2)), parse("m*s^-2"));
+    assertEquals(METRE.pow(3).root(2), parse("m^(3/2)"));
+    assertEquals(MetricPrefix.KILO(METRE), parse("km"));
+    assertEquals(AbstractUnit.ONE.multiply(1000.0).multiply(METRE), parse("1000·m"));
+    assertEquals(METRE.shift(2.5), parse("m+2.5"));
+    assertEquals(AbstractUnit.ONE, parse("  "));
+    assertEquals(AbstractUnit.ONE.transform(new LogConverter(10)), parse("log(1)"));
+    assertEquals(AbstractUnit.ONE.transform(new LogConverter(Math.E)), parse("ln(1)"));
+    assertEquals(METRE.transform(new LogConverter(Math.E).inverse()), parse("e^m"));
+  }
+
+  @Test
+  public void cursorTest() {
+    final ParsePosition pos = new ParsePosition(3);
+    assertEquals(METRE.divide(SECOND), UnitExpressionParser.parse(SYMBOLS, "12 m/s ", pos));
+    assertEquals(7, pos.getIndex());
+
+    final ParsePosition blank = new ParsePosition(1);
+    assertEquals(AbstractUnit.ONE, UnitExpressionParser.parse(SYMBOLS, "1  ", blank));
+    assertEquals(1, blank.getIndex());
+  }
+
+  @Test
+  public void errorIndexTest() {
+    final ParsePosition unknown = new ParsePosition(0);
+    assertThrows(TokenException.class, () -> UnitExpressionParser.parse(SYMBOLS, "m/foo", unknown));
+    assertEquals(2, unknown.getErrorIndex());
+
+    final ParsePosition unexpected = new ParsePosition(0);
+    assertThrows(TokenException.class, () -> UnitExpressionParser.parse(SYMBOLS, "m*/s", unexpected));
+    assertEquals(2, unexpected.getErrorIndex());
+
+    final ParsePosition lexical = new ParsePosition(0);
+    assertThrows(TokenMgrError.class, () -> UnitExpressionParser.parse(SYMBOLS, "m s", lexical));
+    assertEquals(1, lexical.getErrorIndex());
+  }
+
+  @Test
+  public void differentialFuzzTest() {
+    final Random random = new Random(385);
+    final StringBuilder expression = new StringBuilder();
+    for (int n = 0; n < 20000; n++) {
+      expression.setLength(0);
+      final int length = 1 + random.nextInt(6);
+      for (int i = 0; i < length; i++) {
+        expression.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+      }
+      final String source = expression.toString();
+      assertEquals(parseWithJavaCC(source), parseOrFailure(source), source);
+    }
+  }
+}
@@ -0,0 +1,128 @@
+/*
+ * Units of Measurement Reference Implementation
+ * Copyright (c) 2005-2022, Jean-Marie Dautelle, Werner Keil, Otavio Santana.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions
+ *    and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of JSR-385, Indriya nor the names of their contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package tech.units.indriya.function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static tech.units.indriya.NumberAssertions.assertNumberEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.measure.Quantity;
+import javax.measure.quantity.Energy;
+import javax.measure.quantity.Temperature;
+
+import org.junit.jupiter.api.Test;
+
+import tech.units.indriya.ComparableQuantity;
+import tech.units.indriya.quantity.Quantities;
+import tech.units.indriya.unit.Units;
+
+public class QuantityAdderTest {
+
+  private final static double PRECISION_GOAL = 1E-9;
+
+  @Test
+  public void shouldBeEmpty() {
+    QuantityAdder<Energy> adder = new QuantityAdder<>(Units.JOULE);
+    assertEquals(Units.JOULE, adder.getUnit());
+    assertNumberEquals(0, adder.sum().getValue(), PRECISION_GOAL);
+  }
+
+  @Test
+  public void shouldErrorWhenIsNull() {
+    QuantityAdder<Energy> adder = new QuantityAdder<>(Units.JOULE);
+    assertThrows(NullPointerException.class, () -> adder.add(null));
+  }
+
+  @Test
+  public void addTest() {
+    QuantityAdder<Energy> adder = new QuantityAdder<>(Units.JOULE);
+    adder.add(Quantities.getQuantity(1, Units.JOULE));
+    adder.add(Quantities.getQuantity(2, Units.WATT.multiply(Units.SECOND).asType(Energy.class)));
+    adder.add(Quantities.getQuantity(1.5, Units.JOULE.multiply(1000)));
+    adder.add(0.5, Units.JOULE);
+
+    ComparableQuantity<Energy> sum = adder.sum();
+    assertEquals(Units.JOULE, sum.getUnit());
+    assertNumberEquals(1503.5, sum.getValue(), PRECISION_GOAL);
+    assertNumberEquals(1.5035, adder.sum(Units.JOULE.multiply(1000)).getValue(), PRECISION_GOAL);
+  }
+
+  @Test
+  public void relativeScaleTest() {
+    QuantityAdder<Temperature> adder = new QuantityAdder<>(Units.KELVIN);
+    adder.add(Quantities.getQuantity(2, Units.CELSIUS, Quantity.Scale.RELATIVE));
+    adder.add(Quantities.getQuantity(3, Units.KELVIN, Quantity.Scale.RELATIVE));
+    assertNumberEquals(5, adder.sum().getValue(), PRECISION_GOAL);
+  }
+
+  @Test
+  public void sumThenResetTest() {
+    QuantityAdder<Energy> adder = new QuantityAdder<>(Units.JOULE);
+    adder.add(Quantities.getQuantity(3, Units.JOULE));
+    assertNumberEquals(3, adder.sumThenReset().getValue(), PRECISION_GOAL);
+    assertNumberEquals(0, adder.sum().getValue(), PRECISION_GOAL);
+    adder.add(Quantities.getQuantity(4, Units.JOULE));
+    adder.reset();
+    assertNumberEquals(0, adder.sum().getValue(), PRECISION_GOAL);
+  }
+
+  @Test
+  public void concurrentAddTest() throws Exception {
+    final int threads = 8;
+    final int count = 10_000;
+    final QuantityAdder<Energy> adder = new QuantityAdder<>(Units.JOULE);
+    final Quantity<Energy> joule = Quantities.getQuantity(1, Units.JOULE);
+    final Quantity<Energy> kiloJoule = Quantities.getQuantity(1, Units.JOULE.multiply(1000));
+    final ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      final List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        futures.add(executor.submit(() -> {
+          for (int i = 0; i < count; i++) {
+            adder.add(joule);
+            adder.add(kiloJoule);
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+    assertNumberEquals(threads * count * 1001d, adder.sum().getValue(), PRECISION_GOAL);
+  }
+}
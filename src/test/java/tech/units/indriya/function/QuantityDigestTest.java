@@ -0,0 +1,136 @@
+/*
+ * Units of Measurement Reference Implementation
+ * Copyright (c) 2005-2022, Jean-Marie Dautelle, Werner Keil, Otavio Santana.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions
+ *    and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of JSR-385, Indriya nor the names of their contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package tech.units.indriya.function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static tech.units.indriya.NumberAssertions.assertNumberEquals;
+import static tech.units.indriya.function.QuantityStreams.quantityDigest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import javax.measure.MetricPrefix;
+import javax.measure.Quantity;
+import javax.measure.Unit;
+import javax.measure.quantity.Time;
+
+import org.junit.jupiter.api.Test;
+
+import tech.units.indriya.quantity.Quantities;
+import tech.units.indriya.unit.Units;
+
+public class QuantityDigestTest {
+
+  private static final Unit<Time> MILLISECOND = MetricPrefix.MILLI(Units.SECOND);
+
+  private static final int SIZE = 100_000;
+
+  @Test
+  public void shouldBeEmpty() {
+    QuantityDigest<Time> digest = new QuantityDigest<>(MILLISECOND, 100);
+    assertEquals(0, digest.getCount());
+    assertThrows(NoSuchElementException.class, () -> digest.getQuantile(0.5));
+  }
+
+  @Test
+  public void shouldErrorOnInvalidArguments() {
+    assertThrows(IllegalArgumentException.class, () -> new QuantityDigest<>(MILLISECOND, 1));
+    assertThrows(IllegalArgumentException.class, () -> new QuantityDigest<>(MILLISECOND, 100).getQuantile(-0.1));
+    assertThrows(IllegalArgumentException.class, () -> quantityDigest(MILLISECOND, 1));
+    assertThrows(IllegalArgumentException.class,
+        () -> new QuantityDigest<>(MILLISECOND, 100).combine(new QuantityDigest<>(MILLISECOND, 200)));
+  }
+
+  @Test
+  public void combineLeavesOtherUnchanged() {
+    QuantityDigest<Time> digest = new QuantityDigest<>(MILLISECOND, 100);
+    QuantityDigest<Time> other = new QuantityDigest<>(MILLISECOND, 100);
+    for (int i = 0; i < 1000; i++) {
+      digest.accept(i);
+      other.accept(1000 + i);
+    }
+    QuantityDigest<Time> copy = new QuantityDigest<>(MILLISECOND, 100).combine(other);
+
+    digest.combine(other);
+    assertEquals(2000, digest.getCount());
+    assertEquals(1000, other.getCount());
+    assertEquals(copy.getQuantileValue(0.5), other.getQuantileValue(0.5), 1E-9);
+    assertEquals(1000, digest.getQuantileValue(0.5), 20);
+  }
+
+  @Test
+  public void singleValueTest() {
+    QuantityDigest<Time> digest = new QuantityDigest<>(Units.SECOND, 100);
+    digest.accept(Quantities.getQuantity(42, Units.SECOND));
+    assertNumberEquals(42, digest.getQuantile(0.5).getValue(), 1E-9);
+    assertNumberEquals(42, digest.getQuantile(0.99).getValue(), 1E-9);
+  }
+
+  @Test
+  public void quantileTest() {
+    QuantityDigest<Time> digest = createLatencies().stream().collect(quantityDigest(MILLISECOND, 100));
+
+    assertEquals(SIZE, digest.getCount());
+    assertEquals(MILLISECOND, digest.getQuantile(0.5).getUnit());
+    assertNumberEquals(0, digest.getMin().getValue(), 1E-9);
+    assertNumberEquals(SIZE - 1, digest.getMax().getValue(), 1E-9);
+    assertEquals(0.5 * SIZE, digest.getQuantileValue(0.5), 0.01 * SIZE);
+    assertEquals(0.99 * SIZE, digest.getQuantileValue(0.99), 0.001 * SIZE);
+    assertEquals(0.999 * SIZE, digest.getQuantileValue(0.999), 0.0002 * SIZE);
+  }
+
+  @Test
+  public void parallelTest() {
+    List<Quantity<Time>> latencies = createLatencies();
+    QuantityDigest<Time> sequential = latencies.stream().collect(quantityDigest(MILLISECOND, 100));
+    QuantityDigest<Time> parallel = latencies.parallelStream().collect(quantityDigest(MILLISECOND, 100));
+
+    assertEquals(sequential.getCount(), parallel.getCount());
+    for (double quantile : new double[] { 0.1, 0.5, 0.9, 0.99, 0.999 }) {
+      assertEquals(sequential.getQuantileValue(quantile), parallel.getQuantileValue(quantile), 0.01 * SIZE);
+    }
+  }
+
+  // -- HELPER
+
+  // 0 .. SIZE-1 ms in random order, every other one stated in seconds
+  private static List<Quantity<Time>> createLatencies() {
+    List<Quantity<Time>> latencies = new ArrayList<>();
+    for (int i = 0; i < SIZE; i++) {
+      latencies.add(i % 2 == 0 ? Quantities.getQuantity(i, MILLISECOND) : Quantities.getQuantity(i / 1000d, Units.SECOND));
+    }
+    Collections.shuffle(latencies, new Random(42));
+    return latencies;
+  }
+}
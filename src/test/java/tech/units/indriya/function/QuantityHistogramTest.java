@@ -0,0 +1,129 @@
+/*
+ * Units of Measurement Reference Implementation
+ * Copyright (c) 2005-2022, Jean-Marie Dautelle, Werner Keil, Otavio Santana.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions
+ *    and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of JSR-385, Indriya nor the names of their contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package tech.units.indriya.function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static tech.units.indriya.NumberAssertions.assertNumberEquals;
+import static tech.units.indriya.function.QuantityStreams.quantityHistogram;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import javax.measure.MetricPrefix;
+import javax.measure.Quantity;
+import javax.measure.Unit;
+import javax.measure.quantity.Time;
+
+import org.junit.jupiter.api.Test;
+
+import tech.units.indriya.quantity.Quantities;
+import tech.units.indriya.unit.Units;
+
+public class QuantityHistogramTest {
+
+  private static final Unit<Time> MILLISECOND = MetricPrefix.MILLI(Units.SECOND);
+
+  private static final double ACCURACY = 0.01;
+
+  @Test
+  public void shouldBeEmpty() {
+    QuantityHistogram<Time> histogram = new QuantityHistogram<>(MILLISECOND, ACCURACY);
+    assertEquals(0, histogram.getCount());
+    assertThrows(NoSuchElementException.class, () -> histogram.getQuantile(0.5));
+    assertThrows(NoSuchElementException.class, histogram::getMin);
+  }
+
+  @Test
+  public void shouldErrorOnInvalidArguments() {
+    assertThrows(IllegalArgumentException.class, () -> new QuantityHistogram<>(MILLISECOND, 0));
+    assertThrows(IllegalArgumentException.class, () -> new QuantityHistogram<>(MILLISECOND, ACCURACY).getQuantile(1.5));
+    assertThrows(IllegalArgumentException.class, () -> new QuantityHistogram<>(MILLISECOND, ACCURACY).accept(Double.NaN));
+  }
+
+  @Test
+  public void quantileTest() {
+    QuantityHistogram<Time> histogram = createLatencies().stream().collect(quantityHistogram(MILLISECOND, ACCURACY));
+
+    assertEquals(10_000, histogram.getCount());
+    assertEquals(MILLISECOND, histogram.getQuantile(0.5).getUnit());
+    assertNumberEquals(1, histogram.getMin().getValue(), 1E-9);
+    assertNumberEquals(10_000, histogram.getMax().getValue(), 1E-9);
+    assertWithinAccuracy(5_000, histogram.getQuantileValue(0.5));
+    assertWithinAccuracy(9_900, histogram.getQuantileValue(0.99));
+    assertWithinAccuracy(9_990, histogram.getQuantileValue(0.999));
+    assertNumberEquals(1, histogram.getQuantileValue(0), 1E-9);
+    assertNumberEquals(10_000, histogram.getQuantileValue(1), 1E-9);
+  }
+
+  @Test
+  public void negativeAndZeroTest() {
+    QuantityHistogram<Time> histogram = new QuantityHistogram<>(Units.SECOND, ACCURACY);
+    histogram.accept(-100);
+    histogram.accept(-10);
+    histogram.accept(0);
+    histogram.accept(10);
+    histogram.accept(100);
+
+    assertWithinAccuracy(-100, histogram.getQuantileValue(0));
+    assertWithinAccuracy(-10, histogram.getQuantileValue(0.25));
+    assertNumberEquals(0, histogram.getQuantileValue(0.5), 1E-9);
+    assertWithinAccuracy(10, histogram.getQuantileValue(0.75));
+    assertWithinAccuracy(100, histogram.getQuantileValue(1));
+  }
+
+  @Test
+  public void parallelTest() {
+    List<Quantity<Time>> latencies = createLatencies();
+    QuantityHistogram<Time> sequential = latencies.stream().collect(quantityHistogram(MILLISECOND, ACCURACY));
+    QuantityHistogram<Time> parallel = latencies.parallelStream().collect(quantityHistogram(MILLISECOND, ACCURACY));
+
+    assertEquals(sequential.getCount(), parallel.getCount());
+    for (double quantile : new double[] { 0, 0.1, 0.5, 0.9, 0.99, 0.999, 1 }) {
+      assertEquals(sequential.getQuantileValue(quantile), parallel.getQuantileValue(quantile));
+    }
+  }
+
+  // -- HELPER
+
+  private static void assertWithinAccuracy(double expected, double actual) {
+    assertEquals(expected, actual, Math.abs(expected) * ACCURACY);
+  }
+
+  // 1 .. 10000 ms, every other one stated in seconds
+  private static List<Quantity<Time>> createLatencies() {
+    List<Quantity<Time>> latencies = new ArrayList<>();
+    for (int i = 1; i <= 10_000; i++) {
+      latencies.add(i % 2 == 0 ? Quantities.getQuantity(i, MILLISECOND) : Quantities.getQuantity(i / 1000d, Units.SECOND));
+    }
+    return latencies;
+  }
+}
@@ -0,0 +1,180 @@
+/*
+ * Units of Measurement Reference Implementation
+ * Copyright (c) 2005-2022, Jean-Marie Dautelle, Werner Keil, Otavio Santana.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions
+ *    and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of JSR-385, Indriya nor the names of their contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package tech.units.indriya.function;
+
+import static javax.measure.Quantity.Scale.ABSOLUTE;
+import static javax.measure.Quantity.Scale.RELATIVE;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static tech.units.indriya.NumberAssertions.assertNumberEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import javax.measure.Quantity;
+import javax.measure.Unit;
+import javax.measure.quantity.Length;
+import javax.measure.quantity.Temperature;
+
+import org.junit.jupiter.api.Test;
+
+import tech.units.indriya.ComparableQuantity;
+import tech.units.indriya.quantity.Quantities;
+import tech.units.indriya.quantity.QuantityVector;
+import tech.units.indriya.unit.Units;
+
+public class QuantityKernelsTest {
+
+  private final static double PRECISION_GOAL = 1E-9;
+
+  private static final int SIZE = 5 * QuantityKernels.LEAF_SIZE + 3;
+
+  private static final Unit<Length> CENTIMETRE = Units.METRE.divide(100);
+
+  private static QuantityVector<Length> vector() {
+    final double[] values = new double[SIZE];
+    for (int i = 0; i < SIZE; i++) {
+      values[i] = i;
+    }
+    return QuantityVector.of(values, Units.METRE);
+  }
+
+  // alternating units, i metres each
+  private static List<Quantity<Length>> quantities() {
+    final List<Quantity<Length>> quantities = new ArrayList<>(SIZE);
+    for (int i = 0; i < SIZE; i++) {
+      quantities.add(i % 2 == 0 ? Quantities.getQuantity(i, Units.METRE) : Quantities.getQuantity(100 * i, CENTIMETRE));
+    }
+    return quantities;
+  }
+
+  @Test
+  public void spliteratorTest() {
+    final Spliterator<ComparableQuantity<Length>> spliterator = QuantityKernels.spliterator(vector());
+    assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED));
+    assertEquals(SIZE, spliterator.getExactSizeIfKnown());
+
+    final Spliterator<ComparableQuantity<Length>> prefix = spliterator.trySplit();
+    assertEquals(0, prefix.estimateSize() % 8);
+    assertEquals(SIZE, prefix.estimateSize() + spliterator.estimateSize());
+
+    final Spliterator.OfDouble tiny = QuantityKernels.valueSpliterator(QuantityVector.of(new double[7], Units.METRE));
+    assertNull(tiny.trySplit());
+  }
+
+  @Test
+  public void streamTest() {
+    final QuantityVector<Length> vector = vector();
+    final List<ComparableQuantity<Length>> list = QuantityKernels.stream(vector, true).collect(Collectors.toList());
+    assertEquals(vector.asList(), list);
+    assertEquals((double) SIZE * (SIZE - 1) / 2, QuantityKernels.values(vector, true).sum(), PRECISION_GOAL);
+  }
+
+  @Test
+  public void convertTest() {
+    final QuantityVector<Length> converted = QuantityKernels.convert(vector(), CENTIMETRE);
+    assertEquals(CENTIMETRE, converted.getUnit());
+    assertArrayEquals(vector().to(CENTIMETRE).toArray(), converted.toArray(), PRECISION_GOAL);
+
+    final QuantityVector<Length> fromList = QuantityKernels.convert(quantities(), Units.METRE);
+    assertArrayEquals(vector().toArray(), fromList.toArray(), PRECISION_GOAL);
+  }
+
+  @Test
+  public void convertRelativeTest() {
+    final List<Quantity<Temperature>> deltas = Collections.nCopies(SIZE, Quantities.getQuantity(2, Units.CELSIUS, RELATIVE));
+    final QuantityVector<Temperature> vector = QuantityKernels.convert(deltas, Units.KELVIN);
+    assertEquals(RELATIVE, vector.getScale());
+    assertEquals(2, vector.getValue(SIZE - 1), PRECISION_GOAL);
+  }
+
+  @Test
+  public void sumTest() {
+    final double expected = (double) SIZE * (SIZE - 1) / 2;
+    assertNumberEquals(expected, QuantityKernels.sum(vector()).getValue(), PRECISION_GOAL);
+    assertNumberEquals(expected, QuantityKernels.sum(quantities(), Units.METRE).getValue(), PRECISION_GOAL);
+    assertNumberEquals(expected, QuantityKernels.sum(new LinkedList<>(quantities()), Units.METRE).getValue(), PRECISION_GOAL);
+    assertNumberEquals(0, QuantityKernels.sum(Collections.<Quantity<Length>> emptyList(), Units.METRE).getValue(), PRECISION_GOAL);
+  }
+
+  @Test
+  public void minMaxTest() {
+    assertNumberEquals(0, QuantityKernels.min(vector()).getValue(), PRECISION_GOAL);
+    assertNumberEquals(SIZE - 1, QuantityKernels.max(vector()).getValue(), PRECISION_GOAL);
+    assertNumberEquals(0, QuantityKernels.min(quantities(), CENTIMETRE).getValue(), PRECISION_GOAL);
+    assertNumberEquals(100 * (SIZE - 1), QuantityKernels.max(quantities(), CENTIMETRE).getValue(), PRECISION_GOAL);
+    assertThrows(NoSuchElementException.class, () -> QuantityKernels.min(QuantityVector.of(new double[0], Units.METRE)));
+    assertThrows(NoSuchElementException.class, () -> QuantityKernels.max(Collections.<Quantity<Length>> emptyList(), Units.METRE));
+  }
+
+  @Test
+  public void relativeScaleTest() {
+    final List<Quantity<Temperature>> deltas = new ArrayList<>(Collections.nCopies(SIZE, Quantities.getQuantity(2, Units.CELSIUS, RELATIVE)));
+    assertEquals(RELATIVE, QuantityKernels.sum(deltas, Units.KELVIN).getScale());
+    assertEquals(RELATIVE, QuantityKernels.min(deltas, Units.KELVIN).getScale());
+    assertEquals(ABSOLUTE, QuantityKernels.sum(Collections.<Quantity<Temperature>> emptyList(), Units.KELVIN).getScale());
+
+    deltas.set(SIZE - 1, Quantities.getQuantity(300, Units.KELVIN));
+    assertEquals(ABSOLUTE, QuantityKernels.sum(deltas, Units.KELVIN).getScale());
+    assertEquals(RELATIVE, QuantityKernels.min(deltas, Units.KELVIN).getScale());
+    final ComparableQuantity<Temperature> max = QuantityKernels.max(deltas, Units.KELVIN);
+    assertEquals(ABSOLUTE, max.getScale());
+    assertNumberEquals(300, max.getValue(), PRECISION_GOAL);
+  }
+
+  @Test
+  public void countInRangeTest() {
+    final Quantity<Length> lower = Quantities.getQuantity(1, Units.METRE.multiply(1000));
+    final Quantity<Length> upper = Quantities.getQuantity(200000, CENTIMETRE);
+    assertEquals(1001, QuantityKernels.countInRange(vector(), lower, upper));
+    assertEquals(1001, QuantityKernels.countInRange(quantities(), lower, upper));
+  }
+
+  @Test
+  public void customPoolTest() throws Exception {
+    final ForkJoinPool pool = new ForkJoinPool(3);
+    try {
+      final QuantityVector<Length> vector = vector();
+      assertNumberEquals(QuantityKernels.sum(vector).getValue(), pool.submit(() -> QuantityKernels.sum(vector)).get().getValue(),
+          PRECISION_GOAL);
+    } finally {
+      pool.shutdown();
+    }
+  }
+}
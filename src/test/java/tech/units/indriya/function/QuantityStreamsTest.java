@@ -0,0 +1,175 @@
+/*
+ * Units of Measurement Reference Implementation
+ * Copyright (c) 2005-2022, Jean-Marie Dautelle, Werner Keil, Otavio Santana.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions
+ *    and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of JSR-385, Indriya nor the names of their contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package tech.units.indriya.function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static tech.units.indriya.NumberAssertions.assertNumberEquals;
+import static tech.units.indriya.function.QuantityStreams.averagingQuantity;
+import static tech.units.indriya.function.QuantityStreams.converting;
+import static tech.units.indriya.function.QuantityStreams.groupingByDimension;
+import static tech.units.indriya.function.QuantityStreams.groupingByUnit;
+import static tech.units.indriya.function.QuantityStreams.groupingByUnitConcurrent;
+import static tech.units.indriya.function.QuantityStreams.maxQuantity;
+import static tech.units.indriya.function.QuantityStreams.minQuantity;
+import static tech.units.indriya.function.QuantityStreams.summingQuantity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+
+import javax.measure.Dimension;
+import javax.measure.Quantity;
+import javax.measure.Quantity.Scale;
+import javax.measure.Unit;
+import javax.measure.quantity.Temperature;
+import javax.measure.quantity.Time;
+
+import org.junit.jupiter.api.Test;
+
+import tech.units.indriya.ComparableQuantity;
+import tech.units.indriya.quantity.Quantities;
+import tech.units.indriya.unit.Units;
+
+public class QuantityStreamsTest {
+
+  private final static double PRECISION_GOAL = 1E-9;
+
+  private static final List<Quantity<Time>> TIMES = createTimes(100_000);
+
+  @Test
+  public void summingTest() {
+    ComparableQuantity<Time> sequential = TIMES.stream().collect(summingQuantity(Units.SECOND));
+    ComparableQuantity<Time> parallel = TIMES.parallelStream().collect(summingQuantity(Units.SECOND));
+
+    assertEquals(Units.SECOND, parallel.getUnit());
+    assertNumberEquals(expectedSumInSeconds(TIMES.size()), sequential.getValue(), PRECISION_GOAL);
+    assertNumberEquals(sequential.getValue(), parallel.getValue(), PRECISION_GOAL);
+  }
+
+  @Test
+  public void summingEmptyTest() {
+    ComparableQuantity<Time> sum = Collections.<Quantity<Time>>emptyList().stream().collect(summingQuantity(Units.SECOND));
+    assertNumberEquals(0, sum.getValue(), PRECISION_GOAL);
+  }
+
+  @Test
+  public void averagingTest() {
+    ComparableQuantity<Time> sequential = TIMES.stream().collect(averagingQuantity(Units.SECOND)).get();
+    ComparableQuantity<Time> parallel = TIMES.parallelStream().collect(averagingQuantity(Units.SECOND)).get();
+
+    assertNumberEquals(expectedSumInSeconds(TIMES.size()) / TIMES.size(), sequential.getValue(), PRECISION_GOAL);
+    assertNumberEquals(sequential.getValue(), parallel.getValue(), PRECISION_GOAL);
+    assertFalse(Collections.<Quantity<Time>>emptyList().stream().collect(averagingQuantity(Units.SECOND)).isPresent());
+  }
+
+  @Test
+  public void relativeScaleTest() {
+    List<Quantity<Temperature>> deltas = Arrays.asList(
+        Quantities.getQuantity(2, Units.CELSIUS, Scale.RELATIVE),
+        Quantities.getQuantity(4, Units.KELVIN, Scale.RELATIVE));
+    ComparableQuantity<Temperature> sum = deltas.parallelStream().collect(summingQuantity(Units.KELVIN));
+    ComparableQuantity<Temperature> mean = deltas.parallelStream().collect(averagingQuantity(Units.KELVIN)).get();
+
+    assertEquals(Scale.RELATIVE, sum.getScale());
+    assertNumberEquals(6, sum.getValue(), PRECISION_GOAL);
+    assertEquals(Scale.RELATIVE, mean.getScale());
+    assertNumberEquals(3, mean.getValue(), PRECISION_GOAL);
+    assertEquals(Scale.ABSOLUTE, TIMES.stream().collect(summingQuantity(Units.SECOND)).getScale());
+
+    List<Quantity<Temperature>> mixed = Arrays.asList(deltas.get(0), Quantities.getQuantity(300, Units.KELVIN));
+    assertEquals(Scale.RELATIVE, mixed.parallelStream().collect(minQuantity(Units.KELVIN)).get().getScale());
+    assertEquals(Scale.ABSOLUTE, mixed.parallelStream().collect(maxQuantity(Units.KELVIN)).get().getScale());
+  }
+
+  @Test
+  public void minMaxTest() {
+    assertNumberEquals(0, TIMES.parallelStream().collect(minQuantity(Units.SECOND)).get().getValue(), PRECISION_GOAL);
+    assertNumberEquals(98 * 60, TIMES.parallelStream().collect(maxQuantity(Units.SECOND)).get().getValue(), PRECISION_GOAL);
+    assertNumberEquals(98, TIMES.stream().collect(maxQuantity(Units.MINUTE)).get().getValue(), PRECISION_GOAL);
+    assertFalse(Collections.<Quantity<Time>>emptyList().stream().collect(minQuantity(Units.SECOND)).isPresent());
+  }
+
+  @Test
+  public void convertingTest() {
+    List<ComparableQuantity<Time>> sequential = TIMES.stream().collect(converting(Units.SECOND, Collectors.toList()));
+    List<ComparableQuantity<Time>> parallel = TIMES.parallelStream().collect(converting(Units.SECOND, Collectors.toList()));
+
+    assertEquals(TIMES.size(), parallel.size());
+    assertEquals(sequential, parallel);
+    assertTrue(parallel.stream().allMatch(q -> Units.SECOND.equals(q.getUnit())));
+    assertNumberEquals(120, parallel.get(2).getValue(), PRECISION_GOAL);
+  }
+
+  @Test
+  public void groupingByUnitTest() {
+    Map<Unit<Time>, List<Quantity<Time>>> sequential = TIMES.stream().collect(groupingByUnit());
+    Map<Unit<Time>, Long> parallel = TIMES.parallelStream().collect(groupingByUnitConcurrent(Collectors.counting()));
+
+    assertEquals(2, sequential.size());
+    assertEquals(TIMES.size() / 2, sequential.get(Units.MINUTE).size());
+    assertEquals(Long.valueOf(TIMES.size() / 2), parallel.get(Units.SECOND));
+    assertTrue(groupingByUnitConcurrent(Collectors.counting()).characteristics().contains(Collector.Characteristics.CONCURRENT));
+  }
+
+  @Test
+  public void groupingByDimensionTest() {
+    List<Quantity<?>> quantities = new ArrayList<>(TIMES);
+    quantities.add(Quantities.getQuantity(1, Units.METRE));
+    Map<Dimension, List<Quantity<?>>> grouped = quantities.parallelStream().collect(groupingByDimension());
+
+    assertEquals(2, grouped.size());
+    assertEquals(TIMES.size(), grouped.get(Units.SECOND.getDimension()).size());
+    assertEquals(1, grouped.get(Units.METRE.getDimension()).size());
+  }
+
+  // -- HELPER
+
+  private static List<Quantity<Time>> createTimes(int size) {
+    List<Quantity<Time>> times = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      times.add(Quantities.getQuantity(i % 100, i % 2 == 0 ? Units.MINUTE : Units.SECOND));
+    }
+    return times;
+  }
+
+  private static double expectedSumInSeconds(int size) {
+    double sum = 0;
+    for (int i = 0; i < size; i++) {
+      sum += (i % 100) * (i % 2 == 0 ? 60 : 1);
+    }
+    return sum;
+  }
+}
@@ -178,6 +178,61 @@ public class QuantitySummaryStatisticsTest {
     assertNotNull(summary.getSum());
   }
 
+  @Test
+  public void combineDifferentUnitsTest() {
+    QuantitySummaryStatistics<Time> summaryA = createSummaryTime();
+    QuantitySummaryStatistics<Time> summaryB = createSummaryTime().to(Units.HOUR);
+    QuantitySummaryStatistics<Time> summary = summaryA.combine(summaryB);
+
+    assertEquals(6L, summary.getCount());
+    assertEquals(Units.DAY, summary.getSum().getUnit());
+    assertNumberEquals(1, summary.getMin().getValue(), PRECISION_GOAL);
+    assertNumberEquals(9, summary.getMax().getValue(), PRECISION_GOAL);
+    assertNumberEquals(24, summary.getSum().getValue(), PRECISION_GOAL);
+    assertNumberEquals(4, summary.getAverage().getValue(), PRECISION_GOAL);
+  }
+
+  @Test
+  public void combineEmptyTest() {
+    QuantitySummaryStatistics<Time> summary = new QuantitySummaryStatistics<>(Units.DAY)
+        .combine(createSummaryTime())
+        .combine(new QuantitySummaryStatistics<>(Units.HOUR));
+
+    assertEquals(3L, summary.getCount());
+    assertNumberEquals(1, summary.getMin().getValue(), PRECISION_GOAL);
+    assertNumberEquals(9, summary.getMax().getValue(), PRECISION_GOAL);
+    assertNumberEquals(12, summary.getSum().getValue(), PRECISION_GOAL);
+  }
+
+  @Test
+  public void varianceTest() {
+    QuantitySummaryStatistics<Time> summary = createSummaryTime();
+    
+    assertNumberEquals(Math.sqrt(38d / 3), summary.getStandardDeviation().getValue(), 1E-12);
+    assertNumberEquals(38d / 3, summary.getVariance().getValue(), 1E-12);
+    assertEquals(Units.DAY.pow(2), summary.getVariance().getUnit());
+
+    QuantitySummaryStatistics<Time> summaryHour = summary.to(Units.HOUR);
+    assertNumberEquals(Math.sqrt(38d / 3) * 24, summaryHour.getStandardDeviation().getValue(), 1E-9);
+  }
+
+  @Test
+  public void parallelSummaryTest() {
+    List<Quantity<Time>> times = new ArrayList<>();
+    for (int i = 0; i < 10_000; i++) {
+      times.add(Quantities.getQuantity(i % 100, i % 2 == 0 ? Units.MINUTE : Units.SECOND));
+    }
+    QuantitySummaryStatistics<Time> sequential = times.stream().collect(summarizeQuantity(Units.SECOND));
+    QuantitySummaryStatistics<Time> parallel = times.parallelStream().collect(summarizeQuantity(Units.SECOND));
+
+    assertEquals(sequential.getCount(), parallel.getCount());
+    assertNumberEquals(sequential.getMin().getValue(), parallel.getMin().getValue(), PRECISION_GOAL);
+    assertNumberEquals(sequential.getMax().getValue(), parallel.getMax().getValue(), PRECISION_GOAL);
+    assertNumberEquals(sequential.getSum().getValue(), parallel.getSum().getValue(), PRECISION_GOAL);
+    assertNumberEquals(sequential.getAverage().getValue(), parallel.getAverage().getValue(), PRECISION_GOAL);
+    assertNumberEquals(sequential.getStandardDeviation().getValue(), parallel.getStandardDeviation().getValue(), 1E-9);
+  }
+
   // -- HELPER
   
   private static QuantitySummaryStatistics<Time> createSummaryTime() {
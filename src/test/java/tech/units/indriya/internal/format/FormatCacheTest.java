@@ -0,0 +1,81 @@
+/*
+ * Units of Measurement Reference Implementation
+ * Copyright (c) 2005-2022, Jean-Marie Dautelle, Werner Keil, Otavio Santana.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions
+ *    and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of JSR-385, Indriya nor the names of their contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package tech.units.indriya.internal.format;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests on the {@code FormatCache} class.
+ */
+public class FormatCacheTest {
+
+    @Test
+    public void testGet() {
+        final FormatCache<Integer, String> cache = new FormatCache<>(16);
+        final AtomicInteger loads = new AtomicInteger();
+        for (int i = 0; i < 3; i++) {
+            assertEquals("1", cache.get(1, k -> {
+                loads.incrementAndGet();
+                return String.valueOf(k);
+            }));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(2, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getHitCount());
+    }
+
+    @Test
+    public void testInvalidateAll() {
+        final FormatCache<Integer, String> cache = new FormatCache<>(16);
+        assertEquals("a", cache.get(1, k -> "a"));
+        FormatCache.invalidateAll();
+        assertEquals("b", cache.get(1, k -> "b"));
+        assertEquals("b", cache.get(1, k -> "c"));
+    }
+
+    @Test
+    public void testBounded() {
+        final FormatCache<Integer, Integer> cache = new FormatCache<>(4);
+        for (int i = 0; i < 100; i++) {
+            cache.get(i, k -> k);
+        }
+        assertEquals(true, cache.size() <= 4);
+        assertThrows(IllegalArgumentException.class, () -> new FormatCache<>(0));
+        assertThrows(NullPointerException.class, () -> cache.get(-1, k -> null));
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Units of Measurement Reference Implementation
+ * Copyright (c) 2005-2022, Jean-Marie Dautelle, Werner Keil, Otavio Santana.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions
+ *    and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of JSR-385, Indriya nor the names of their contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package tech.units.indriya.internal.format;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.text.ParsePosition;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import javax.measure.format.MeasurementParseException;
+
+import org.junit.jupiter.api.Test;
+
+import tech.units.indriya.function.RationalNumber;
+import tech.units.indriya.internal.function.Calculator;
+
+/**
+ * Unit tests on the {@code RationalNumberScanner} class.
+ */
+public class RationalNumberScannerTest {
+
+  private static final String[] FRAGMENTS = { "0", "1", "7", "42", "9223372036854775807", "000", "-", "+", ".", "e", "E", "e-", "5e3", "25",
+      "÷", " ", "  ", "\t", "m", "x", "1.5", "2147483648", "1073741824", "e99", "e-20" };
+
+  private static Object scan(String literal, ParsePosition cursor) {
+    try {
+      return new RationalNumberScanner(literal, cursor, null).getNumber();
+    } catch (RuntimeException e) {
+      return e.getClass();
+    }
+  }
+
+  /**
+   * Scans like the scanner did before it read literals in place.
+   */
+  private static Object scanWithStrings(String csq, ParsePosition cursor) {
+    try {
+      final List<String> literals = new ArrayList<>();
+      boolean division;
+      do {
+        int start = cursor.getIndex();
+        while (start < csq.length() && Character.isWhitespace(csq.charAt(start))) {
+          start++;
+        }
+        int end = start + 1;
+        division = false;
+        while (end < csq.length()) {
+          final char c = csq.charAt(end);
+          if (c == RationalNumber.DIVISION_CHARACTER) {
+            division = true;
+            break;
+          }
+          if (Character.isWhitespace(c)) {
+            break;
+          }
+          end++;
+        }
+        cursor.setIndex(end + 1);
+        literals.add(csq.subSequence(start, end).toString());
+      } while (division);
+      if (literals.size() == 2) {
+        return RationalNumber.of(new BigInteger(literals.get(0)), new BigInteger(literals.get(1)));
+      }
+      if (literals.size() == 1) {
+        try {
+          return Calculator.of(new BigDecimal(literals.get(0))).peek();
+        } catch (Exception e) {
+          throw new MeasurementParseException("Failed to parse number-literal");
+        }
+      }
+      throw new MeasurementParseException("Unexpected number of number-literals");
+    } catch (RuntimeException e) {
+      return e.getClass();
+    }
+  }
+
+  @Test
+  public void scanTest() {
+    final ParsePosition cursor = new ParsePosition(0);
+    assertEquals(42, new RationalNumberScanner(" 42 m", cursor, null).getNumber());
+    assertEquals(4, cursor.getIndex());
+    assertEquals(3_000_000_000L, new RationalNumberScanner("3e9", new ParsePosition(0), null).getNumber());
+    assertEquals(new BigDecimal("-1.50"), new RationalNumberScanner("-1.50", new ParsePosition(0), null).getNumber());
+    assertEquals(RationalNumber.of(5, 3), new RationalNumberScanner("5÷3 m", new ParsePosition(0), null).getNumber());
+    assertEquals(new BigInteger("92233720368547758070"),
+        new RationalNumberScanner("92233720368547758070", new ParsePosition(0), null).getNumber());
+    assertThrows(MeasurementParseException.class, () -> new RationalNumberScanner("1.5.1", new ParsePosition(0), null).getNumber());
+  }
+
+  @Test
+  public void differentialFuzzTest() {
+    final Random random = new Random(385);
+    final StringBuilder literal = new StringBuilder();
+    for (int n = 0; n < 20000; n++) {
+      literal.setLength(0);
+      final int length = 1 + random.nextInt(5);
+      for (int i = 0; i < length; i++) {
+        literal.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+      }
+      final String source = literal.toString();
+      final ParsePosition expectedCursor = new ParsePosition(0);
+      final ParsePosition actualCursor = new ParsePosition(0);
+      final Object expected = scanWithStrings(source, expectedCursor);
+      final Object actual = scan(source, actualCursor);
+      assertEquals(expected, actual, source);
+      if (expected instanceof Number) {
+        assertEquals(expected.getClass(), actual.getClass(), source);
+        assertEquals(expectedCursor.getIndex(), actualCursor.getIndex(), source);
+      }
+    }
+  }
+}
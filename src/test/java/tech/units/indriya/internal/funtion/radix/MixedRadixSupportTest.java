@@ -30,6 +30,7 @@
 package tech.units.indriya.internal.funtion.radix;
 
 import java.math.BigDecimal;
+import java.util.Random;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -37,6 +38,7 @@ import org.junit.jupiter.api.Test;
 import tech.units.indriya.NumberAssertions;
 import tech.units.indriya.function.MultiplyConverter;
 import tech.units.indriya.function.RationalNumber;
+import tech.units.indriya.internal.function.Calculator;
 import tech.units.indriya.internal.function.radix.MixedRadixSupport;
 import tech.units.indriya.internal.function.radix.Radix;
 
@@ -53,6 +55,11 @@ public class MixedRadixSupportTest {
             
     };
 
+    private Radix[] integerRadices = {
+            Radix.ofNumberFactor(60),
+            Radix.ofNumberFactor(15),
+    };
+
     private Radix[] rationalRadices = {
             Radix.ofMultiplyConverter(MultiplyConverter.ofRational(RationalNumber.ofInteger(60))),
             Radix.ofMultiplyConverter(MultiplyConverter.ofRational(RationalNumber.ofInteger(15))),
@@ -129,6 +136,75 @@ public class MixedRadixSupportTest {
         NumberAssertions.assertNumberEquals(expected, actual, 1E-9);
         
     }
+
+    @Test
+    public void extractionArithmeticInteger() {
+        
+        MixedRadixSupport mir = new MixedRadixSupport(integerRadices);
+        
+        Number[] numbers = new Number[3];
+        
+        mir.extractRadixNumbers(9*60*15 + 13*15 + 5, numbers);
+        
+        Assertions.assertArrayEquals(new Number[] {9, 13, 5}, numbers);
+        
+        mir.extractRadixNumbers(-(9*60*15 + 13*15 + 5), numbers);
+        
+        Assertions.assertArrayEquals(new Number[] {-9, -13, -5}, numbers);
+        
+    }
     
+    /**
+     * Compares the {@code long} arithmetic with the arithmetic of the {@link Radix}.
+     */
+    @Test
+    public void integerArithmeticMatchesRadix() {
+        
+        MixedRadixSupport mir = new MixedRadixSupport(integerRadices);
+        
+        Random random = new Random(385);
+        
+        Number[] numbers = new Number[3];
+        
+        for(int n=0;n<10000;++n) {
+            
+            long value = random.nextLong() >> random.nextInt(64);
+            
+            Number total = n % 2 == 0 ? (Number) value : (Number) (int) value;
+            
+            // as extracted by the radices
+            
+            Number[] expected = new Number[3];
+            Number quotient = total;
+            for(int i=integerRadices.length-1;i>=0;--i) {
+                Number[] divideAndRemainder = integerRadices[i].divideAndRemainder(quotient, i != integerRadices.length-1);
+                expected[i+1] = divideAndRemainder[1];
+                quotient = divideAndRemainder[0];
+            }
+            expected[0] = quotient;
+            
+            mir.extractRadixNumbers(total, numbers);
+            
+            Assertions.assertArrayEquals(expected, numbers, total.toString());
+            
+            for(int i=0;i<numbers.length;++i) {
+                Assertions.assertEquals(expected[i].getClass(), numbers[i].getClass(), total.toString());
+            }
+            
+            // as summed up by the radices
+            
+            Number sum = numbers[0];
+            for(int i=0;i<integerRadices.length;++i) {
+                sum = Calculator.of(integerRadices[i].multiply(sum)).add(numbers[i+1]).peek();
+            }
+            
+            Number actual = mir.sumMostSignificant(numbers);
+            
+            Assertions.assertEquals(sum, actual, total.toString());
+            Assertions.assertEquals(sum.getClass(), actual.getClass(), total.toString());
+            
+        }
+        
+    }
 
 }
@@ -31,7 +31,12 @@ package tech.units.indriya.quantity;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Locale;
+import java.util.NoSuchElementException;
 
 import javax.measure.Quantity;
 import javax.measure.Unit;
@@ -43,6 +48,7 @@ import javax.measure.quantity.Temperature;
 import javax.measure.quantity.Time;
 
 import static javax.measure.MetricPrefix.CENTI;
+import static javax.measure.Quantity.Scale.ABSOLUTE;
 import static javax.measure.Quantity.Scale.RELATIVE;
 import static tech.units.indriya.unit.Units.METRE;
 
@@ -171,4 +177,65 @@ public class QuantitiesTest {
 			Quantity<?> result = Quantities.getQuantity("170").asType(Dimensionless.class);
 		}); 		
 	}
-}
\ No newline at end of file
+
+  @Test
+  public void sumTest() {
+    List<Quantity<Length>> lengths = Arrays.asList(
+        Quantities.getQuantity(1, METRE),
+        Quantities.getQuantity(50, CENTI(METRE)),
+        Quantities.getQuantity(new BigDecimal("0.25"), METRE));
+    ComparableQuantity<Length> sum = Quantities.sum(lengths, METRE);
+    assertEquals(METRE, sum.getUnit());
+    assertEquals(ABSOLUTE, sum.getScale());
+    assertNumberEquals(1.75, sum.getValue(), 1E-12);
+    assertNumberEquals(175, Quantities.sum(lengths, CENTI(METRE)).getValue(), 1E-12);
+  }
+
+  @Test
+  public void sumEmptyTest() {
+    ComparableQuantity<Length> sum = Quantities.sum(Collections.<Quantity<Length>>emptyList(), METRE);
+    assertNumberEquals(0, sum.getValue(), 1E-12);
+    assertEquals(METRE, sum.getUnit());
+  }
+
+  @Test
+  public void sumCompensatedTest() {
+    List<Quantity<Length>> lengths = new ArrayList<>();
+    for (int i = 0; i < 10_000; i++) {
+      lengths.add(Quantities.getQuantity(0.1d, METRE));
+    }
+    // naive double summation would yield 1000.0000000001588
+    assertEquals(1000d, Quantities.sum(lengths, METRE).getValue().doubleValue(), 0);
+  }
+
+  @Test
+  public void sumRelativeTest() {
+    List<Quantity<Temperature>> deltas = Arrays.asList(
+        Quantities.getQuantity(2, CELSIUS, RELATIVE),
+        Quantities.getQuantity(3, Units.KELVIN, RELATIVE));
+    ComparableQuantity<Temperature> sum = Quantities.sum(deltas, CELSIUS);
+    assertEquals(RELATIVE, sum.getScale());
+    assertNumberEquals(5, sum.getValue(), 1E-12);
+  }
+
+  @Test
+  public void meanTest() {
+    List<Quantity<Time>> times = Arrays.asList(
+        Quantities.getQuantity(9, Units.DAY),
+        Quantities.getQuantity(48, Units.HOUR),
+        Quantities.getQuantity(1440, Units.MINUTE));
+    assertNumberEquals(4, Quantities.mean(times, Units.DAY).getValue(), 1E-12);
+    assertThrows(NoSuchElementException.class, () -> Quantities.mean(Collections.<Quantity<Time>>emptyList(), Units.DAY));
+  }
+
+  @Test
+  public void minMaxTest() {
+    List<Quantity<Time>> times = Arrays.asList(
+        Quantities.getQuantity(9, Units.DAY),
+        Quantities.getQuantity(48, Units.HOUR),
+        Quantities.getQuantity(1440, Units.MINUTE));
+    assertNumberEquals(24, Quantities.min(times, Units.HOUR).getValue(), 1E-12);
+    assertNumberEquals(9, Quantities.max(times, Units.DAY).getValue(), 1E-12);
+    assertThrows(NoSuchElementException.class, () -> Quantities.max(Collections.<Quantity<Time>>emptyList(), Units.DAY));
+  }
+}
@@ -0,0 +1,164 @@
+/*
+ * Units of Measurement Reference Implementation
+ * Copyright (c) 2005-2022, Jean-Marie Dautelle, Werner Keil, Otavio Santana.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions
+ *    and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of JSR-385, Indriya nor the names of their contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package tech.units.indriya.quantity;
+
+import static javax.measure.Quantity.Scale.ABSOLUTE;
+import static javax.measure.Quantity.Scale.RELATIVE;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static tech.units.indriya.NumberAssertions.assertNumberEquals;
+import static tech.units.indriya.unit.Units.CELSIUS;
+import static tech.units.indriya.unit.Units.KELVIN;
+import static tech.units.indriya.unit.Units.METRE;
+
+import java.io.IOException;
+import java.nio.ReadOnlyBufferException;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.NoSuchElementException;
+
+import javax.measure.quantity.Length;
+import javax.measure.quantity.Temperature;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import tech.units.indriya.unit.Units;
+
+public class QuantityBufferTest {
+
+  private final static double PRECISION_GOAL = 1E-9;
+
+  private Path file;
+
+  @BeforeEach
+  public void init() throws IOException {
+    file = Files.createTempFile("quantities", ".bin");
+  }
+
+  @AfterEach
+  public void cleanup() throws IOException {
+    Files.deleteIfExists(file);
+  }
+
+  @Test
+  public void allocateDirectTest() {
+    QuantityBuffer<Length> buffer = QuantityBuffer.allocateDirect(10, METRE, ABSOLUTE, 2);
+    for (int i = 0; i < 10; i++) {
+      buffer.setValue(i, i + 1);
+    }
+    assertEquals(10, buffer.size());
+    assertFalse(buffer.isReadOnly());
+    assertNumberEquals(55, buffer.sum().getValue(), PRECISION_GOAL);
+    assertNumberEquals(5.5, buffer.mean().getValue(), PRECISION_GOAL);
+    assertNumberEquals(1, buffer.min().getValue(), PRECISION_GOAL);
+    assertNumberEquals(10, buffer.max().getValue(), PRECISION_GOAL);
+    assertEquals(Quantities.getQuantity(7d, METRE), buffer.get(6));
+    assertThrows(IndexOutOfBoundsException.class, () -> buffer.getValue(10));
+  }
+
+  @Test
+  public void vectorRoundTripTest() {
+    QuantityVector<Length> vector = QuantityVector.of(new double[] { 1, 2, 3 }, METRE);
+    QuantityBuffer<Length> buffer = QuantityBuffer.of(vector);
+    assertEquals(vector, buffer.toVector());
+  }
+
+  @Test
+  public void emptyTest() {
+    QuantityBuffer<Length> buffer = QuantityBuffer.allocateDirect(0, METRE);
+    assertNumberEquals(0, buffer.sum().getValue(), PRECISION_GOAL);
+    assertThrows(NoSuchElementException.class, buffer::mean);
+    assertEquals(0, buffer.toVector().size());
+  }
+
+  @Test
+  public void createAndMapTest() throws IOException {
+    QuantityBuffer<Length> created = QuantityBuffer.create(file, 5, METRE.divide(1000), ABSOLUTE, 1);
+    for (int i = 0; i < 5; i++) {
+      created.setValue(i, 1000 * i);
+    }
+    created.force();
+    assertEquals(QuantityBuffer.HEADER_SIZE + 5 * Double.BYTES, Files.size(file));
+
+    QuantityBuffer<Length> mapped = QuantityBuffer.map(file, MapMode.READ_ONLY, 1).asType(Length.class);
+    assertTrue(mapped.isReadOnly());
+    assertEquals(5, mapped.size());
+    assertEquals(METRE.divide(1000), mapped.getUnit());
+    assertEquals(ABSOLUTE, mapped.getScale());
+    assertNumberEquals(10000, mapped.sum().getValue(), PRECISION_GOAL);
+    assertThrows(ReadOnlyBufferException.class, () -> mapped.convertInPlace(METRE));
+    assertThrows(ReadOnlyBufferException.class, () -> mapped.setValue(0, 1));
+  }
+
+  @Test
+  public void convertInPlaceTest() throws IOException {
+    QuantityBuffer<Length> created = QuantityBuffer.create(file, 3, METRE, ABSOLUTE);
+    created.setValue(0, 1);
+    created.setValue(1, 2.5);
+    created.setValue(2, -4);
+    created.convertInPlace(Units.METRE.divide(100)).force();
+
+    QuantityBuffer<Length> mapped = QuantityBuffer.map(file, MapMode.READ_WRITE).asType(Length.class);
+    assertEquals(METRE.divide(100), mapped.getUnit());
+    assertArrayEquals(new double[] { 100, 250, -400 }, mapped.toVector().toArray(), PRECISION_GOAL);
+  }
+
+  @Test
+  public void relativeConvertInPlaceTest() {
+    QuantityBuffer<Temperature> buffer = QuantityBuffer.allocateDirect(2, CELSIUS, RELATIVE);
+    buffer.setValue(0, 2);
+    buffer.setValue(1, 5);
+    buffer.convertInPlace(KELVIN);
+    assertEquals(KELVIN, buffer.getUnit());
+    assertArrayEquals(new double[] { 2, 5 }, buffer.toVector().toArray(), PRECISION_GOAL);
+  }
+
+  @Test
+  public void mapInvalidFileTest() throws IOException {
+    Files.write(file, new byte[] { 1, 2, 3 });
+    assertThrows(IOException.class, () -> QuantityBuffer.map(file, MapMode.READ_ONLY));
+  }
+
+  @Test
+  public void mapInvalidUnitLengthTest() throws IOException {
+    QuantityBuffer.create(file, 1, METRE, ABSOLUTE).force();
+    final byte[] bytes = Files.readAllBytes(file);
+    bytes[6] = (byte) 0xFF; // negative unit length
+    bytes[7] = (byte) 0xFF;
+    Files.write(file, bytes);
+    assertThrows(IOException.class, () -> QuantityBuffer.map(file, MapMode.READ_ONLY));
+  }
+}
@@ -0,0 +1,189 @@
+/*
+ * Units of Measurement Reference Implementation
+ * Copyright (c) 2005-2022, Jean-Marie Dautelle, Werner Keil, Otavio Santana.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions
+ *    and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of JSR-385, Indriya nor the names of their contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package tech.units.indriya.quantity;
+
+import static javax.measure.Quantity.Scale.ABSOLUTE;
+import static javax.measure.Quantity.Scale.RELATIVE;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static tech.units.indriya.NumberAssertions.assertNumberEquals;
+import static tech.units.indriya.unit.Units.CELSIUS;
+import static tech.units.indriya.unit.Units.KELVIN;
+import static tech.units.indriya.unit.Units.METRE;
+import static tech.units.indriya.unit.Units.SECOND;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import javax.measure.Quantity;
+import javax.measure.quantity.Length;
+import javax.measure.quantity.Speed;
+import javax.measure.quantity.Temperature;
+import javax.measure.quantity.Time;
+
+import org.junit.jupiter.api.Test;
+
+import tech.units.indriya.ComparableQuantity;
+
+public class QuantityVectorTest {
+
+  private final static double PRECISION_GOAL = 1E-12;
+
+  @Test
+  public void ofTest() {
+    double[] values = { 1, 2, 3 };
+    QuantityVector<Length> vector = QuantityVector.of(values, METRE);
+    values[0] = 42;
+
+    assertEquals(3, vector.size());
+    assertEquals(METRE, vector.getUnit());
+    assertEquals(ABSOLUTE, vector.getScale());
+    assertArrayEquals(new double[] { 1, 2, 3 }, vector.toArray());
+    assertEquals(Quantities.getQuantity(2d, METRE), vector.get(1));
+  }
+
+  @Test
+  public void ofQuantitiesTest() {
+    List<Quantity<Length>> quantities = Arrays.asList(Quantities.getQuantity(1, METRE),
+        Quantities.getQuantity(20, METRE.divide(100)), Quantities.getQuantity(3, METRE.multiply(1000)));
+    QuantityVector<Length> vector = QuantityVector.of(quantities, METRE);
+
+    assertArrayEquals(new double[] { 1, 0.2, 3000 }, vector.toArray(), PRECISION_GOAL);
+    assertEquals(ABSOLUTE, vector.getScale());
+    assertEquals(0, QuantityVector.of(Collections.<Quantity<Length>> emptyList(), METRE).size());
+  }
+
+  @Test
+  public void toTest() {
+    QuantityVector<Length> vector = QuantityVector.of(new double[] { 1, 2.5 }, METRE);
+    assertSame(vector, vector.to(METRE));
+    assertArrayEquals(new double[] { 100, 250 }, vector.to(METRE.divide(100)).toArray(), PRECISION_GOAL);
+  }
+
+  @Test
+  public void addTest() {
+    QuantityVector<Length> metres = QuantityVector.of(new double[] { 1, 2 }, METRE);
+    QuantityVector<Length> centimetres = QuantityVector.of(new double[] { 50, 150 }, METRE.divide(100));
+
+    QuantityVector<Length> sum = metres.add(centimetres);
+    assertEquals(METRE, sum.getUnit());
+    assertArrayEquals(new double[] { 1.5, 3.5 }, sum.toArray(), PRECISION_GOAL);
+    assertArrayEquals(new double[] { 0.5, 0.5 }, metres.subtract(centimetres).toArray(), PRECISION_GOAL);
+  }
+
+  @Test
+  public void addSizeMismatchTest() {
+    QuantityVector<Length> v1 = QuantityVector.of(new double[] { 1, 2 }, METRE);
+    QuantityVector<Length> v2 = QuantityVector.of(new double[] { 1 }, METRE);
+    assertThrows(IllegalArgumentException.class, () -> v1.add(v2));
+    assertThrows(IllegalArgumentException.class, () -> v1.multiply(v2));
+  }
+
+  @Test
+  public void addRelativeTemperatureTest() {
+    QuantityVector<Temperature> absolute = QuantityVector.of(new double[] { 20, 30 }, CELSIUS);
+    QuantityVector<Temperature> delta = QuantityVector.of(new double[] { 2, 5 }, KELVIN, RELATIVE);
+
+    // consistent with Quantity#add: absolute + relative is absolute
+    QuantityVector<Temperature> sum = absolute.add(delta);
+    assertEquals(CELSIUS, sum.getUnit());
+    assertEquals(ABSOLUTE, sum.getScale());
+    assertEquals(absolute.get(0).add(delta.get(0)).getValue().doubleValue(), sum.getValue(0), PRECISION_GOAL);
+    assertEquals(absolute.get(1).add(delta.get(1)).getValue().doubleValue(), sum.getValue(1), PRECISION_GOAL);
+  }
+
+  @Test
+  public void relativeConversionTest() {
+    QuantityVector<Temperature> delta = QuantityVector.of(new double[] { 2, 5 }, CELSIUS, RELATIVE);
+    QuantityVector<Temperature> inKelvin = delta.to(KELVIN);
+    assertEquals(RELATIVE, inKelvin.getScale());
+    assertArrayEquals(new double[] { 2, 5 }, inKelvin.toArray(), PRECISION_GOAL);
+    assertArrayEquals(new double[] { 275.15, 278.15 }, QuantityVector.of(new double[] { 2, 5 }, CELSIUS).to(KELVIN).toArray(),
+        PRECISION_GOAL);
+  }
+
+  @Test
+  public void scalarTest() {
+    QuantityVector<Length> vector = QuantityVector.of(new double[] { 1, 2 }, METRE);
+    assertArrayEquals(new double[] { 3, 6 }, vector.multiply(3).toArray(), PRECISION_GOAL);
+    assertArrayEquals(new double[] { 0.5, 1 }, vector.divide(2).toArray(), PRECISION_GOAL);
+  }
+
+  @Test
+  public void multiplyTest() {
+    QuantityVector<Length> lengths = QuantityVector.of(new double[] { 10, 20 }, METRE);
+    QuantityVector<Time> times = QuantityVector.of(new double[] { 2, 5 }, SECOND);
+
+    QuantityVector<Speed> speeds = lengths.divide(times).asType(Speed.class);
+    assertEquals(METRE.divide(SECOND), speeds.getUnit());
+    assertArrayEquals(new double[] { 5, 4 }, speeds.toArray(), PRECISION_GOAL);
+    assertEquals(METRE.multiply(SECOND), lengths.multiply(times).getUnit());
+    assertArrayEquals(new double[] { 20, 100 }, lengths.multiply(times).toArray(), PRECISION_GOAL);
+  }
+
+  @Test
+  public void reductionTest() {
+    QuantityVector<Length> vector = QuantityVector.of(new double[] { 0.1, 0.2, 0.3, -1 }, METRE);
+    assertNumberEquals(-0.4, vector.sum().getValue(), PRECISION_GOAL);
+    assertNumberEquals(-0.1, vector.mean().getValue(), PRECISION_GOAL);
+    assertNumberEquals(-1, vector.min().getValue(), PRECISION_GOAL);
+    assertNumberEquals(0.3, vector.max().getValue(), PRECISION_GOAL);
+
+    QuantityVector<Length> empty = QuantityVector.of(new double[0], METRE);
+    assertNumberEquals(0, empty.sum().getValue(), PRECISION_GOAL);
+    assertThrows(NoSuchElementException.class, empty::mean);
+    assertThrows(NoSuchElementException.class, empty::min);
+  }
+
+  @Test
+  public void asListTest() {
+    QuantityVector<Length> vector = QuantityVector.of(new double[] { 1, 2 }, METRE);
+    List<ComparableQuantity<Length>> list = vector.asList();
+    assertEquals(2, list.size());
+    assertEquals(Quantities.getQuantity(2d, METRE), list.get(1));
+    assertThrows(UnsupportedOperationException.class, () -> list.add(Quantities.getQuantity(3d, METRE)));
+    int count = 0;
+    for (ComparableQuantity<Length> q : vector) {
+      assertEquals(vector.get(count++), q);
+    }
+    assertEquals(2, count);
+  }
+
+  @Test
+  public void equalsTest() {
+    assertEquals(QuantityVector.of(new double[] { 1, 2 }, METRE), QuantityVector.of(new double[] { 1, 2 }, METRE));
+    assertEquals(QuantityVector.of(new double[] { 1, 2 }, METRE).hashCode(),
+        QuantityVector.of(new double[] { 1, 2 }, METRE).hashCode());
+  }
+}
@@ -0,0 +1,161 @@
+/*
+ * Units of Measurement Reference Implementation
+ * Copyright (c) 2005-2022, Jean-Marie Dautelle, Werner Keil, Otavio Santana.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions
+ *    and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of JSR-385, Indriya nor the names of their contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package tech.units.indriya.quantity.time;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static tech.units.indriya.unit.Units.METRE;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import javax.measure.Unit;
+import javax.measure.quantity.Length;
+
+import org.junit.jupiter.api.Test;
+
+import tech.units.indriya.quantity.Quantities;
+import tech.units.indriya.spi.Measurement;
+
+/**
+ * Unit tests on the {@code MeasurementSeries} class.
+ */
+public class MeasurementSeriesTest {
+
+  private static final Unit<Length> CENTIMETRE = METRE.divide(100);
+
+  private static final Instant START = Instant.parse("2026-10-19T00:00:00Z");
+
+  // one sample per second, value i metres
+  private static MeasurementSeries<Length> series(int size) {
+    final MeasurementSeries.Builder<Length> builder = MeasurementSeries.builder(METRE);
+    for (int i = 0; i < size; i++) {
+      builder.add(START.plusSeconds(i), i);
+    }
+    return builder.build();
+  }
+
+  @Test
+  public void builderTest() {
+    final MeasurementSeries<Length> series = MeasurementSeries.builder(METRE)
+        .add(START, Quantities.getQuantity(150, CENTIMETRE))
+        .add(START.plusNanos(1), 2)
+        .build();
+    assertEquals(2, series.size());
+    assertEquals(METRE, series.getUnit());
+    assertEquals(1.5, series.getValue(0), 1E-12);
+    assertEquals(START.plusNanos(1), series.getInstant(1));
+    assertEquals(START.toEpochMilli(), series.getTimestamp(1));
+    assertEquals(START, series.getStart());
+    assertEquals(START.plusNanos(1), series.getEnd());
+  }
+
+  @Test
+  public void outOfOrderTest() {
+    final MeasurementSeries.Builder<Length> builder = MeasurementSeries.builder(METRE).add(START, 1);
+    assertThrows(IllegalArgumentException.class, () -> builder.add(START.minusMillis(1), 2));
+  }
+
+  @Test
+  public void emptyTest() {
+    final MeasurementSeries<Length> series = MeasurementSeries.builder(METRE).build();
+    assertEquals(0, series.size());
+    assertThrows(NoSuchElementException.class, series::getStart);
+  }
+
+  @Test
+  public void ofTimedDataTest() {
+    final List<TimedQuantityData<Length>> data = Arrays.asList(
+        TimedQuantityData.of(Quantities.getQuantity(1, METRE), 1000L),
+        TimedQuantityData.of(Quantities.getQuantity(250, CENTIMETRE), 2000L));
+    final MeasurementSeries<Length> series = MeasurementSeries.of(data, METRE);
+    assertArrayEquals(new double[] { 1, 2.5 }, series.getValues().toArray(), 1E-12);
+    assertEquals(2000L, series.get(1).getTimestamp());
+    assertEquals(Quantities.getQuantity(2.5, METRE), series.get(1).get());
+  }
+
+  @Test
+  public void ofMeasurementsTest() {
+    final List<Measurement<Length>> measurements = Arrays.asList(
+        Measurement.of(Quantities.getQuantity(1, METRE), START),
+        Measurement.of(Quantities.getQuantity(2, METRE), START.plusSeconds(1)));
+    final MeasurementSeries<Length> series = MeasurementSeries.ofMeasurements(measurements, METRE);
+    assertEquals(START.plusSeconds(1), series.asMeasurements().get(1).getInstant());
+    assertEquals(Quantities.getQuantity(2d, METRE), series.asMeasurements().get(1).getQuantity());
+  }
+
+  @Test
+  public void sliceTest() {
+    final MeasurementSeries<Length> series = series(86400);
+    final MeasurementSeries<Length> hour = series.slice(START.plusSeconds(3600), START.plusSeconds(7200));
+    assertEquals(3600, hour.size());
+    assertEquals(START.plusSeconds(3600), hour.getStart());
+    assertEquals(3600, hour.getValue(0), 0);
+    assertEquals(START.plusSeconds(7199), hour.getEnd());
+
+    assertSame(series, series.slice(START.minusSeconds(1), START.plusSeconds(86400)));
+    assertEquals(0, series.slice(START.plusSeconds(10), START.plusSeconds(5)).size());
+    assertEquals(0, series.indexOf(Long.MIN_VALUE));
+    assertEquals(86400, series.indexOf(Long.MAX_VALUE));
+  }
+
+  @Test
+  public void toTest() {
+    final MeasurementSeries<Length> series = series(3);
+    assertSame(series, series.to(METRE));
+    final MeasurementSeries<Length> converted = series.to(CENTIMETRE);
+    assertEquals(CENTIMETRE, converted.getUnit());
+    assertArrayEquals(new double[] { 0, 100, 200 }, converted.getValues().toArray(), 1E-9);
+    assertEquals(series.getInstant(2), converted.getInstant(2));
+  }
+
+  @Test
+  public void iteratorTest() {
+    int i = 0;
+    for (TimedQuantityData<Length> data : series(5)) {
+      assertEquals(START.plusSeconds(i).toEpochMilli(), data.getTimestamp());
+      assertEquals(Quantities.getQuantity((double) i, METRE), data.get());
+      i++;
+    }
+    assertEquals(5, i);
+  }
+
+  @Test
+  public void preEpochTest() {
+    final Instant instant = Instant.parse("1969-12-31T23:59:59.999999999Z");
+    final MeasurementSeries<Length> series = MeasurementSeries.builder(METRE).add(instant, 1).build();
+    assertEquals(instant, series.getInstant(0));
+    assertEquals(-1, series.getTimestamp(0));
+  }
+}
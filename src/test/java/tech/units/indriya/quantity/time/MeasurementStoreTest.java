@@ -0,0 +1,210 @@
+/*
+ * Units of Measurement Reference Implementation
+ * Copyright (c) 2005-2022, Jean-Marie Dautelle, Werner Keil, Otavio Santana.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions
+ *    and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of JSR-385, Indriya nor the names of their contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package tech.units.indriya.quantity.time;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static tech.units.indriya.unit.Units.CELSIUS;
+import static tech.units.indriya.unit.Units.KELVIN;
+import static tech.units.indriya.unit.Units.METRE;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.measure.Quantity.Scale;
+import javax.measure.UnconvertibleException;
+import javax.measure.Unit;
+import javax.measure.quantity.Temperature;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import tech.units.indriya.quantity.Quantities;
+import tech.units.indriya.spi.Measurement;
+
+/**
+ * Unit tests on the {@code MeasurementStore} class.
+ */
+public class MeasurementStoreTest {
+
+  private static final Instant START = Instant.parse("2026-10-19T00:00:00Z");
+
+  private static final long START_NANOS = MeasurementSeries.toEpochNanos(START);
+
+  private static final Unit<Temperature> MILLIKELVIN = KELVIN.divide(1000);
+
+  @TempDir
+  Path dir;
+
+  // one sample per second, alternating between kelvin and millikelvin, value i kelvin
+  private static void fill(MeasurementStore store, int size) throws IOException {
+    for (int i = 0; i < size; i++) {
+      store.append(START.plusSeconds(i), i % 2 == 0 ? Quantities.getQuantity(i, KELVIN) : Quantities.getQuantity(i * 1000, MILLIKELVIN));
+    }
+  }
+
+  @Test
+  public void appendAndScanTest() throws IOException {
+    try (MeasurementStore store = MeasurementStore.open(dir)) {
+      fill(store, 10);
+      assertEquals(10, store.size());
+      final List<String> records = new ArrayList<>();
+      store.scan(START.plusSeconds(3), START.plusSeconds(6), (t, u, v) -> records.add((t - START_NANOS) + " " + v + " " + u));
+      assertEquals(3, records.size());
+      assertEquals("3000000000 3000.0 " + MILLIKELVIN, records.get(0));
+      assertEquals("4000000000 4.0 K", records.get(1));
+      assertEquals("5000000000 5000.0 " + MILLIKELVIN, records.get(2));
+    }
+  }
+
+  @Test
+  public void seriesTest() throws IOException {
+    try (MeasurementStore store = MeasurementStore.open(dir)) {
+      fill(store, 10);
+      store.append(START.plusSeconds(10), Quantities.getQuantity(0, CELSIUS));
+      final MeasurementSeries<Temperature> series = store.series(START.plusSeconds(8), START.plusSeconds(20), KELVIN);
+      assertEquals(3, series.size());
+      assertEquals(KELVIN, series.getUnit());
+      assertEquals(8, series.getValue(0), 1E-12);
+      assertEquals(9, series.getValue(1), 1E-12);
+      assertEquals(273.15, series.getValue(2), 1E-12);
+      assertEquals(START.plusSeconds(10), series.getInstant(2));
+      assertEquals(0, store.series(START.plusSeconds(20), START.plusSeconds(30), KELVIN).size());
+    }
+  }
+
+  @Test
+  public void reopenTest() throws IOException {
+    try (MeasurementStore store = MeasurementStore.open(dir, MeasurementStore.INDEX_INTERVAL)) {
+      fill(store, 2500);
+    }
+    try (MeasurementStore store = MeasurementStore.open(dir, MeasurementStore.INDEX_INTERVAL)) {
+      assertEquals(2500, store.size());
+      assertThrows(IllegalArgumentException.class, () -> store.append(START, Quantities.getQuantity(1, KELVIN)));
+      store.append(START.plusSeconds(2500), Quantities.getQuantity(2500, KELVIN));
+      assertEquals(2501, store.size());
+    }
+    try (MeasurementStore store = MeasurementStore.open(dir)) {
+      final MeasurementSeries<Temperature> series = store.series(START, START.plusSeconds(3000), KELVIN);
+      assertEquals(2501, series.size());
+      for (int i = 0; i < series.size(); i++) {
+        assertEquals(START.plusSeconds(i), series.getInstant(i));
+        assertEquals(i, series.getValue(i), 1E-9);
+      }
+    }
+  }
+
+  @Test
+  public void segmentsTest() throws IOException {
+    try (MeasurementStore store = MeasurementStore.open(dir, MeasurementStore.INDEX_INTERVAL)) {
+      fill(store, 5000);
+      assertEquals(5, Files.list(dir).filter(p -> p.toString().endsWith(MeasurementStore.SUFFIX)).count());
+      // ranges within, across and between segments, exercising the sparse index
+      for (int from : new int[] { 0, 1, 1023, 1024, 1025, 2047, 3000, 4999 }) {
+        for (int length : new int[] { 0, 1, 2, 1024, 3000 }) {
+          final long[] count = new long[1];
+          final long[] next = { START_NANOS + from * 1_000_000_000L };
+          store.scan(START.plusSeconds(from), START.plusSeconds(from + length), (t, u, v) -> {
+            assertEquals(next[0], t);
+            next[0] += 1_000_000_000L;
+            count[0]++;
+          });
+          assertEquals(Math.min(length, 5000 - from), count[0], from + "+" + length);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void duplicateTimestampsTest() throws IOException {
+    try (MeasurementStore store = MeasurementStore.open(dir, MeasurementStore.INDEX_INTERVAL)) {
+      for (int i = 0; i < 3000; i++) {
+        store.append(START_NANOS + i / 2000, Quantities.getQuantity(i, KELVIN));
+      }
+      final long[] count = new long[1];
+      store.scan(START_NANOS + 1, START_NANOS + 2, (t, u, v) -> count[0]++);
+      assertEquals(1000, count[0]);
+    }
+  }
+
+  @Test
+  public void appendMeasurementTest() throws IOException {
+    try (MeasurementStore store = MeasurementStore.open(dir)) {
+      store.append(Measurement.of(Quantities.getQuantity(1, METRE), START));
+      store.append(TimedQuantityData.of(Quantities.getQuantity(2, METRE), START.toEpochMilli() + 1));
+      final List<Long> timestamps = new ArrayList<>();
+      store.scan(Long.MIN_VALUE, Long.MAX_VALUE, (t, u, v) -> timestamps.add(t));
+      assertEquals(START_NANOS, (long) timestamps.get(0));
+      assertEquals(START_NANOS + 1_000_000L, (long) timestamps.get(1));
+    }
+  }
+
+  @Test
+  public void invalidAppendTest() throws IOException {
+    try (MeasurementStore store = MeasurementStore.open(dir)) {
+      assertThrows(IllegalArgumentException.class,
+          () -> store.append(START, Quantities.getQuantity(1, KELVIN, Scale.RELATIVE)));
+      store.append(START, Quantities.getQuantity(1, METRE));
+      assertThrows(IllegalArgumentException.class, () -> store.append(START.minusNanos(1), Quantities.getQuantity(1, METRE)));
+      assertThrows(UnconvertibleException.class, () -> store.series(START, START.plusSeconds(1), KELVIN));
+    }
+  }
+
+  @Test
+  public void corruptSegmentTest() throws IOException {
+    Files.write(dir.resolve("00000000" + MeasurementStore.SUFFIX), new byte[8192]);
+    assertThrows(IOException.class, () -> MeasurementStore.open(dir));
+  }
+
+  @Test
+  public void corruptSegmentHeaderTest() throws IOException {
+    try (MeasurementStore store = MeasurementStore.open(dir, MeasurementStore.INDEX_INTERVAL)) {
+      fill(store, 10);
+    }
+    final Path segment = dir.resolve("00000000" + MeasurementStore.SUFFIX);
+    final byte[] original = Files.readAllBytes(segment);
+    // unit count, record count and length of the first unit symbol
+    assertCorrupt(segment, ByteBuffer.wrap(original.clone()).putShort(6, (short) -1));
+    assertCorrupt(segment, ByteBuffer.wrap(original.clone()).putInt(12, -1));
+    assertCorrupt(segment, ByteBuffer.wrap(original.clone()).putInt(12, MeasurementStore.INDEX_INTERVAL + 1));
+    assertCorrupt(segment, ByteBuffer.wrap(original.clone()).putShort(32, (short) -1));
+    assertCorrupt(segment, ByteBuffer.wrap(original.clone()).putShort(32, (short) 4095));
+  }
+
+  private void assertCorrupt(Path segment, ByteBuffer bytes) throws IOException {
+    Files.write(segment, bytes.array());
+    assertThrows(IOException.class, () -> MeasurementStore.open(dir, MeasurementStore.INDEX_INTERVAL));
+  }
+}
@@ -0,0 +1,168 @@
+/*
+ * Units of Measurement Reference Implementation
+ * Copyright (c) 2005-2022, Jean-Marie Dautelle, Werner Keil, Otavio Santana.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions
+ *    and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of JSR-385, Indriya nor the names of their contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package tech.units.indriya.quantity.time;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static tech.units.indriya.NumberAssertions.assertNumberEquals;
+import static tech.units.indriya.unit.Units.METRE;
+import static tech.units.indriya.unit.Units.MINUTE;
+import static tech.units.indriya.unit.Units.SECOND;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import javax.measure.Unit;
+import javax.measure.quantity.Length;
+
+import org.junit.jupiter.api.Test;
+
+import tech.units.indriya.quantity.Quantities;
+
+/**
+ * Unit tests on the {@code QuantityWindow} class.
+ */
+public class QuantityWindowTest {
+
+  private static final double PRECISION_GOAL = 1E-9;
+
+  private static final Unit<Length> CENTIMETRE = METRE.divide(100);
+
+  @Test
+  public void slidingTest() {
+    final QuantityWindow.Sliding<Length> window = QuantityWindow.sliding(Quantities.getQuantity(3, SECOND), METRE);
+    window.accept(TimedQuantityData.of(Quantities.getQuantity(5, METRE), 0L));
+    window.accept(1000L, Quantities.getQuantity(100, CENTIMETRE));
+    window.accept(2000L, 3);
+    WindowAggregate<Length> aggregate = window.getAggregate();
+    assertEquals(3, aggregate.getCount());
+    assertNumberEquals(9, aggregate.getSum().getValue(), PRECISION_GOAL);
+    assertNumberEquals(3, aggregate.getMean().getValue(), PRECISION_GOAL);
+    assertNumberEquals(1, aggregate.getMin().getValue(), PRECISION_GOAL);
+    assertNumberEquals(5, aggregate.getMax().getValue(), PRECISION_GOAL);
+
+    // evicts the sample at 0
+    window.accept(3000L, 2);
+    aggregate = window.getAggregate();
+    assertEquals(3, aggregate.getCount());
+    assertNumberEquals(2, aggregate.getMean().getValue(), PRECISION_GOAL);
+    assertNumberEquals(3, aggregate.getMax().getValue(), PRECISION_GOAL);
+    assertEquals(Instant.ofEpochMilli(1), aggregate.getStart());
+    assertEquals(Instant.ofEpochMilli(3001), aggregate.getEnd());
+
+    window.advanceTo(10000L);
+    assertEquals(0, window.getCount());
+    assertThrows(NoSuchElementException.class, () -> window.getAggregate().getMean());
+    assertThrows(IllegalArgumentException.class, () -> window.accept(9999L, 1));
+  }
+
+  @Test
+  public void slidingMatchesRescanTest() {
+    final long length = 5000;
+    final QuantityWindow.Sliding<Length> window = QuantityWindow.sliding(Quantities.getQuantity(length, TimeQuantities.MILLISECOND), METRE);
+    final Random random = new Random(42);
+    final List<long[]> timestamps = new ArrayList<>();
+    final List<Double> values = new ArrayList<>();
+    long t = 0;
+    for (int i = 0; i < 2000; i++) {
+      t += random.nextInt(200);
+      final double value = random.nextGaussian();
+      timestamps.add(new long[] { t });
+      values.add(value);
+      window.accept(t, value);
+
+      double sum = 0;
+      double min = Double.POSITIVE_INFINITY;
+      double max = Double.NEGATIVE_INFINITY;
+      int count = 0;
+      for (int j = 0; j <= i; j++) {
+        if (timestamps.get(j)[0] > t - length) {
+          sum += values.get(j);
+          min = Math.min(min, values.get(j));
+          max = Math.max(max, values.get(j));
+          count++;
+        }
+      }
+      final WindowAggregate<Length> aggregate = window.getAggregate();
+      assertEquals(count, aggregate.getCount());
+      assertNumberEquals(sum, aggregate.getSum().getValue(), PRECISION_GOAL);
+      assertNumberEquals(min, aggregate.getMin().getValue(), PRECISION_GOAL);
+      assertNumberEquals(max, aggregate.getMax().getValue(), PRECISION_GOAL);
+    }
+  }
+
+  @Test
+  public void tumblingTest() {
+    final List<WindowAggregate<Length>> aggregates = new ArrayList<>();
+    final QuantityWindow.Tumbling<Length> window = QuantityWindow.tumbling(Quantities.getQuantity(1, MINUTE), METRE, aggregates::add);
+    window.accept(1000L, 1);
+    window.accept(59999L, 3);
+    window.accept(60000L, 10);
+    window.accept(180000L, 20); // skips the empty period at 120000
+    assertEquals(2, aggregates.size());
+    window.flush();
+    assertEquals(3, aggregates.size());
+
+    assertEquals(Instant.ofEpochMilli(0), aggregates.get(0).getStart());
+    assertEquals(Instant.ofEpochMilli(60000), aggregates.get(0).getEnd());
+    assertEquals(2, aggregates.get(0).getCount());
+    assertNumberEquals(2, aggregates.get(0).getMean().getValue(), PRECISION_GOAL);
+    assertNumberEquals(10, aggregates.get(1).getMax().getValue(), PRECISION_GOAL);
+    assertEquals(Instant.ofEpochMilli(180000), aggregates.get(2).getStart());
+    assertThrows(IllegalArgumentException.class, () -> window.accept(0L, 1));
+  }
+
+  @Test
+  public void sessionTest() {
+    final List<WindowAggregate<Length>> aggregates = new ArrayList<>();
+    final QuantityWindow.Session<Length> window = QuantityWindow.session(Quantities.getQuantity(10, SECOND), METRE, aggregates::add);
+    window.accept(0L, 1);
+    window.accept(5000L, 2);
+    window.accept(15000L, 3);
+    window.accept(30000L, 4);
+    window.flush();
+    window.flush();
+
+    assertEquals(2, aggregates.size());
+    assertEquals(3, aggregates.get(0).getCount());
+    assertEquals(Instant.ofEpochMilli(0), aggregates.get(0).getStart());
+    assertEquals(Instant.ofEpochMilli(15001), aggregates.get(0).getEnd());
+    assertNumberEquals(6, aggregates.get(0).getSum().getValue(), PRECISION_GOAL);
+    assertEquals(1, aggregates.get(1).getCount());
+  }
+
+  @Test
+  public void invalidLengthTest() {
+    assertThrows(IllegalArgumentException.class, () -> QuantityWindow.sliding(Quantities.getQuantity(0, SECOND), METRE));
+  }
+}
@@ -0,0 +1,171 @@
+/*
+ * Units of Measurement Reference Implementation
+ * Copyright (c) 2005-2022, Jean-Marie Dautelle, Werner Keil, Otavio Santana.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions
+ *    and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of JSR-385, Indriya nor the names of their contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package tech.units.indriya.quantity.time;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static tech.units.indriya.unit.Units.METRE;
+import static tech.units.indriya.unit.Units.MINUTE;
+import static tech.units.indriya.unit.Units.SECOND;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import javax.measure.Quantity.Scale;
+import javax.measure.Unit;
+import javax.measure.quantity.Length;
+
+import org.junit.jupiter.api.Test;
+
+import tech.units.indriya.quantity.Quantities;
+import tech.units.indriya.quantity.time.Resampler.Aggregation;
+
+/**
+ * Unit tests on the {@code Resampler} class.
+ */
+public class ResamplerTest {
+
+  private static final double PRECISION_GOAL = 1E-9;
+
+  private static final Unit<Length> CENTIMETRE = METRE.divide(100);
+
+  private static final Instant START = Instant.parse("2026-10-19T00:00:00Z");
+
+  // one sample per second for 20 minutes, value i centimetres
+  private static MeasurementSeries<Length> series() {
+    final MeasurementSeries.Builder<Length> builder = MeasurementSeries.builder(CENTIMETRE);
+    for (int i = 0; i < 1200; i++) {
+      builder.add(START.plusSeconds(i), i);
+    }
+    return builder.build();
+  }
+
+  private static Stream<TimedQuantityData<Length>> stream() {
+    return LongStream.range(0, 1200)
+        .mapToObj(i -> TimedQuantityData.of(Quantities.getQuantity(i, CENTIMETRE), START.plusSeconds(i).toEpochMilli()));
+  }
+
+  @Test
+  public void resampleSeriesTest() {
+    final Resampler<Length> resampler = Resampler.of(TimeQuantities.getQuantity(5L, TimeUnit.MINUTES), METRE, Aggregation.MEAN);
+    final MeasurementSeries<Length> resampled = resampler.resample(series());
+    assertEquals(4, resampled.size());
+    assertEquals(METRE, resampled.getUnit());
+    assertEquals(START.plusSeconds(300), resampled.getInstant(1));
+    assertArrayEquals(new double[] { 1.495, 4.495, 7.495, 10.495 }, resampled.getValues().toArray(), PRECISION_GOAL);
+  }
+
+  @Test
+  public void aggregationsTest() {
+    final MeasurementSeries<Length> series = series();
+    assertEquals(0, resample(series, Aggregation.MIN).getValue(0), PRECISION_GOAL);
+    assertEquals(299, resample(series, Aggregation.MAX).getValue(0), PRECISION_GOAL);
+    assertEquals(0, resample(series, Aggregation.FIRST).getValue(0), PRECISION_GOAL);
+    assertEquals(299, resample(series, Aggregation.LAST).getValue(0), PRECISION_GOAL);
+    assertEquals(299 * 300 / 2, resample(series, Aggregation.SUM).getValue(0), PRECISION_GOAL);
+  }
+
+  @Test
+  public void resampleRelativeSeriesTest() {
+    final MeasurementSeries<Length> series = MeasurementSeries.builder(METRE, Scale.RELATIVE)
+        .add(START, 1)
+        .add(START.plusSeconds(1), 3)
+        .build();
+    final MeasurementSeries<Length> resampled = Resampler.of(Quantities.getQuantity(1, MINUTE), METRE, Aggregation.SUM)
+        .resample(series);
+    assertEquals(Scale.RELATIVE, resampled.getScale());
+    assertEquals(4, resampled.getValue(0), PRECISION_GOAL);
+  }
+
+  private static MeasurementSeries<Length> resample(MeasurementSeries<Length> series, Aggregation aggregation) {
+    return Resampler.of(Quantities.getQuantity(300, SECOND), CENTIMETRE, aggregation).resample(series);
+  }
+
+  @Test
+  public void resampleStreamTest() {
+    final AtomicBoolean closed = new AtomicBoolean();
+    final Resampler<Length> resampler = Resampler.of(Quantities.getQuantity(5, MINUTE), METRE, Aggregation.LAST);
+    final List<TimedQuantityData<Length>> resampled;
+    try (Stream<TimedQuantityData<Length>> stream = resampler.resample(stream().onClose(() -> closed.set(true)))) {
+      resampled = stream.collect(Collectors.toList());
+    }
+    assertEquals(4, resampled.size());
+    assertEquals(START.plusSeconds(900).toEpochMilli(), resampled.get(3).getTimestamp());
+    assertEquals(Quantities.getQuantity(11.99, METRE), resampled.get(3).get());
+    assertEquals(true, closed.get());
+  }
+
+  @Test
+  public void resampleStreamIsLazyTest() {
+    final Resampler<Length> resampler = Resampler.of(Quantities.getQuantity(1, SECOND), METRE, Aggregation.MEAN);
+    final Stream<TimedQuantityData<Length>> infinite = LongStream.iterate(0, i -> i + 1)
+        .mapToObj(i -> TimedQuantityData.of(Quantities.getQuantity(i, METRE), i * 500));
+    assertEquals(3, resampler.resample(infinite).limit(3).count());
+  }
+
+  @Test
+  public void interpolateSeriesTest() {
+    final MeasurementSeries<Length> series = MeasurementSeries.builder(METRE)
+        .add(START.plusMillis(500), 1)
+        .add(START.plusMillis(2500), 5)
+        .add(START.plusMillis(3000), 0)
+        .build();
+    final MeasurementSeries<Length> grid = Resampler.interpolate(series, Quantities.getQuantity(1, SECOND));
+    assertEquals(3, grid.size());
+    assertEquals(START.plusSeconds(1), grid.getStart());
+    assertEquals(START.plusSeconds(3), grid.getEnd());
+    assertArrayEquals(new double[] { 2, 4, 0 }, grid.getValues().toArray(), PRECISION_GOAL);
+  }
+
+  @Test
+  public void interpolateStreamTest() {
+    final Stream<TimedQuantityData<Length>> data = Stream.of(
+        TimedQuantityData.of(Quantities.getQuantity(0, METRE), 0L),
+        TimedQuantityData.of(Quantities.getQuantity(1000, CENTIMETRE), 1000L));
+    final List<TimedQuantityData<Length>> grid = Resampler.interpolate(data, Quantities.getQuantity(250, TimeQuantities.MILLISECOND), METRE)
+        .collect(Collectors.toList());
+    assertEquals(5, grid.size());
+    assertEquals(750L, grid.get(3).getTimestamp());
+    assertEquals(Quantities.getQuantity(7.5, METRE), grid.get(3).get());
+  }
+
+  @Test
+  public void invalidTest() {
+    assertThrows(IllegalArgumentException.class, () -> Resampler.of(Quantities.getQuantity(0, SECOND), METRE, Aggregation.MEAN));
+    assertThrows(IllegalArgumentException.class,
+        () -> Resampler.interpolate(Stream.<TimedQuantityData<Length>> empty(), Quantities.getQuantity(1, TimeQuantities.NANOSECOND), METRE));
+  }
+}
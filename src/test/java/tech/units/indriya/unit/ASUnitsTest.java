@@ -37,6 +37,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import tech.units.indriya.AbstractSystemOfUnits;
+import tech.units.indriya.format.SimpleUnitFormat;
 import tech.units.indriya.unit.Units;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -154,4 +155,71 @@ public class ASUnitsTest {
         assertNotNull(u);
         assertEquals(KATAL, u);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testBySymbolExactCaseFirst() {
+        assertEquals(SECOND, sou.getUnit("s", SYMBOL, true));
+        assertEquals(SIEMENS, sou.getUnit("S", SYMBOL, true));
+    }
+
+    @Test
+    public void testByString() {
+        assertEquals(METRE_PER_SECOND, sou.getUnit(METRE_PER_SECOND.toString()));
+        assertNull(sou.getUnit("notAUnit"));
+        assertNull(sou.getUnit("notAUnit", NAME, true));
+    }
+
+    @Test
+    public void testByDimension() {
+        assertTrue(sou.getUnits(METRE.getDimension()).contains(METRE));
+        assertFalse(sou.getUnits(METRE.getDimension()).contains(SECOND));
+        assertTrue(sou.getUnits(CELSIUS.getDimension()).contains(KELVIN));
+        assertTrue(sou.getUnits(METRE.getDimension().pow(7)).isEmpty());
+    }
+
+    @Test
+    public void testByDimensionIsCopy() {
+        sou.getUnits(METRE.getDimension()).clear();
+        sou.getUnits(METRE.getDimension().pow(7)).clear();
+        assertTrue(sou.getUnits(METRE.getDimension()).contains(METRE));
+    }
+
+    @Test
+    public void testByNameAndSymbolAfterReplace() {
+        final TestSystem system = new TestSystem();
+        assertEquals(SECOND, system.getUnit("Second", NAME));
+        system.replace(SECOND, KILOGRAM);
+        assertEquals(KILOGRAM, system.getUnit("Kilogram", NAME));
+        assertEquals(KILOGRAM, system.getUnit("KG", SYMBOL, true));
+    }
+
+    @Test
+    public void testByStringAfterLabel() {
+        assertEquals(CANDELA, sou.getUnit("cd"));
+        SimpleUnitFormat.getInstance().label(CANDELA, "CD");
+        try {
+            assertEquals(CANDELA, sou.getUnit("CD"));
+        } finally {
+            SimpleUnitFormat.getInstance().label(CANDELA, "cd"); // cleanup
+        }
+        assertEquals(CANDELA, sou.getUnit("cd"));
+        assertNull(sou.getUnit("CD"));
+    }
+
+    private static final class TestSystem extends AbstractSystemOfUnits {
+        private TestSystem() {
+            units.add(METRE);
+            units.add(SECOND);
+        }
+
+        private void replace(Unit<?> unit, Unit<?> replacement) {
+            units.remove(unit);
+            units.add(replacement);
+        }
+
+        @Override
+        public String getName() {
+            return "Test";
+        }
+    }
+}
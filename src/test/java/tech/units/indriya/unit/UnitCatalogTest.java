@@ -0,0 +1,154 @@
+/*
+ * Units of Measurement Reference Implementation
+ * Copyright (c) 2005-2022, Jean-Marie Dautelle, Werner Keil, Otavio Santana.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice, this list of conditions
+ *    and the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of JSR-385, Indriya nor the names of their contributors may be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED
+ * AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package tech.units.indriya.unit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static tech.units.indriya.unit.Units.CELSIUS;
+import static tech.units.indriya.unit.Units.KELVIN;
+import static tech.units.indriya.unit.Units.KILOGRAM;
+import static tech.units.indriya.unit.Units.METRE;
+import static tech.units.indriya.unit.Units.SECOND;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.measure.UnconvertibleException;
+import javax.measure.Unit;
+import javax.measure.quantity.Length;
+
+import org.junit.jupiter.api.Test;
+
+import tech.units.indriya.AbstractUnit;
+import tech.units.indriya.function.LogConverter;
+
+/**
+ * Unit tests on the {@code UnitCatalog} class.
+ */
+public class UnitCatalogTest {
+
+  private static final Unit<Length> FOOT = METRE.multiply(0.3048);
+
+  @Test
+  public void systemOfUnitsTest() {
+    final UnitCatalog catalog = UnitCatalog.of(Units.getInstance(), FOOT);
+    assertEquals(Units.getInstance().getUnits().size() + 1, catalog.size());
+    for (int id = 0; id < catalog.size(); id++) {
+      assertEquals(id, catalog.getId(catalog.getUnit(id)));
+    }
+    assertEquals(catalog.size() - 1, catalog.getId(FOOT));
+    assertEquals(-1, catalog.getId(METRE.multiply(2)));
+    // ids are reproducible
+    final UnitCatalog other = UnitCatalog.of(Units.getInstance(), FOOT);
+    for (int id = 0; id < catalog.size(); id++) {
+      assertEquals(catalog.getUnit(id), other.getUnit(id));
+    }
+  }
+
+  @Test
+  public void convertTest() {
+    final UnitCatalog catalog = UnitCatalog.of(Units.getInstance(), FOOT);
+    final int metre = catalog.getId(METRE);
+    final int foot = catalog.getId(FOOT);
+    final int kelvin = catalog.getId(KELVIN);
+    final int celsius = catalog.getId(CELSIUS);
+    assertEquals(0.3048, catalog.convert(1, foot, metre), 1E-15);
+    assertEquals(10, catalog.convert(3.048, metre, foot), 1E-12);
+    assertEquals(2, catalog.convert(2, metre, metre));
+    assertEquals(-0d, catalog.convert(-0d, metre, metre));
+    assertEquals(-0d, catalog.convert(-0d, kelvin, kelvin));
+    assertEquals(273.15, catalog.convert(0, celsius, kelvin), 1E-12);
+    assertEquals(-273.15, catalog.convert(0, kelvin, celsius), 1E-12);
+    assertEquals(CELSIUS.getConverterTo(KELVIN), catalog.getConverter(celsius, kelvin));
+
+    final double[] values = { 0, 100 };
+    catalog.convert(values, celsius, kelvin);
+    assertArrayEquals(new double[] { 273.15, 373.15 }, values, 1E-12);
+
+    assertTrue(catalog.isConvertible(metre, foot));
+    assertFalse(catalog.isConvertible(metre, kelvin));
+    assertThrows(UnconvertibleException.class, () -> catalog.convert(1, metre, kelvin));
+    assertThrows(UnconvertibleException.class, () -> catalog.convert(values, kelvin, metre));
+    assertThrows(UnconvertibleException.class, () -> catalog.getConverter(metre, catalog.getId(SECOND)));
+    assertThrows(IndexOutOfBoundsException.class, () -> catalog.convert(1, metre, catalog.size()));
+  }
+
+  @Test
+  public void nonLinearConverterTest() throws Exception {
+    final Unit<?> neper = AbstractUnit.ONE.transform(new LogConverter(Math.E));
+    final UnitCatalog catalog = UnitCatalog.of(Arrays.asList(AbstractUnit.ONE, neper));
+    assertEquals(AbstractUnit.ONE.getConverterToAny(neper).convert(2.0), catalog.convert(2, 0, 1), 1E-12);
+    assertEquals(neper.getConverterToAny(AbstractUnit.ONE).convert(2.0), catalog.convert(2, 1, 0), 1E-12);
+    assertEquals(1, catalog.convert(Math.E, 1, 0), 1E-12);
+  }
+
+  @Test
+  public void registerTest() {
+    final UnitCatalog catalog = UnitCatalog.of(Arrays.asList(METRE, SECOND));
+    assertEquals(0, catalog.register(METRE));
+    assertEquals(2, catalog.register(FOOT));
+    assertArrayEquals(new int[] { 3, 1, 3 }, catalog.registerAll(Arrays.asList(KILOGRAM, SECOND, KILOGRAM)));
+    assertEquals(4, catalog.size());
+    assertSame(KILOGRAM, catalog.getUnit(3));
+    assertEquals(0.3048, catalog.convert(1, 2, 0), 1E-15);
+  }
+
+  @Test
+  public void concurrentRegisterTest() throws Exception {
+    final UnitCatalog catalog = UnitCatalog.of(Arrays.asList(METRE));
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      final Future<?> writer = executor.submit(() -> {
+        for (int i = 2; i <= 200; i++) {
+          catalog.register(METRE.multiply(i));
+        }
+      });
+      final Future<?> reader = executor.submit(() -> {
+        while (!writer.isDone()) {
+          final int size = catalog.size();
+          for (int id = 1; id < size; id++) {
+            assertEquals(id + 1, catalog.convert(1, id, 0), 1E-12);
+          }
+        }
+      });
+      writer.get();
+      reader.get();
+    } finally {
+      executor.shutdown();
+    }
+    assertEquals(200, catalog.size());
+  }
+}